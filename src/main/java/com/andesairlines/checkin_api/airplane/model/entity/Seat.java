@@ -9,7 +9,10 @@ import lombok.NoArgsConstructor;
 import java.util.List;
 
 @Entity
-@Table(name = "seat")
+@Table(name = "seat", indexes = {
+        @Index(name = "idx_seat_airplane_type", columnList = "airplane_id, seat_type_id"),
+        @Index(name = "idx_seat_airplane_row_column", columnList = "airplane_id, seat_row, seat_column")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,147 @@
+package com.andesairlines.checkin_api.airplane.model.layout;
+
+import com.andesairlines.checkin_api.airplane.model.entity.Seat;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Distribución de asientos de un avión compilada a arreglos primitivos.
+ * <p>
+ * Cada asiento ocupa una posición fija de la grilla
+ * {@code (fila - primeraFila) * columnas + (columna - 'A')}; dos posiciones
+ * consecutivas de la misma fila son asientos adyacentes. Es inmutable, se compila
+ * una vez por avión y la comparten todos los vuelos que lo usan.
+ */
+public final class AirplaneLayout {
+
+    private static final int NO_SEAT = 0;
+
+    private final int airplaneId;
+    private final int firstRow;
+    private final int rowCount;
+    private final int columnCount;
+    private final int seatCount;
+    private final int[] seatIds;
+    private final int[] seatTypeIds;
+    private final int[] sortedSeatIds;
+    private final int[] positionsBySortedSeatId;
+
+    private AirplaneLayout(int airplaneId, int firstRow, int rowCount, int columnCount, int seatCount) {
+        this.airplaneId = airplaneId;
+        this.firstRow = firstRow;
+        this.rowCount = rowCount;
+        this.columnCount = columnCount;
+        this.seatCount = seatCount;
+        this.seatIds = new int[rowCount * columnCount];
+        this.seatTypeIds = new int[rowCount * columnCount];
+        this.sortedSeatIds = new int[seatCount];
+        this.positionsBySortedSeatId = new int[seatCount];
+    }
+
+    public static AirplaneLayout compile(Integer airplaneId, List<Seat> seats) {
+        if (seats.isEmpty()) {
+            return new AirplaneLayout(airplaneId, 0, 0, 0, 0);
+        }
+
+        int minRow = Integer.MAX_VALUE;
+        int maxRow = Integer.MIN_VALUE;
+        int maxColumn = 0;
+        for (Seat seat : seats) {
+            minRow = Math.min(minRow, seat.getSeatRow());
+            maxRow = Math.max(maxRow, seat.getSeatRow());
+            maxColumn = Math.max(maxColumn, columnIndex(seat.getSeatColumn()));
+        }
+
+        AirplaneLayout layout = new AirplaneLayout(airplaneId, minRow, maxRow - minRow + 1, maxColumn + 1, seats.size());
+
+        long[] idAndPosition = new long[seats.size()];
+        for (int i = 0; i < seats.size(); i++) {
+            Seat seat = seats.get(i);
+            int position = (seat.getSeatRow() - minRow) * layout.columnCount + columnIndex(seat.getSeatColumn());
+            layout.seatIds[position] = seat.getSeatId();
+            layout.seatTypeIds[position] = seat.getSeatTypeId();
+            idAndPosition[i] = ((long) seat.getSeatId() << 32) | position;
+        }
+
+        // Índice seatId -> posición por búsqueda binaria
+        Arrays.sort(idAndPosition);
+        for (int i = 0; i < idAndPosition.length; i++) {
+            layout.sortedSeatIds[i] = (int) (idAndPosition[i] >>> 32);
+            layout.positionsBySortedSeatId[i] = (int) idAndPosition[i];
+        }
+        return layout;
+    }
+
+    public int getAirplaneId() {
+        return airplaneId;
+    }
+
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    public int getPositionCount() {
+        return seatIds.length;
+    }
+
+    public int getSeatCount() {
+        return seatCount;
+    }
+
+    public boolean hasSeat(int position) {
+        return seatIds[position] != NO_SEAT;
+    }
+
+    public int seatId(int position) {
+        return seatIds[position];
+    }
+
+    public int seatTypeId(int position) {
+        return seatTypeIds[position];
+    }
+
+    public int seatRow(int position) {
+        return firstRow + position / columnCount;
+    }
+
+    public String seatColumn(int position) {
+        return String.valueOf((char) ('A' + position % columnCount));
+    }
+
+    public int rowOf(int position) {
+        return position / columnCount;
+    }
+
+    /**
+     * Posición del asiento en la grilla, o {@code -1} si el asiento no pertenece al avión.
+     */
+    public int positionOf(int seatId) {
+        int index = Arrays.binarySearch(sortedSeatIds, seatId);
+        return index < 0 ? -1 : positionsBySortedSeatId[index];
+    }
+
+    /**
+     * Posición del asiento fila/columna, o {@code -1} si no existe en el avión.
+     */
+    public int positionOf(int seatRow, String seatColumn) {
+        if (seatColumn == null || seatColumn.isEmpty()) {
+            return -1;
+        }
+        int row = seatRow - firstRow;
+        int column = columnIndex(seatColumn);
+        if (row < 0 || row >= rowCount || column < 0 || column >= columnCount) {
+            return -1;
+        }
+        int position = row * columnCount + column;
+        return hasSeat(position) ? position : -1;
+    }
+
+    private static int columnIndex(String seatColumn) {
+        return Character.toUpperCase(seatColumn.charAt(0)) - 'A';
+    }
+}
@@ -0,0 +1,24 @@
+package com.andesairlines.checkin_api.airplane.service;
+
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+import com.andesairlines.checkin_api.airplane.repository.SeatRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class AirplaneLayoutService {
+
+    private final SeatRepository seatRepository;
+
+    @Cacheable(value = "airplanes", key = "#airplaneId")
+    public AirplaneLayout getLayout(Integer airplaneId) {
+        log.info("Compiling seat layout for airplane: {}", airplaneId);
+        return AirplaneLayout.compile(airplaneId, seatRepository.findByAirplaneId(airplaneId));
+    }
+}
@@ -0,0 +1,158 @@
+package com.andesairlines.checkin_api.common.concurrent;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Límite de concurrencia que se ajusta solo según la latencia observada (estilo gradiente).
+ * <p>
+ * Compara la latencia reciente ({@code shortRtt}) con la de largo plazo ({@code longRtt}):
+ * si las requests empiezan a tardar más, el gradiente baja de 1 y el límite se reduce; si
+ * la latencia se mantiene, el límite crece de a {@code sqrt(limit)}. Solo crece mientras el
+ * tráfico realmente lo usa (al menos la mitad en vuelo). Una request fallida por el servidor
+ * lo recorta en un 10%.
+ * <p>
+ * Las muestras se descartan si otro hilo está actualizando el límite: no se bloquea por ellas.
+ */
+public final class AdaptiveConcurrencyLimit {
+
+    private static final double SHORT_WINDOW = 10;
+    private static final double LONG_WINDOW = 600;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double DROP_RATIO = 0.9;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final LongSupplier nanoClock;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+
+    private volatile double limit;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this(initialLimit, minLimit, maxLimit, System::nanoTime);
+    }
+
+    AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit, LongSupplier nanoClock) {
+        if (minLimit <= 0 || minLimit > initialLimit || initialLimit > maxLimit) {
+            throw new IllegalArgumentException("Limits must satisfy 0 < min <= initial <= max");
+        }
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Reserva un lugar, o {@code null} si el límite está completo.
+     */
+    public Permit tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= getLimit()) {
+                return null;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return new Permit(nanoClock.getAsLong());
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart) {
+        if (!updateLock.tryLock()) {
+            return;
+        }
+        try {
+            if (longRttNanos == 0) {
+                shortRttNanos = rttNanos;
+                longRttNanos = rttNanos;
+                return;
+            }
+            shortRttNanos += (rttNanos - shortRttNanos) * (2 / (SHORT_WINDOW + 1));
+            longRttNanos += (rttNanos - longRttNanos) * (2 / (LONG_WINDOW + 1));
+
+            // Si la latencia de largo plazo quedó muy por encima (tras una sobrecarga), se deja bajar rápido
+            if (longRttNanos / shortRttNanos > 2) {
+                longRttNanos *= 0.95;
+            }
+
+            // Con poco tráfico la latencia no dice nada sobre el límite
+            if (inFlightAtStart < limit / 2) {
+                return;
+            }
+
+            double gradient = Math.max(0.5, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+            double newLimit = limit * gradient + Math.sqrt(limit);
+            limit = clamp(limit * (1 - SMOOTHING) + newLimit * SMOOTHING);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private void onDropped() {
+        updateLock.lock();
+        try {
+            limit = clamp(limit * DROP_RATIO);
+        } finally {
+            updateLock.unlock();
+        }
+    }
+
+    private double clamp(double value) {
+        return Math.max(minLimit, Math.min(maxLimit, value));
+    }
+
+    /**
+     * Lugar reservado: se cierra una sola vez con {@link #success()}, {@link #dropped()} o {@link #ignore()}.
+     */
+    public final class Permit {
+
+        private final long startNanos;
+        private final int inFlightAtStart;
+        private boolean released;
+
+        private Permit(long startNanos) {
+            this.startNanos = startNanos;
+            this.inFlightAtStart = inFlight.get();
+        }
+
+        /** La request terminó bien: su latencia ajusta el límite. */
+        public void success() {
+            if (release()) {
+                onSample(nanoClock.getAsLong() - startNanos, inFlightAtStart);
+            }
+        }
+
+        /** El servidor falló o dio timeout: reduce el límite. */
+        public void dropped() {
+            if (release()) {
+                AdaptiveConcurrencyLimit.this.onDropped();
+            }
+        }
+
+        /** Libera el lugar sin usar la muestra (p. ej. error del cliente). */
+        public void ignore() {
+            release();
+        }
+
+        private boolean release() {
+            if (released) {
+                return false;
+            }
+            released = true;
+            inFlight.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.andesairlines.checkin_api.common.concurrent;
+
+import com.andesairlines.checkin_api.common.exception.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * Ejecutor particionado: cada clave se asigna siempre al mismo carril, y cada carril es un
+ * único hilo con su propia cola. Las tareas de una misma clave se ejecutan en orden y nunca
+ * en paralelo, sin locks; claves de carriles distintos avanzan en paralelo.
+ * <p>
+ * Cada carril tiene una cola acotada: llena, la tarea se rechaza de inmediato con
+ * {@link OverloadedException}. Quien llama espera que la tarea empiece a lo sumo {@code timeout};
+ * si vence con la tarea todavía en cola, se descarta y se responde con la misma excepción. Una
+ * tarea que ya empezó se espera hasta el final: su commit es la respuesta, no un 503. Un
+ * vuelo lento no deja colgados a los demás vuelos de su carril. Los reintentos (y sus esperas)
+ * van afuera del carril, nunca dentro de la tarea.
+ * <p>
+ * Métricas por carril: {@code <name>.queue.depth}, {@code <name>.wait} (tiempo en cola),
+ * {@code <name>.execution} y {@code <name>.rejected} (cola llena o timeout).
+ */
+public final class LaneExecutor {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 100;
+    private static final Duration DEFAULT_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String name;
+    private final ThreadPoolExecutor[] lanes;
+    private final Timer[] waitTimers;
+    private final Timer[] executionTimers;
+    private final Counter[] rejectedCounters;
+    private final long timeoutNanos;
+    private final HttpStatus rejectedStatus;
+    private final Duration retryAfter;
+
+    public LaneExecutor(String name, int laneCount, MeterRegistry meterRegistry) {
+        this(name, laneCount, DEFAULT_QUEUE_CAPACITY, DEFAULT_TIMEOUT, HttpStatus.SERVICE_UNAVAILABLE,
+                Duration.ofSeconds(1), meterRegistry);
+    }
+
+    public LaneExecutor(String name, int laneCount, int queueCapacity, Duration timeout, HttpStatus rejectedStatus,
+                        Duration retryAfter, MeterRegistry meterRegistry) {
+        if (laneCount <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("laneCount and queueCapacity must be positive");
+        }
+        this.name = name;
+        this.lanes = new ThreadPoolExecutor[laneCount];
+        this.waitTimers = new Timer[laneCount];
+        this.executionTimers = new Timer[laneCount];
+        this.rejectedCounters = new Counter[laneCount];
+        this.timeoutNanos = timeout.toNanos();
+        this.rejectedStatus = rejectedStatus;
+        this.retryAfter = retryAfter;
+
+        for (int lane = 0; lane < laneCount; lane++) {
+            String threadName = name + "-" + lane;
+            lanes[lane] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(queueCapacity),
+                    runnable -> {
+                        Thread thread = new Thread(runnable, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+
+            String laneTag = String.valueOf(lane);
+            Gauge.builder(name + ".queue.depth", lanes[lane], executor -> executor.getQueue().size())
+                    .description("Tasks waiting in the lane")
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+            waitTimers[lane] = Timer.builder(name + ".wait")
+                    .description("Time a task waited in the lane queue")
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+            executionTimers[lane] = Timer.builder(name + ".execution")
+                    .description("Time a task ran on the lane thread")
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+            rejectedCounters[lane] = Counter.builder(name + ".rejected")
+                    .description("Tasks rejected because the lane queue was full or the caller timed out")
+                    .tag("lane", laneTag)
+                    .register(meterRegistry);
+        }
+    }
+
+    public int laneCount() {
+        return lanes.length;
+    }
+
+    public int laneOf(Object key) {
+        int hash = key.hashCode();
+        // Mezcla los bits altos: ids consecutivos no deben concentrarse por patrones del módulo
+        return Math.floorMod(hash ^ (hash >>> 16), lanes.length);
+    }
+
+    /**
+     * Ejecuta la tarea en el carril de la clave y espera su resultado. Las excepciones de la
+     * tarea se relanzan tal cual en el hilo que llama.
+     */
+    public <T> T execute(Object key, Supplier<T> task) {
+        int lane = laneOf(key);
+        long submittedAt = System.nanoTime();
+        // Lo toma primero la tarea al empezar o quien llama al vencer la espera, nunca los dos.
+        // No alcanza con Future.cancel: devuelve true también con la tarea corriendo
+        AtomicBoolean claimed = new AtomicBoolean();
+        Future<T> future;
+        try {
+            future = lanes[lane].submit(() -> {
+                if (!claimed.compareAndSet(false, true)) {
+                    return null;
+                }
+                long startedAt = System.nanoTime();
+                waitTimers[lane].record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return task.get();
+                } finally {
+                    executionTimers[lane].record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounters[lane].increment();
+            throw new OverloadedException("Too many pending " + name + " tasks on lane " + lane + ", retry later",
+                    rejectedStatus, retryAfter);
+        }
+
+        try {
+            try {
+                return future.get(timeoutNanos, TimeUnit.NANOSECONDS);
+            } catch (TimeoutException e) {
+                if (claimed.compareAndSet(false, true)) {
+                    future.cancel(false);
+                    rejectedCounters[lane].increment();
+                    throw new OverloadedException("Timed out waiting for " + name + " lane " + lane + ", retry later",
+                            rejectedStatus, retryAfter);
+                }
+                // Ya empezó y puede confirmar su transacción: responder 503 haría reintentar algo ya hecho
+                return future.get();
+            }
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new IllegalStateException("Interrupted while waiting for " + name + " lane " + lane, e);
+        }
+    }
+
+    /**
+     * Como {@link #execute(Object, Supplier)}, con la tarea marcada con su clase de carga.
+     */
+    public <T> T execute(Object key, WorkloadClass workload, Supplier<T> task) {
+        return execute(key, () -> WorkloadContext.supply(workload, task));
+    }
+
+    public void shutdown() {
+        for (ThreadPoolExecutor lane : lanes) {
+            lane.shutdown();
+        }
+    }
+}
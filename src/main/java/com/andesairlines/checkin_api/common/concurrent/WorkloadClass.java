@@ -0,0 +1,13 @@
+package com.andesairlines.checkin_api.common.concurrent;
+
+/**
+ * Clases de carga aisladas entre sí: cada una tiene su propio ejecutor y su propio pool de conexiones.
+ */
+public enum WorkloadClass {
+    /** Lectura del manifiesto. */
+    READ,
+    /** Escrituras cortas iniciadas por un pasajero (selección manual de asiento). */
+    INTERACTIVE_WRITE,
+    /** Check-in masivo de un vuelo. */
+    BATCH
+}
@@ -0,0 +1,35 @@
+package com.andesairlines.checkin_api.common.concurrent;
+
+import java.util.function.Supplier;
+
+/**
+ * Clase de carga del hilo actual. La consulta el ruteo de conexiones para elegir el pool.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadClass> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    /**
+     * Clase de carga del hilo, o {@code null} si el trabajo no pasó por un ejecutor de cargas.
+     */
+    public static WorkloadClass current() {
+        return CURRENT.get();
+    }
+
+    public static <T> T supply(WorkloadClass workload, Supplier<T> task) {
+        WorkloadClass previous = CURRENT.get();
+        CURRENT.set(workload);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT.remove();
+            } else {
+                CURRENT.set(previous);
+            }
+        }
+    }
+}
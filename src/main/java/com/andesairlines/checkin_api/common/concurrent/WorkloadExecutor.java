@@ -0,0 +1,128 @@
+package com.andesairlines.checkin_api.common.concurrent;
+
+import com.andesairlines.checkin_api.common.exception.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+/**
+ * Pool de hilos fijo y cola acotada dedicado a una {@link WorkloadClass}.
+ * <p>
+ * Las tareas corren con la clase de carga en {@link WorkloadContext}. Con la cola llena la
+ * tarea se rechaza de inmediato con {@link OverloadedException}: una clase saturada no
+ * consume hilos ni conexiones de las demás.
+ * <p>
+ * Métricas con tag {@code workload}: {@code workload.active}, {@code workload.queue.depth},
+ * {@code workload.wait}, {@code workload.execution} y {@code workload.rejected}.
+ */
+public final class WorkloadExecutor {
+
+    private final WorkloadClass workload;
+    private final ThreadPoolExecutor executor;
+    private final HttpStatus rejectedStatus;
+    private final Duration retryAfter;
+    private final Timer waitTimer;
+    private final Timer executionTimer;
+    private final Counter rejectedCounter;
+
+    public WorkloadExecutor(WorkloadClass workload, int threads, int queueCapacity, HttpStatus rejectedStatus,
+                            Duration retryAfter, MeterRegistry meterRegistry) {
+        if (threads <= 0 || queueCapacity <= 0) {
+            throw new IllegalArgumentException("threads and queueCapacity must be positive");
+        }
+        this.workload = workload;
+        this.rejectedStatus = rejectedStatus;
+        this.retryAfter = retryAfter;
+
+        String threadPrefix = "workload-" + workload.name().toLowerCase().replace('_', '-') + "-";
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadPrefix + threadCount.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+
+        String tag = workload.name();
+        Gauge.builder("workload.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Threads of the workload class running a task")
+                .tag("workload", tag)
+                .register(meterRegistry);
+        Gauge.builder("workload.queue.depth", executor, pool -> pool.getQueue().size())
+                .description("Tasks of the workload class waiting for a thread")
+                .tag("workload", tag)
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("workload.wait")
+                .description("Time a task waited for a thread of its workload class")
+                .tag("workload", tag)
+                .register(meterRegistry);
+        this.executionTimer = Timer.builder("workload.execution")
+                .description("Time a task ran on its workload class")
+                .tag("workload", tag)
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("workload.rejected")
+                .description("Tasks rejected because the workload class was saturated")
+                .tag("workload", tag)
+                .register(meterRegistry);
+    }
+
+    public WorkloadClass workload() {
+        return workload;
+    }
+
+    /**
+     * Ejecuta la tarea en el pool de la clase y espera su resultado. Las excepciones de la
+     * tarea se relanzan tal cual en el hilo que llama.
+     */
+    public <T> T execute(Supplier<T> task) {
+        long submittedAt = System.nanoTime();
+        Future<T> future;
+        try {
+            future = executor.submit(() -> {
+                long startedAt = System.nanoTime();
+                waitTimer.record(startedAt - submittedAt, TimeUnit.NANOSECONDS);
+                try {
+                    return WorkloadContext.supply(workload, task);
+                } finally {
+                    executionTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new OverloadedException("Too many pending " + workload + " requests, retry later", rejectedStatus, retryAfter);
+        }
+
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (e.getCause() instanceof Error error) {
+                throw error;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            future.cancel(false);
+            throw new IllegalStateException("Interrupted while waiting for " + workload + " workload", e);
+        }
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+    }
+}
@@ -0,0 +1,13 @@
+package com.andesairlines.checkin_api.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+public class ConflictException extends ApiException {
+    public ConflictException(String message) {
+        super(message, HttpStatus.CONFLICT, "CONFLICT");
+    }
+
+    public ConflictException(String message, String errorCode) {
+        super(message, HttpStatus.CONFLICT, errorCode);
+    }
+}
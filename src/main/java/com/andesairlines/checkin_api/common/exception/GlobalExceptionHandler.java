@@ -1,44 +1,70 @@
 package com.andesairlines.checkin_api.common.exception;
 
 import com.andesairlines.checkin_api.common.response.ErrorResponse;
+import com.andesairlines.checkin_api.common.response.ResponseFormat;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.server.ResponseStatusException;
 import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Errores de la API como {@link ErrorResponse}, en JSON, CBOR o Smile según el {@code Accept}.
+ * Si el cliente no acepta ninguno de esos (p. ej. solo Avro), se responde solo con el estado y
+ * los headers: serializar el error en un formato que no lo admite terminaría en 500.
+ */
 @RestControllerAdvice
 @Slf4j
 public class GlobalExceptionHandler {
 
+    private static final ResponseFormat[] ERROR_FORMATS = {ResponseFormat.JSON, ResponseFormat.CBOR, ResponseFormat.SMILE};
+
     @ExceptionHandler(ApiException.class)
-    public ResponseEntity<ErrorResponse> handleApiException(ApiException ex) {
+    public ResponseEntity<ErrorResponse> handleApiException(ApiException ex, HttpServletRequest request) {
         log.error("API Exception: {}", ex.getMessage(), ex);
         ErrorResponse error = new ErrorResponse(ex.getErrorCode(), ex.getMessage());
-        return ResponseEntity.status(ex.getStatus()).body(error);
+        return respond(ResponseEntity.status(ex.getStatus()), error, request);
     }
 
     @ExceptionHandler(NotFoundException.class)
-    public ResponseEntity<ErrorResponse> handleNotFoundException(NotFoundException ex) {
+    public ResponseEntity<ErrorResponse> handleNotFoundException(NotFoundException ex, HttpServletRequest request) {
         log.warn("Not Found Exception: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse(ex.getErrorCode(), ex.getMessage());
-        return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
+        return respond(ResponseEntity.status(HttpStatus.NOT_FOUND), error, request);
     }
 
     @ExceptionHandler(BadRequestException.class)
-    public ResponseEntity<ErrorResponse> handleBadRequestException(BadRequestException ex) {
+    public ResponseEntity<ErrorResponse> handleBadRequestException(BadRequestException ex, HttpServletRequest request) {
         log.warn("Bad Request Exception: {}", ex.getMessage());
         ErrorResponse error = new ErrorResponse(ex.getErrorCode(), ex.getMessage());
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        return respond(ResponseEntity.status(HttpStatus.BAD_REQUEST), error, request);
+    }
+
+    @ExceptionHandler(ConflictException.class)
+    public ResponseEntity<ErrorResponse> handleConflictException(ConflictException ex, HttpServletRequest request) {
+        log.warn("Conflict Exception: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(ex.getErrorCode(), ex.getMessage());
+        return respond(ResponseEntity.status(HttpStatus.CONFLICT), error, request);
+    }
+
+    @ExceptionHandler(OverloadedException.class)
+    public ResponseEntity<ErrorResponse> handleOverloadedException(OverloadedException ex, HttpServletRequest request) {
+        log.debug("Request shed: {}", ex.getMessage());
+        ErrorResponse error = new ErrorResponse(ex.getErrorCode(), ex.getMessage());
+        return respond(ResponseEntity.status(ex.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, ex.getRetryAfter().toSeconds()))), error, request);
     }
 
     @ExceptionHandler(ConstraintViolationException.class)
-    public ResponseEntity<ErrorResponse> handleValidationException(ConstraintViolationException ex) {
+    public ResponseEntity<ErrorResponse> handleValidationException(ConstraintViolationException ex, HttpServletRequest request) {
         log.warn("Validation Exception: {}", ex.getMessage());
         List<String> details = ex.getConstraintViolations()
                 .stream()
@@ -46,11 +72,11 @@ public class GlobalExceptionHandler {
                 .collect(Collectors.toList());
 
         ErrorResponse error = new ErrorResponse("VALIDATION_ERROR", "Invalid input parameters", details);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        return respond(ResponseEntity.status(HttpStatus.BAD_REQUEST), error, request);
     }
 
     @ExceptionHandler(MethodArgumentNotValidException.class)
-    public ResponseEntity<ErrorResponse> handleMethodArgumentNotValid(MethodArgumentNotValidException ex) {
+    public ResponseEntity<ErrorResponse> handleMethodArgumentNotValid(MethodArgumentNotValidException ex, HttpServletRequest request) {
         log.warn("Method Argument Not Valid: {}", ex.getMessage());
         List<String> details = ex.getBindingResult()
                 .getFieldErrors()
@@ -59,13 +85,37 @@ public class GlobalExceptionHandler {
                 .collect(Collectors.toList());
 
         ErrorResponse error = new ErrorResponse("VALIDATION_ERROR", "Invalid request body", details);
-        return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        return respond(ResponseEntity.status(HttpStatus.BAD_REQUEST), error, request);
+    }
+
+    // Negociación de formato fallida (406) o Accept inválido (400): el cliente suele no aceptar ningún
+    // formato del error, así que normalmente sale solo con el estado
+    @ExceptionHandler(ResponseStatusException.class)
+    public ResponseEntity<ErrorResponse> handleResponseStatusException(ResponseStatusException ex, HttpServletRequest request) {
+        log.warn("Response Status Exception: {}", ex.getReason());
+        HttpStatus status = HttpStatus.valueOf(ex.getStatusCode().value());
+        ErrorResponse error = new ErrorResponse(status.name(), ex.getReason());
+        return respond(ResponseEntity.status(status), error, request);
     }
 
     @ExceptionHandler(Exception.class)
-    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex) {
+    public ResponseEntity<ErrorResponse> handleGenericException(Exception ex, HttpServletRequest request) {
         log.error("Unexpected error: {}", ex.getMessage(), ex);
         ErrorResponse error = new ErrorResponse("INTERNAL_ERROR", "An unexpected error occurred");
-        return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        return respond(ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR), error, request);
+    }
+
+    private static ResponseEntity<ErrorResponse> respond(ResponseEntity.BodyBuilder response, ErrorResponse error,
+                                                         HttpServletRequest request) {
+        return acceptsErrorBody(request) ? response.body(error) : response.build();
+    }
+
+    private static boolean acceptsErrorBody(HttpServletRequest request) {
+        try {
+            ResponseFormat.negotiate(request.getHeader(HttpHeaders.ACCEPT), ERROR_FORMATS);
+            return true;
+        } catch (ResponseStatusException e) {
+            return false;
+        }
     }
 }
\ No newline at end of file
@@ -0,0 +1,18 @@
+package com.andesairlines.checkin_api.common.exception;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+public class OverloadedException extends ApiException {
+    private final Duration retryAfter;
+
+    public OverloadedException(String message, HttpStatus status, Duration retryAfter) {
+        super(message, status, "OVERLOADED");
+        this.retryAfter = retryAfter;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
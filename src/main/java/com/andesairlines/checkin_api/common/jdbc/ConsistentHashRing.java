@@ -0,0 +1,69 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Anillo de hashing consistente con nodos virtuales.
+ * <p>
+ * Cada nodo ocupa {@code virtualNodes} puntos del anillo derivados de su nombre, y una clave
+ * pertenece al primer punto a partir de su hash. Agregar un nodo solo mueve las claves que
+ * caen en sus puntos (~1/N del total); el resto sigue en el mismo nodo. Es inmutable.
+ */
+public final class ConsistentHashRing<N> {
+
+    private final TreeMap<Long, N> ring = new TreeMap<>();
+    private final List<N> nodes;
+
+    public ConsistentHashRing(Collection<N> nodes, int virtualNodes) {
+        if (nodes.isEmpty()) {
+            throw new IllegalArgumentException("A hash ring needs at least one node");
+        }
+        if (virtualNodes <= 0) {
+            throw new IllegalArgumentException("virtualNodes must be positive");
+        }
+        this.nodes = List.copyOf(nodes);
+        for (N node : this.nodes) {
+            for (int i = 0; i < virtualNodes; i++) {
+                ring.put(pointOf(node + "#" + i), node);
+            }
+        }
+    }
+
+    public List<N> nodes() {
+        return nodes;
+    }
+
+    public N nodeFor(long key) {
+        Map.Entry<Long, N> owner = ring.ceilingEntry(mix(key));
+        return owner != null ? owner.getValue() : ring.firstEntry().getValue();
+    }
+
+    // Finalizador de MurmurHash3: claves consecutivas (ids de vuelo) quedan repartidas en el anillo
+    private static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+
+    private static long pointOf(String label) {
+        try {
+            byte[] digest = MessageDigest.getInstance("MD5").digest(label.getBytes(StandardCharsets.UTF_8));
+            long point = 0;
+            for (int i = 0; i < Long.BYTES; i++) {
+                point = (point << 8) | (digest[i] & 0xff);
+            }
+            return point;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
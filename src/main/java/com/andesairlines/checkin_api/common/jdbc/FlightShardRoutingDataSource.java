@@ -0,0 +1,84 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entrega la conexión del shard dueño del vuelo del hilo ({@link ShardContext}), según un
+ * {@link ConsistentHashRing} sobre los nombres de los shards.
+ * <p>
+ * Las tablas de referencia ({@code seat}, {@code seat_type}, {@code airplane}) están replicadas en
+ * todos los shards, así que el trabajo sin vuelo usa el shard por defecto.
+ * <p>
+ * Un vuelo fijado con {@link #pin} se rutea a ese shard aunque el anillo diga otro: el
+ * rebalanceo lo usa para que el vuelo se siga atendiendo donde están sus datos hasta moverlo.
+ */
+public class FlightShardRoutingDataSource extends AbstractRoutingDataSource implements AutoCloseable {
+
+    private final ConsistentHashRing<String> ring;
+    private final Map<String, DataSource> shards;
+    private final String defaultShard;
+    private final Map<Integer, String> pinned = new ConcurrentHashMap<>();
+
+    public FlightShardRoutingDataSource(Map<String, DataSource> shards, int virtualNodes) {
+        this.shards = new LinkedHashMap<>(shards);
+        this.ring = new ConsistentHashRing<>(this.shards.keySet(), virtualNodes);
+        this.defaultShard = ring.nodes().get(0);
+        setTargetDataSources(new LinkedHashMap<>(this.shards));
+        setDefaultTargetDataSource(this.shards.get(defaultShard));
+        // Un vuelo de un shard inexistente es un error de configuración, no se manda al shard por defecto
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    public String shardFor(Integer flightId) {
+        String shard = pinned.get(flightId);
+        return shard != null ? shard : ring.nodeFor(flightId);
+    }
+
+    public void pin(Integer flightId, String shard) {
+        if (!shards.containsKey(shard)) {
+            throw new IllegalArgumentException("Unknown shard: " + shard);
+        }
+        pinned.put(flightId, shard);
+    }
+
+    public void unpin(Integer flightId) {
+        pinned.remove(flightId);
+    }
+
+    public Map<Integer, String> getPinnedFlights() {
+        return Map.copyOf(pinned);
+    }
+
+    public ConsistentHashRing<String> getRing() {
+        return ring;
+    }
+
+    public Map<String, DataSource> getShards() {
+        return shards;
+    }
+
+    public String getDefaultShard() {
+        return defaultShard;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        Integer flightId = ShardContext.currentFlight();
+        return flightId == null ? null : shardFor(flightId);
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (DataSource shard : shards.values()) {
+            if (shard instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
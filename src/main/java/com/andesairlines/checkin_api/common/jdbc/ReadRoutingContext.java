@@ -0,0 +1,37 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import java.util.function.Supplier;
+
+/**
+ * Permite forzar que las lecturas del hilo actual vayan al primario aunque la transacción sea
+ * de solo lectura, p. ej. para leer lo recién escrito antes de que llegue a las réplicas.
+ */
+public final class ReadRoutingContext {
+
+    private static final ThreadLocal<Boolean> PRIMARY_REQUIRED = new ThreadLocal<>();
+
+    private ReadRoutingContext() {
+    }
+
+    public static boolean isPrimaryRequired() {
+        return Boolean.TRUE.equals(PRIMARY_REQUIRED.get());
+    }
+
+    /**
+     * Ejecuta la tarea con las lecturas dirigidas al primario. La conexión debe pedirse dentro
+     * de la tarea: con {@link ReadWriteRoutingDataSource} eso ocurre en la primera sentencia.
+     */
+    public static <T> T onPrimary(Supplier<T> task) {
+        Boolean previous = PRIMARY_REQUIRED.get();
+        PRIMARY_REQUIRED.set(Boolean.TRUE);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                PRIMARY_REQUIRED.remove();
+            } else {
+                PRIMARY_REQUIRED.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+
+/**
+ * Manda las transacciones de solo lectura a las réplicas y todo lo demás al primario.
+ * <p>
+ * La conexión física se pide recién en la primera sentencia, cuando la transacción ya marcó
+ * la conexión como de solo lectura; por eso la decisión se toma sin mirar el código que llama.
+ */
+public class ReadWriteRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final ReplicaRoutingDataSource replicas;
+
+    public ReadWriteRoutingDataSource(DataSource primary, ReplicaRoutingDataSource replicas) {
+        super(primary);
+        this.replicas = replicas;
+        setReadOnlyDataSource(replicas);
+    }
+
+    public ReplicaRoutingDataSource getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * Cierra los pools de las réplicas; el primario sigue el ciclo de vida de su propio bean.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas.getReplicas()) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,87 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Conexiones de solo lectura repartidas en round-robin entre las réplicas.
+ * <p>
+ * Si una réplica no entrega conexión se prueba la siguiente, y si ninguna responde se lee
+ * del primario. {@link ReadRoutingContext#onPrimary} manda la lectura directo al primario.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+
+    private final List<DataSource> replicas;
+    private final DataSource primary;
+    private final AtomicInteger nextReplica = new AtomicInteger();
+    private final AtomicLong replicaReads = new AtomicLong();
+    private final AtomicLong primaryReads = new AtomicLong();
+    private final AtomicLong fallbackReads = new AtomicLong();
+
+    public ReplicaRoutingDataSource(List<DataSource> replicas, DataSource primary) {
+        this.replicas = List.copyOf(replicas);
+        this.primary = primary;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route(DataSource::getConnection);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route(dataSource -> dataSource.getConnection(username, password));
+    }
+
+    public List<DataSource> getReplicas() {
+        return replicas;
+    }
+
+    public long getReplicaReads() {
+        return replicaReads.get();
+    }
+
+    public long getPrimaryReads() {
+        return primaryReads.get();
+    }
+
+    public long getFallbackReads() {
+        return fallbackReads.get();
+    }
+
+    private Connection route(ConnectionSource source) throws SQLException {
+        if (ReadRoutingContext.isPrimaryRequired() || replicas.isEmpty()) {
+            primaryReads.incrementAndGet();
+            return source.connect(primary);
+        }
+
+        int start = Math.floorMod(nextReplica.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            int index = (start + i) % replicas.size();
+            try {
+                Connection connection = source.connect(replicas.get(index));
+                replicaReads.incrementAndGet();
+                return connection;
+            } catch (SQLException e) {
+                log.warn("Replica {} unavailable, trying next: {}", index, e.getMessage());
+            }
+        }
+
+        log.warn("No replica available, reading from primary");
+        fallbackReads.incrementAndGet();
+        return source.connect(primary);
+    }
+
+    @FunctionalInterface
+    private interface ConnectionSource {
+        Connection connect(DataSource dataSource) throws SQLException;
+    }
+}
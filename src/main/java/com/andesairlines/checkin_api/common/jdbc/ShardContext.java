@@ -0,0 +1,40 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import java.util.function.Supplier;
+
+/**
+ * Vuelo del que trabaja el hilo actual. {@link FlightShardRoutingDataSource} lo usa para elegir
+ * el shard que guarda sus datos.
+ */
+public final class ShardContext {
+
+    private static final ThreadLocal<Integer> CURRENT_FLIGHT = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    /**
+     * Vuelo del hilo, o {@code null} si el trabajo no es de un vuelo (solo tablas de referencia).
+     */
+    public static Integer currentFlight() {
+        return CURRENT_FLIGHT.get();
+    }
+
+    /**
+     * Ejecuta la tarea con las conexiones dirigidas al shard del vuelo. La conexión debe pedirse
+     * dentro de la tarea: con el DataSource perezoso del modo shards eso ocurre en la primera sentencia.
+     */
+    public static <T> T onFlight(Integer flightId, Supplier<T> task) {
+        Integer previous = CURRENT_FLIGHT.get();
+        CURRENT_FLIGHT.set(flightId);
+        try {
+            return task.get();
+        } finally {
+            if (previous == null) {
+                CURRENT_FLIGHT.remove();
+            } else {
+                CURRENT_FLIGHT.set(previous);
+            }
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import com.andesairlines.checkin_api.common.concurrent.WorkloadContext;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Entrega la conexión desde el pool de la clase de carga del hilo ({@link WorkloadContext}).
+ * El trabajo sin clase usa el pool por defecto.
+ */
+public class WorkloadRoutingDataSource extends AbstractRoutingDataSource {
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return WorkloadContext.current();
+    }
+}
@@ -0,0 +1,95 @@
+package com.andesairlines.checkin_api.common.response;
+
+import com.aayushatharva.brotli4j.Brotli4jLoader;
+
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Codificaciones de contenido ({@code Content-Encoding}) en las que se guardan los manifiestos,
+ * elegidas por {@code Accept-Encoding}. Brotli depende de la biblioteca nativa de brotli4j: si
+ * no carga en la plataforma, solo se ofrece gzip.
+ */
+public enum ContentCoding {
+
+    IDENTITY("identity"),
+    GZIP("gzip"),
+    BROTLI("br");
+
+    private final String token;
+
+    ContentCoding(String token) {
+        this.token = token;
+    }
+
+    /**
+     * Valor del header {@code Content-Encoding}.
+     */
+    public String token() {
+        return token;
+    }
+
+    public boolean isAvailable() {
+        return this != BROTLI || BrotliSupport.AVAILABLE;
+    }
+
+    /**
+     * Codificación disponible con mayor calidad en {@code Accept-Encoding}; a igual calidad se prefiere
+     * brotli, que comprime más. Sin header o sin coincidencias, la respuesta va sin comprimir.
+     */
+    public static ContentCoding negotiate(String acceptEncoding) {
+        if (acceptEncoding == null || acceptEncoding.isBlank()) {
+            return IDENTITY;
+        }
+
+        Map<String, Double> qualities = new HashMap<>();
+        for (String entry : acceptEncoding.split(",")) {
+            String[] parts = entry.trim().split(";");
+            String coding = parts[0].trim().toLowerCase(Locale.ROOT);
+            if (!coding.isEmpty()) {
+                qualities.put(coding, quality(parts));
+            }
+        }
+
+        ContentCoding best = IDENTITY;
+        double bestQuality = 0;
+        for (ContentCoding candidate : new ContentCoding[]{BROTLI, GZIP}) {
+            double quality = qualities.getOrDefault(candidate.token, qualities.getOrDefault("*", 0.0));
+            if (candidate.isAvailable() && quality > bestQuality) {
+                best = candidate;
+                bestQuality = quality;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * ETag de esta codificación: cada una es una representación distinta con sus propios bytes.
+     */
+    public String etag(String etag) {
+        if (this == IDENTITY || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + token + "\"";
+    }
+
+    private static double quality(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].trim();
+            if (parameter.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(parameter.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+
+    // Carga diferida: la biblioteca nativa se intenta cargar solo si alguien pregunta por brotli
+    private static final class BrotliSupport {
+        private static final boolean AVAILABLE = Brotli4jLoader.isAvailable();
+    }
+}
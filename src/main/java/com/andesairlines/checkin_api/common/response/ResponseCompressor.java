@@ -0,0 +1,142 @@
+package com.andesairlines.checkin_api.common.response;
+
+import com.aayushatharva.brotli4j.encoder.Encoder;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Comprime respuestas ya serializadas con gzip o brotli y registra cuánto rinde.
+ * <p>
+ * Pensado para contenido que se comprime una vez y se sirve muchas (ver
+ * {@code FlightManifestResponseCache}), por eso usa niveles altos. Métricas con tag {@code coding}:
+ * {@code response.compression.ratio} (bytes comprimidos / originales),
+ * {@code response.compression.cpu} (CPU al comprimir), {@code response.compression.cpu.saved}
+ * (CPU que se evitó al reutilizar una compresión) y {@code response.compression.bytes.saved}.
+ */
+@Component
+public class ResponseCompressor {
+
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    private final int minSize;
+    private final int gzipLevel;
+    private final int brotliQuality;
+    private final Map<ContentCoding, DistributionSummary> ratios = new EnumMap<>(ContentCoding.class);
+    private final Map<ContentCoding, Timer> compressionCpu = new EnumMap<>(ContentCoding.class);
+    private final Map<ContentCoding, Timer> savedCpu = new EnumMap<>(ContentCoding.class);
+    private final Map<ContentCoding, Counter> savedBytes = new EnumMap<>(ContentCoding.class);
+
+    public ResponseCompressor(MeterRegistry meterRegistry,
+                              @Value("${checkin.compression.min-size:1024}") int minSize,
+                              @Value("${checkin.compression.gzip-level:9}") int gzipLevel,
+                              @Value("${checkin.compression.brotli-quality:9}") int brotliQuality) {
+        this.minSize = minSize;
+        this.gzipLevel = gzipLevel;
+        this.brotliQuality = brotliQuality;
+
+        for (ContentCoding coding : new ContentCoding[]{ContentCoding.GZIP, ContentCoding.BROTLI}) {
+            String tag = coding.token();
+            ratios.put(coding, DistributionSummary.builder("response.compression.ratio")
+                    .description("Compressed size over original size of a response")
+                    .tag("coding", tag)
+                    .register(meterRegistry));
+            compressionCpu.put(coding, Timer.builder("response.compression.cpu")
+                    .description("CPU time spent compressing a response")
+                    .tag("coding", tag)
+                    .register(meterRegistry));
+            savedCpu.put(coding, Timer.builder("response.compression.cpu.saved")
+                    .description("Compression CPU time avoided by serving an already compressed response")
+                    .tag("coding", tag)
+                    .register(meterRegistry));
+            savedBytes.put(coding, Counter.builder("response.compression.bytes.saved")
+                    .description("Bytes not sent thanks to response compression")
+                    .baseUnit("bytes")
+                    .tag("coding", tag)
+                    .register(meterRegistry));
+        }
+    }
+
+    /**
+     * Respuestas chicas no se comprimen: el encabezado de gzip/brotli se come lo que se ahorra.
+     */
+    public boolean shouldCompress(int length) {
+        return length >= minSize;
+    }
+
+    public Compressed compress(byte[] body, ContentCoding coding) {
+        long cpuStart = cpuTime();
+        byte[] compressed = switch (coding) {
+            case GZIP -> gzip(body);
+            case BROTLI -> brotli(body);
+            case IDENTITY -> throw new IllegalArgumentException("Identity is not a compression");
+        };
+        long cpuNanos = cpuTime() - cpuStart;
+
+        ratios.get(coding).record((double) compressed.length / body.length);
+        compressionCpu.get(coding).record(cpuNanos, TimeUnit.NANOSECONDS);
+        return new Compressed(compressed, cpuNanos);
+    }
+
+    /**
+     * Registra una respuesta servida comprimida. Si la compresión se reutilizó, también la CPU evitada.
+     */
+    public void recordServed(ContentCoding coding, int originalLength, int compressedLength, long reusedCpuNanos) {
+        savedBytes.get(coding).increment(Math.max(0, originalLength - compressedLength));
+        if (reusedCpuNanos > 0) {
+            savedCpu.get(coding).record(reusedCpuNanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private byte[] gzip(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length / 4);
+        try (GZIPOutputStream gzip = new LeveledGzipOutputStream(out, gzipLevel)) {
+            gzip.write(body);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private byte[] brotli(byte[] body) {
+        try {
+            return Encoder.compress(body, new Encoder.Parameters().setQuality(brotliQuality));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // Los hilos virtuales no informan CPU por hilo: se usa el tiempo transcurrido
+    private static long cpuTime() {
+        if (!Thread.currentThread().isVirtual() && THREADS.isCurrentThreadCpuTimeSupported()) {
+            long cpu = THREADS.getCurrentThreadCpuTime();
+            if (cpu >= 0) {
+                return cpu;
+            }
+        }
+        return System.nanoTime();
+    }
+
+    public record Compressed(byte[] body, long cpuNanos) {
+    }
+
+    private static final class LeveledGzipOutputStream extends GZIPOutputStream {
+        LeveledGzipOutputStream(ByteArrayOutputStream out, int level) throws IOException {
+            super(out);
+            def.setLevel(level);
+        }
+    }
+}
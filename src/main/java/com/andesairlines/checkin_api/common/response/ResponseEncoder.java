@@ -0,0 +1,75 @@
+package com.andesairlines.checkin_api.common.response;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroSchema;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Serializa respuestas en cada {@link ResponseFormat}.
+ * <p>
+ * CBOR y Smile son copias del {@link ObjectMapper} de la aplicación con otra fábrica, así que
+ * respetan la misma configuración. Avro necesita un esquema por tipo: se genera desde el DTO la
+ * primera vez y se reutiliza.
+ */
+@Component
+public class ResponseEncoder {
+
+    private final ObjectMapper objectMapper;
+    private final Map<ResponseFormat, ObjectMapper> mappers = new EnumMap<>(ResponseFormat.class);
+    private final AvroMapper avroMapper = new AvroMapper();
+    private final Map<JavaType, AvroSchema> avroSchemas = new ConcurrentHashMap<>();
+
+    public ResponseEncoder(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+        mappers.put(ResponseFormat.JSON, objectMapper);
+        mappers.put(ResponseFormat.CBOR, objectMapper.copyWith(new CBORFactory()));
+        mappers.put(ResponseFormat.SMILE, objectMapper.copyWith(new SmileFactory()));
+        mappers.put(ResponseFormat.AVRO, avroMapper);
+    }
+
+    /**
+     * Mapper del formato, para los convertidores HTTP de CBOR y Smile.
+     */
+    public ObjectMapper mapper(ResponseFormat format) {
+        return mappers.get(format);
+    }
+
+    /**
+     * Tipo {@code ApiResponse<payload>}, necesario para generar el esquema Avro del envoltorio.
+     */
+    public JavaType apiResponseOf(Class<?> payload) {
+        return objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, payload);
+    }
+
+    public byte[] encode(Object value, JavaType type, ResponseFormat format) {
+        try {
+            if (format == ResponseFormat.AVRO) {
+                return avroMapper.writer(avroSchema(type)).forType(type).writeValueAsBytes(value);
+            }
+            return mappers.get(format).writerFor(type).writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not encode " + type + " as " + format, e);
+        }
+    }
+
+    public AvroSchema avroSchema(JavaType type) {
+        return avroSchemas.computeIfAbsent(type, this::generateAvroSchema);
+    }
+
+    private AvroSchema generateAvroSchema(JavaType type) {
+        try {
+            return avroMapper.schemaFor(type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not generate Avro schema for " + type, e);
+        }
+    }
+}
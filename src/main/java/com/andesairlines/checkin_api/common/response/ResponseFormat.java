@@ -0,0 +1,87 @@
+package com.andesairlines.checkin_api.common.response;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Codificaciones de las respuestas, elegidas por el header {@code Accept}. JSON es la de siempre;
+ * CBOR y Smile son JSON binario con las mismas claves, y Avro omite las claves usando el esquema
+ * que se genera desde el DTO.
+ */
+public enum ResponseFormat {
+
+    JSON(MediaType.APPLICATION_JSON),
+    CBOR(MediaType.APPLICATION_CBOR),
+    SMILE(MediaType.parseMediaType(ResponseFormat.APPLICATION_SMILE_VALUE)),
+    AVRO(MediaType.parseMediaType(ResponseFormat.APPLICATION_AVRO_VALUE));
+
+    public static final String APPLICATION_SMILE_VALUE = "application/x-jackson-smile";
+    public static final String APPLICATION_AVRO_VALUE = "application/avro";
+
+    private final MediaType mediaType;
+
+    ResponseFormat(MediaType mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public MediaType mediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Formato de mayor calidad que acepta el cliente; sin {@code Accept} o con {@code *}/{@code *}, JSON.
+     * <p>
+     * Falla con {@link ResponseStatusException} (406, o 400 si el header es inválido). Como el
+     * cliente puede no aceptar JSON, {@code GlobalExceptionHandler} responde solo con el estado
+     * cuando ningún formato aceptado puede escribir el error.
+     */
+    public static ResponseFormat negotiate(String accept) {
+        return negotiate(accept, values());
+    }
+
+    /**
+     * Como {@link #negotiate(String)}, eligiendo solo entre {@code supported}; el primero es el
+     * que se usa sin {@code Accept}.
+     */
+    public static ResponseFormat negotiate(String accept, ResponseFormat... supported) {
+        if (accept == null || accept.isBlank()) {
+            return supported[0];
+        }
+
+        List<MediaType> accepted;
+        try {
+            accepted = new ArrayList<>(MediaType.parseMediaTypes(accept));
+        } catch (InvalidMediaTypeException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid Accept header: " + accept, e);
+        }
+        accepted.sort(Comparator.comparingDouble(MediaType::getQualityValue).reversed());
+
+        for (MediaType candidate : accepted) {
+            if (candidate.getQualityValue() == 0) {
+                continue;
+            }
+            for (ResponseFormat format : supported) {
+                if (candidate.isCompatibleWith(format.mediaType)) {
+                    return format;
+                }
+            }
+        }
+        throw new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "None of the accepted media types is supported: " + accept);
+    }
+
+    /**
+     * ETag de esta representación: cada formato es una representación distinta del mismo recurso.
+     */
+    public String etag(String etag) {
+        if (this == JSON || !etag.endsWith("\"")) {
+            return etag;
+        }
+        return etag.substring(0, etag.length() - 1) + "-" + name().toLowerCase() + "\"";
+    }
+}
@@ -0,0 +1,21 @@
+package com.andesairlines.checkin_api.common.retry;
+
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+
+/**
+ * Callback de reintento con nombre, para las llamadas que usan {@code RetryOperations} directo
+ * en vez de {@code @Retryable}: {@link RetryMetricsListener} etiqueta sus métricas con ese nombre.
+ */
+public record NamedRetryCallback<T, E extends Throwable>(String name, RetryCallback<T, E> delegate)
+        implements RetryCallback<T, E> {
+
+    public static <T, E extends Throwable> NamedRetryCallback<T, E> named(String name, RetryCallback<T, E> callback) {
+        return new NamedRetryCallback<>(name, callback);
+    }
+
+    @Override
+    public T doWithRetry(RetryContext context) throws E {
+        return delegate.doWithRetry(context);
+    }
+}
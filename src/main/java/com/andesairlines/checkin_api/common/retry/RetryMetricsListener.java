@@ -0,0 +1,67 @@
+package com.andesairlines.checkin_api.common.retry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.retry.RetryCallback;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.RetryListener;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+
+/**
+ * Métricas de reintentos por método. Las llamadas por {@code RetryOperations} se etiquetan con
+ * el nombre de su {@link NamedRetryCallback}.
+ * <p>
+ * {@code retry.calls} cuenta las llamadas por resultado ({@code success}, {@code recovered}
+ * tras reintentar, {@code exhausted} al agotar intentos o presupuesto, {@code rejected} si la
+ * falla no era transitoria) y {@code retry.retries} los reintentos efectivamente ejecutados.
+ */
+public class RetryMetricsListener implements RetryListener {
+
+    private final MeterRegistry meterRegistry;
+    private final TransientFailureClassifier classifier;
+
+    public RetryMetricsListener(MeterRegistry meterRegistry, TransientFailureClassifier classifier) {
+        this.meterRegistry = meterRegistry;
+        this.classifier = classifier;
+    }
+
+    @Override
+    public <T, E extends Throwable> void close(RetryContext context, RetryCallback<T, E> callback, Throwable throwable) {
+        String method = methodName(context, callback);
+        int failedAttempts = context.getRetryCount();
+        int retries = throwable == null ? failedAttempts : Math.max(0, failedAttempts - 1);
+
+        Counter.builder("retry.calls")
+                .description("Calls through the transient retry policy by outcome")
+                .tag("method", method)
+                .tag("outcome", outcome(throwable, retries))
+                .register(meterRegistry)
+                .increment();
+        if (retries > 0) {
+            Counter.builder("retry.retries")
+                    .description("Retries executed after a transient failure")
+                    .tag("method", method)
+                    .register(meterRegistry)
+                    .increment(retries);
+        }
+    }
+
+    private String outcome(Throwable throwable, int retries) {
+        if (throwable == null) {
+            return retries == 0 ? "success" : "recovered";
+        }
+        return classifier.isTransient(throwable) ? "exhausted" : "rejected";
+    }
+
+    private static String methodName(RetryContext context, RetryCallback<?, ?> callback) {
+        if (callback instanceof MethodInvocationRetryCallback<?, ?> methodCallback) {
+            var method = methodCallback.getInvocation().getMethod();
+            return method.getDeclaringClass().getSimpleName() + "." + method.getName();
+        }
+        if (callback instanceof NamedRetryCallback<?, ?> namedCallback) {
+            return namedCallback.name();
+        }
+        // Callbacks sin nombre (lambdas): solo si alguien dejó RetryContext.NAME en el contexto
+        return context.getAttribute(RetryContext.NAME) instanceof String name ? name : "unknown";
+    }
+}
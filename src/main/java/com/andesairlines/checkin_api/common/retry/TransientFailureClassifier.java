@@ -0,0 +1,57 @@
+package com.andesairlines.checkin_api.common.retry;
+
+import org.springframework.classify.BinaryExceptionClassifier;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.RecoverableDataAccessException;
+import org.springframework.dao.TransientDataAccessException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLException;
+import java.sql.SQLRecoverableException;
+import java.sql.SQLTransientException;
+
+/**
+ * Decide si una falla vale la pena reintentarla.
+ * <p>
+ * Solo son transitorias las fallas de conexión, timeouts, bloqueos y deadlocks: se busca
+ * en toda la cadena de causas porque JPA y Spring suelen envolver la excepción del driver.
+ * Todo lo demás (errores de negocio, entrada inválida, violaciones de restricciones) falla
+ * de inmediato.
+ */
+public class TransientFailureClassifier extends BinaryExceptionClassifier {
+
+    // SQLState de clase 08 (conexión) y 40001 (serialización / deadlock)
+    private static final String CONNECTION_EXCEPTION_CLASS = "08";
+    private static final String SERIALIZATION_FAILURE = "40001";
+
+    public TransientFailureClassifier() {
+        super(false);
+    }
+
+    @Override
+    public Boolean classify(Throwable throwable) {
+        return isTransient(throwable);
+    }
+
+    public boolean isTransient(Throwable throwable) {
+        for (Throwable cause = throwable; cause != null; cause = cause.getCause() == cause ? null : cause.getCause()) {
+            if (cause instanceof TransientDataAccessException
+                    || cause instanceof RecoverableDataAccessException
+                    || cause instanceof DataAccessResourceFailureException
+                    || cause instanceof CannotCreateTransactionException
+                    || cause instanceof SQLTransientException
+                    || cause instanceof SQLRecoverableException) {
+                return true;
+            }
+            if (cause instanceof SQLException sqlException && isTransientSqlState(sqlException.getSQLState())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isTransientSqlState(String sqlState) {
+        return sqlState != null
+                && (sqlState.startsWith(CONNECTION_EXCEPTION_CLASS) || sqlState.equals(SERIALIZATION_FAILURE));
+    }
+}
@@ -0,0 +1,78 @@
+package com.andesairlines.checkin_api.common.web;
+
+import com.andesairlines.checkin_api.common.response.ApiResponse;
+import com.andesairlines.checkin_api.common.response.ResponseEncoder;
+import com.andesairlines.checkin_api.common.response.ResponseFormat;
+import com.fasterxml.jackson.databind.JavaType;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.util.Set;
+
+/**
+ * Escribe como Avro ({@code application/avro}) las respuestas cuyo contenido es uno de los DTOs
+ * indicados, solos o dentro de {@link ApiResponse}. Solo escritura: las requests siguen siendo JSON.
+ * <p>
+ * Se limita a DTOs de campos simples porque el esquema se genera desde la clase; otros tipos
+ * (mapas, errores) quedan para los demás convertidores.
+ */
+public class AvroHttpMessageConverter extends AbstractGenericHttpMessageConverter<Object> {
+
+    private final ResponseEncoder responseEncoder;
+    private final Set<Class<?>> payloads;
+
+    public AvroHttpMessageConverter(ResponseEncoder responseEncoder, Set<Class<?>> payloads) {
+        super(ResponseFormat.AVRO.mediaType());
+        this.responseEncoder = responseEncoder;
+        this.payloads = payloads;
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return payloads.contains(clazz);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return canWrite(mediaType) && supportsType(javaType(type, clazz));
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    protected void writeInternal(Object value, Type type, HttpOutputMessage outputMessage) throws IOException {
+        JavaType javaType = javaType(type, value.getClass());
+        outputMessage.getBody().write(responseEncoder.encode(value, javaType, ResponseFormat.AVRO));
+    }
+
+    @Override
+    public Object read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Avro request bodies are not supported", inputMessage);
+    }
+
+    @Override
+    protected Object readInternal(Class<?> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Avro request bodies are not supported", inputMessage);
+    }
+
+    private boolean supportsType(JavaType type) {
+        if (type.hasRawClass(ApiResponse.class)) {
+            JavaType content = type.containedType(0);
+            return content != null && payloads.contains(content.getRawClass());
+        }
+        return payloads.contains(type.getRawClass());
+    }
+
+    private JavaType javaType(Type type, Class<?> clazz) {
+        return responseEncoder.mapper(ResponseFormat.JSON).getTypeFactory()
+                .constructType(type != null ? type : clazz);
+    }
+}
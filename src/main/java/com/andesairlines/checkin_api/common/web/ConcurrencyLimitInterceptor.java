@@ -0,0 +1,105 @@
+package com.andesairlines.checkin_api.common.web;
+
+import com.andesairlines.checkin_api.common.concurrent.AdaptiveConcurrencyLimit;
+import com.andesairlines.checkin_api.common.exception.OverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+/**
+ * Aplica un {@link AdaptiveConcurrencyLimit} a las rutas donde se registra.
+ * <p>
+ * Con el límite completo la request se rechaza de inmediato con {@link OverloadedException}
+ * (status configurable y {@code Retry-After}) en vez de esperar una conexión del pool.
+ * Métricas: {@code concurrency.limit}, {@code concurrency.in.flight} y
+ * {@code concurrency.rejected}, con tag {@code limiter}.
+ * <p>
+ * En respuestas asíncronas (p. ej. {@code StreamingResponseBody}) el permiso se toma en el
+ * dispatch inicial y se libera al terminar el dispatch {@code ASYNC}, que vuelve a pasar por
+ * {@code preHandle} sin pedir otro. Cada limitador guarda su permiso aparte, así una misma
+ * request puede pasar por varios (p. ej. lectura del manifiesto y streaming).
+ */
+public class ConcurrencyLimitInterceptor implements AsyncHandlerInterceptor {
+
+    private final String name;
+    private final String permitAttribute;
+    private final Predicate<HttpServletRequest> appliesTo;
+    private final AdaptiveConcurrencyLimit limit;
+    private final HttpStatus rejectedStatus;
+    private final Duration retryAfter;
+    private final Counter rejectedCounter;
+
+    public ConcurrencyLimitInterceptor(String name, AdaptiveConcurrencyLimit limit, HttpStatus rejectedStatus,
+                                       Duration retryAfter, MeterRegistry meterRegistry) {
+        this(name, limit, rejectedStatus, retryAfter, request -> true, meterRegistry);
+    }
+
+    /**
+     * @param appliesTo las requests que no cumplen pasan sin pedir permiso
+     */
+    public ConcurrencyLimitInterceptor(String name, AdaptiveConcurrencyLimit limit, HttpStatus rejectedStatus,
+                                       Duration retryAfter, Predicate<HttpServletRequest> appliesTo,
+                                       MeterRegistry meterRegistry) {
+        this.name = name;
+        this.permitAttribute = ConcurrencyLimitInterceptor.class.getName() + ".permit." + name;
+        this.appliesTo = appliesTo;
+        this.limit = limit;
+        this.rejectedStatus = rejectedStatus;
+        this.retryAfter = retryAfter;
+        this.rejectedCounter = Counter.builder("concurrency.rejected")
+                .description("Requests shed because the concurrency limit was reached")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+                .description("Current adaptive concurrency limit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+        Gauge.builder("concurrency.in.flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+                .description("Requests currently holding a concurrency permit")
+                .tag("limiter", name)
+                .register(meterRegistry);
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (request.getDispatcherType() == DispatcherType.ASYNC
+                && request.getAttribute(permitAttribute) instanceof AdaptiveConcurrencyLimit.Permit) {
+            return true;
+        }
+        if (!appliesTo.test(request)) {
+            return true;
+        }
+        AdaptiveConcurrencyLimit.Permit permit = limit.tryAcquire();
+        if (permit == null) {
+            rejectedCounter.increment();
+            throw new OverloadedException("Too many concurrent " + name + " requests, retry later",
+                    rejectedStatus, retryAfter);
+        }
+        request.setAttribute(permitAttribute, permit);
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(permitAttribute) instanceof AdaptiveConcurrencyLimit.Permit permit)) {
+            return;
+        }
+        request.removeAttribute(permitAttribute);
+        if (response.getStatus() >= 500) {
+            permit.dropped();
+        } else if (response.getStatus() >= 400) {
+            // Errores del cliente: terminan rápido y no dicen nada de la carga
+            permit.ignore();
+        } else {
+            permit.success();
+        }
+    }
+}
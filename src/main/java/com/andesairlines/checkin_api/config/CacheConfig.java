@@ -1,5 +1,6 @@
 package com.andesairlines.checkin_api.config;
 
+import com.andesairlines.checkin_api.flight.service.FlightManifestResponseCache;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -15,12 +16,25 @@ public class CacheConfig {
 
     @Bean
     public CacheManager cacheManager(){
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager("flights", "passengers", "airplanes");
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager("passengers", "airplanes", "manifests");
         cacheManager.setCaffeine(Caffeine.newBuilder()
                 .initialCapacity(50)
                 .maximumSize(200)
                 .expireAfterWrite(5, TimeUnit.MINUTES)
                 .recordStats());
+        // Las distribuciones de asientos no cambian por avión: sin expiración
+        cacheManager.registerCustomCache("airplanes", Caffeine.newBuilder()
+                .maximumSize(100)
+                .recordStats()
+                .build());
+        // Manifiestos serializados por formato: cada lectura los valida contra flight.seat_version, así que
+        // la expiración solo libera vuelos que ya nadie consulta. El límite es por bytes
+        cacheManager.registerCustomCache("manifests", Caffeine.newBuilder()
+                .maximumWeight(64L * 1024 * 1024)
+                .weigher((Object key, Object manifest) -> ((FlightManifestResponseCache.SerializedManifest) manifest).body().length)
+                .expireAfterAccess(30, TimeUnit.MINUTES)
+                .recordStats()
+                .build());
         return cacheManager;
     }
 }
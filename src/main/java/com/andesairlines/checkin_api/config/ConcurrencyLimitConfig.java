@@ -0,0 +1,70 @@
+package com.andesairlines.checkin_api.config;
+
+import com.andesairlines.checkin_api.common.concurrent.AdaptiveConcurrencyLimit;
+import com.andesairlines.checkin_api.common.web.ConcurrencyLimitInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+/**
+ * Límites de concurrencia separados para la lectura del manifiesto y las escrituras de asientos:
+ * una ráfaga de consultas no puede dejar sin lugar a los check-ins, ni al revés.
+ * <p>
+ * El streaming del manifiesto tiene además un tope fijo propio: cada stream retiene una conexión
+ * del pool de lecturas mientras el cliente lee, y el límite adaptativo no lo ve hasta que termina.
+ */
+@Configuration
+public class ConcurrencyLimitConfig implements WebMvcConfigurer {
+
+    static final String[] MANIFEST_READ_PATHS = {"/flights/*/passengers"};
+    static final String[] SEAT_WRITE_PATHS = {"/flights/*/checkin", "/flights/*/passengers/*/seat"};
+
+    private final ConcurrencyLimitInterceptor manifestReadLimiter;
+    private final ConcurrencyLimitInterceptor seatWriteLimiter;
+    private final ConcurrencyLimitInterceptor manifestStreamLimiter;
+
+    public ConcurrencyLimitConfig(MeterRegistry meterRegistry,
+                                  @Value("${checkin.limits.read.initial:50}") int readInitial,
+                                  @Value("${checkin.limits.read.min:5}") int readMin,
+                                  @Value("${checkin.limits.read.max:400}") int readMax,
+                                  @Value("${checkin.limits.read.rejected-status:503}") int readRejectedStatus,
+                                  @Value("${checkin.limits.read.retry-after:1s}") Duration readRetryAfter,
+                                  @Value("${checkin.limits.write.initial:10}") int writeInitial,
+                                  @Value("${checkin.limits.write.min:2}") int writeMin,
+                                  @Value("${checkin.limits.write.max:50}") int writeMax,
+                                  @Value("${checkin.limits.write.rejected-status:429}") int writeRejectedStatus,
+                                  @Value("${checkin.limits.write.retry-after:2s}") Duration writeRetryAfter,
+                                  @Value("${checkin.limits.stream.max-concurrent:2}") int streamMaxConcurrent,
+                                  @Value("${checkin.limits.stream.retry-after:5s}") Duration streamRetryAfter) {
+        this.manifestReadLimiter = new ConcurrencyLimitInterceptor("manifest.read",
+                new AdaptiveConcurrencyLimit(readInitial, readMin, readMax),
+                HttpStatus.valueOf(readRejectedStatus), readRetryAfter, meterRegistry);
+        this.seatWriteLimiter = new ConcurrencyLimitInterceptor("seat.write",
+                new AdaptiveConcurrencyLimit(writeInitial, writeMin, writeMax),
+                HttpStatus.valueOf(writeRejectedStatus), writeRetryAfter, meterRegistry);
+        // Mínimo = máximo: el límite no se mueve con la latencia, que en un stream depende del cliente
+        this.manifestStreamLimiter = new ConcurrencyLimitInterceptor("manifest.stream",
+                new AdaptiveConcurrencyLimit(streamMaxConcurrent, streamMaxConcurrent, streamMaxConcurrent),
+                HttpStatus.SERVICE_UNAVAILABLE, streamRetryAfter, ConcurrencyLimitConfig::isManifestStream, meterRegistry);
+    }
+
+    static boolean isManifestStream(HttpServletRequest request) {
+        return "true".equals(request.getParameter("stream"));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(manifestReadLimiter)
+                .addPathPatterns(MANIFEST_READ_PATHS);
+        registry.addInterceptor(seatWriteLimiter)
+                .addPathPatterns(SEAT_WRITE_PATHS);
+        registry.addInterceptor(manifestStreamLimiter)
+                .addPathPatterns(MANIFEST_READ_PATHS);
+    }
+}
@@ -1,5 +1,6 @@
 package com.andesairlines.checkin_api.config;
 
+import com.andesairlines.checkin_api.common.response.ResponseFormat;
 import io.swagger.v3.oas.models.OpenAPI;
 import io.swagger.v3.oas.models.Operation;
 import io.swagger.v3.oas.models.info.Contact;
@@ -45,7 +46,10 @@ public class OpenApiConfig {
                             .name("Accept")
                             .in("header")
                             .required(false)
-                            .schema(new StringSchema()._default("application/json")));
+                            .schema(new StringSchema()
+                                    ._default("application/json")
+                                    ._enum(List.of("application/json", "application/cbor",
+                                            ResponseFormat.APPLICATION_SMILE_VALUE, ResponseFormat.APPLICATION_AVRO_VALUE))));
                 });
     }
 }
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.andesairlines.checkin_api.config;
+
+import com.andesairlines.checkin_api.common.jdbc.ConnectionPermitDataSource;
+import com.andesairlines.checkin_api.common.jdbc.ReadWriteRoutingDataSource;
+import com.andesairlines.checkin_api.common.jdbc.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Réplicas de lectura ({@code checkin.replicas.enabled=true}): las transacciones de solo lectura
+ * se atienden desde {@code checkin.replicas.datasources}, el resto desde el primario.
+ * <p>
+ * Cada réplica es un pool de Hikari con la configuración de {@code spring.datasource.hikari},
+ * sobrescrita por {@code checkin.replicas.hikari}. Los pools no se registran como beans
+ * {@link DataSource} para no desactivar el DataSource autoconfigurado del primario.
+ */
+@Configuration
+@ConditionalOnProperty(name = "checkin.replicas.enabled", havingValue = "true")
+public class ReadReplicaConfig {
+
+    // Sin orden propio: corre después de los permisos de conexión (PriorityOrdered en VirtualThreadConfig)
+    // y envuelve el DataSource ya armado
+    @Bean
+    public static BeanPostProcessor readReplicaPostProcessor(Environment environment) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (!"dataSource".equals(beanName) || !(bean instanceof DataSource primary)
+                        || bean instanceof ReadWriteRoutingDataSource) {
+                    return bean;
+                }
+                return new ReadWriteRoutingDataSource(primary, new ReplicaRoutingDataSource(replicas(environment), primary));
+            }
+        };
+    }
+
+    @Bean
+    public MeterBinder readReplicaMetrics(DataSource dataSource) {
+        return registry -> {
+            if (!(dataSource instanceof ReadWriteRoutingDataSource routing)) {
+                return;
+            }
+            ReplicaRoutingDataSource replicas = routing.getReplicas();
+            for (DataSource replica : replicas.getReplicas()) {
+                if (replica instanceof ConnectionPermitDataSource permits) {
+                    replica = permits.getTargetDataSource();
+                }
+                if (replica instanceof HikariDataSource hikari && hikari.getMetricRegistry() == null) {
+                    hikari.setMetricRegistry(registry);
+                }
+            }
+            readCounter(registry, replicas, "replica", ReplicaRoutingDataSource::getReplicaReads);
+            readCounter(registry, replicas, "primary", ReplicaRoutingDataSource::getPrimaryReads);
+            readCounter(registry, replicas, "primary_fallback", ReplicaRoutingDataSource::getFallbackReads);
+        };
+    }
+
+    private static void readCounter(MeterRegistry registry, ReplicaRoutingDataSource replicas,
+                                    String target, ToDoubleFunction<ReplicaRoutingDataSource> reads) {
+        FunctionCounter.builder("datasource.reads", replicas, reads)
+                .description("Read-only connections handed out, by target")
+                .tag("target", target)
+                .register(registry);
+    }
+
+    private static List<DataSource> replicas(Environment environment) {
+        Binder binder = Binder.get(environment);
+        List<DataSourceProperties> replicaProperties = binder
+                .bind("checkin.replicas.datasources", Bindable.listOf(DataSourceProperties.class))
+                .orElse(List.of());
+
+        List<DataSource> replicas = new ArrayList<>();
+        for (int i = 0; i < replicaProperties.size(); i++) {
+            HikariDataSource replica = replicaProperties.get(i).initializeDataSourceBuilder()
+                    .type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(replica));
+            binder.bind("checkin.replicas.hikari", Bindable.ofInstance(replica));
+            replica.setPoolName("HikariCP-replica-" + i);
+            replica.setReadOnly(true);
+            // Una réplica caída no debe impedir el arranque: se lee del primario hasta que vuelva
+            replica.setInitializationFailTimeout(-1);
+            // No son beans: el post-processor de permisos no los ve
+            replicas.add(VirtualThreadConfig.withConnectionPermits(replica, environment));
+        }
+        return replicas;
+    }
+}
@@ -0,0 +1,44 @@
+package com.andesairlines.checkin_api.config;
+
+import com.andesairlines.checkin_api.common.response.ResponseEncoder;
+import com.andesairlines.checkin_api.common.response.ResponseFormat;
+import com.andesairlines.checkin_api.common.web.AvroHttpMessageConverter;
+import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
+import com.andesairlines.checkin_api.passenger.model.dto.PassengerResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Convertidores HTTP de los formatos binarios, agregados al final de la lista: JSON sigue siendo
+ * la respuesta para {@code *}/{@code *} y los demás se eligen con {@code Accept}.
+ */
+@Configuration
+@RequiredArgsConstructor
+public class ResponseFormatConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<ResponseEncoder> responseEncoder;
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        ResponseEncoder encoder = responseEncoder.getIfAvailable();
+        if (encoder == null) {
+            return;
+        }
+
+        // Los de Spring usan un ObjectMapper sin la configuración de la aplicación
+        converters.removeIf(converter -> converter instanceof MappingJackson2CborHttpMessageConverter
+                || converter instanceof MappingJackson2SmileHttpMessageConverter);
+        converters.add(new MappingJackson2CborHttpMessageConverter(encoder.mapper(ResponseFormat.CBOR)));
+        converters.add(new MappingJackson2SmileHttpMessageConverter(encoder.mapper(ResponseFormat.SMILE)));
+        // Avro solo para los DTOs de vuelo y pasajero: su esquema se genera desde la clase
+        converters.add(new AvroHttpMessageConverter(encoder, Set.of(FlightResponse.class, PassengerResponse.class)));
+    }
+}
@@ -1,9 +1,67 @@
 package com.andesairlines.checkin_api.config;
 
+import com.andesairlines.checkin_api.common.retry.RetryMetricsListener;
+import com.andesairlines.checkin_api.common.retry.TransientFailureClassifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.retry.RetryPolicy;
 import org.springframework.retry.annotation.EnableRetry;
+import org.springframework.retry.backoff.ExponentialRandomBackOffPolicy;
+import org.springframework.retry.interceptor.RetryInterceptorBuilder;
+import org.springframework.retry.interceptor.RetryOperationsInterceptor;
+import org.springframework.retry.policy.CompositeRetryPolicy;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.policy.TimeoutRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
 
 @Configuration
 @EnableRetry
 public class RetryConfig {
+
+    @Bean
+    public TransientFailureClassifier transientFailureClassifier() {
+        return new TransientFailureClassifier();
+    }
+
+    // Política única para los servicios: @Retryable(interceptor = "transientRetryInterceptor"). Lo que
+    // corre en un carril de vuelo se reintenta con transientRetryTemplate alrededor del carril
+    @Bean
+    public RetryOperationsInterceptor transientRetryInterceptor(RetryTemplate transientRetryTemplate) {
+        return RetryInterceptorBuilder.stateless()
+                .retryOperations(transientRetryTemplate)
+                .build();
+    }
+
+    @Bean
+    public RetryTemplate transientRetryTemplate(TransientFailureClassifier transientFailureClassifier,
+                                                MeterRegistry meterRegistry,
+                                                @Value("${checkin.retry.max-attempts:3}") int maxAttempts,
+                                                @Value("${checkin.retry.initial-interval:50ms}") Duration initialInterval,
+                                                @Value("${checkin.retry.max-interval:400ms}") Duration maxInterval,
+                                                @Value("${checkin.retry.budget:2s}") Duration budget) {
+        // Solo fallas transitorias, sin pasar el presupuesto de tiempo de la llamada
+        TimeoutRetryPolicy budgetPolicy = new TimeoutRetryPolicy();
+        budgetPolicy.setTimeout(budget.toMillis());
+        CompositeRetryPolicy retryPolicy = new CompositeRetryPolicy();
+        retryPolicy.setPolicies(new RetryPolicy[]{
+                new SimpleRetryPolicy(maxAttempts, transientFailureClassifier),
+                budgetPolicy
+        });
+
+        // Espera exponencial con jitter: cada intento espera entre el intervalo y el doble
+        ExponentialRandomBackOffPolicy backOffPolicy = new ExponentialRandomBackOffPolicy();
+        backOffPolicy.setInitialInterval(initialInterval.toMillis());
+        backOffPolicy.setMultiplier(2);
+        backOffPolicy.setMaxInterval(maxInterval.toMillis());
+
+        RetryTemplate retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(retryPolicy);
+        retryTemplate.setBackOffPolicy(backOffPolicy);
+        retryTemplate.registerListener(new RetryMetricsListener(meterRegistry, transientFailureClassifier));
+        return retryTemplate;
+    }
 }
@@ -0,0 +1,16 @@
+package com.andesairlines.checkin_api.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ForkJoinPool;
+
+@Configuration
+public class SeatAssignmentConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public ForkJoinPool seatAssignmentPool(@Value("${checkin.assignment.parallelism:0}") int parallelism) {
+        return new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+    }
+}
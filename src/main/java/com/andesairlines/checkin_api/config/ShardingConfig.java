@@ -0,0 +1,103 @@
+package com.andesairlines.checkin_api.config;
+
+import com.andesairlines.checkin_api.common.jdbc.ConnectionPermitDataSource;
+import com.andesairlines.checkin_api.common.jdbc.FlightShardRoutingDataSource;
+import com.andesairlines.checkin_api.flight.repository.FlightShardRebalancer;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.flywaydb.core.Flyway;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Shards por vuelo ({@code checkin.shards.enabled=true}): {@code flight}, {@code boarding_pass} y
+ * {@code flight_manifest} de cada vuelo viven en el shard que le asigna un anillo de hashing
+ * consistente sobre {@code checkin.shards.datasources}.
+ * <p>
+ * Cada shard es un pool de Hikari con la configuración de {@code spring.datasource.hikari},
+ * sobrescrita por {@code checkin.shards.hikari}. Los servicios fijan el vuelo con
+ * {@link com.andesairlines.checkin_api.common.jdbc.ShardContext}; el primer shard de la lista es
+ * el de las tablas de referencia y el de todo lo que no es de un vuelo.
+ */
+@Configuration
+@ConditionalOnProperty(name = "checkin.shards.enabled", havingValue = "true")
+public class ShardingConfig {
+
+    @Bean
+    public FlightShardRoutingDataSource flightShards(Environment environment,
+                                                     @Value("${checkin.shards.virtual-nodes:128}") int virtualNodes) {
+        // Réplicas y pools por clase de carga rutean sin conocer el vuelo: no se combinan con los shards
+        if (environment.getProperty("checkin.replicas.enabled", Boolean.class, false)
+                || environment.getProperty("checkin.workloads.datasources.enabled", Boolean.class, false)) {
+            throw new IllegalStateException(
+                    "checkin.shards cannot be combined with checkin.replicas or checkin.workloads.datasources");
+        }
+
+        Binder binder = Binder.get(environment);
+        Map<String, DataSourceProperties> shardProperties = binder
+                .bind("checkin.shards.datasources", Bindable.mapOf(String.class, DataSourceProperties.class))
+                .orElseThrow(() -> new IllegalStateException("checkin.shards.datasources must list at least one shard"));
+
+        Map<String, DataSource> shards = new LinkedHashMap<>();
+        shardProperties.forEach((name, properties) -> {
+            HikariDataSource shard = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+            binder.bind("spring.datasource.hikari", Bindable.ofInstance(shard));
+            binder.bind("checkin.shards.hikari", Bindable.ofInstance(shard));
+            shard.setPoolName("HikariCP-shard-" + name);
+            // No son beans: el post-processor de permisos no los ve
+            shards.put(name, VirtualThreadConfig.withConnectionPermits(shard, environment));
+        });
+        return new FlightShardRoutingDataSource(shards, virtualNodes);
+    }
+
+    // La conexión física se pide en la primera sentencia, cuando el servicio ya fijó el vuelo
+    @Bean
+    @Primary
+    public DataSource dataSource(FlightShardRoutingDataSource flightShards) {
+        return new LazyConnectionDataSourceProxy(flightShards);
+    }
+
+    // Las migraciones se aplican en cada shard, no solo en el DataSource principal (el shard por defecto)
+    @Bean
+    public FlywayMigrationStrategy shardMigrationStrategy(FlightShardRoutingDataSource flightShards) {
+        return flyway -> flightShards.getShards().values().forEach(shard ->
+                Flyway.configure().configuration(flyway.getConfiguration()).dataSource(shard).load().migrate());
+    }
+
+    @Bean
+    public FlightShardRebalancer flightShardRebalancer(FlightShardRoutingDataSource flightShards) {
+        return new FlightShardRebalancer(flightShards);
+    }
+
+    // Tras agregar un shard: mueve los vuelos al arrancar, con la nueva lista de shards. Corre al
+    // terminar de crear los singletons (después de Flyway), antes de que Tomcat acepte requests
+    @Bean
+    @ConditionalOnProperty(name = "checkin.shards.rebalance-on-startup", havingValue = "true")
+    public SmartInitializingSingleton shardRebalanceOnStartup(FlightShardRebalancer flightShardRebalancer) {
+        return flightShardRebalancer::rebalance;
+    }
+
+    @Bean
+    public MeterBinder shardPoolMetrics(FlightShardRoutingDataSource flightShards) {
+        return registry -> flightShards.getShards().values().forEach(shard -> {
+            DataSource pool = shard instanceof ConnectionPermitDataSource permits ? permits.getTargetDataSource() : shard;
+            if (pool instanceof HikariDataSource hikari && hikari.getMetricRegistry() == null) {
+                hikari.setMetricRegistry(registry);
+            }
+        });
+    }
+}
@@ -0,0 +1,113 @@
+package com.andesairlines.checkin_api.config;
+
+import com.andesairlines.checkin_api.common.concurrent.VirtualThreadPinningMonitor;
+import com.andesairlines.checkin_api.common.jdbc.ConnectionPermitDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Modo de hilos virtuales ({@code spring.threads.virtual.enabled=true}): Tomcat atiende cada
+ * request en un hilo virtual y los servicios corren en ese mismo hilo.
+ */
+@Configuration
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadConfig {
+
+    private static final int DEFAULT_PERMITS = 10;
+
+    // Las requests esperan un permiso antes de llegar a Hikari, nunca más que las conexiones de cada pool.
+    // El tipo declarado es el concreto: Spring decide el orden de los post-processors por ese tipo
+    @Bean
+    public static ConnectionPermitPostProcessor connectionPermitPostProcessor(
+            @Value("${checkin.virtual-threads.connection-permits:0}") int connectionPermits,
+            @Value("${checkin.virtual-threads.permit-timeout:30s}") Duration permitTimeout) {
+        return new ConnectionPermitPostProcessor(connectionPermits, permitTimeout);
+    }
+
+    /**
+     * Permisos para pools que no son beans (réplicas, shards), solo en el modo de hilos virtuales.
+     */
+    public static DataSource withConnectionPermits(HikariDataSource pool, Environment environment) {
+        if (!Threading.VIRTUAL.isActive(environment)) {
+            return pool;
+        }
+        return new ConnectionPermitPostProcessor(
+                environment.getProperty("checkin.virtual-threads.connection-permits", Integer.class, 0),
+                environment.getProperty("checkin.virtual-threads.permit-timeout", Duration.class, Duration.ofSeconds(30)))
+                .wrap(pool);
+    }
+
+    @Bean
+    public MeterBinder connectionPermitMetrics(Map<String, DataSource> dataSources) {
+        return registry -> dataSources.forEach((name, dataSource) -> {
+            if (dataSource instanceof ConnectionPermitDataSource permits) {
+                Gauge.builder("datasource.permits.available", permits, ConnectionPermitDataSource::getAvailablePermits)
+                        .description("Connection permits not in use")
+                        .tag("datasource", name)
+                        .register(registry);
+                Gauge.builder("datasource.permits.waiting", permits, ConnectionPermitDataSource::getWaitingThreads)
+                        .description("Threads waiting for a connection permit")
+                        .tag("datasource", name)
+                        .register(registry);
+            }
+        });
+    }
+
+    @Bean(destroyMethod = "close")
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(
+            @Value("${checkin.virtual-threads.pinned-threshold:20ms}") Duration pinnedThreshold,
+            MeterRegistry meterRegistry) {
+        return new VirtualThreadPinningMonitor(pinnedThreshold, meterRegistry);
+    }
+
+    /**
+     * {@link PriorityOrdered} para correr antes que otros envoltorios del DataSource (p. ej. el ruteo
+     * a réplicas de {@link ReadReplicaConfig}), de modo que los permisos queden junto al pool.
+     */
+    public record ConnectionPermitPostProcessor(int connectionPermits, Duration permitTimeout)
+            implements BeanPostProcessor, PriorityOrdered {
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            // El ruteo por clase de carga no abre conexiones: los permisos van en cada pool
+            if (!(bean instanceof DataSource dataSource)
+                    || bean instanceof ConnectionPermitDataSource
+                    || bean instanceof AbstractRoutingDataSource
+                    || bean instanceof LazyConnectionDataSourceProxy) {
+                return bean;
+            }
+            return wrap(dataSource);
+        }
+
+        DataSource wrap(DataSource dataSource) {
+            int permits = connectionPermits;
+            if (permits <= 0) {
+                // 0 = el tamaño del pool envuelto
+                permits = dataSource instanceof HikariDataSource hikari ? hikari.getMaximumPoolSize() : DEFAULT_PERMITS;
+            }
+            return new ConnectionPermitDataSource(dataSource, permits, permitTimeout);
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.HIGHEST_PRECEDENCE;
+        }
+    }
+}
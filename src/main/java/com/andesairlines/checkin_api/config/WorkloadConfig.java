@@ -0,0 +1,47 @@
+package com.andesairlines.checkin_api.config;
+
+import com.andesairlines.checkin_api.common.concurrent.LaneExecutor;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadClass;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Ejecutores por clase de carga (bulkheads): lecturas, escrituras interactivas y check-in masivo
+ * no comparten hilos, así una clase saturada no deja sin capacidad a las otras.
+ */
+@Configuration
+public class WorkloadConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public WorkloadExecutor manifestReads(@Value("${checkin.workloads.read.threads:0}") int threads,
+                                          @Value("${checkin.workloads.read.queue-capacity:200}") int queueCapacity,
+                                          MeterRegistry meterRegistry) {
+        return new WorkloadExecutor(WorkloadClass.READ, threads > 0 ? threads : 2 * Runtime.getRuntime().availableProcessors(),
+                queueCapacity, HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1), meterRegistry);
+    }
+
+    // Todas las escrituras de asientos de un vuelo pasan por el mismo carril (un solo hilo)
+    @Bean(destroyMethod = "shutdown")
+    public LaneExecutor flightLanes(@Value("${checkin.lanes.count:0}") int laneCount,
+                                    @Value("${checkin.lanes.queue-capacity:100}") int queueCapacity,
+                                    @Value("${checkin.lanes.timeout:30s}") Duration timeout,
+                                    MeterRegistry meterRegistry) {
+        return new LaneExecutor("flight.lanes", laneCount > 0 ? laneCount : Runtime.getRuntime().availableProcessors(),
+                queueCapacity, timeout, HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1), meterRegistry);
+    }
+
+    // Check-ins masivos en curso a la vez: nunca ocupan más carriles que estos hilos
+    @Bean(destroyMethod = "shutdown")
+    public WorkloadExecutor batchCheckins(@Value("${checkin.workloads.batch.threads:2}") int threads,
+                                         @Value("${checkin.workloads.batch.queue-capacity:50}") int queueCapacity,
+                                         MeterRegistry meterRegistry) {
+        return new WorkloadExecutor(WorkloadClass.BATCH, threads, queueCapacity,
+                HttpStatus.TOO_MANY_REQUESTS, Duration.ofSeconds(5), meterRegistry);
+    }
+}
@@ -0,0 +1,68 @@
+package com.andesairlines.checkin_api.config;
+
+import com.andesairlines.checkin_api.common.concurrent.WorkloadClass;
+import com.andesairlines.checkin_api.common.jdbc.WorkloadRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+
+import javax.sql.DataSource;
+import java.util.Map;
+
+/**
+ * Un pool de Hikari por clase de carga sobre la misma base, detrás de un {@link WorkloadRoutingDataSource}.
+ * <p>
+ * Cada pool toma la configuración común de {@code spring.datasource.hikari} y la sobrescribe con
+ * {@code checkin.workloads.datasources.<clase>}. Sus métricas salen como
+ * {@code hikaricp.connections.*} con tag {@code pool}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "checkin.workloads.datasources.enabled", havingValue = "true")
+public class WorkloadDataSourceConfig {
+
+    @Bean
+    public DataSource readDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(properties, environment, "read");
+    }
+
+    @Bean
+    public DataSource interactiveWriteDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(properties, environment, "interactive-write");
+    }
+
+    @Bean
+    public DataSource batchDataSource(DataSourceProperties properties, Environment environment) {
+        return pool(properties, environment, "batch");
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("readDataSource") DataSource readDataSource,
+                                 @Qualifier("interactiveWriteDataSource") DataSource interactiveWriteDataSource,
+                                 @Qualifier("batchDataSource") DataSource batchDataSource) {
+        WorkloadRoutingDataSource routing = new WorkloadRoutingDataSource();
+        routing.setTargetDataSources(Map.of(
+                WorkloadClass.READ, readDataSource,
+                WorkloadClass.INTERACTIVE_WRITE, interactiveWriteDataSource,
+                WorkloadClass.BATCH, batchDataSource));
+        // Lo que no pasa por un ejecutor de cargas (health checks, arranque) usa el pool interactivo
+        routing.setDefaultTargetDataSource(interactiveWriteDataSource);
+        return routing;
+    }
+
+    private static HikariDataSource pool(DataSourceProperties properties, Environment environment, String workload) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        Binder binder = Binder.get(environment);
+        binder.bind("spring.datasource.hikari", Bindable.ofInstance(dataSource));
+        binder.bind("checkin.workloads.datasources." + workload, Bindable.ofInstance(dataSource));
+        dataSource.setPoolName("HikariCP-" + workload);
+        return dataSource;
+    }
+}
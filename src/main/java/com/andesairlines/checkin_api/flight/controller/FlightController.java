@@ -1,24 +1,47 @@
 package com.andesairlines.checkin_api.flight.controller;
 
+import com.andesairlines.checkin_api.common.concurrent.LaneExecutor;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadClass;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadContext;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadExecutor;
 import com.andesairlines.checkin_api.common.response.ApiResponse;
+import com.andesairlines.checkin_api.common.response.ContentCoding;
+import com.andesairlines.checkin_api.common.response.ResponseFormat;
+import com.andesairlines.checkin_api.common.retry.NamedRetryCallback;
+import com.andesairlines.checkin_api.flight.model.dto.FlightPassengerPage;
 import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
 
-import com.andesairlines.checkin_api.flight.service.CheckinService;
+import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.service.CheckinCoalescer;
+import com.andesairlines.checkin_api.flight.service.FlightManifestResponseCache;
+import com.andesairlines.checkin_api.flight.service.FlightManifestStreamer;
+import com.andesairlines.checkin_api.flight.service.FlightPassengerPageService;
+import com.andesairlines.checkin_api.flight.service.FlightVersionRegistry;
 import com.andesairlines.checkin_api.flight.service.ManualSeatAssignmentService;
 
 import com.andesairlines.checkin_api.passenger.model.dto.PassengerResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
 
 import jakarta.validation.constraints.Pattern;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.retry.RetryOperations;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @RestController
 @RequestMapping("/flights")
@@ -28,23 +51,162 @@ import org.springframework.web.bind.annotation.*;
 @Tag(name = "Flight Management", description = "APIs for flight and seat management")
 public class FlightController {
 
-    private final CheckinService checkinService;
+    private final FlightManifestResponseCache flightManifestResponseCache;
+    private final FlightManifestStreamer flightManifestStreamer;
+    private final FlightPassengerPageService flightPassengerPageService;
+    private final FlightVersionRegistry flightVersionRegistry;
+    private final CheckinCoalescer checkinCoalescer;
     private final ManualSeatAssignmentService manualSeatAssignmentService;
+    private final LaneExecutor flightLanes;
+    private final WorkloadExecutor manifestReads;
+    private final RetryOperations transientRetryTemplate;
 
     @GetMapping("/{flightId}/passengers")
-    @Operation(summary = "Get flight with passengers", description = "Retrieve flight information including all passengers and their seat assignments")
+    @Operation(summary = "Get flight with passengers", description = "Retrieve flight information including all passengers and their seat assignments. "
+            + "With after, limit or fields, returns a page of passengers ordered by boarding pass id with only the requested fields")
     @ApiResponses(value = {
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Flight found successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Flight found successfully",
+                    content = {
+                            @Content(mediaType = "application/json", schema = @Schema(implementation = FlightResponse.class)),
+                            @Content(mediaType = "application/cbor", schema = @Schema(implementation = FlightResponse.class)),
+                            @Content(mediaType = ResponseFormat.APPLICATION_SMILE_VALUE, schema = @Schema(implementation = FlightResponse.class)),
+                            @Content(mediaType = ResponseFormat.APPLICATION_AVRO_VALUE, schema = @Schema(implementation = FlightResponse.class))
+                    }),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Flight not modified since the given ETag"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Bad Request - unknown field or invalid limit"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Flight not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "406", description = "None of the accepted media types is supported"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Too many concurrent manifest reads, see Retry-After")
+    })
+    public ResponseEntity<?> getFlightWithPassengers(
+            @Parameter(description = "Flight ID", required = true)
+            @PathVariable @NotNull Integer flightId,
+
+            @Parameter(description = "ETag of a previously returned manifest")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+
+            @Parameter(description = "Comma separated passenger fields to return (e.g. seatId,name)")
+            @RequestParam(required = false) String fields,
+
+            @Parameter(description = "Return passengers after this boarding pass id (nextCursor of the previous page)")
+            @RequestParam(required = false) Integer after,
+
+            @Parameter(description = "Passengers per page (1-500)")
+            @RequestParam(required = false) @Min(1) @Max(500) Integer limit) {
+
+        log.info("GET /flights/{}/passengers - Fetching flight with passengers", flightId);
+
+        // Cada formato es una representación con su propio ETag
+        ResponseFormat format = ResponseFormat.negotiate(accept);
+
+        // Sin cambios desde la versión del cliente: 304 leyendo solo flight.seat_version, la misma
+        // versión para todas las instancias.
+        // Un manifiesto chico se sirve sin comprimir, así que también vale el ETag sin codificación
+        String currentEtag = format.etag(flightVersionRegistry.etag(flightId, flightVersionRegistry.currentVersion(flightId)));
+        ContentCoding coding = ContentCoding.negotiate(acceptEncoding);
+        if (etagMatches(ifNoneMatch, coding.etag(currentEtag))) {
+            return notModified(coding.etag(currentEtag));
+        }
+        if (etagMatches(ifNoneMatch, currentEtag)) {
+            return notModified(currentEtag);
+        }
+
+        // Página o campos pedidos: se consultan solo esas filas y columnas, sin pasar por la caché
+        if (fields != null || after != null || limit != null) {
+            FlightPassengerPage page = manifestReads.execute(
+                    () -> flightPassengerPageService.getPassengers(flightId, fields, after, limit));
+            return ResponseEntity.ok()
+                    .eTag(currentEtag)
+                    .cacheControl(CacheControl.noCache())
+                    .varyBy(HttpHeaders.ACCEPT)
+                    .body(ApiResponse.success(page));
+        }
+
+        // Manifiesto ya serializado (y comprimido, si el cliente lo acepta) en el formato pedido:
+        // los bytes se escriben directo a la respuesta. Se arma en el ejecutor de lecturas, con su
+        // propio pool de conexiones
+        FlightManifestResponseCache.SerializedManifest manifest =
+                manifestReads.execute(() -> flightManifestResponseCache.getManifest(flightId, format, coding));
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .eTag(manifest.coding().etag(format.etag(flightVersionRegistry.etag(flightId, manifest.version()))))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .contentType(format.mediaType());
+        if (manifest.coding() != ContentCoding.IDENTITY) {
+            response.header(HttpHeaders.CONTENT_ENCODING, manifest.coding().token());
+        }
+        return response.body(manifest.body());
+    }
+
+    @GetMapping(value = "/{flightId}/passengers", params = "stream=true")
+    @Operation(summary = "Stream flight with passengers", description = "Same manifest as the non-streaming endpoint, written row by row from a database cursor. Intended for large flights")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Flight found, manifest streamed",
+                    content = @Content(mediaType = "application/json", schema = @Schema(implementation = FlightResponse.class))),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304", description = "Flight not modified since the given ETag"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Flight not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "406", description = "The client does not accept JSON, the only streamed format"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "503", description = "Too many concurrent manifest reads or streams, see Retry-After")
+    })
+    public ResponseEntity<StreamingResponseBody> streamFlightWithPassengers(
+            @Parameter(description = "Flight ID", required = true)
+            @PathVariable @NotNull Integer flightId,
+
+            @Parameter(description = "ETag of a previously returned manifest")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+
+            @Parameter(hidden = true)
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept) {
+
+        log.info("GET /flights/{}/passengers?stream=true - Streaming flight with passengers", flightId);
+
+        // Solo se escribe JSON fila por fila: cualquier otro Accept es 406 antes de tocar la base
+        ResponseFormat.negotiate(accept, ResponseFormat.JSON);
+
+        // La versión se lee antes que los datos, igual que en la caché de manifiestos
+        String currentEtag = flightVersionRegistry.etag(flightId, flightVersionRegistry.currentVersion(flightId));
+        if (etagMatches(ifNoneMatch, currentEtag)) {
+            return notModified(currentEtag);
+        }
+
+        // El vuelo se busca antes de escribir: un 404 solo puede responderse con la respuesta sin comprometer
+        Flight flight = manifestReads.execute(() -> flightManifestStreamer.findFlight(flightId));
+        // El recorrido corre en el hilo del stream, no en el ejecutor de lecturas: un cliente lento no retiene
+        // sus hilos. Usa el pool de conexiones de lecturas; cuántos streams a la vez lo acota ConcurrencyLimitConfig
+        StreamingResponseBody body = out -> WorkloadContext.supply(WorkloadClass.READ,
+                () -> flightManifestStreamer.writeManifest(flight, out));
+        return ResponseEntity.ok()
+                .eTag(currentEtag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    @PostMapping("/{flightId}/checkin")
+    @Operation(summary = "Perform flight check-in", description = "Assign seats to all passengers without a seat and return the updated flight")
+    @ApiResponses(value = {
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Check-in completed successfully"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Flight not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Seats kept being taken concurrently"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Too many concurrent seat writes, see Retry-After"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
     })
-    public ResponseEntity<ApiResponse<FlightResponse>> getFlightWithPassengers(
+    public ResponseEntity<ApiResponse<FlightResponse>> performCheckin(
             @Parameter(description = "Flight ID", required = true)
             @PathVariable @NotNull Integer flightId) {
 
-        log.info("GET /flights/{}/passengers - Fetching flight with passengers", flightId);
+        log.info("POST /flights/{}/checkin - Performing check-in", flightId);
 
-        FlightResponse flight = checkinService.performCheckin(flightId);
+        FlightResponse flight = checkinCoalescer.performCheckin(flightId);
         return ResponseEntity.ok(ApiResponse.success(flight));
     }
 
@@ -53,8 +215,10 @@ public class FlightController {
     @ApiResponses(value = {
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "Seat assigned successfully"
             ),
-            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Bad Request - invalid seat or seat already taken"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "400", description = "Bad Request - seat type mismatch"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "404", description = "Flight, passenger, or seat not found"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "409", description = "Seat already taken"),
+            @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "429", description = "Too many concurrent seat writes, see Retry-After"),
             @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "500", description = "Internal server error")
     })
     public ResponseEntity<ApiResponse<PassengerResponse>> assignSeat(
@@ -72,7 +236,30 @@ public class FlightController {
 
         log.info("PUT /flights/{}/passengers/{}/seat - Assigning seat {}:{}", flightId, passengerId, seatRow, seatColumn);
 
-        PassengerResponse passenger = manualSeatAssignmentService.assignSeat(flightId, passengerId, seatRow, seatColumn);
+        // Serializada con el resto de escrituras de asientos del vuelo; los reintentos esperan fuera del carril
+        PassengerResponse passenger = transientRetryTemplate.execute(NamedRetryCallback.named("FlightController.assignSeat",
+                context -> flightLanes.execute(flightId, WorkloadClass.INTERACTIVE_WRITE,
+                        () -> manualSeatAssignmentService.assignSeat(flightId, passengerId, seatRow, seatColumn))));
         return ResponseEntity.ok(ApiResponse.success( passenger));
     }
+
+    private static <T> ResponseEntity<T> notModified(String etag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING)
+                .build();
+    }
+
+    private static boolean etagMatches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            if (candidate.trim().equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,22 @@
+package com.andesairlines.checkin_api.flight.model.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Página de pasajeros de un vuelo ordenada por {@code boardingPassId}. Cada pasajero trae solo los
+ * campos pedidos con {@code fields=}; {@code nextCursor} es el valor de {@code after} para la
+ * página siguiente, o {@code null} en la última.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightPassengerPage {
+    private Integer flightId;
+    private List<Map<String, Object>> passengers;
+    private Integer nextCursor;
+}
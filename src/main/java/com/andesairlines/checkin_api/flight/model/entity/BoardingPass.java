@@ -10,7 +10,13 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "boarding_pass")
+@Table(name = "boarding_pass", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_boarding_pass_flight_seat", columnNames = {"flight_id", "seat_id"})
+}, indexes = {
+        @Index(name = "idx_boarding_pass_flight_purchase", columnList = "flight_id, purchase_id"),
+        @Index(name = "idx_boarding_pass_flight_passenger", columnList = "flight_id, passenger_id"),
+        @Index(name = "idx_boarding_pass_flight_boarding_pass", columnList = "flight_id, boarding_pass_id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -32,7 +32,23 @@ public class Flight {
     @Column(name = "airplane_id", nullable = false)
     private Integer airplaneId;
 
+    // Solo lectura desde JPA: la sube FlightRepository.incrementSeatVersion junto con cada cambio de asientos
+    @Column(name = "seat_version", nullable = false, insertable = false, updatable = false)
+    private Long seatVersion;
+
+    // seat_version con la que se armó flight_manifest; null si el vuelo no tiene manifiesto válido
+    @Column(name = "manifest_version", insertable = false, updatable = false)
+    private Long manifestVersion;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "airplane_id", insertable = false, updatable = false)
     private Airplane airplane;
+
+    /**
+     * El manifiesto materializado refleja los asientos actuales del vuelo y se puede leer en lugar
+     * de las tablas normalizadas.
+     */
+    public boolean hasCurrentManifest() {
+        return manifestVersion != null && manifestVersion.equals(seatVersion);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,59 @@
+package com.andesairlines.checkin_api.flight.model.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Fila del manifiesto desnormalizado de un vuelo: boarding pass, pasajero y asiento en
+ * una sola tabla. Se mantiene desde {@code FlightManifestWriter} en la misma transacción
+ * que los cambios de asiento.
+ */
+@Entity
+@Table(name = "flight_manifest", indexes = {
+        @Index(name = "idx_flight_manifest_flight", columnList = "flight_id, purchase_id, boarding_pass_id"),
+        @Index(name = "idx_flight_manifest_flight_boarding_pass", columnList = "flight_id, boarding_pass_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class FlightManifestEntry {
+
+    @Id
+    @Column(name = "boarding_pass_id")
+    private Integer boardingPassId;
+
+    @Column(name = "flight_id", nullable = false)
+    private Integer flightId;
+
+    @Column(name = "purchase_id", nullable = false)
+    private Integer purchaseId;
+
+    @Column(name = "passenger_id", nullable = false)
+    private Integer passengerId;
+
+    @Column(name = "dni", nullable = false, length = 20)
+    private String dni;
+
+    @Column(name = "name", nullable = false, length = 100)
+    private String name;
+
+    @Column(name = "age", nullable = false)
+    private Integer age;
+
+    @Column(name = "country", nullable = false, length = 50)
+    private String country;
+
+    @Column(name = "seat_type_id", nullable = false)
+    private Integer seatTypeId;
+
+    @Column(name = "seat_id")
+    private Integer seatId;
+
+    @Column(name = "seat_row")
+    private Integer seatRow;
+
+    @Column(name = "seat_column", length = 1)
+    private String seatColumn;
+}
@@ -0,0 +1,130 @@
+package com.andesairlines.checkin_api.flight.model.projection;
+
+import com.andesairlines.checkin_api.common.exception.BadRequestException;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Campos de {@link com.andesairlines.checkin_api.flight.model.dto.FlightResponse.PassengerSeatInfo}
+ * que un cliente puede pedir con {@code fields=}, con la columna que los trae en cada fuente.
+ * <p>
+ * Solo se seleccionan las columnas de los campos pedidos, y en las tablas normalizadas solo se
+ * hace el join que esas columnas necesitan.
+ */
+public enum PassengerField {
+
+    PASSENGER_ID("passengerId", "passenger_id", "bp.passenger_id", null, Reader.INTEGER),
+    DNI("dni", "dni", "p.dni", Join.PASSENGER, Reader.STRING),
+    NAME("name", "name", "p.name", Join.PASSENGER, Reader.STRING),
+    AGE("age", "age", "p.age", Join.PASSENGER, Reader.INTEGER),
+    COUNTRY("country", "country", "p.country", Join.PASSENGER, Reader.STRING),
+    BOARDING_PASS_ID("boardingPassId", "boarding_pass_id", "bp.boarding_pass_id", null, Reader.INTEGER),
+    PURCHASE_ID("purchaseId", "purchase_id", "bp.purchase_id", null, Reader.INTEGER),
+    SEAT_TYPE_ID("seatTypeId", "seat_type_id", "bp.seat_type_id", null, Reader.INTEGER),
+    SEAT_ID("seatId", "seat_id", "bp.seat_id", null, Reader.INTEGER),
+    // La fila se expone como texto, igual que en la respuesta completa
+    SEAT_ROW("seatRow", "seat_row", "s.seat_row", Join.SEAT, Reader.INTEGER_AS_STRING),
+    SEAT_COLUMN("seatColumn", "seat_column", "s.seat_column", Join.SEAT, Reader.STRING);
+
+    private final String jsonName;
+    private final String manifestColumn;
+    private final String boardingPassColumn;
+    private final Join join;
+    private final Reader reader;
+
+    PassengerField(String jsonName, String manifestColumn, String boardingPassColumn, Join join, Reader reader) {
+        this.jsonName = jsonName;
+        this.manifestColumn = manifestColumn;
+        this.boardingPassColumn = boardingPassColumn;
+        this.join = join;
+        this.reader = reader;
+    }
+
+    /**
+     * Campos de una lista separada por comas. Vacía o {@code null} equivale a todos los campos.
+     */
+    public static Set<PassengerField> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return EnumSet.allOf(PassengerField.class);
+        }
+
+        Set<PassengerField> parsed = EnumSet.noneOf(PassengerField.class);
+        for (String name : fields.split(",")) {
+            String trimmed = name.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            parsed.add(Arrays.stream(values())
+                    .filter(field -> field.jsonName.equals(trimmed))
+                    .findFirst()
+                    .orElseThrow(() -> new BadRequestException("Unknown passenger field: " + trimmed, "INVALID_FIELD")));
+        }
+        return parsed.isEmpty() ? EnumSet.allOf(PassengerField.class) : parsed;
+    }
+
+    public String jsonName() {
+        return jsonName;
+    }
+
+    public String manifestColumn() {
+        return manifestColumn;
+    }
+
+    public String boardingPassColumn() {
+        return boardingPassColumn;
+    }
+
+    /**
+     * Join sobre {@code boarding_pass bp} que necesita la columna, o {@code null} si está en la tabla.
+     */
+    public Join join() {
+        return join;
+    }
+
+    public Object read(ResultSet resultSet, int column) throws SQLException {
+        return reader.read(resultSet, column);
+    }
+
+    public enum Join {
+        PASSENGER("LEFT JOIN passenger p ON p.passenger_id = bp.passenger_id"),
+        SEAT("LEFT JOIN seat s ON s.seat_id = bp.seat_id");
+
+        private final String sql;
+
+        Join(String sql) {
+            this.sql = sql;
+        }
+
+        public String sql() {
+            return sql;
+        }
+    }
+
+    private enum Reader {
+        INTEGER {
+            @Override
+            Object read(ResultSet resultSet, int column) throws SQLException {
+                return resultSet.getObject(column, Integer.class);
+            }
+        },
+        STRING {
+            @Override
+            Object read(ResultSet resultSet, int column) throws SQLException {
+                return resultSet.getString(column);
+            }
+        },
+        INTEGER_AS_STRING {
+            @Override
+            Object read(ResultSet resultSet, int column) throws SQLException {
+                Integer value = resultSet.getObject(column, Integer.class);
+                return value != null ? value.toString() : null;
+            }
+        };
+
+        abstract Object read(ResultSet resultSet, int column) throws SQLException;
+    }
+}
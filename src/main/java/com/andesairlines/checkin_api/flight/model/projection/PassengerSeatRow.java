@@ -0,0 +1,22 @@
+package com.andesairlines.checkin_api.flight.model.projection;
+
+/**
+ * Una fila del manifiesto con exactamente las columnas de
+ * {@link com.andesairlines.checkin_api.flight.model.dto.FlightResponse.PassengerSeatInfo}.
+ * <p>
+ * Las consultas la construyen directo desde el resultado: no pasa por el contexto de
+ * persistencia, así que no hay entidades administradas ni copias para dirty checking.
+ */
+public record PassengerSeatRow(
+        Integer passengerId,
+        String dni,
+        String name,
+        Integer age,
+        String country,
+        Integer boardingPassId,
+        Integer purchaseId,
+        Integer seatTypeId,
+        Integer seatId,
+        Integer seatRow,
+        String seatColumn) {
+}
@@ -1,8 +1,12 @@
 package com.andesairlines.checkin_api.flight.repository;
 
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,15 +19,36 @@ public interface BoardingPassRepository extends JpaRepository<BoardingPass, Inte
 
     List<BoardingPass> findByFlightId(Integer flightId);
 
-    @Query("SELECT bp FROM BoardingPass bp LEFT JOIN FETCH bp.passenger LEFT JOIN FETCH bp.seat WHERE bp.flightId = :flightId")
-    List<BoardingPass> findBoardingPassesByFlightId(@Param("flightId") Integer flightId);
-
+    // Proyección del manifiesto sin materializar: solo las columnas de la respuesta, sin entidades administradas
+    @Query("""
+            SELECT new com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow(
+                p.passengerId, p.dni, p.name, p.age, p.country,
+                bp.boardingPassId, bp.purchaseId, bp.seatTypeId, bp.seatId, s.seatRow, s.seatColumn)
+            FROM BoardingPass bp
+            LEFT JOIN bp.passenger p
+            LEFT JOIN bp.seat s
+            WHERE bp.flightId = :flightId
+            ORDER BY bp.purchaseId, bp.boardingPassId
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PassengerSeatRow> findPassengerSeatsByFlightId(@Param("flightId") Integer flightId);
+
+    // Solo lectura: la asignación manual escribe el asiento con BoardingPassSeatWriter
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     Optional<BoardingPass> findByFlightIdAndPassengerId(Integer flightId, Integer passengerId);
 
-    @Query("SELECT bp FROM BoardingPass bp WHERE bp.flightId = :flightId AND bp.seatId IS NOT NULL")
-    List<BoardingPass> findAssignedSeatsByFlightId(@Param("flightId") Integer flightId);
+    @Query("SELECT bp.seatId FROM BoardingPass bp WHERE bp.flightId = :flightId AND bp.seatId IS NOT NULL")
+    List<Integer> findAssignedSeatIdsByFlightId(@Param("flightId") Integer flightId);
+
+    // Lectura actual con bloqueo: en REPEATABLE READ (MySQL) ve lo confirmado por otras
+    // transacciones, no la foto tomada al inicio de la propia
+    @Query(value = "SELECT seat_id FROM boarding_pass WHERE flight_id = :flightId AND seat_id IS NOT NULL FOR UPDATE",
+            nativeQuery = true)
+    List<Integer> lockAssignedSeatIdsByFlightId(@Param("flightId") Integer flightId);
 
+    // Solo lectura: el check-in escribe los asientos con BoardingPassSeatWriter, sin dirty checking
     @Query("SELECT bp FROM BoardingPass bp LEFT JOIN FETCH bp.passenger WHERE bp.flightId = :flightId ORDER BY bp.purchaseId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
     List<BoardingPass> findBoardingPassesByFlightIdOrderedByPurchase(@Param("flightId") Integer flightId);
 
     @Query("SELECT bp FROM BoardingPass bp LEFT JOIN FETCH bp.passenger WHERE bp.flightId = :flightId AND bp.purchaseId = :purchaseId")
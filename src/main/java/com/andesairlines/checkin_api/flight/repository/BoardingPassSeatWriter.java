@@ -0,0 +1,78 @@
+package com.andesairlines.checkin_api.flight.repository;
+
+import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Escritura de asientos asignados como un único batch JDBC.
+ * <p>
+ * Con {@code rewriteBatchedStatements=true} (perfil prod) el driver de MySQL envía
+ * todo el batch en un solo round trip. La restricción única {@code (flight_id, seat_id)}
+ * decide quién se queda con cada asiento: los rechazos vuelven como {@link SeatWriteResult}.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class BoardingPassSeatWriter {
+
+    private static final String UPDATE_SEAT_SQL = "UPDATE boarding_pass SET seat_id = ? WHERE boarding_pass_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SeatWriteResult updateSeats(List<BoardingPass> boardingPasses) {
+        if (boardingPasses.isEmpty()) {
+            return SeatWriteResult.written();
+        }
+
+        log.debug("Writing {} seat assignments in one batch", boardingPasses.size());
+
+        try {
+            jdbcTemplate.batchUpdate(UPDATE_SEAT_SQL, new BatchPreparedStatementSetter() {
+                @Override
+                public void setValues(PreparedStatement ps, int i) throws SQLException {
+                    BoardingPass boardingPass = boardingPasses.get(i);
+                    ps.setInt(1, boardingPass.getSeatId());
+                    ps.setInt(2, boardingPass.getBoardingPassId());
+                }
+
+                @Override
+                public int getBatchSize() {
+                    return boardingPasses.size();
+                }
+            });
+            return SeatWriteResult.written();
+        } catch (DuplicateKeyException e) {
+            // El batch no indica de forma portable qué filas fallaron: se reescriben una a una
+            log.warn("Seat conflict in batch of {} assignments, writing row by row", boardingPasses.size());
+            List<BoardingPass> conflicts = new ArrayList<>();
+            for (BoardingPass boardingPass : boardingPasses) {
+                if (!updateSeat(boardingPass)) {
+                    conflicts.add(boardingPass);
+                }
+            }
+            return new SeatWriteResult(conflicts);
+        }
+    }
+
+    /**
+     * Escribe el asiento de un boarding pass. {@code false} si el asiento ya está tomado en el vuelo.
+     */
+    public boolean updateSeat(BoardingPass boardingPass) {
+        try {
+            jdbcTemplate.update(UPDATE_SEAT_SQL, boardingPass.getSeatId(), boardingPass.getBoardingPassId());
+            return true;
+        } catch (DuplicateKeyException e) {
+            return false;
+        }
+    }
+}
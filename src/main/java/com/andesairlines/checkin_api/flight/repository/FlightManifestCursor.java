@@ -0,0 +1,86 @@
+package com.andesairlines.checkin_api.flight.repository;
+
+import com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.function.Consumer;
+
+/**
+ * Recorre el manifiesto de un vuelo fila por fila con un cursor JDBC, sin armar la lista completa.
+ * <p>
+ * Con {@code useCursorFetch} (ver application-prod.yml) MySQL entrega las filas en bloques de
+ * {@code checkin.manifest.stream-fetch-size}; sin esa opción el driver lee el resultado entero
+ * antes de devolver la primera fila. La conexión queda tomada mientras dura el recorrido.
+ */
+@Repository
+@Slf4j
+public class FlightManifestCursor {
+
+    private static final String MANIFEST_SQL = """
+            SELECT passenger_id, dni, name, age, country,
+                   boarding_pass_id, purchase_id, seat_type_id, seat_id, seat_row, seat_column
+            FROM flight_manifest
+            WHERE flight_id = ?
+            ORDER BY purchase_id, boarding_pass_id
+            """;
+
+    private static final String BOARDING_PASS_SQL = """
+            SELECT p.passenger_id, p.dni, p.name, p.age, p.country,
+                   bp.boarding_pass_id, bp.purchase_id, bp.seat_type_id, bp.seat_id, s.seat_row, s.seat_column
+            FROM boarding_pass bp
+            LEFT JOIN passenger p ON p.passenger_id = bp.passenger_id
+            LEFT JOIN seat s ON s.seat_id = bp.seat_id
+            WHERE bp.flight_id = ?
+            ORDER BY bp.purchase_id, bp.boarding_pass_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FlightManifestCursor(DataSource dataSource,
+                                @Value("${checkin.manifest.stream-fetch-size:200}") int fetchSize) {
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+    }
+
+    /**
+     * Entrega cada fila del manifiesto a {@code action} en el orden de la respuesta y devuelve
+     * cuántas fueron. Con {@code fromManifest} en falso (ver {@code Flight.hasCurrentManifest})
+     * se lee desde las tablas normalizadas.
+     */
+    public int forEachRow(Integer flightId, boolean fromManifest, Consumer<PassengerSeatRow> action) {
+        int rows = stream(fromManifest ? MANIFEST_SQL : BOARDING_PASS_SQL, flightId, action);
+        log.debug("Streamed {} manifest rows for flight {}", rows, flightId);
+        return rows;
+    }
+
+    private int stream(String sql, Integer flightId, Consumer<PassengerSeatRow> action) {
+        int[] rows = {0};
+        jdbcTemplate.query(sql, (RowCallbackHandler) resultSet -> {
+            action.accept(toRow(resultSet));
+            rows[0]++;
+        }, flightId);
+        return rows[0];
+    }
+
+    private static PassengerSeatRow toRow(ResultSet resultSet) throws SQLException {
+        return new PassengerSeatRow(
+                resultSet.getObject("passenger_id", Integer.class),
+                resultSet.getString("dni"),
+                resultSet.getString("name"),
+                resultSet.getObject("age", Integer.class),
+                resultSet.getString("country"),
+                resultSet.getObject("boarding_pass_id", Integer.class),
+                resultSet.getObject("purchase_id", Integer.class),
+                resultSet.getObject("seat_type_id", Integer.class),
+                resultSet.getObject("seat_id", Integer.class),
+                resultSet.getObject("seat_row", Integer.class),
+                resultSet.getString("seat_column"));
+    }
+}
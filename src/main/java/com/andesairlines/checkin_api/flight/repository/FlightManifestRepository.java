@@ -0,0 +1,29 @@
+package com.andesairlines.checkin_api.flight.repository;
+
+import com.andesairlines.checkin_api.flight.model.entity.FlightManifestEntry;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface FlightManifestRepository extends JpaRepository<FlightManifestEntry, Integer> {
+
+    // Recorre idx_flight_manifest_flight en orden, proyectado a la respuesta sin entidades administradas
+    @Query("""
+            SELECT new com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow(
+                m.passengerId, m.dni, m.name, m.age, m.country,
+                m.boardingPassId, m.purchaseId, m.seatTypeId, m.seatId, m.seatRow, m.seatColumn)
+            FROM FlightManifestEntry m
+            WHERE m.flightId = :flightId
+            ORDER BY m.purchaseId, m.boardingPassId
+            """)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true"))
+    List<PassengerSeatRow> findPassengerSeatsByFlightId(@Param("flightId") Integer flightId);
+}
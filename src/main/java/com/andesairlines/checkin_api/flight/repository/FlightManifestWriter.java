@@ -0,0 +1,57 @@
+package com.andesairlines.checkin_api.flight.repository;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Mantiene la tabla {@code flight_manifest} sincronizada con los cambios de asiento.
+ * <p>
+ * Se llama dentro de la transacción que escribe {@code boarding_pass}, así el manifiesto
+ * nunca queda con asientos distintos a los confirmados.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class FlightManifestWriter {
+
+    private static final String DELETE_FLIGHT_SQL = "DELETE FROM flight_manifest WHERE flight_id = ?";
+
+    private static final String INSERT_FLIGHT_SQL = """
+            INSERT INTO flight_manifest (boarding_pass_id, flight_id, purchase_id, passenger_id, dni, name, age, country,
+                                         seat_type_id, seat_id, seat_row, seat_column)
+            SELECT bp.boarding_pass_id, bp.flight_id, bp.purchase_id, bp.passenger_id, p.dni, p.name, p.age, p.country,
+                   bp.seat_type_id, bp.seat_id, s.seat_row, s.seat_column
+            FROM boarding_pass bp
+            JOIN passenger p ON p.passenger_id = bp.passenger_id
+            LEFT JOIN seat s ON s.seat_id = bp.seat_id
+            WHERE bp.flight_id = ?
+            """;
+
+    private static final String MARK_CURRENT_SQL = "UPDATE flight SET manifest_version = seat_version WHERE flight_id = ?";
+
+    private static final String UPDATE_SEAT_SQL =
+            "UPDATE flight_manifest SET seat_id = ?, seat_row = ?, seat_column = ? WHERE boarding_pass_id = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Reconstruye el manifiesto completo del vuelo desde las tablas normalizadas y lo marca como
+     * vigente para la versión de asientos actual.
+     */
+    public void rebuild(Integer flightId) {
+        jdbcTemplate.update(DELETE_FLIGHT_SQL, flightId);
+        int rows = jdbcTemplate.update(INSERT_FLIGHT_SQL, flightId);
+        jdbcTemplate.update(MARK_CURRENT_SQL, flightId);
+        log.debug("Rebuilt manifest for flight {} with {} rows", flightId, rows);
+    }
+
+    /**
+     * Actualiza el asiento de un boarding pass. Si el vuelo aún no tiene manifiesto no hace nada:
+     * la lectura usa las tablas normalizadas hasta el primer check-in.
+     */
+    public void updateSeat(Integer boardingPassId, Integer seatId, Integer seatRow, String seatColumn) {
+        jdbcTemplate.update(UPDATE_SEAT_SQL, seatId, seatRow, seatColumn, boardingPassId);
+    }
+}
@@ -0,0 +1,76 @@
+package com.andesairlines.checkin_api.flight.repository;
+
+import com.andesairlines.checkin_api.flight.model.projection.PassengerField;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Páginas de pasajeros por keyset sobre {@code boarding_pass_id}, con solo las columnas pedidas.
+ * <p>
+ * Cada página es un rango del índice {@code (flight_id, boarding_pass_id)}: el costo no crece con
+ * el número de página como con {@code OFFSET}. El SQL se arma solo con columnas de
+ * {@link PassengerField}, nunca con texto del cliente.
+ */
+@Repository
+@RequiredArgsConstructor
+@Slf4j
+public class FlightPassengerPageRepository {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /**
+     * Hasta {@code limit} pasajeros con {@code boarding_pass_id} mayor que {@code after}, cada uno
+     * con los campos pedidos en el orden de {@link PassengerField}. Con {@code fromManifest} en
+     * falso (ver {@code Flight.hasCurrentManifest}) se lee desde las tablas normalizadas.
+     */
+    public List<PageRow> findPage(Integer flightId, boolean fromManifest, Set<PassengerField> fields, Integer after, int limit) {
+        int afterId = after != null ? after : 0;
+        String sql = fromManifest ? manifestSql(fields) : boardingPassSql(fields);
+        List<PageRow> page = jdbcTemplate.query(sql, (resultSet, rowNum) -> toRow(resultSet, fields), flightId, afterId, limit);
+        log.debug("Read {} passengers of flight {} after {} with fields {}", page.size(), flightId, afterId, fields);
+        return page;
+    }
+
+    private static String manifestSql(Set<PassengerField> fields) {
+        return "SELECT boarding_pass_id"
+                + fields.stream().map(field -> ", " + field.manifestColumn()).collect(Collectors.joining())
+                + " FROM flight_manifest WHERE flight_id = ? AND boarding_pass_id > ? ORDER BY boarding_pass_id LIMIT ?";
+    }
+
+    private static String boardingPassSql(Set<PassengerField> fields) {
+        Set<PassengerField.Join> joins = new LinkedHashSet<>();
+        fields.stream().map(PassengerField::join).filter(Objects::nonNull).forEach(joins::add);
+        return "SELECT bp.boarding_pass_id"
+                + fields.stream().map(field -> ", " + field.boardingPassColumn()).collect(Collectors.joining())
+                + " FROM boarding_pass bp "
+                + joins.stream().map(join -> join.sql() + " ").collect(Collectors.joining())
+                + "WHERE bp.flight_id = ? AND bp.boarding_pass_id > ? ORDER BY bp.boarding_pass_id LIMIT ?";
+    }
+
+    private static PageRow toRow(ResultSet resultSet, Set<PassengerField> fields) throws SQLException {
+        Map<String, Object> values = new LinkedHashMap<>();
+        int column = 2;
+        for (PassengerField field : fields) {
+            values.put(field.jsonName(), field.read(resultSet, column++));
+        }
+        return new PageRow(resultSet.getInt(1), values);
+    }
+
+    /**
+     * Pasajero de la página: {@code boardingPassId} es el cursor aunque no se haya pedido el campo.
+     */
+    public record PageRow(Integer boardingPassId, Map<String, Object> fields) {
+    }
+}
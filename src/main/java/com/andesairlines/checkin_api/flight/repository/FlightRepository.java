@@ -2,6 +2,7 @@ package com.andesairlines.checkin_api.flight.repository;
 
 import com.andesairlines.checkin_api.flight.model.entity.Flight;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
@@ -13,4 +14,19 @@ public interface FlightRepository extends JpaRepository<Flight, Integer> {
 
     @Query("SELECT f FROM Flight f LEFT JOIN FETCH f.airplane WHERE f.flightId = :flightId")
     Optional<Flight> findByIdWithAirplane(@Param("flightId") Integer flightId);
+
+    @Query("SELECT f.seatVersion FROM Flight f WHERE f.flightId = :flightId")
+    Optional<Long> findSeatVersionById(@Param("flightId") Integer flightId);
+
+    // Corre en la transacción que escribe los asientos: la versión nueva se ve recién al confirmar.
+    // Un manifiesto al día acompaña la versión (quien llama ya lo actualizó); uno viejo sigue atrás.
+    // manifestVersion va primero: MySQL evalúa las asignaciones en orden y necesita el seatVersion anterior.
+    @Modifying
+    @Query("""
+            UPDATE Flight f
+            SET f.manifestVersion = CASE WHEN f.manifestVersion = f.seatVersion THEN f.seatVersion + 1 ELSE f.manifestVersion END,
+                f.seatVersion = f.seatVersion + 1
+            WHERE f.flightId = :flightId
+            """)
+    int incrementSeatVersion(@Param("flightId") Integer flightId);
 }
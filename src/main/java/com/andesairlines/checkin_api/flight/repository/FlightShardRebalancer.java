@@ -0,0 +1,173 @@
+package com.andesairlines.checkin_api.flight.repository;
+
+import com.andesairlines.checkin_api.common.jdbc.FlightShardRoutingDataSource;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.ToIntFunction;
+
+/**
+ * Mueve cada vuelo al shard que le corresponde según el anillo actual, p. ej. después de agregar
+ * un shard a {@code checkin.shards.datasources}.
+ * <p>
+ * Mientras dura el rebalanceo, cada vuelo pendiente queda fijado ({@link FlightShardRoutingDataSource#pin})
+ * a su shard actual y se pasa al destino recién cuando la copia está confirmada. Por vuelo se
+ * bloquean sus filas en el origen, se copian {@code flight}, {@code boarding_pass} y
+ * {@code flight_manifest} al destino en una transacción y se borran del origen. Si una ejecución
+ * anterior ya copió el vuelo, el destino se conserva tal cual (pudo recibir escrituras) y solo se
+ * borra el origen. Los pasajeros y compras se copian si faltan y no se borran del origen, porque
+ * pueden compartirse con vuelos que se quedan.
+ * <p>
+ * Los fijados viven en memoria de esta instancia: con varias instancias, el rebalanceo debe
+ * correr antes de que las demás empiecen a atender con el nuevo anillo.
+ */
+@RequiredArgsConstructor
+@Slf4j
+public class FlightShardRebalancer {
+
+    // Orden de inserción: seat referencia a airplane y seat_type
+    private static final Map<String, String> REFERENCE_TABLES = referenceTables();
+
+    private final FlightShardRoutingDataSource flightShards;
+
+    public record ShardMove(Integer flightId, String fromShard, String toShard) {
+    }
+
+    /**
+     * Vuelos guardados en un shard distinto del que les asigna el anillo.
+     */
+    public List<ShardMove> plan() {
+        List<ShardMove> moves = new ArrayList<>();
+        flightShards.getShards().forEach((shard, dataSource) -> {
+            for (Integer flightId : new JdbcTemplate(dataSource).queryForList("SELECT flight_id FROM flight", Integer.class)) {
+                String owner = flightShards.getRing().nodeFor(flightId);
+                if (!owner.equals(shard)) {
+                    moves.add(new ShardMove(flightId, shard, owner));
+                }
+            }
+        });
+        return moves;
+    }
+
+    /**
+     * Replica las tablas de referencia y mueve los vuelos del {@link #plan()}.
+     */
+    public List<ShardMove> rebalance() {
+        replicateReferenceData();
+        List<ShardMove> moves = plan();
+        log.info("Rebalancing {} flights across {} shards", moves.size(), flightShards.getShards().size());
+        // Hasta que su copia se confirme, cada vuelo se sigue atendiendo desde el shard donde está.
+        // Si un movimiento falla, los pendientes quedan fijados a su origen
+        moves.forEach(move -> flightShards.pin(move.flightId(), move.fromShard()));
+        moves.forEach(this::move);
+        return moves;
+    }
+
+    /**
+     * Copia a cada shard las filas de referencia del shard por defecto que le falten.
+     */
+    public int replicateReferenceData() {
+        JdbcTemplate source = new JdbcTemplate(flightShards.getShards().get(flightShards.getDefaultShard()));
+        int copied = 0;
+        for (Map.Entry<String, DataSource> shard : flightShards.getShards().entrySet()) {
+            if (shard.getKey().equals(flightShards.getDefaultShard())) {
+                continue;
+            }
+            for (Map.Entry<String, String> table : REFERENCE_TABLES.entrySet()) {
+                List<Map<String, Object>> rows = source.queryForList("SELECT * FROM " + table.getKey());
+                copied += inTransaction(shard.getValue(), target -> insertMissing(target, table.getKey(), table.getValue(), rows));
+            }
+        }
+        log.info("Replicated {} reference rows", copied);
+        return copied;
+    }
+
+    private void move(ShardMove move) {
+        DataSource targetDataSource = flightShards.getShards().get(move.toShard());
+        Integer flightId = move.flightId();
+
+        // Las filas del vuelo quedan bloqueadas en el origen hasta borrarlas: ninguna escritura
+        // entra entre la copia y el borrado
+        int copied = inTransaction(flightShards.getShards().get(move.fromShard()), source -> {
+            List<Map<String, Object>> flights = source.queryForList("SELECT * FROM flight WHERE flight_id = ? FOR UPDATE", flightId);
+            List<Map<String, Object>> boardingPasses = source.queryForList(
+                    "SELECT * FROM boarding_pass WHERE flight_id = ? FOR UPDATE", flightId);
+            List<Map<String, Object>> manifest = source.queryForList("SELECT * FROM flight_manifest WHERE flight_id = ?", flightId);
+            List<Map<String, Object>> passengers = source.queryForList(
+                    "SELECT * FROM passenger WHERE passenger_id IN (SELECT passenger_id FROM boarding_pass WHERE flight_id = ?)", flightId);
+            List<Map<String, Object>> purchases = source.queryForList(
+                    "SELECT * FROM purchase WHERE purchase_id IN (SELECT purchase_id FROM boarding_pass WHERE flight_id = ?)", flightId);
+
+            int rows = inTransaction(targetDataSource, target -> {
+                if (flightExists(target, flightId)) {
+                    log.warn("Flight {} already on shard {}, keeping its rows and dropping the copy on shard {}",
+                            flightId, move.toShard(), move.fromShard());
+                    return 0;
+                }
+                insertMissing(target, "passenger", "passenger_id", passengers);
+                insertMissing(target, "purchase", "purchase_id", purchases);
+                insert(target, "flight", flights);
+                insert(target, "boarding_pass", boardingPasses);
+                insert(target, "flight_manifest", manifest);
+                return boardingPasses.size();
+            });
+            flightShards.unpin(flightId);
+            deleteFlight(source, flightId);
+            return rows;
+        });
+
+        log.info("Moved flight {} from shard {} to shard {} ({} boarding passes copied)",
+                flightId, move.fromShard(), move.toShard(), copied);
+    }
+
+    private static boolean flightExists(JdbcTemplate jdbcTemplate, Integer flightId) {
+        Integer count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM flight WHERE flight_id = ?", Integer.class, flightId);
+        return count != null && count > 0;
+    }
+
+    private static int deleteFlight(JdbcTemplate jdbcTemplate, Integer flightId) {
+        jdbcTemplate.update("DELETE FROM flight_manifest WHERE flight_id = ?", flightId);
+        jdbcTemplate.update("DELETE FROM boarding_pass WHERE flight_id = ?", flightId);
+        return jdbcTemplate.update("DELETE FROM flight WHERE flight_id = ?", flightId);
+    }
+
+    private static int insertMissing(JdbcTemplate target, String table, String key, List<Map<String, Object>> rows) {
+        Set<Object> existing = new HashSet<>(target.queryForList("SELECT " + key + " FROM " + table, Object.class));
+        return insert(target, table, rows.stream().filter(row -> !existing.contains(row.get(key))).toList());
+    }
+
+    private static int insert(JdbcTemplate target, String table, List<Map<String, Object>> rows) {
+        if (rows.isEmpty()) {
+            return 0;
+        }
+        List<String> columns = List.copyOf(rows.get(0).keySet());
+        String sql = "INSERT INTO " + table + " (" + String.join(", ", columns) + ") VALUES ("
+                + String.join(", ", columns.stream().map(column -> "?").toList()) + ")";
+        target.batchUpdate(sql, rows.stream().map(row -> columns.stream().map(row::get).toArray()).toList());
+        return rows.size();
+    }
+
+    private static int inTransaction(DataSource dataSource, ToIntFunction<JdbcTemplate> work) {
+        Integer result = new TransactionTemplate(new DataSourceTransactionManager(dataSource))
+                .execute(status -> work.applyAsInt(new JdbcTemplate(dataSource)));
+        return result == null ? 0 : result;
+    }
+
+    private static Map<String, String> referenceTables() {
+        Map<String, String> tables = new LinkedHashMap<>();
+        tables.put("seat_type", "seat_type_id");
+        tables.put("airplane", "airplane_id");
+        tables.put("seat", "seat_id");
+        return tables;
+    }
+}
@@ -0,0 +1,22 @@
+package com.andesairlines.checkin_api.flight.repository;
+
+import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
+
+import java.util.List;
+
+/**
+ * Resultado de escribir asientos: los boarding passes cuyo asiento rechazó la restricción
+ * única {@code (flight_id, seat_id)} porque otro escritor ya lo había tomado.
+ */
+public record SeatWriteResult(List<BoardingPass> conflicts) {
+
+    private static final SeatWriteResult WRITTEN = new SeatWriteResult(List.of());
+
+    public static SeatWriteResult written() {
+        return WRITTEN;
+    }
+
+    public boolean hasConflicts() {
+        return !conflicts.isEmpty();
+    }
+}
@@ -0,0 +1,68 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.concurrent.LaneExecutor;
+import com.andesairlines.checkin_api.common.concurrent.SingleFlight;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadClass;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadExecutor;
+import com.andesairlines.checkin_api.common.retry.NamedRetryCallback;
+import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.retry.RetryOperations;
+import org.springframework.stereotype.Service;
+
+/**
+ * Punto de entrada del comando de check-in: un solo check-in por vuelo a la vez.
+ * <p>
+ * Los kioscos que piden el check-in del mismo vuelo mientras uno está en curso comparten
+ * su resultado en vez de asignar asientos en paralelo sobre los mismos boarding passes.
+ * La ejecución corre en el carril del vuelo ({@code flightLanes}), serializada con las
+ * asignaciones manuales, pero entra a través de {@code batchCheckins}: pocos check-ins a la
+ * vez, así nunca ocupan todos los carriles ni todas las conexiones. Las fallas transitorias se
+ * reintentan desde aquí, con la espera en el hilo que llama y no en el carril.
+ */
+@Service
+@Slf4j
+public class CheckinCoalescer {
+
+    private final CheckinService checkinService;
+    private final LaneExecutor flightLanes;
+    private final WorkloadExecutor batchCheckins;
+    private final RetryOperations transientRetryTemplate;
+    private final SingleFlight<Integer, FlightResponse> checkins = new SingleFlight<>();
+    private final Counter executedCounter;
+    private final Counter coalescedCounter;
+
+    public CheckinCoalescer(CheckinService checkinService, LaneExecutor flightLanes, WorkloadExecutor batchCheckins,
+                            RetryOperations transientRetryTemplate, MeterRegistry meterRegistry) {
+        this.checkinService = checkinService;
+        this.flightLanes = flightLanes;
+        this.batchCheckins = batchCheckins;
+        this.transientRetryTemplate = transientRetryTemplate;
+        this.executedCounter = Counter.builder("checkin.requests")
+                .description("Check-in requests that ran the assignment")
+                .tag("outcome", "executed")
+                .register(meterRegistry);
+        this.coalescedCounter = Counter.builder("checkin.requests")
+                .description("Check-in requests that shared an in-flight check-in of the same flight")
+                .tag("outcome", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("checkin.in.flight", checkins, SingleFlight::inFlightCount)
+                .description("Flights with a check-in currently running")
+                .register(meterRegistry);
+    }
+
+    public FlightResponse performCheckin(Integer flightId) {
+        return checkins.execute(flightId, () -> {
+            executedCounter.increment();
+            return transientRetryTemplate.execute(NamedRetryCallback.named("CheckinCoalescer.performCheckin",
+                    context -> batchCheckins.execute(() -> flightLanes.execute(flightId, WorkloadClass.BATCH,
+                            () -> checkinService.performCheckin(flightId)))));
+        }, () -> {
+            coalescedCounter.increment();
+            log.debug("Joining in-flight check-in for flight {}", flightId);
+        });
+    }
+}
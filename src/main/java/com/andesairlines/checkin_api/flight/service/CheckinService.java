@@ -1,21 +1,26 @@
 package com.andesairlines.checkin_api.flight.service;
 
+import com.andesairlines.checkin_api.airplane.service.AirplaneLayoutService;
+import com.andesairlines.checkin_api.common.exception.ConflictException;
 import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.common.jdbc.ShardContext;
 import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
 import com.andesairlines.checkin_api.flight.model.entity.Flight;
 import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import com.andesairlines.checkin_api.flight.repository.BoardingPassSeatWriter;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestWriter;
 import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import com.andesairlines.checkin_api.flight.repository.SeatWriteResult;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.Cacheable;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
@@ -24,16 +29,26 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class CheckinService {
     
+    private static final int MAX_REPLACEMENT_ROUNDS = 3;
+    
     private final FlightRepository flightRepository;
     private final BoardingPassRepository boardingPassRepository;
+    private final BoardingPassSeatWriter boardingPassSeatWriter;
+    private final FlightManifestWriter flightManifestWriter;
     private final SeatAssignmentService seatAssignmentService;
+    private final AirplaneLayoutService airplaneLayoutService;
     private final FlightResponseMapper flightResponseMapper;
+    private final FlightVersionRegistry flightVersionRegistry;
+    private final SeatClaimRegistry seatClaimRegistry;
     
-    @Cacheable(value = "flights", key = "#flightId")
-    @Retryable(value = {Exception.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000, multiplier = 2))
+    // Sin @Retryable: CheckinCoalescer reintenta afuera del carril, donde esperar no frena a otros vuelos
+    @Transactional
     public FlightResponse performCheckin(Integer flightId) {
         log.info("Performing check-in for flight: {}", flightId);
-        
+        return ShardContext.onFlight(flightId, () -> checkin(flightId));
+    }
+
+    private FlightResponse checkin(Integer flightId) {
         // 1. Obtener el vuelo
         Flight flight = flightRepository.findByIdWithAirplane(flightId)
                 .orElseThrow(() -> new NotFoundException("Flight not found with ID: " + flightId));
@@ -45,12 +60,50 @@ public class CheckinService {
         Map<Integer, List<BoardingPass>> groups = boardingPasses.stream()
                 .collect(Collectors.groupingBy(BoardingPass::getPurchaseId));
         
-        // 4. Asignar asientos por grupos
+        // 4. Asignar asientos por grupos (en memoria)
+        List<BoardingPass> unassigned = boardingPasses.stream()
+                .filter(bp -> bp.getSeatId() == null)
+                .toList();
         seatAssignmentService.assignSeatsForAllGroups(groups, flight.getAirplaneId());
         
-        // 5. Obtener boarding passes actualizados
-        List<BoardingPass> updatedBoardingPasses = boardingPassRepository.findBoardingPassesByFlightId(flightId);
+        // 5. Escribir todas las asignaciones nuevas en un solo batch; si otro escritor tomó
+        //    alguno de esos asientos, se reubica solo a esos pasajeros
+        List<BoardingPass> newlyAssigned = unassigned.stream()
+                .filter(bp -> bp.getSeatId() != null)
+                .toList();
+        SeatWriteResult result = boardingPassSeatWriter.updateSeats(newlyAssigned);
+        Set<Integer> refusedSeatIds = new HashSet<>();
+        for (int round = 1; result.hasConflicts(); round++) {
+            if (round > MAX_REPLACEMENT_ROUNDS) {
+                throw new ConflictException("Could not place " + result.conflicts().size()
+                        + " passengers on flight " + flightId + " due to concurrent seat changes");
+            }
+            result = replaceConflicts(flightId, flight.getAirplaneId(), result.conflicts(), refusedSeatIds);
+        }
+        
+        // 6. Materializar el manifiesto del vuelo en la misma transacción
+        flightManifestWriter.rebuild(flightId);
+        flightVersionRegistry.markChanged(flightId);
+        seatClaimRegistry.invalidate(flightId);
+        
+        return flightResponseMapper.mapToFlightResponse(flight, boardingPasses,
+                airplaneLayoutService.getLayout(flight.getAirplaneId()));
+    }
+    
+    private SeatWriteResult replaceConflicts(Integer flightId, Integer airplaneId, List<BoardingPass> conflicts,
+                                             Set<Integer> refusedSeatIds) {
+        log.warn("{} seats on flight {} were taken concurrently, re-placing those passengers", conflicts.size(), flightId);
+        
+        // Asientos ocupados según la base: lectura con bloqueo, que ve lo confirmado por otros
+        // escritores. Los asientos rechazados se suman igual: ya se sabe que tienen dueño
+        conflicts.forEach(bp -> refusedSeatIds.add(bp.getSeatId()));
+        Set<Integer> takenSeatIds = new HashSet<>(boardingPassRepository.lockAssignedSeatIdsByFlightId(flightId));
+        takenSeatIds.addAll(refusedSeatIds);
+        conflicts.forEach(bp -> bp.setSeatId(null));
+        seatAssignmentService.replaceSeats(conflicts, takenSeatIds, airplaneId);
         
-        return flightResponseMapper.mapToFlightResponse(flight, updatedBoardingPasses);
+        return boardingPassSeatWriter.updateSeats(conflicts.stream()
+                .filter(bp -> bp.getSeatId() != null)
+                .toList());
     }
 }
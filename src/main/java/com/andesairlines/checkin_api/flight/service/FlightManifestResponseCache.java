@@ -0,0 +1,134 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.concurrent.SingleFlight;
+import com.andesairlines.checkin_api.common.response.ApiResponse;
+import com.andesairlines.checkin_api.common.response.ContentCoding;
+import com.andesairlines.checkin_api.common.response.ResponseCompressor;
+import com.andesairlines.checkin_api.common.response.ResponseEncoder;
+import com.andesairlines.checkin_api.common.response.ResponseFormat;
+import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * Caché del manifiesto ya serializado ({@code ApiResponse<FlightResponse>}) por vuelo y formato.
+ * <p>
+ * Cada entrada guarda la versión del vuelo ({@link FlightVersionRegistry}) con la que se
+ * generó; un cambio de asientos en cualquier instancia sube la versión en la base y la
+ * entrada deja de servirse en todas. Los aciertos
+ * se escriben tal cual a la respuesta, sin pasar por Jackson. Cada {@link ResponseFormat}
+ * pedido tiene su propia entrada.
+ * <p>
+ * Las versiones comprimidas ({@link ContentCoding}) también se guardan por versión: se comprime
+ * una vez por vuelo, formato y codificación, y todos los clientes que la aceptan reciben los
+ * mismos bytes.
+ * <p>
+ * Las fallas concurrentes de una misma entrada y versión se resuelven con un solo cálculo
+ * ({@link SingleFlight}): tras un cambio de asientos, un vuelo muy consultado se vuelve a leer y
+ * serializar una vez, no una por request.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightManifestResponseCache {
+
+    static final String CACHE_NAME = "manifests";
+
+    private final FlightService flightService;
+    private final FlightVersionRegistry flightVersionRegistry;
+    private final ResponseEncoder responseEncoder;
+    private final ResponseCompressor responseCompressor;
+    private final CacheManager cacheManager;
+    private final SingleFlight<LoadKey, SerializedManifest> loads = new SingleFlight<>();
+
+    public SerializedManifest getManifest(Integer flightId) {
+        return getManifest(flightId, ResponseFormat.JSON);
+    }
+
+    public SerializedManifest getManifest(Integer flightId, ResponseFormat format) {
+        // La versión se lee antes que los datos: si cambia durante la consulta, la entrada queda obsoleta
+        long version = flightVersionRegistry.currentVersion(flightId);
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        ManifestKey key = new ManifestKey(flightId, format, ContentCoding.IDENTITY);
+
+        SerializedManifest cached = cached(cache, key, version);
+        if (cached != null) {
+            return cached;
+        }
+        return loads.execute(new LoadKey(key, version), () -> {
+            // Otra carga de la misma versión pudo terminar entre la consulta a la caché y este punto
+            SerializedManifest loaded = cached(cache, key, version);
+            if (loaded != null) {
+                return loaded;
+            }
+            log.debug("Serializing manifest for flight {} at version {} as {}", flightId, version, format);
+            FlightResponse flight = flightService.getFlightWithPassengers(flightId);
+            byte[] body = responseEncoder.encode(ApiResponse.success(flight),
+                    responseEncoder.apiResponseOf(FlightResponse.class), format);
+            SerializedManifest manifest = new SerializedManifest(flightId, version, format, body);
+            cache.put(key, manifest);
+            return manifest;
+        }, () -> log.debug("Joining in-flight serialization of flight {} at version {} as {}", flightId, version, format));
+    }
+
+    /**
+     * Manifiesto comprimido con {@code coding}. Si la respuesta es demasiado chica para que
+     * compense, se devuelve sin comprimir ({@link SerializedManifest#coding()} es IDENTITY).
+     */
+    public SerializedManifest getManifest(Integer flightId, ResponseFormat format, ContentCoding coding) {
+        SerializedManifest identity = getManifest(flightId, format);
+        if (coding == ContentCoding.IDENTITY || !responseCompressor.shouldCompress(identity.body().length)) {
+            return identity;
+        }
+
+        Cache cache = cacheManager.getCache(CACHE_NAME);
+        ManifestKey key = new ManifestKey(flightId, format, coding);
+
+        SerializedManifest cached = cached(cache, key, identity.version());
+        if (cached != null) {
+            responseCompressor.recordServed(coding, identity.body().length, cached.body().length, cached.compressionNanos());
+            return cached;
+        }
+
+        // Solo quien comprime gasta CPU en este request; el resto recibe los bytes ya comprimidos
+        boolean[] compressedHere = {false};
+        SerializedManifest manifest = loads.execute(new LoadKey(key, identity.version()), () -> {
+            SerializedManifest loaded = cached(cache, key, identity.version());
+            if (loaded != null) {
+                return loaded;
+            }
+            log.debug("Compressing manifest for flight {} at version {} as {} with {}", flightId, identity.version(), format, coding);
+            ResponseCompressor.Compressed compressed = responseCompressor.compress(identity.body(), coding);
+            SerializedManifest compressedManifest = new SerializedManifest(flightId, identity.version(), format, coding,
+                    compressed.body(), compressed.cpuNanos());
+            cache.put(key, compressedManifest);
+            compressedHere[0] = true;
+            return compressedManifest;
+        }, () -> log.debug("Joining in-flight compression of flight {} at version {} with {}", flightId, identity.version(), coding));
+        responseCompressor.recordServed(coding, identity.body().length, manifest.body().length,
+                compressedHere[0] ? 0 : manifest.compressionNanos());
+        return manifest;
+    }
+
+    private static SerializedManifest cached(Cache cache, ManifestKey key, long version) {
+        SerializedManifest cached = cache.get(key, SerializedManifest.class);
+        return cached != null && cached.version() == version ? cached : null;
+    }
+
+    public record SerializedManifest(Integer flightId, long version, ResponseFormat format, ContentCoding coding,
+                                     byte[] body, long compressionNanos) {
+
+        public SerializedManifest(Integer flightId, long version, ResponseFormat format, byte[] body) {
+            this(flightId, version, format, ContentCoding.IDENTITY, body, 0);
+        }
+    }
+
+    record ManifestKey(Integer flightId, ResponseFormat format, ContentCoding coding) {
+    }
+
+    private record LoadKey(ManifestKey key, long version) {
+    }
+}
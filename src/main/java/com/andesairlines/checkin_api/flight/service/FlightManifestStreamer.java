@@ -0,0 +1,94 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.common.jdbc.ShardContext;
+import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestCursor;
+import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Escribe el manifiesto de vuelos grandes directo a la respuesta, con el mismo JSON que
+ * {@link FlightManifestResponseCache} ({@code ApiResponse<FlightResponse>}).
+ * <p>
+ * Las filas llegan desde {@link FlightManifestCursor} y pasan una a una por el generador de
+ * Jackson: la memoria por request no depende de la cantidad de pasajeros.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class FlightManifestStreamer {
+
+    private final FlightRepository flightRepository;
+    private final FlightManifestCursor flightManifestCursor;
+    private final FlightResponseMapper flightResponseMapper;
+    private final ReplicaLagGuard replicaLagGuard;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * Datos del vuelo, leídos antes de empezar a escribir: un vuelo inexistente aún puede responderse con 404.
+     */
+    public Flight findFlight(Integer flightId) {
+        return ShardContext.onFlight(flightId, () -> flightRepository.findById(flightId)
+                .orElseThrow(() -> new NotFoundException("Flight not found with id: " + flightId)));
+    }
+
+    /**
+     * Escribe el manifiesto en {@code out} y devuelve la cantidad de pasajeros. No cierra el stream.
+     */
+    public int writeManifest(Flight flight, OutputStream out) {
+        Integer flightId = flight.getFlightId();
+        return ShardContext.onFlight(flightId, () -> replicaLagGuard.read(flightId, () -> write(flight, out)));
+    }
+
+    private int write(Flight flight, OutputStream out) {
+        try (JsonGenerator generator = objectMapper.createGenerator(out)) {
+            // Si el recorrido falla a mitad, el JSON queda truncado en vez de cerrarse como si estuviera completo
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_JSON_CONTENT);
+
+            // Mismo orden de campos que ApiResponse y FlightResponse
+            generator.writeStartObject();
+            generator.writeNumberField("code", 200);
+            generator.writeObjectFieldStart("data");
+            generator.writeObjectField("flightId", flight.getFlightId());
+            generator.writeObjectField("takeoffDateTime", flight.getTakeoffDateTime());
+            generator.writeObjectField("takeoffAirport", flight.getTakeoffAirport());
+            generator.writeObjectField("landingDateTime", flight.getLandingDateTime());
+            generator.writeObjectField("landingAirport", flight.getLandingAirport());
+            generator.writeObjectField("airplaneId", flight.getAirplaneId());
+            generator.writeArrayFieldStart("passengers");
+            int passengers = flightManifestCursor.forEachRow(flight.getFlightId(), flight.hasCurrentManifest(),
+                    row -> writeRow(generator, row));
+            generator.writeEndArray();
+            generator.writeEndObject();
+            generator.writeNullField("errors");
+            generator.writeEndObject();
+
+            log.debug("Streamed manifest for flight {} with {} passengers", flight.getFlightId(), passengers);
+            return passengers;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Could not stream manifest for flight " + flight.getFlightId(), e);
+        }
+    }
+
+    private void writeRow(JsonGenerator generator, PassengerSeatRow row) {
+        try {
+            generator.writeObject(flightResponseMapper.mapToPassengerSeatInfo(row));
+        } catch (IOException e) {
+            // El cliente cortó la conexión: se aborta el cursor
+            throw new UncheckedIOException(e);
+        }
+    }
+}
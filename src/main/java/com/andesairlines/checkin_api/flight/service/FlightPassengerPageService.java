@@ -0,0 +1,61 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.common.jdbc.ShardContext;
+import com.andesairlines.checkin_api.flight.model.dto.FlightPassengerPage;
+import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerField;
+import com.andesairlines.checkin_api.flight.repository.FlightPassengerPageRepository;
+import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Listado paginado de pasajeros para clientes que no necesitan el manifiesto completo
+ * (móvil, kioscos): páginas por cursor y solo los campos pedidos, ambos resueltos en SQL.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class FlightPassengerPageService {
+
+    private final FlightRepository flightRepository;
+    private final FlightPassengerPageRepository flightPassengerPageRepository;
+    private final ReplicaLagGuard replicaLagGuard;
+
+    @Value("${checkin.passengers.page-size:100}")
+    private int defaultPageSize = 100;
+
+    public FlightPassengerPage getPassengers(Integer flightId, String fields, Integer after, Integer limit) {
+        Set<PassengerField> selected = PassengerField.parse(fields);
+        int pageSize = limit != null ? limit : defaultPageSize;
+        log.info("Fetching passengers of flight {} after {} (limit {}, fields {})", flightId, after, pageSize, selected);
+
+        return ShardContext.onFlight(flightId,
+                () -> replicaLagGuard.read(flightId, () -> readPage(flightId, selected, after, pageSize)));
+    }
+
+    private FlightPassengerPage readPage(Integer flightId, Set<PassengerField> fields, Integer after, int pageSize) {
+        Flight flight = flightRepository.findById(flightId)
+                .orElseThrow(() -> new NotFoundException("Flight not found with id: " + flightId));
+
+        // Misma regla que el manifiesto completo, decidida una vez: cada página cuesta una sola consulta.
+        // Una fila de más indica si hay página siguiente, sin contar el resto
+        List<FlightPassengerPageRepository.PageRow> rows = flightPassengerPageRepository.findPage(
+                flightId, flight.hasCurrentManifest(), fields, after, pageSize + 1);
+
+        boolean hasMore = rows.size() > pageSize;
+        List<FlightPassengerPageRepository.PageRow> page = hasMore ? rows.subList(0, pageSize) : rows;
+        Integer nextCursor = hasMore ? page.get(page.size() - 1).boardingPassId() : null;
+        return new FlightPassengerPage(flightId,
+                page.stream().map(FlightPassengerPageRepository.PageRow::fields).toList(),
+                nextCursor);
+    }
+}
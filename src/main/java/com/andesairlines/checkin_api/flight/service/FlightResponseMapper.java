@@ -1,12 +1,15 @@
 package com.andesairlines.checkin_api.flight.service;
 
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
 import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
 import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayList;
 import java.util.List;
 
 @Component
@@ -15,6 +18,11 @@ import java.util.List;
 public class FlightResponseMapper {
     
     public FlightResponse mapToFlightResponse(Flight flight, List<BoardingPass> boardingPasses) {
+        return mapToFlightResponse(flight, boardingPasses, null);
+    }
+
+    // Con layout, la fila/columna se resuelve desde la distribución compilada en vez de la entidad Seat
+    public FlightResponse mapToFlightResponse(Flight flight, List<BoardingPass> boardingPasses, AirplaneLayout layout) {
         FlightResponse response = new FlightResponse();
         response.setFlightId(flight.getFlightId());
         response.setTakeoffDateTime(flight.getTakeoffDateTime());
@@ -26,7 +34,7 @@ public class FlightResponseMapper {
         if (boardingPasses != null) {
             response.setPassengers(
                 boardingPasses.stream()
-                    .map(this::mapToPassengerSeatInfo)
+                    .map(bp -> mapToPassengerSeatInfo(bp, layout))
                     .toList()
             );
         }
@@ -34,7 +42,26 @@ public class FlightResponseMapper {
         return response;
     }
     
-    private FlightResponse.PassengerSeatInfo mapToPassengerSeatInfo(BoardingPass bp) {
+    // Filas proyectadas por la consulta: se copian tal cual, sin navegar entidades
+    public FlightResponse mapRowsToFlightResponse(Flight flight, List<PassengerSeatRow> rows) {
+        FlightResponse response = mapToFlightResponse(flight, null, null);
+        List<FlightResponse.PassengerSeatInfo> passengers = new ArrayList<>(rows.size());
+        for (PassengerSeatRow row : rows) {
+            passengers.add(mapToPassengerSeatInfo(row));
+        }
+        response.setPassengers(passengers);
+        return response;
+    }
+
+    public FlightResponse.PassengerSeatInfo mapToPassengerSeatInfo(PassengerSeatRow row) {
+        return new FlightResponse.PassengerSeatInfo(
+                row.passengerId(), row.dni(), row.name(), row.age(), row.country(),
+                row.boardingPassId(), row.purchaseId(), row.seatTypeId(), row.seatId(),
+                row.seatRow() != null ? row.seatRow().toString() : null,
+                row.seatRow() != null ? row.seatColumn() : null);
+    }
+
+    private FlightResponse.PassengerSeatInfo mapToPassengerSeatInfo(BoardingPass bp, AirplaneLayout layout) {
         FlightResponse.PassengerSeatInfo passengerInfo = new FlightResponse.PassengerSeatInfo();
         
         if (bp.getPassenger() != null) {
@@ -50,7 +77,13 @@ public class FlightResponseMapper {
         passengerInfo.setSeatTypeId(bp.getSeatTypeId());
         passengerInfo.setSeatId(bp.getSeatId());
         
-        if (bp.getSeat() != null) {
+        if (layout != null) {
+            int position = bp.getSeatId() != null ? layout.positionOf(bp.getSeatId()) : -1;
+            if (position >= 0) {
+                passengerInfo.setSeatRow(String.valueOf(layout.seatRow(position)));
+                passengerInfo.setSeatColumn(layout.seatColumn(position));
+            }
+        } else if (bp.getSeat() != null) {
             passengerInfo.setSeatRow(bp.getSeat().getSeatRow().toString());
             passengerInfo.setSeatColumn(bp.getSeat().getSeatColumn());
         }
@@ -0,0 +1,63 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.jdbc.ShardContext;
+import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Versión monótona por vuelo, incrementada con cada cambio de asientos.
+ * <p>
+ * La versión vive en {@code flight.seat_version} y se sube en la misma transacción que escribe
+ * los asientos: al confirmar la ven todas las instancias, no solo la que atendió la escritura.
+ * Quien lea la versión antes de consultar el manifiesto nunca asocia datos nuevos a una
+ * versión que luego se invalide sin haberlos visto.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class FlightVersionRegistry {
+
+    private final FlightRepository flightRepository;
+    private final ReplicaLagGuard replicaLagGuard;
+
+    /**
+     * Versión confirmada del vuelo; 0 si el vuelo no existe.
+     */
+    @Transactional(readOnly = true)
+    public long currentVersion(Integer flightId) {
+        return ShardContext.onFlight(flightId, () -> replicaLagGuard.read(flightId,
+                () -> flightRepository.findSeatVersionById(flightId).orElse(0L)));
+    }
+
+    /**
+     * ETag fuerte del manifiesto del vuelo en la versión indicada. Solo depende de la versión
+     * guardada en la base: todas las instancias responden el mismo ETag para los mismos asientos.
+     */
+    public String etag(Integer flightId, long version) {
+        return "\"" + flightId + "-" + version + "\"";
+    }
+
+    /**
+     * Sube la versión del vuelo dentro de la transacción que escribe sus asientos. Al confirmar,
+     * las lecturas del vuelo en esta instancia van al primario mientras las réplicas se ponen al día.
+     */
+    public void markChanged(Integer flightId) {
+        flightRepository.incrementSeatVersion(flightId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    replicaLagGuard.recordChange(flightId);
+                }
+            });
+        } else {
+            replicaLagGuard.recordChange(flightId);
+        }
+        log.debug("Bumped seat version of flight {}", flightId);
+    }
+}
@@ -0,0 +1,51 @@
+package com.andesairlines.checkin_api.flight.service;
+
+/**
+ * Índice por fila del bloque más largo de asientos libres contiguos.
+ * <p>
+ * Árbol de segmentos de máximos sobre las filas: responde "primera fila con un
+ * bloque de al menos k asientos" en O(log filas) y actualiza una fila en O(log filas).
+ */
+public class FreeRunIndex {
+
+    private final int rowCount;
+    private final int leafOffset;
+    private final int[] longestRun;
+
+    public FreeRunIndex(int rowCount) {
+        this.rowCount = rowCount;
+        int leaves = 1;
+        while (leaves < rowCount) {
+            leaves <<= 1;
+        }
+        this.leafOffset = leaves;
+        this.longestRun = new int[leaves * 2];
+    }
+
+    public void update(int row, int run) {
+        int node = leafOffset + row;
+        longestRun[node] = run;
+        for (node >>= 1; node > 0; node >>= 1) {
+            longestRun[node] = Math.max(longestRun[node * 2], longestRun[node * 2 + 1]);
+        }
+    }
+
+    public int longestRun(int row) {
+        return longestRun[leafOffset + row];
+    }
+
+    /**
+     * Primera fila (en orden ascendente) con un bloque libre de al menos {@code run}
+     * asientos, o {@code -1} si no existe.
+     */
+    public int firstRowWithRun(int run) {
+        if (rowCount == 0 || longestRun[1] < run) {
+            return -1;
+        }
+        int node = 1;
+        while (node < leafOffset) {
+            node = longestRun[node * 2] >= run ? node * 2 : node * 2 + 1;
+        }
+        return node - leafOffset;
+    }
+}
@@ -1,12 +1,9 @@
 package com.andesairlines.checkin_api.flight.service;
 
-import com.andesairlines.checkin_api.airplane.model.entity.Seat;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
-import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
@@ -15,13 +12,11 @@ import java.util.stream.Collectors;
 @Service
 @RequiredArgsConstructor
 @Slf4j
-@Transactional
 public class GroupSeatAssignmentService {
     
-    private final BoardingPassRepository boardingPassRepository;
     private final ConsecutiveSeatAssignmentService consecutiveSeatAssignmentService;
     
-    public void assignSeatsForGroup(List<BoardingPass> group, List<Seat> availableSeats, Integer airplaneId) {
+    public void assignSeatsForGroup(List<BoardingPass> group, SeatOccupancy occupancy, Integer airplaneId) {
         log.debug("Assigning seats for group with {} passengers", group.size());
         
         // Separar menores y adultos
@@ -35,15 +30,15 @@ public class GroupSeatAssignmentService {
         
         // Si hay menores, asegurar que estén junto a adultos
         if (!minors.isEmpty() && !adults.isEmpty()) {
-            assignSeatsWithMinors(group, minors, adults, availableSeats, airplaneId);
+            assignSeatsWithMinors(group, minors, adults, occupancy, airplaneId);
         } else {
             // Grupo sin menores, asignar normalmente
-            assignSeatsNormally(group, availableSeats, airplaneId);
+            assignSeatsNormally(group, occupancy, airplaneId);
         }
     }
     
     private void assignSeatsWithMinors(List<BoardingPass> group, List<BoardingPass> minors, 
-                                     List<BoardingPass> adults, List<Seat> availableSeats, Integer airplaneId) {
+                                     List<BoardingPass> adults, SeatOccupancy occupancy, Integer airplaneId) {
         log.debug("Assigning seats for group with {} minors and {} adults", minors.size(), adults.size());
         
         // Agrupar por tipo de asiento
@@ -54,11 +49,11 @@ public class GroupSeatAssignmentService {
             Integer seatTypeId = entry.getKey();
             List<BoardingPass> passengersOfType = entry.getValue();
             
-            consecutiveSeatAssignmentService.assignSeatsForPassengers(passengersOfType, availableSeats, seatTypeId);
+            consecutiveSeatAssignmentService.assignSeatsForPassengers(passengersOfType, occupancy, seatTypeId);
         }
     }
     
-    private void assignSeatsNormally(List<BoardingPass> group, List<Seat> availableSeats, Integer airplaneId) {
+    private void assignSeatsNormally(List<BoardingPass> group, SeatOccupancy occupancy, Integer airplaneId) {
         log.debug("Assigning seats normally for group with {} passengers", group.size());
         
         // Agrupar por tipo de asiento
@@ -69,7 +64,7 @@ public class GroupSeatAssignmentService {
             Integer seatTypeId = entry.getKey();
             List<BoardingPass> passengersOfType = entry.getValue();
             
-            consecutiveSeatAssignmentService.assignSeatsForPassengers(passengersOfType, availableSeats, seatTypeId);
+            consecutiveSeatAssignmentService.assignSeatsForPassengers(passengersOfType, occupancy, seatTypeId);
         }
     }
 }
@@ -1,23 +1,22 @@
 package com.andesairlines.checkin_api.flight.service;
 
-import com.andesairlines.checkin_api.airplane.model.entity.Seat;
-import com.andesairlines.checkin_api.airplane.repository.SeatRepository;
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+import com.andesairlines.checkin_api.airplane.service.AirplaneLayoutService;
 import com.andesairlines.checkin_api.common.exception.BadRequestException;
+import com.andesairlines.checkin_api.common.exception.ConflictException;
 import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.common.jdbc.ShardContext;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
 import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import com.andesairlines.checkin_api.flight.repository.BoardingPassSeatWriter;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestWriter;
 import com.andesairlines.checkin_api.passenger.model.dto.PassengerResponse;
 import com.andesairlines.checkin_api.passenger.service.PassengerResponseMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.retry.annotation.Backoff;
-import org.springframework.retry.annotation.Retryable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
-
 @Service
 @RequiredArgsConstructor
 @Slf4j
@@ -25,41 +24,57 @@ import java.util.List;
 public class ManualSeatAssignmentService {
     
     private final BoardingPassRepository boardingPassRepository;
-    private final SeatRepository seatRepository;
+    private final BoardingPassSeatWriter boardingPassSeatWriter;
+    private final FlightManifestWriter flightManifestWriter;
+    private final AirplaneLayoutService airplaneLayoutService;
     private final PassengerResponseMapper passengerResponseMapper;
+    private final FlightVersionRegistry flightVersionRegistry;
+    private final SeatClaimRegistry seatClaimRegistry;
     
-    @CacheEvict(value = "flights", key = "#flightId")
-    @Retryable(value = {Exception.class}, maxAttempts = 3, backoff = @Backoff(delay = 1000, multiplier = 2))
+    // Se ejecuta en el carril del vuelo; FlightController la reintenta alrededor del carril
     public PassengerResponse assignSeat(Integer flightId, Integer passengerId, Integer seatRow, String seatColumn) {
         log.info("Assigning seat {}:{} to passenger {} on flight {}", seatRow, seatColumn, passengerId, flightId);
-        
+        return ShardContext.onFlight(flightId, () -> assign(flightId, passengerId, seatRow, seatColumn));
+    }
+
+    private PassengerResponse assign(Integer flightId, Integer passengerId, Integer seatRow, String seatColumn) {
         // Buscar el boarding pass
         BoardingPass boardingPass = boardingPassRepository.findByFlightIdAndPassengerId(flightId, passengerId)
                 .orElseThrow(() -> new NotFoundException("Boarding pass not found for passenger " + passengerId + " on flight " + flightId));
         
-        // Buscar el asiento
-        Seat seat = seatRepository.findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, boardingPass.getFlight().getAirplaneId())
-                .orElseThrow(() -> new NotFoundException("Seat not found: " + seatRow + seatColumn));
+        // Buscar el asiento en la distribución del avión
+        AirplaneLayout layout = airplaneLayoutService.getLayout(boardingPass.getFlight().getAirplaneId());
+        int position = layout.positionOf(seatRow, seatColumn);
+        if (position < 0) {
+            throw new NotFoundException("Seat not found: " + seatRow + seatColumn);
+        }
+        int seatId = layout.seatId(position);
         
         // Verificar que el tipo de asiento coincida
-        if (!seat.getSeatTypeId().equals(boardingPass.getSeatTypeId())) {
-            throw new BadRequestException("Seat type mismatch. Expected: " + boardingPass.getSeatTypeId() + ", Found: " + seat.getSeatTypeId());
+        if (!boardingPass.getSeatTypeId().equals(layout.seatTypeId(position))) {
+            throw new BadRequestException("Seat type mismatch. Expected: " + boardingPass.getSeatTypeId() + ", Found: " + layout.seatTypeId(position));
         }
         
-        // Verificar que el asiento esté disponible
-        List<BoardingPass> assignedSeats = boardingPassRepository.findAssignedSeatsByFlightId(flightId);
-        boolean seatTaken = assignedSeats.stream().anyMatch(bp -> seat.getSeatId().equals(bp.getSeatId()));
-        
-        if (seatTaken) {
-            throw new BadRequestException("Seat " + seatRow + seatColumn + " is already taken");
+        // Reclamar el asiento con compare-and-set: si otro pasajero lo tiene (o lo está tomando) falla
+        SeatClaimMap claims = seatClaimRegistry.claim(flightId, layout, position);
+        if (claims == null) {
+            throw new ConflictException("Seat " + seatRow + seatColumn + " is already taken");
         }
+        int previousPosition = boardingPass.getSeatId() != null ? layout.positionOf(boardingPass.getSeatId()) : -1;
+        seatClaimRegistry.settleOnCompletion(claims, position, previousPosition);
         
-        // Asignar el asiento
-        boardingPass.setSeatId(seat.getSeatId());
-        boardingPassRepository.save(boardingPass);
+        // Asignar el asiento: la restricción única (flight_id, seat_id) tiene la última palabra
+        boardingPass.setSeatId(seatId);
+        if (!boardingPassSeatWriter.updateSeat(boardingPass)) {
+            // Otro escritor lo tomó sin pasar por este mapa: se vuelve a hidratar desde la base
+            seatClaimRegistry.invalidate(flightId);
+            throw new ConflictException("Seat " + seatRow + seatColumn + " is already taken");
+        }
+        flightManifestWriter.updateSeat(boardingPass.getBoardingPassId(), seatId, layout.seatRow(position), layout.seatColumn(position));
+        flightVersionRegistry.markChanged(flightId);
         
         log.info("Successfully assigned seat {}:{} to passenger {} on flight {}", seatRow, seatColumn, passengerId, flightId);
         
-        return passengerResponseMapper.mapToPassengerResponse(boardingPass, seat);
+        return passengerResponseMapper.mapToPassengerResponse(boardingPass, layout, position);
     }
 }
@@ -0,0 +1,50 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.jdbc.ReadRoutingContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Lecturas de un vuelo que no toleran el retraso de las réplicas.
+ * <p>
+ * Un vuelo que esta instancia modificó dentro de {@code checkin.replicas.lag-window} se lee
+ * desde el primario: una réplica atrasada devolvería los asientos anteriores al cambio. Sin
+ * réplicas configuradas {@link ReadRoutingContext} no tiene efecto.
+ */
+@Component
+public class ReplicaLagGuard {
+
+    private final Duration lagWindow;
+    private final ConcurrentMap<Integer, Long> changedAtNanos = new ConcurrentHashMap<>();
+
+    public ReplicaLagGuard(@Value("${checkin.replicas.lag-window:5s}") Duration lagWindow) {
+        this.lagWindow = lagWindow;
+    }
+
+    /**
+     * Registra un cambio ya confirmado del vuelo.
+     */
+    public void recordChange(Integer flightId) {
+        changedAtNanos.put(flightId, System.nanoTime());
+    }
+
+    /**
+     * Ejecuta la lectura del vuelo, en el primario si el vuelo cambió hace menos que el retraso tolerado.
+     */
+    public <T> T read(Integer flightId, Supplier<T> read) {
+        if (changedWithinLagWindow(flightId)) {
+            return ReadRoutingContext.onPrimary(read);
+        }
+        return read.get();
+    }
+
+    private boolean changedWithinLagWindow(Integer flightId) {
+        Long changedAt = changedAtNanos.get(flightId);
+        return changedAt != null && System.nanoTime() - changedAt < lagWindow.toNanos();
+    }
+}
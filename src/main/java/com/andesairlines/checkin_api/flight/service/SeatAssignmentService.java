@@ -1,15 +1,17 @@
 package com.andesairlines.checkin_api.flight.service;
 
-import com.andesairlines.checkin_api.airplane.model.entity.Seat;
-import com.andesairlines.checkin_api.airplane.repository.SeatRepository;
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+import com.andesairlines.checkin_api.airplane.service.AirplaneLayoutService;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
-import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.stream.Collectors;
 
 @Service
@@ -17,35 +19,70 @@ import java.util.stream.Collectors;
 @Slf4j
 @Transactional
 public class SeatAssignmentService {
-    
-    private final SeatRepository seatRepository;
-    private final BoardingPassRepository boardingPassRepository;
+
+    private final AirplaneLayoutService airplaneLayoutService;
     private final GroupSeatAssignmentService groupSeatAssignmentService;
-    
+    private final ForkJoinPool seatAssignmentPool;
+
+    @Value("${checkin.assignment.parallel-threshold:0}")
+    private int parallelThreshold;
+
     public void assignSeatsForAllGroups(Map<Integer, List<BoardingPass>> groups, Integer airplaneId) {
         log.info("Starting seat assignment for {} groups", groups.size());
-        
-        // Obtener todos los asientos del avión
-        List<Seat> allSeats = seatRepository.findByAirplaneId(airplaneId);
-        
-        // Obtener todos los boarding passes para filtrar asientos ya asignados
-        List<BoardingPass> allBoardingPasses = groups.values().stream()
+
+        // Distribución de asientos del avión (compilada y cacheada por avión)
+        AirplaneLayout layout = airplaneLayoutService.getLayout(airplaneId);
+
+        // Asientos ya asignados en el vuelo
+        Set<Integer> assignedSeatIds = groups.values().stream()
                 .flatMap(List::stream)
-                .collect(Collectors.toList());
-        
-        // Filtrar asientos ya asignados
-        Set<Integer> assignedSeatIds = allBoardingPasses.stream()
-                .filter(bp -> bp.getSeatId() != null)
                 .map(BoardingPass::getSeatId)
+                .filter(Objects::nonNull)
                 .collect(Collectors.toSet());
-        
-        List<Seat> availableSeats = allSeats.stream()
-                .filter(seat -> !assignedSeatIds.contains(seat.getSeatId()))
-                .collect(Collectors.toList());
-        
+
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, assignedSeatIds);
+
+        int passengerCount = groups.values().stream().mapToInt(List::size).sum();
+        if (parallelThreshold > 0 && passengerCount >= parallelThreshold) {
+            assignSeatsInParallel(groups, occupancy, airplaneId);
+            return;
+        }
+
         // Asignar asientos por grupos
         for (Map.Entry<Integer, List<BoardingPass>> groupEntry : groups.entrySet()) {
-            groupSeatAssignmentService.assignSeatsForGroup(groupEntry.getValue(), availableSeats, airplaneId);
+            groupSeatAssignmentService.assignSeatsForGroup(groupEntry.getValue(), occupancy, airplaneId);
+        }
+    }
+
+    /**
+     * Reubica solo los pasajeros indicados, con {@code takenSeatIds} como ocupados. Se usa cuando
+     * la restricción única rechazó sus asientos porque otro escritor los tomó primero.
+     */
+    public void replaceSeats(List<BoardingPass> passengers, Collection<Integer> takenSeatIds, Integer airplaneId) {
+        SeatOccupancy occupancy = SeatOccupancy.of(airplaneLayoutService.getLayout(airplaneId), takenSeatIds);
+        passengers.stream()
+                .collect(Collectors.groupingBy(BoardingPass::getPurchaseId, LinkedHashMap::new, Collectors.toList()))
+                .values()
+                .forEach(group -> groupSeatAssignmentService.assignSeatsForGroup(group, occupancy, airplaneId));
+    }
+
+    private void assignSeatsInParallel(Map<Integer, List<BoardingPass>> groups, SeatOccupancy occupancy, Integer airplaneId) {
+        // Los tipos de asiento son pools disjuntos: cada uno recorre los grupos en el mismo
+        // orden que el modo secuencial, por lo que el resultado es idéntico
+        Map<Integer, List<List<BoardingPass>>> groupsBySeatType = new LinkedHashMap<>();
+        for (List<BoardingPass> group : groups.values()) {
+            group.stream()
+                    .collect(Collectors.groupingBy(BoardingPass::getSeatTypeId, LinkedHashMap::new, Collectors.toList()))
+                    .forEach((seatTypeId, passengersOfType) ->
+                            groupsBySeatType.computeIfAbsent(seatTypeId, type -> new ArrayList<>()).add(passengersOfType));
         }
+
+        log.debug("Assigning {} seat type pools in parallel", groupsBySeatType.size());
+
+        List<ForkJoinTask<?>> tasks = groupsBySeatType.values().stream()
+                .<ForkJoinTask<?>>map(pool -> seatAssignmentPool.submit(() -> pool.forEach(
+                        passengersOfType -> groupSeatAssignmentService.assignSeatsForGroup(passengersOfType, occupancy, airplaneId))))
+                .toList();
+        tasks.forEach(ForkJoinTask::join);
     }
 }
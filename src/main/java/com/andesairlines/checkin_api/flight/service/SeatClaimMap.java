@@ -0,0 +1,52 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bitmap de asientos reclamados de un vuelo, indexado por posición de
+ * {@link com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout}.
+ * <p>
+ * Thread-safe y sin locks: cada reclamo es un compare-and-set sobre la palabra de 64 bits
+ * que contiene la posición, así dos asignaciones manuales del mismo asiento no pueden
+ * ganar ambas.
+ */
+public final class SeatClaimMap {
+
+    private final AtomicLongArray words;
+
+    public SeatClaimMap(int positionCount) {
+        this.words = new AtomicLongArray((positionCount + 63) >>> 6);
+    }
+
+    /**
+     * Reclama la posición. {@code false} si ya estaba reclamada.
+     */
+    public boolean tryClaim(int position) {
+        int index = position >>> 6;
+        long mask = 1L << position;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) != 0) {
+                return false;
+            }
+        } while (!words.compareAndSet(index, word, word | mask));
+        return true;
+    }
+
+    public void release(int position) {
+        int index = position >>> 6;
+        long mask = 1L << position;
+        long word;
+        do {
+            word = words.get(index);
+            if ((word & mask) == 0) {
+                return;
+            }
+        } while (!words.compareAndSet(index, word, word & ~mask));
+    }
+
+    public boolean isClaimed(int position) {
+        return (words.get(position >>> 6) & (1L << position)) != 0;
+    }
+}
@@ -0,0 +1,125 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+/**
+ * Mapas de asientos reclamados por vuelo ({@link SeatClaimMap}).
+ * <p>
+ * Cada mapa se hidrata desde la base de datos la primera vez que se usa y desde ahí es la
+ * fuente de verdad en memoria para la disponibilidad en la asignación manual. El check-in
+ * automático escribe asientos en bloque, así que al terminar descarta el mapa del vuelo
+ * y el siguiente uso lo vuelve a hidratar; lo mismo ocurre si la base rechaza un asiento
+ * que el mapa daba por libre.
+ * <p>
+ * El mapa es local a cada instancia: un asiento liberado a través de otra instancia sigue
+ * ocupado aquí. Por eso un reclamo rechazado se confirma contra la base antes de responder
+ * 409, y los mapas se descartan a los pocos minutos de hidratados aunque sigan en uso.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class SeatClaimRegistry {
+
+    private final BoardingPassRepository boardingPassRepository;
+    private final Cache<Integer, SeatClaimMap> claimsByFlight = Caffeine.newBuilder()
+            .maximumSize(1_000)
+            .expireAfterWrite(Duration.ofMinutes(5))
+            .build();
+
+    public SeatClaimMap forFlight(Integer flightId, AirplaneLayout layout) {
+        SeatClaimMap claims = claimsByFlight.getIfPresent(flightId);
+        if (claims != null) {
+            return claims;
+        }
+        // Se hidrata fuera de Cache.get(key, loader): la consulta correría dentro del lock del
+        // mapa y fijaría el hilo virtual a su carrier. Si dos hilos hidratan a la vez, gana el primero
+        SeatClaimMap hydrated = hydrate(flightId, layout);
+        SeatClaimMap existing = claimsByFlight.asMap().putIfAbsent(flightId, hydrated);
+        return existing != null ? existing : hydrated;
+    }
+
+    /**
+     * Reclama el asiento en el mapa del vuelo. Si el mapa lo da por ocupado se vuelve a hidratar
+     * desde la base antes de rechazar; devuelve el mapa donde quedó reclamado o {@code null}.
+     */
+    public SeatClaimMap claim(Integer flightId, AirplaneLayout layout, int position) {
+        SeatClaimMap claims = forFlight(flightId, layout);
+        if (claims.tryClaim(position)) {
+            return claims;
+        }
+        SeatClaimMap refreshed = hydrate(flightId, layout);
+        if (refreshed.isClaimed(position)) {
+            return null;
+        }
+        // El mapa estaba desactualizado (el asiento se liberó en otra instancia)
+        log.debug("Seat claims for flight {} were stale, replacing them", flightId);
+        SeatClaimMap current = claimsByFlight.asMap().merge(flightId, refreshed,
+                (existing, fresh) -> existing == claims ? fresh : existing);
+        return current.tryClaim(position) ? current : null;
+    }
+
+    /**
+     * Resuelve un reclamo al terminar la transacción: si confirma se libera el asiento anterior
+     * del pasajero, si se revierte se libera el asiento reclamado.
+     */
+    public void settleOnCompletion(SeatClaimMap claims, int claimedPosition, int previousPosition) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            settle(claims, claimedPosition, previousPosition, true);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                settle(claims, claimedPosition, previousPosition, status == STATUS_COMMITTED);
+            }
+        });
+    }
+
+    /**
+     * Descarta el mapa del vuelo al terminar la transacción actual (o de inmediato si no hay una).
+     */
+    public void invalidate(Integer flightId) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            claimsByFlight.invalidate(flightId);
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                claimsByFlight.invalidate(flightId);
+            }
+        });
+    }
+
+    private SeatClaimMap hydrate(Integer flightId, AirplaneLayout layout) {
+        SeatClaimMap claims = new SeatClaimMap(layout.getPositionCount());
+        int assigned = 0;
+        for (Integer seatId : boardingPassRepository.findAssignedSeatIdsByFlightId(flightId)) {
+            int position = layout.positionOf(seatId);
+            if (position >= 0) {
+                claims.tryClaim(position);
+                assigned++;
+            }
+        }
+        log.debug("Hydrated seat claims for flight {} with {} assigned seats", flightId, assigned);
+        return claims;
+    }
+
+    private static void settle(SeatClaimMap claims, int claimedPosition, int previousPosition, boolean committed) {
+        if (!committed) {
+            claims.release(claimedPosition);
+        } else if (previousPosition >= 0 && previousPosition != claimedPosition) {
+            claims.release(previousPosition);
+        }
+    }
+}
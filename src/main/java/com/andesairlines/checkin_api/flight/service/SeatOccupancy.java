@@ -0,0 +1,144 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Ocupación de asientos de un vuelo durante el check-in.
+ * <p>
+ * Se construye sobre la grilla de posiciones de {@link AirplaneLayout} y mantiene un
+ * bitmap de asientos libres por tipo de asiento. Las búsquedas recorren los bits
+ * de una fila en lugar de filtrar y reordenar listas de asientos, y un
+ * {@link FreeRunIndex} por tipo ubica la primera fila con bloques libres suficientes.
+ * <p>
+ * No es thread-safe en general: se construye y se usa dentro de un único check-in.
+ * Los bitmaps de distintos tipos de asiento son independientes, así que cada tipo
+ * puede asignarse desde un hilo distinto (ver {@link SeatAssignmentService}).
+ */
+public class SeatOccupancy {
+
+    private static final int[] NO_POSITIONS = new int[0];
+
+    private final AirplaneLayout layout;
+    private final Map<Integer, BitSet> freeSeatsByType;
+    private final Map<Integer, FreeRunIndex> freeRunsByType;
+
+    private SeatOccupancy(AirplaneLayout layout) {
+        this.layout = layout;
+        this.freeSeatsByType = new HashMap<>();
+        this.freeRunsByType = new HashMap<>();
+    }
+
+    public static SeatOccupancy of(AirplaneLayout layout, Collection<Integer> takenSeatIds) {
+        SeatOccupancy occupancy = new SeatOccupancy(layout);
+        for (int position = 0; position < layout.getPositionCount(); position++) {
+            if (layout.hasSeat(position) && !takenSeatIds.contains(layout.seatId(position))) {
+                occupancy.freeSeatsByType
+                        .computeIfAbsent(layout.seatTypeId(position), type -> new BitSet(layout.getPositionCount()))
+                        .set(position);
+            }
+        }
+
+        occupancy.freeSeatsByType.forEach((seatTypeId, free) -> {
+            FreeRunIndex runs = new FreeRunIndex(layout.getRowCount());
+            for (int row = 0; row < layout.getRowCount(); row++) {
+                runs.update(row, occupancy.longestRunInRow(free, row));
+            }
+            occupancy.freeRunsByType.put(seatTypeId, runs);
+        });
+        return occupancy;
+    }
+
+    public AirplaneLayout getLayout() {
+        return layout;
+    }
+
+    public int freeSeatCount(Integer seatTypeId) {
+        BitSet free = freeSeatsByType.get(seatTypeId);
+        return free == null ? 0 : free.cardinality();
+    }
+
+    public boolean isFree(Integer seatId) {
+        int position = layout.positionOf(seatId);
+        if (position < 0) {
+            return false;
+        }
+        BitSet free = freeSeatsByType.get(layout.seatTypeId(position));
+        return free != null && free.get(position);
+    }
+
+    /**
+     * Posiciones del primer bloque de {@code count} asientos libres y contiguos en una
+     * misma fila, recorriendo las filas en orden ascendente. Vacío si no existe.
+     */
+    public int[] findConsecutiveSeats(Integer seatTypeId, int count) {
+        BitSet free = freeSeatsByType.get(seatTypeId);
+        if (free == null || count <= 0) {
+            return NO_POSITIONS;
+        }
+
+        int row = freeRunsByType.get(seatTypeId).firstRowWithRun(count);
+        if (row < 0) {
+            return NO_POSITIONS;
+        }
+
+        int rowStart = row * layout.getColumnCount();
+        int rowEnd = rowStart + layout.getColumnCount();
+        int runStart = free.nextSetBit(rowStart);
+        while (runStart >= 0 && runStart < rowEnd) {
+            int runEnd = Math.min(free.nextClearBit(runStart), rowEnd);
+            if (runEnd - runStart >= count) {
+                int[] positions = new int[count];
+                for (int i = 0; i < count; i++) {
+                    positions[i] = runStart + i;
+                }
+                return positions;
+            }
+            runStart = free.nextSetBit(runEnd);
+        }
+        return NO_POSITIONS;
+    }
+
+    /**
+     * Posiciones de hasta {@code count} asientos libres del tipo indicado, ordenadas por fila y columna.
+     */
+    public int[] findFirstFreeSeats(Integer seatTypeId, int count) {
+        BitSet free = freeSeatsByType.get(seatTypeId);
+        if (free == null || count <= 0) {
+            return NO_POSITIONS;
+        }
+
+        int[] positions = new int[Math.min(count, free.cardinality())];
+        int found = 0;
+        for (int position = free.nextSetBit(0); position >= 0 && found < positions.length; position = free.nextSetBit(position + 1)) {
+            positions[found++] = position;
+        }
+        return positions;
+    }
+
+    public void occupy(int position) {
+        BitSet free = freeSeatsByType.get(layout.seatTypeId(position));
+        if (free != null && free.get(position)) {
+            free.clear(position);
+            int row = layout.rowOf(position);
+            freeRunsByType.get(layout.seatTypeId(position)).update(row, longestRunInRow(free, row));
+        }
+    }
+
+    private int longestRunInRow(BitSet free, int row) {
+        int rowStart = row * layout.getColumnCount();
+        int rowEnd = rowStart + layout.getColumnCount();
+        int longest = 0;
+        int runStart = free.nextSetBit(rowStart);
+        while (runStart >= 0 && runStart < rowEnd) {
+            int runEnd = Math.min(free.nextClearBit(runStart), rowEnd);
+            longest = Math.max(longest, runEnd - runStart);
+            runStart = free.nextSetBit(runEnd);
+        }
+        return longest;
+    }
+}
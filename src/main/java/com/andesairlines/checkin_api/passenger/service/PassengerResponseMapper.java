@@ -1,6 +1,6 @@
 package com.andesairlines.checkin_api.passenger.service;
 
-import com.andesairlines.checkin_api.airplane.model.entity.Seat;
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
 import com.andesairlines.checkin_api.passenger.model.dto.PassengerResponse;
 import lombok.RequiredArgsConstructor;
@@ -12,7 +12,7 @@ import org.springframework.stereotype.Component;
 @Slf4j
 public class PassengerResponseMapper {
     
-    public PassengerResponse mapToPassengerResponse(BoardingPass boardingPass, Seat seat) {
+    public PassengerResponse mapToPassengerResponse(BoardingPass boardingPass, AirplaneLayout layout, int position) {
         PassengerResponse response = new PassengerResponse();
         
         if (boardingPass.getPassenger() != null) {
@@ -24,9 +24,9 @@ public class PassengerResponseMapper {
         }
         
         response.setSeatTypeId(boardingPass.getSeatTypeId());
-        response.setSeatId(seat.getSeatId());
-        response.setSeatRow(String.valueOf(seat.getSeatRow()));
-        response.setSeatColumn(seat.getSeatColumn());
+        response.setSeatId(layout.seatId(position));
+        response.setSeatRow(String.valueOf(layout.seatRow(position)));
+        response.setSeatColumn(layout.seatColumn(position));
         
         return response;
     }
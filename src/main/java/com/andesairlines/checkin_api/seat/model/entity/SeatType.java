@@ -4,13 +4,14 @@ package com.andesairlines.checkin_api.seat.model.entity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
 @Entity
-@Table(name = "seat_type")
+@Table(name = "seat_type", indexes = @Index(name = "idx_seat_type_name", columnList = "name"))
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,108 @@
+package db.migration;
+
+import org.flywaydb.core.api.FlywayException;
+import org.flywaydb.core.api.migration.BaseJavaMigration;
+import org.flywaydb.core.api.migration.Context;
+
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Un asiento por pasajero en cada vuelo: {@code UNIQUE (flight_id, seat_id)} en {@code boarding_pass}.
+ * <p>
+ * Las bases creadas a mano antes de las migraciones pueden tener ya un índice único sobre esas
+ * columnas (con este nombre u otro); en ese caso no se agrega nada. Se revisa con los metadatos
+ * JDBC, que en MySQL salen de {@code information_schema.statistics}.
+ * <p>
+ * Si hay asientos repetidos en un vuelo, la migración falla antes del {@code ALTER} con la lista
+ * de boarding passes en conflicto: cuál pasajero conserva el asiento lo decide operaciones
+ * (dejando {@code seat_id} en {@code NULL} en los demás), no la migración.
+ */
+public class V2_1__boarding_pass_seat_uniqueness extends BaseJavaMigration {
+
+    private static final String TABLE = "boarding_pass";
+    private static final Set<String> COLUMNS = Set.of("flight_id", "seat_id");
+
+    private static final String DUPLICATE_SEATS_SQL = """
+            SELECT bp.flight_id, bp.seat_id, bp.boarding_pass_id
+            FROM boarding_pass bp
+            JOIN (SELECT flight_id, seat_id FROM boarding_pass
+                  WHERE seat_id IS NOT NULL
+                  GROUP BY flight_id, seat_id
+                  HAVING COUNT(*) > 1) duplicated
+              ON duplicated.flight_id = bp.flight_id AND duplicated.seat_id = bp.seat_id
+            ORDER BY bp.flight_id, bp.seat_id, bp.boarding_pass_id
+            """;
+
+    // Suficiente para ubicar el problema sin volcar miles de líneas en el log del despliegue
+    private static final int MAX_REPORTED_SEATS = 50;
+
+    @Override
+    public void migrate(Context context) throws Exception {
+        Connection connection = context.getConnection();
+        if (hasUniqueIndexOnFlightSeat(connection)) {
+            return;
+        }
+        Map<String, List<Integer>> duplicates = findDuplicateSeats(connection);
+        if (!duplicates.isEmpty()) {
+            throw new FlywayException(duplicateSeatsReport(duplicates));
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("ALTER TABLE boarding_pass ADD CONSTRAINT uk_boarding_pass_flight_seat UNIQUE (flight_id, seat_id)");
+        }
+    }
+
+    /**
+     * Boarding passes por asiento repetido, con clave {@code "flight <id> seat <id>"}.
+     */
+    private static Map<String, List<Integer>> findDuplicateSeats(Connection connection) throws SQLException {
+        Map<String, List<Integer>> duplicates = new LinkedHashMap<>();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(DUPLICATE_SEATS_SQL)) {
+            while (rows.next()) {
+                String seat = "flight " + rows.getInt("flight_id") + " seat " + rows.getInt("seat_id");
+                duplicates.computeIfAbsent(seat, key -> new ArrayList<>()).add(rows.getInt("boarding_pass_id"));
+            }
+        }
+        return duplicates;
+    }
+
+    private static String duplicateSeatsReport(Map<String, List<Integer>> duplicates) {
+        String seats = duplicates.entrySet().stream()
+                .limit(MAX_REPORTED_SEATS)
+                .map(entry -> entry.getKey() + " -> boarding passes " + entry.getValue())
+                .collect(Collectors.joining("\n  "));
+        String more = duplicates.size() > MAX_REPORTED_SEATS
+                ? "\n  ... and " + (duplicates.size() - MAX_REPORTED_SEATS) + " more"
+                : "";
+        return "Cannot add UNIQUE (flight_id, seat_id) to boarding_pass: " + duplicates.size()
+                + " seats are assigned to more than one boarding pass. Set seat_id to NULL on all but one"
+                + " boarding pass of each seat and run the migration again:\n  " + seats + more;
+    }
+
+    private static boolean hasUniqueIndexOnFlightSeat(Connection connection) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        Map<String, Set<String>> columnsByIndex = new HashMap<>();
+        try (ResultSet indexes = metaData.getIndexInfo(connection.getCatalog(), connection.getSchema(), TABLE, true, false)) {
+            while (indexes.next()) {
+                String indexName = indexes.getString("INDEX_NAME");
+                String column = indexes.getString("COLUMN_NAME");
+                if (indexName != null && column != null) {
+                    columnsByIndex.computeIfAbsent(indexName, name -> new HashSet<>()).add(column.toLowerCase());
+                }
+            }
+        }
+        return columnsByIndex.containsValue(COLUMNS);
+    }
+}
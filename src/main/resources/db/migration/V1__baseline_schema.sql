@@ -0,0 +1,61 @@
+-- Esquema original de la base de check-in. En una base existente no se ejecuta:
+-- Flyway la toma como versión 1 (spring.flyway.baseline-on-migrate).
+
+CREATE TABLE airplane (
+    airplane_id INT AUTO_INCREMENT PRIMARY KEY,
+    name        VARCHAR(100) NOT NULL
+);
+
+CREATE TABLE seat_type (
+    seat_type_id INT PRIMARY KEY,
+    name         VARCHAR(50) NOT NULL
+);
+
+CREATE TABLE seat (
+    seat_id      INT AUTO_INCREMENT PRIMARY KEY,
+    seat_column  VARCHAR(1) NOT NULL,
+    seat_row     INT        NOT NULL,
+    seat_type_id INT        NOT NULL,
+    airplane_id  INT        NOT NULL,
+    CONSTRAINT fk_seat_airplane FOREIGN KEY (airplane_id) REFERENCES airplane (airplane_id),
+    CONSTRAINT fk_seat_seat_type FOREIGN KEY (seat_type_id) REFERENCES seat_type (seat_type_id)
+);
+
+-- Los datos actuales guardan el nombre completo del aeropuerto, no solo el código
+CREATE TABLE flight (
+    flight_id         INT PRIMARY KEY,
+    takeoff_date_time INT          NOT NULL,
+    takeoff_airport   VARCHAR(100) NOT NULL,
+    landing_date_time INT          NOT NULL,
+    landing_airport   VARCHAR(100) NOT NULL,
+    airplane_id       INT          NOT NULL,
+    CONSTRAINT fk_flight_airplane FOREIGN KEY (airplane_id) REFERENCES airplane (airplane_id)
+);
+
+CREATE TABLE purchase (
+    purchase_id   INT PRIMARY KEY,
+    purchase_date INT
+);
+
+CREATE TABLE passenger (
+    passenger_id INT AUTO_INCREMENT PRIMARY KEY,
+    dni          VARCHAR(20)  NOT NULL,
+    name         VARCHAR(100) NOT NULL,
+    age          INT          NOT NULL,
+    country      VARCHAR(50)  NOT NULL,
+    CONSTRAINT uk_passenger_dni UNIQUE (dni)
+);
+
+CREATE TABLE boarding_pass (
+    boarding_pass_id INT AUTO_INCREMENT PRIMARY KEY,
+    purchase_id      INT NOT NULL,
+    flight_id        INT NOT NULL,
+    passenger_id     INT NOT NULL,
+    seat_type_id     INT NOT NULL,
+    seat_id          INT,
+    CONSTRAINT fk_boarding_pass_purchase FOREIGN KEY (purchase_id) REFERENCES purchase (purchase_id),
+    CONSTRAINT fk_boarding_pass_flight FOREIGN KEY (flight_id) REFERENCES flight (flight_id),
+    CONSTRAINT fk_boarding_pass_passenger FOREIGN KEY (passenger_id) REFERENCES passenger (passenger_id),
+    CONSTRAINT fk_boarding_pass_seat_type FOREIGN KEY (seat_type_id) REFERENCES seat_type (seat_type_id),
+    CONSTRAINT fk_boarding_pass_seat FOREIGN KEY (seat_id) REFERENCES seat (seat_id)
+);
@@ -0,0 +1,19 @@
+-- Manifiesto materializado por vuelo (FlightManifestWriter). El asiento único por vuelo lo agrega
+-- V2_1 (db.migration) solo si la tabla no lo tiene: MySQL no admite ADD CONSTRAINT IF NOT EXISTS.
+-- IF NOT EXISTS: algunos entornos crearon la tabla a mano antes de tener migraciones.
+
+CREATE TABLE IF NOT EXISTS flight_manifest (
+    boarding_pass_id INT PRIMARY KEY,
+    flight_id        INT          NOT NULL,
+    purchase_id      INT          NOT NULL,
+    passenger_id     INT          NOT NULL,
+    dni              VARCHAR(20)  NOT NULL,
+    name             VARCHAR(100) NOT NULL,
+    age              INT          NOT NULL,
+    country          VARCHAR(50)  NOT NULL,
+    seat_type_id     INT          NOT NULL,
+    seat_id          INT,
+    seat_row         INT,
+    seat_column      VARCHAR(1),
+    INDEX idx_flight_manifest_flight (flight_id, purchase_id, boarding_pass_id)
+);
@@ -0,0 +1,16 @@
+-- Índices de las consultas por vuelo y por avión. Cada consulta de los repositorios tiene
+-- su plan verificado en QueryPlanRegressionTest.
+
+-- Pasajeros del vuelo en orden de compra (check-in y manifiesto sin materializar)
+CREATE INDEX idx_boarding_pass_flight_purchase ON boarding_pass (flight_id, purchase_id);
+
+-- Boarding pass de un pasajero en un vuelo (asignación manual)
+CREATE INDEX idx_boarding_pass_flight_passenger ON boarding_pass (flight_id, passenger_id);
+
+-- Asientos de un tipo en un avión
+CREATE INDEX idx_seat_airplane_type ON seat (airplane_id, seat_type_id);
+
+-- Asiento por fila y columna en un avión
+CREATE INDEX idx_seat_airplane_row_column ON seat (airplane_id, seat_row, seat_column);
+
+CREATE INDEX idx_seat_type_name ON seat_type (name);
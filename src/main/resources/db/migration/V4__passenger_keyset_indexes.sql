@@ -0,0 +1,6 @@
+-- Páginas de pasajeros por boarding_pass_id (GET /flights/{id}/passengers?after=&limit=):
+-- el rango se lee en orden desde el índice, sin ordenar las filas del vuelo
+
+CREATE INDEX idx_boarding_pass_flight_boarding_pass ON boarding_pass (flight_id, boarding_pass_id);
+
+CREATE INDEX idx_flight_manifest_flight_boarding_pass ON flight_manifest (flight_id, boarding_pass_id);
@@ -0,0 +1,5 @@
+-- Versión de los asientos de cada vuelo. Cada escritura de asientos la sube en su misma
+-- transacción (FlightVersionRegistry.markChanged); las cachés de manifiestos y los ETag de
+-- todas las instancias se validan contra este valor.
+
+ALTER TABLE flight ADD COLUMN seat_version BIGINT NOT NULL DEFAULT 0;
@@ -0,0 +1,7 @@
+-- Versión de asientos con la que quedó armado flight_manifest. El manifiesto sirve para leer
+-- solo si coincide con seat_version: cualquier cambio en boarding_pass o passenger que no pase
+-- por FlightManifestWriter sube seat_version sin tocar esta columna y deja al vuelo leyendo
+-- desde las tablas normalizadas hasta el próximo rebuild.
+-- Arranca en NULL: los manifiestos existentes no se pueden validar y se rearman en el próximo check-in.
+
+ALTER TABLE flight ADD COLUMN manifest_version BIGINT NULL;
@@ -0,0 +1,85 @@
+package com.andesairlines.checkin_api.airplane.model.layout;
+
+import com.andesairlines.checkin_api.airplane.model.entity.Seat;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AirplaneLayoutTest {
+
+    private AirplaneLayout layout;
+
+    @BeforeEach
+    void setUp() {
+        // Rows 3-4 with columns A, B, D (C missing) and unordered seat ids
+        List<Seat> seats = Arrays.asList(
+            createSeat(40, 3, "A", 1),
+            createSeat(12, 3, "B", 1),
+            createSeat(7, 3, "D", 2),
+            createSeat(99, 4, "A", 2),
+            createSeat(5, 4, "B", 2)
+        );
+        layout = AirplaneLayout.compile(10, seats);
+    }
+
+    private Seat createSeat(Integer seatId, Integer row, String column, Integer seatTypeId) {
+        Seat seat = new Seat();
+        seat.setSeatId(seatId);
+        seat.setSeatRow(row);
+        seat.setSeatColumn(column);
+        seat.setSeatTypeId(seatTypeId);
+        return seat;
+    }
+
+    @Test
+    void compile_BuildsRowMajorGrid() {
+        assertEquals(10, layout.getAirplaneId());
+        assertEquals(2, layout.getRowCount());
+        assertEquals(4, layout.getColumnCount());
+        assertEquals(8, layout.getPositionCount());
+        assertEquals(5, layout.getSeatCount());
+    }
+
+    @Test
+    void positionOf_SeatId() {
+        int position = layout.positionOf(7);
+
+        assertEquals(3, position);
+        assertEquals(7, layout.seatId(position));
+        assertEquals(2, layout.seatTypeId(position));
+        assertEquals(3, layout.seatRow(position));
+        assertEquals("D", layout.seatColumn(position));
+        assertEquals(-1, layout.positionOf(1000));
+    }
+
+    @Test
+    void positionOf_RowAndColumn() {
+        assertEquals(layout.positionOf(99), layout.positionOf(4, "A"));
+        assertEquals(layout.positionOf(5), layout.positionOf(4, "b"));
+        assertEquals(-1, layout.positionOf(3, "C")); // Gap in the grid
+        assertEquals(-1, layout.positionOf(5, "A"));
+        assertEquals(-1, layout.positionOf(3, "F"));
+        assertEquals(-1, layout.positionOf(3, ""));
+    }
+
+    @Test
+    void hasSeat_GapsInGrid() {
+        assertTrue(layout.hasSeat(0));
+        assertFalse(layout.hasSeat(2));
+        assertFalse(layout.hasSeat(6));
+    }
+
+    @Test
+    void compile_EmptySeatList() {
+        AirplaneLayout empty = AirplaneLayout.compile(1, new ArrayList<>());
+
+        assertEquals(0, empty.getPositionCount());
+        assertEquals(-1, empty.positionOf(1));
+        assertEquals(-1, empty.positionOf(1, "A"));
+    }
+}
@@ -0,0 +1,110 @@
+package com.andesairlines.checkin_api.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    void tryAcquire_RejectsOnceLimitIsReached() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, clock::get);
+
+        // When
+        AdaptiveConcurrencyLimit.Permit first = limit.tryAcquire();
+        AdaptiveConcurrencyLimit.Permit second = limit.tryAcquire();
+        AdaptiveConcurrencyLimit.Permit third = limit.tryAcquire();
+
+        // Then
+        assertNotNull(first);
+        assertNotNull(second);
+        assertNull(third);
+        assertEquals(2, limit.getInFlight());
+
+        first.ignore();
+        assertNotNull(limit.tryAcquire());
+    }
+
+    @Test
+    void permit_ReleasesOnlyOnce() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, clock::get);
+        AdaptiveConcurrencyLimit.Permit permit = limit.tryAcquire();
+
+        // When
+        permit.success();
+        permit.success();
+        permit.dropped();
+
+        // Then
+        assertEquals(0, limit.getInFlight());
+        assertEquals(2, limit.getLimit());
+    }
+
+    @Test
+    void success_GrowsLimitWhileLatencyStaysFlat() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 100, clock::get);
+
+        // When
+        runFullRounds(limit, 50, 10_000_000);
+
+        // Then
+        assertTrue(limit.getLimit() > 10, "limit was " + limit.getLimit());
+    }
+
+    @Test
+    void success_ShrinksLimitWhenLatencyRises() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 1, 20, clock::get);
+        runFullRounds(limit, 20, 10_000_000);
+
+        // When
+        runFullRounds(limit, 20, 100_000_000);
+
+        // Then
+        assertTrue(limit.getLimit() < 20, "limit was " + limit.getLimit());
+    }
+
+    @Test
+    void dropped_CutsLimitDownToMinimum() {
+        // Given
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 5, 10, clock::get);
+
+        // When
+        for (int i = 0; i < 20; i++) {
+            limit.tryAcquire().dropped();
+        }
+
+        // Then
+        assertEquals(5, limit.getLimit());
+    }
+
+    @Test
+    void constructor_RejectsInconsistentBounds() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(10, 20, 30));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(40, 20, 30));
+        assertThrows(IllegalArgumentException.class, () -> new AdaptiveConcurrencyLimit(1, 0, 30));
+    }
+
+    // Ocupa todo el límite en cada ronda y completa cada request con la latencia indicada
+    private void runFullRounds(AdaptiveConcurrencyLimit limit, int rounds, long rttNanos) {
+        for (int round = 0; round < rounds; round++) {
+            List<AdaptiveConcurrencyLimit.Permit> permits = new ArrayList<>();
+            AdaptiveConcurrencyLimit.Permit permit;
+            while ((permit = limit.tryAcquire()) != null) {
+                permits.add(permit);
+            }
+            clock.addAndGet(rttNanos);
+            permits.forEach(AdaptiveConcurrencyLimit.Permit::success);
+        }
+    }
+}
@@ -0,0 +1,222 @@
+package com.andesairlines.checkin_api.common.concurrent;
+
+import com.andesairlines.checkin_api.common.exception.OverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LaneExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private LaneExecutor lanes;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lanes = new LaneExecutor("test.lanes", 4, meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        lanes.shutdown();
+    }
+
+    @Test
+    void execute_SameKeyNeverRunsConcurrently() throws Exception {
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+
+        List<CompletableFuture<Integer>> calls = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            calls.add(CompletableFuture.supplyAsync(() -> lanes.execute(7, () -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.onSpinWait();
+                running.decrementAndGet();
+                return 1;
+            })));
+        }
+
+        int total = 0;
+        for (CompletableFuture<Integer> call : calls) {
+            total += call.get(5, TimeUnit.SECONDS);
+        }
+        assertEquals(20, total);
+        assertEquals(1, maxRunning.get());
+    }
+
+    @Test
+    void execute_KeysOnDifferentLanesRunInParallel() throws Exception {
+        int keyA = 1;
+        int keyB = 2;
+        while (lanes.laneOf(keyB) == lanes.laneOf(keyA)) {
+            keyB++;
+        }
+        int otherKey = keyB;
+        CountDownLatch bothRunning = new CountDownLatch(2);
+
+        CompletableFuture<Boolean> a = CompletableFuture.supplyAsync(() -> lanes.execute(keyA, () -> awaitOther(bothRunning)));
+        CompletableFuture<Boolean> b = CompletableFuture.supplyAsync(() -> lanes.execute(otherKey, () -> awaitOther(bothRunning)));
+
+        assertTrue(a.get(5, TimeUnit.SECONDS));
+        assertTrue(b.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void execute_RethrowsTaskException() {
+        IllegalArgumentException failure = new IllegalArgumentException("bad seat");
+
+        IllegalArgumentException thrown = assertThrows(IllegalArgumentException.class,
+                () -> lanes.execute(1, () -> { throw failure; }));
+
+        assertSame(failure, thrown);
+    }
+
+    @Test
+    void execute_RecordsLaneMetrics() {
+        lanes.execute(3, () -> "done");
+
+        String lane = String.valueOf(lanes.laneOf(3));
+        assertEquals(1, meterRegistry.get("test.lanes.wait").tag("lane", lane).timer().count());
+        assertEquals(1, meterRegistry.get("test.lanes.execution").tag("lane", lane).timer().count());
+        assertEquals(0.0, meterRegistry.get("test.lanes.queue.depth").tag("lane", lane).gauge().value());
+    }
+
+    @Test
+    void execute_WithWorkloadSetsContextOnlyForTheTask() {
+        WorkloadClass workload = lanes.execute(3, WorkloadClass.INTERACTIVE_WRITE, WorkloadContext::current);
+
+        assertEquals(WorkloadClass.INTERACTIVE_WRITE, workload);
+        assertNull(lanes.execute(3, WorkloadContext::current));
+    }
+
+    @Test
+    void execute_FullLaneQueueIsRejected() throws Exception {
+        LaneExecutor bounded = new LaneExecutor("bounded.lanes", 1, 1, Duration.ofSeconds(5),
+                HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1), meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        try {
+            CompletableFuture<Boolean> busy = CompletableFuture.supplyAsync(() -> bounded.execute(1, () -> {
+                running.countDown();
+                return await(release);
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> bounded.execute(2, () -> "queued"));
+            while (meterRegistry.get("bounded.lanes.queue.depth").tag("lane", "0").gauge().value() < 1) {
+                Thread.onSpinWait();
+            }
+
+            OverloadedException rejected = assertThrows(OverloadedException.class, () -> bounded.execute(3, () -> "rejected"));
+
+            assertEquals(HttpStatus.SERVICE_UNAVAILABLE, rejected.getStatus());
+            assertEquals(1.0, meterRegistry.get("bounded.lanes.rejected").tag("lane", "0").counter().count());
+            release.countDown();
+            assertTrue(busy.get(5, TimeUnit.SECONDS));
+            assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    void execute_CallerTimesOutInsteadOfWaitingForever() throws Exception {
+        LaneExecutor bounded = new LaneExecutor("bounded.lanes", 1, 10, Duration.ofMillis(100),
+                HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1), meterRegistry);
+        CountDownLatch running = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger ran = new AtomicInteger();
+        try {
+            CompletableFuture<Boolean> slow = CompletableFuture.supplyAsync(() -> bounded.execute(1, () -> {
+                running.countDown();
+                return await(release);
+            }));
+            assertTrue(running.await(5, TimeUnit.SECONDS));
+
+            // La tarea detrás del vuelo lento vence esperando en cola y ya no se ejecuta
+            assertThrows(OverloadedException.class, () -> bounded.execute(2, ran::incrementAndGet));
+
+            release.countDown();
+            assertEquals("ok", bounded.execute(3, () -> "ok"));
+            assertEquals(0, ran.get());
+            assertEquals(1.0, meterRegistry.get("bounded.lanes.rejected").tag("lane", "0").counter().count());
+            assertTrue(slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            release.countDown();
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    void execute_StartedTaskIsAwaitedPastTheTimeout() throws Exception {
+        LaneExecutor bounded = new LaneExecutor("bounded.lanes", 1, 10, Duration.ofMillis(50),
+                HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1), meterRegistry);
+        try {
+            // Given: una tarea que empieza enseguida pero tarda más que el timeout (una transacción que confirma)
+            AtomicInteger committed = new AtomicInteger();
+
+            // When
+            String result = bounded.execute(1, () -> {
+                sleep(200);
+                committed.incrementAndGet();
+                return "committed";
+            });
+
+            // Then: quien llama recibe el resultado, no un 503 sobre algo que ya se hizo
+            assertEquals("committed", result);
+            assertEquals(1, committed.get());
+            assertEquals(0.0, meterRegistry.get("bounded.lanes.rejected").tag("lane", "0").counter().count());
+        } finally {
+            bounded.shutdown();
+        }
+    }
+
+    @Test
+    void laneOf_IsStableAndInRange() {
+        for (int flightId = -50; flightId < 50; flightId++) {
+            int lane = lanes.laneOf(flightId);
+            assertEquals(lane, lanes.laneOf(flightId));
+            assertTrue(lane >= 0 && lane < lanes.laneCount());
+        }
+    }
+
+    private static boolean await(CountDownLatch latch) {
+        try {
+            return latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static boolean awaitOther(CountDownLatch bothRunning) {
+        bothRunning.countDown();
+        try {
+            return bothRunning.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.andesairlines.checkin_api.common.concurrent;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SingleFlight<Integer, String> singleFlight = new SingleFlight<>();
+
+    @Test
+    void execute_ConcurrentCallsShareOneComputation() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger executions = new AtomicInteger();
+        AtomicInteger shared = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+
+        try {
+            Future<String> first = executor.submit(() -> singleFlight.execute(1, () -> {
+                executions.incrementAndGet();
+                started.countDown();
+                await(release);
+                return "result";
+            }, shared::incrementAndGet));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            List<Future<String>> followers = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                followers.add(executor.submit(() -> singleFlight.execute(1, () -> {
+                    executions.incrementAndGet();
+                    return "other";
+                }, shared::incrementAndGet)));
+            }
+            while (shared.get() < 3) {
+                Thread.onSpinWait();
+            }
+            release.countDown();
+
+            assertEquals("result", first.get(5, TimeUnit.SECONDS));
+            for (Future<String> follower : followers) {
+                assertEquals("result", follower.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, executions.get());
+            assertEquals(0, singleFlight.inFlightCount());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void execute_SequentialCallsRunAgain() {
+        AtomicInteger executions = new AtomicInteger();
+
+        singleFlight.execute(1, () -> "a" + executions.incrementAndGet(), () -> fail("not shared"));
+        String second = singleFlight.execute(1, () -> "a" + executions.incrementAndGet(), () -> fail("not shared"));
+
+        assertEquals("a2", second);
+        assertEquals(2, executions.get());
+    }
+
+    @Test
+    void execute_DifferentKeysDoNotWaitForEachOther() {
+        String result = singleFlight.execute(1, () -> singleFlight.execute(2, () -> "inner", () -> fail("not shared")),
+                () -> fail("not shared"));
+
+        assertEquals("inner", result);
+    }
+
+    @Test
+    void execute_ExceptionIsPropagatedAndNotRemembered() {
+        IllegalStateException failure = new IllegalStateException("boom");
+
+        IllegalStateException thrown = assertThrows(IllegalStateException.class,
+                () -> singleFlight.execute(1, () -> { throw failure; }, () -> { }));
+
+        assertSame(failure, thrown);
+        assertEquals("ok", singleFlight.execute(1, () -> "ok", () -> { }));
+        assertEquals(0, singleFlight.inFlightCount());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,92 @@
+package com.andesairlines.checkin_api.common.concurrent;
+
+import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.common.exception.OverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkloadExecutorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private WorkloadExecutor executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        executor = new WorkloadExecutor(WorkloadClass.READ, 1, 1, HttpStatus.SERVICE_UNAVAILABLE,
+                Duration.ofSeconds(1), meterRegistry);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdown();
+    }
+
+    @Test
+    void execute_RunsTaskWithWorkloadContext() {
+        // When
+        WorkloadClass workload = executor.execute(WorkloadContext::current);
+
+        // Then
+        assertEquals(WorkloadClass.READ, workload);
+        assertNull(WorkloadContext.current());
+        assertEquals(1, meterRegistry.get("workload.execution").tag("workload", "READ").timer().count());
+    }
+
+    @Test
+    void execute_RethrowsTaskException() {
+        // When & Then
+        NotFoundException exception = assertThrows(NotFoundException.class,
+            () -> executor.execute(() -> {
+                throw new NotFoundException("Flight not found with ID: 999");
+            }));
+
+        assertEquals("Flight not found with ID: 999", exception.getMessage());
+    }
+
+    @Test
+    void execute_RejectsWhenQueueIsFull() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<Object> running = CompletableFuture.supplyAsync(() -> executor.execute(() -> {
+            started.countDown();
+            await(release);
+            return "running";
+        }));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Object> queued = CompletableFuture.supplyAsync(() -> executor.execute(() -> "queued"));
+        while (meterRegistry.get("workload.queue.depth").tag("workload", "READ").gauge().value() < 1) {
+            Thread.onSpinWait();
+        }
+
+        // When
+        OverloadedException exception = assertThrows(OverloadedException.class, () -> executor.execute(() -> "rejected"));
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(1.0, meterRegistry.get("workload.rejected").tag("workload", "READ").counter().count());
+
+        release.countDown();
+        assertEquals("running", running.get(5, TimeUnit.SECONDS));
+        assertEquals("queued", queued.get(5, TimeUnit.SECONDS));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
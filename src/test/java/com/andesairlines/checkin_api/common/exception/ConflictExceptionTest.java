@@ -0,0 +1,67 @@
+package com.andesairlines.checkin_api.common.exception;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConflictExceptionTest {
+
+    @Test
+    void constructor_WithMessage() {
+        // Given
+        String message = "Seat 1A is already taken";
+
+        // When
+        ConflictException exception = new ConflictException(message);
+
+        // Then
+        assertEquals("Seat 1A is already taken", exception.getMessage());
+        assertEquals("CONFLICT", exception.getErrorCode());
+    }
+
+    @Test
+    void constructor_WithNullMessage() {
+        // When
+        ConflictException exception = new ConflictException(null);
+
+        // Then
+        assertNull(exception.getMessage());
+        assertEquals("CONFLICT", exception.getErrorCode());
+    }
+
+    @Test
+    void constructor_WithEmptyMessage() {
+        // Given
+        String emptyMessage = "";
+
+        // When
+        ConflictException exception = new ConflictException(emptyMessage);
+
+        // Then
+        assertEquals("", exception.getMessage());
+        assertEquals("CONFLICT", exception.getErrorCode());
+    }
+
+    @Test
+    void isApiException() {
+        // Given
+        ConflictException exception = new ConflictException("Test message");
+
+        // Then
+        assertTrue(exception instanceof ApiException);
+        assertTrue(exception instanceof RuntimeException);
+    }
+
+    @Test
+    void errorCodeIsConstant() {
+        // Given
+        ConflictException exception1 = new ConflictException("Message 1");
+        ConflictException exception2 = new ConflictException("Message 2");
+        ConflictException exception3 = new ConflictException(null);
+
+        // Then
+        assertEquals("CONFLICT", exception1.getErrorCode());
+        assertEquals("CONFLICT", exception2.getErrorCode());
+        assertEquals("CONFLICT", exception3.getErrorCode());
+    }
+}
@@ -5,8 +5,13 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -16,13 +21,15 @@ public class GlobalExceptionHandlerTest {
     @InjectMocks
     private GlobalExceptionHandler globalExceptionHandler;
 
+    private final MockHttpServletRequest request = new MockHttpServletRequest();
+
     @Test
     void handleApiException_Success() {
         // Given
         ApiException apiException = new ApiException("Test API error", HttpStatus.BAD_REQUEST, "API_ERROR");
 
         // When
-        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleApiException(apiException);
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleApiException(apiException, request);
 
         // Then
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -31,13 +38,28 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Test API error", response.getBody().getMessage());
     }
 
+    @Test
+    void handleResponseStatusException_KeepsStatus() {
+        // Given
+        ResponseStatusException exception = new ResponseStatusException(HttpStatus.NOT_ACCEPTABLE, "None of the accepted media types is supported");
+
+        // When
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleResponseStatusException(exception, request);
+
+        // Then
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("NOT_ACCEPTABLE", response.getBody().getErrorCode());
+        assertEquals("None of the accepted media types is supported", response.getBody().getMessage());
+    }
+
     @Test
     void handleNotFoundException_Success() {
         // Given
         NotFoundException notFoundException = new NotFoundException("Resource not found");
 
         // When
-        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleNotFoundException(notFoundException);
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleNotFoundException(notFoundException, request);
 
         // Then
         assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
@@ -52,7 +74,7 @@ public class GlobalExceptionHandlerTest {
         BadRequestException badRequestException = new BadRequestException("Invalid request");
 
         // When
-        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleBadRequestException(badRequestException);
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleBadRequestException(badRequestException, request);
 
         // Then
         assertEquals(HttpStatus.BAD_REQUEST, response.getStatusCode());
@@ -61,13 +83,88 @@ public class GlobalExceptionHandlerTest {
         assertEquals("Invalid request", response.getBody().getMessage());
     }
 
+    @Test
+    void handleConflictException_Success() {
+        // Given
+        ConflictException conflictException = new ConflictException("Seat 1A is already taken");
+
+        // When
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleConflictException(conflictException, request);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+        assertEquals("CONFLICT", response.getBody().getErrorCode());
+        assertEquals("Seat 1A is already taken", response.getBody().getMessage());
+    }
+
+    @Test
+    void handleOverloadedException_SetsStatusAndRetryAfter() {
+        // Given
+        OverloadedException overloadedException = new OverloadedException("Too many concurrent seat.write requests, retry later",
+                HttpStatus.TOO_MANY_REQUESTS, Duration.ofSeconds(2));
+
+        // When
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleOverloadedException(overloadedException, request);
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, response.getStatusCode());
+        assertEquals("2", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNotNull(response.getBody());
+        assertEquals("OVERLOADED", response.getBody().getErrorCode());
+    }
+
+    @Test
+    void handleNotFoundException_ClientWithoutErrorFormatGetsStatusOnly() {
+        // Given: el cliente solo acepta Avro, que no escribe ErrorResponse
+        request.addHeader(HttpHeaders.ACCEPT, "application/avro");
+
+        // When
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleNotFoundException(
+                new NotFoundException("Flight not found with id: 999"), request);
+
+        // Then
+        assertEquals(HttpStatus.NOT_FOUND, response.getStatusCode());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void handleOverloadedException_StatusOnlyKeepsRetryAfter() {
+        // Given
+        request.addHeader(HttpHeaders.ACCEPT, "application/avro");
+
+        // When
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleOverloadedException(
+                new OverloadedException("Too many pending READ requests, retry later", HttpStatus.SERVICE_UNAVAILABLE,
+                        Duration.ofSeconds(1)), request);
+
+        // Then
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, response.getStatusCode());
+        assertEquals("1", response.getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void handleConflictException_BinaryJsonClientGetsBody() {
+        // Given
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+
+        // When
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleConflictException(
+                new ConflictException("Seat 1A is already taken"), request);
+
+        // Then
+        assertEquals(HttpStatus.CONFLICT, response.getStatusCode());
+        assertNotNull(response.getBody());
+    }
+
     @Test
     void handleGenericException_Success() {
         // Given
         Exception genericException = new RuntimeException("Unexpected error occurred");
 
         // When
-        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleGenericException(genericException);
+        ResponseEntity<ErrorResponse> response = globalExceptionHandler.handleGenericException(genericException, request);
 
         // Then
         assertEquals(HttpStatus.INTERNAL_SERVER_ERROR, response.getStatusCode());
@@ -0,0 +1,36 @@
+package com.andesairlines.checkin_api.common.exception;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class OverloadedExceptionTest {
+
+    @Test
+    void constructor_WithStatusAndRetryAfter() {
+        // Given
+        String message = "Too many concurrent manifest.read requests, retry later";
+
+        // When
+        OverloadedException exception = new OverloadedException(message, HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1));
+
+        // Then
+        assertEquals(message, exception.getMessage());
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, exception.getStatus());
+        assertEquals(Duration.ofSeconds(1), exception.getRetryAfter());
+        assertEquals("OVERLOADED", exception.getErrorCode());
+    }
+
+    @Test
+    void isApiException() {
+        // Given
+        OverloadedException exception = new OverloadedException("Test message", HttpStatus.TOO_MANY_REQUESTS, Duration.ofSeconds(2));
+
+        // Then
+        assertTrue(exception instanceof ApiException);
+        assertTrue(exception instanceof RuntimeException);
+    }
+}
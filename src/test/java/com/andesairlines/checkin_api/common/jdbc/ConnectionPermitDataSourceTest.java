@@ -0,0 +1,90 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ConnectionPermitDataSourceTest {
+
+    @Mock
+    private DataSource targetDataSource;
+
+    @Mock
+    private Connection connection;
+
+    private ConnectionPermitDataSource dataSource;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new ConnectionPermitDataSource(targetDataSource, 1, Duration.ofMillis(50));
+    }
+
+    @Test
+    void getConnection_TakesPermitUntilClosed() throws Exception {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(connection);
+
+        // When
+        Connection first = dataSource.getConnection();
+
+        // Then
+        assertEquals(0, dataSource.getAvailablePermits());
+        first.close();
+        assertEquals(1, dataSource.getAvailablePermits());
+        verify(connection).close();
+    }
+
+    @Test
+    void getConnection_TimesOutWithTransientExceptionWhenNoPermit() throws Exception {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        dataSource.getConnection();
+
+        // When & Then
+        assertThrows(SQLTransientConnectionException.class, () -> dataSource.getConnection());
+        verify(targetDataSource, times(1)).getConnection();
+    }
+
+    @Test
+    void close_ReleasesPermitOnlyOnce() throws Exception {
+        // Given
+        when(targetDataSource.getConnection()).thenReturn(connection);
+        Connection first = dataSource.getConnection();
+
+        // When
+        first.close();
+        first.close();
+
+        // Then
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void getConnection_ReleasesPermitWhenPoolFails() throws Exception {
+        // Given
+        when(targetDataSource.getConnection()).thenThrow(new SQLException("pool down"));
+
+        // When & Then
+        assertThrows(SQLException.class, () -> dataSource.getConnection());
+        assertEquals(1, dataSource.getAvailablePermits());
+    }
+
+    @Test
+    void constructor_RejectsNonPositivePermits() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+            () -> new ConnectionPermitDataSource(targetDataSource, 0, Duration.ofSeconds(1)));
+    }
+}
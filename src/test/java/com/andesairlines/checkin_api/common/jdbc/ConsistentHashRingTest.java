@@ -0,0 +1,63 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConsistentHashRingTest {
+
+    private static final int FLIGHTS = 10_000;
+
+    @Test
+    void nodeFor_IsStableAcrossInstances() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(List.of("shard-a", "shard-b", "shard-c"), 128);
+        ConsistentHashRing<String> sameRing = new ConsistentHashRing<>(List.of("shard-a", "shard-b", "shard-c"), 128);
+
+        for (int flightId = 1; flightId <= 1_000; flightId++) {
+            assertEquals(ring.nodeFor(flightId), sameRing.nodeFor(flightId));
+        }
+    }
+
+    @Test
+    void nodeFor_SpreadsConsecutiveFlightsAcrossNodes() {
+        ConsistentHashRing<String> ring = new ConsistentHashRing<>(List.of("shard-a", "shard-b", "shard-c", "shard-d"), 128);
+
+        Map<String, Integer> counts = new HashMap<>();
+        for (int flightId = 1; flightId <= FLIGHTS; flightId++) {
+            counts.merge(ring.nodeFor(flightId), 1, Integer::sum);
+        }
+
+        assertEquals(4, counts.size());
+        // Con 128 nodos virtuales cada shard recibe su cuarto con un margen razonable
+        counts.values().forEach(count -> assertTrue(count > FLIGHTS / 4 * 0.7 && count < FLIGHTS / 4 * 1.3,
+                "Unbalanced ring: " + counts));
+    }
+
+    @Test
+    void addingNode_OnlyMovesFlightsToTheNewNode() {
+        ConsistentHashRing<String> before = new ConsistentHashRing<>(List.of("shard-a", "shard-b", "shard-c"), 128);
+        ConsistentHashRing<String> after = new ConsistentHashRing<>(List.of("shard-a", "shard-b", "shard-c", "shard-d"), 128);
+
+        int moved = 0;
+        for (int flightId = 1; flightId <= FLIGHTS; flightId++) {
+            String previous = before.nodeFor(flightId);
+            String current = after.nodeFor(flightId);
+            if (!previous.equals(current)) {
+                assertEquals("shard-d", current);
+                moved++;
+            }
+        }
+
+        // Cerca de 1/4 de los vuelos pasa al nuevo shard
+        assertTrue(moved > FLIGHTS / 4 * 0.7 && moved < FLIGHTS / 4 * 1.3, "Moved " + moved + " flights");
+    }
+
+    @Test
+    void constructor_RejectsEmptyRing() {
+        assertThrows(IllegalArgumentException.class, () -> new ConsistentHashRing<String>(List.of(), 128));
+    }
+}
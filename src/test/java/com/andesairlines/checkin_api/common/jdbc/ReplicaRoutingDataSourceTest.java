@@ -0,0 +1,104 @@
+package com.andesairlines.checkin_api.common.jdbc;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReplicaRoutingDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource firstReplica;
+
+    @Mock
+    private DataSource secondReplica;
+
+    @Mock
+    private Connection primaryConnection;
+
+    @Mock
+    private Connection firstConnection;
+
+    @Mock
+    private Connection secondConnection;
+
+    @Test
+    void getConnection_AlternatesBetweenReplicas() throws Exception {
+        // Given
+        when(firstReplica.getConnection()).thenReturn(firstConnection);
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(List.of(firstReplica, secondReplica), primary);
+
+        // When & Then
+        assertSame(firstConnection, dataSource.getConnection());
+        assertSame(secondConnection, dataSource.getConnection());
+        assertSame(firstConnection, dataSource.getConnection());
+        assertEquals(3, dataSource.getReplicaReads());
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_SkipsUnavailableReplica() throws Exception {
+        // Given
+        when(firstReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(secondReplica.getConnection()).thenReturn(secondConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(List.of(firstReplica, secondReplica), primary);
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertSame(secondConnection, connection);
+        verifyNoInteractions(primary);
+    }
+
+    @Test
+    void getConnection_FallsBackToPrimaryWhenNoReplicaAnswers() throws Exception {
+        // Given
+        when(firstReplica.getConnection()).thenThrow(new SQLException("Connection refused"));
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(List.of(firstReplica), primary);
+
+        // When
+        Connection connection = dataSource.getConnection();
+
+        // Then
+        assertSame(primaryConnection, connection);
+        assertEquals(1, dataSource.getFallbackReads());
+        assertEquals(0, dataSource.getReplicaReads());
+    }
+
+    @Test
+    void getConnection_OnPrimaryBypassesReplicas() throws Exception {
+        // Given
+        when(primary.getConnection()).thenReturn(primaryConnection);
+        ReplicaRoutingDataSource dataSource = new ReplicaRoutingDataSource(List.of(firstReplica), primary);
+
+        // When
+        Connection connection = ReadRoutingContext.onPrimary(() -> {
+            try {
+                return dataSource.getConnection();
+            } catch (SQLException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        // Then
+        assertSame(primaryConnection, connection);
+        assertEquals(1, dataSource.getPrimaryReads());
+        assertFalse(ReadRoutingContext.isPrimaryRequired());
+        verifyNoInteractions(firstReplica);
+    }
+}
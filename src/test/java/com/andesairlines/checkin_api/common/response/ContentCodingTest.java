@@ -0,0 +1,38 @@
+package com.andesairlines.checkin_api.common.response;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentCodingTest {
+
+    @Test
+    void negotiate_DefaultsToIdentity() {
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(null));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate(""));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("deflate, zstd"));
+    }
+
+    @Test
+    void negotiate_PicksHighestQualityCoding() {
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("gzip"));
+        assertEquals(ContentCoding.GZIP, ContentCoding.negotiate("br;q=0.5, GZIP"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("gzip;q=0, br;q=0"));
+        assertEquals(ContentCoding.IDENTITY, ContentCoding.negotiate("gzip;q=high"));
+    }
+
+    @Test
+    void negotiate_PrefersBrotliWhenAvailable() {
+        ContentCoding expected = ContentCoding.BROTLI.isAvailable() ? ContentCoding.BROTLI : ContentCoding.GZIP;
+
+        assertEquals(expected, ContentCoding.negotiate("gzip, deflate, br"));
+        assertEquals(expected, ContentCoding.negotiate("*"));
+    }
+
+    @Test
+    void etag_AppendsCodingToQuotedEtag() {
+        assertEquals("\"e-1-2-gzip\"", ContentCoding.GZIP.etag("\"e-1-2\""));
+        assertEquals("\"e-1-2-cbor-br\"", ContentCoding.BROTLI.etag("\"e-1-2-cbor\""));
+        assertEquals("\"e-1-2\"", ContentCoding.IDENTITY.etag("\"e-1-2\""));
+    }
+}
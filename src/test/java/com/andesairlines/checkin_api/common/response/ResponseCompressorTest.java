@@ -0,0 +1,77 @@
+package com.andesairlines.checkin_api.common.response;
+
+import com.aayushatharva.brotli4j.decoder.Decoder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+class ResponseCompressorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ResponseCompressor responseCompressor;
+    private byte[] body;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        responseCompressor = new ResponseCompressor(meterRegistry, 1024, 9, 9);
+        body = "{\"seatId\":1,\"name\":\"Pasajero\"},".repeat(200).getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    void shouldCompress_OnlyAboveMinimumSize() {
+        assertFalse(responseCompressor.shouldCompress(1023));
+        assertTrue(responseCompressor.shouldCompress(1024));
+    }
+
+    @Test
+    void compress_GzipRoundTripAndRatio() throws Exception {
+        // When
+        ResponseCompressor.Compressed compressed = responseCompressor.compress(body, ContentCoding.GZIP);
+
+        // Then
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(compressed.body()))) {
+            assertArrayEquals(body, in.readAllBytes());
+        }
+        assertTrue(compressed.body().length < body.length);
+        double ratio = meterRegistry.get("response.compression.ratio").tag("coding", "gzip").summary().mean();
+        assertEquals((double) compressed.body().length / body.length, ratio, 1e-9);
+        assertEquals(1, meterRegistry.get("response.compression.cpu").tag("coding", "gzip").timer().count());
+    }
+
+    @Test
+    void compress_BrotliRoundTrip() throws Exception {
+        assumeTrue(ContentCoding.BROTLI.isAvailable());
+
+        // When
+        ResponseCompressor.Compressed compressed = responseCompressor.compress(body, ContentCoding.BROTLI);
+
+        // Then
+        assertArrayEquals(body, Decoder.decompress(compressed.body()).getDecompressedData());
+    }
+
+    @Test
+    void recordServed_CountsSavedBytesAndReusedCpu() {
+        // When
+        responseCompressor.recordServed(ContentCoding.GZIP, 10_000, 1_000, 0);
+        responseCompressor.recordServed(ContentCoding.GZIP, 10_000, 1_000, 5_000_000);
+
+        // Then
+        assertEquals(18_000, meterRegistry.get("response.compression.bytes.saved").tag("coding", "gzip").counter().count());
+        assertEquals(1, meterRegistry.get("response.compression.cpu.saved").tag("coding", "gzip").timer().count());
+        assertEquals(5, meterRegistry.get("response.compression.cpu.saved").tag("coding", "gzip").timer().totalTime(TimeUnit.MILLISECONDS), 1e-9);
+    }
+
+    @Test
+    void compress_IdentityIsRejected() {
+        assertThrows(IllegalArgumentException.class, () -> responseCompressor.compress(body, ContentCoding.IDENTITY));
+    }
+}
@@ -0,0 +1,68 @@
+package com.andesairlines.checkin_api.common.response;
+
+import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
+import com.andesairlines.checkin_api.passenger.model.dto.PassengerResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.avro.AvroMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private ResponseEncoder responseEncoder;
+    private ApiResponse<FlightResponse> response;
+    private JavaType type;
+
+    @BeforeEach
+    void setUp() {
+        responseEncoder = new ResponseEncoder(objectMapper);
+        FlightResponse flight = new FlightResponse(1, 1688207580, "SCL", 1688221980, "LIM", 1, List.of(
+                new FlightResponse.PassengerSeatInfo(10, "11111111", "Ana", 30, "Chile", 100, 1, 1, 5, "2", "A"),
+                new FlightResponse.PassengerSeatInfo(11, "22222222", "Luis", 8, "Chile", 101, 1, 1, null, null, null)));
+        response = ApiResponse.success(flight);
+        type = responseEncoder.apiResponseOf(FlightResponse.class);
+    }
+
+    @Test
+    void encode_JsonBinaryFormatsCarrySameTree() throws Exception {
+        // When
+        byte[] json = responseEncoder.encode(response, type, ResponseFormat.JSON);
+        byte[] cbor = responseEncoder.encode(response, type, ResponseFormat.CBOR);
+        byte[] smile = responseEncoder.encode(response, type, ResponseFormat.SMILE);
+
+        // Then
+        assertEquals(objectMapper.readTree(json), new ObjectMapper(new CBORFactory()).readTree(cbor));
+        assertEquals(objectMapper.readTree(json), new ObjectMapper(new SmileFactory()).readTree(smile));
+        assertTrue(cbor.length < json.length);
+        assertTrue(smile.length < json.length);
+    }
+
+    @Test
+    void encode_AvroRoundTripsWithGeneratedSchema() throws Exception {
+        // When
+        byte[] avro = responseEncoder.encode(response, type, ResponseFormat.AVRO);
+        ApiResponse<FlightResponse> decoded = new AvroMapper().readerFor(type)
+                .with(responseEncoder.avroSchema(type))
+                .readValue(avro);
+
+        // Then
+        assertEquals(response, decoded);
+        assertTrue(avro.length < responseEncoder.encode(response, type, ResponseFormat.CBOR).length);
+    }
+
+    @Test
+    void avroSchema_GeneratedOncePerType() {
+        // When & Then
+        assertSame(responseEncoder.avroSchema(type), responseEncoder.avroSchema(type));
+        assertNotSame(responseEncoder.avroSchema(type),
+                responseEncoder.avroSchema(responseEncoder.apiResponseOf(PassengerResponse.class)));
+    }
+}
@@ -0,0 +1,59 @@
+package com.andesairlines.checkin_api.common.response;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResponseFormatTest {
+
+    @Test
+    void negotiate_DefaultsToJson() {
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(null));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("*/*"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/*"));
+    }
+
+    @Test
+    void negotiate_PicksHighestQualitySupportedFormat() {
+        assertEquals(ResponseFormat.CBOR, ResponseFormat.negotiate("application/cbor"));
+        assertEquals(ResponseFormat.SMILE, ResponseFormat.negotiate("application/json;q=0.8, application/x-jackson-smile"));
+        assertEquals(ResponseFormat.AVRO, ResponseFormat.negotiate("application/xml, application/avro;q=0.5"));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor;q=0, */*;q=0.1"));
+    }
+
+    @Test
+    void negotiate_UnsupportedIsNotAcceptable() {
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> ResponseFormat.negotiate("application/xml"));
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, exception.getStatusCode());
+    }
+
+    @Test
+    void negotiate_OnlyAmongSupportedFormats() {
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate(null, ResponseFormat.JSON));
+        assertEquals(ResponseFormat.JSON, ResponseFormat.negotiate("application/cbor, application/json;q=0.5", ResponseFormat.JSON));
+
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> ResponseFormat.negotiate("application/cbor", ResponseFormat.JSON));
+        assertEquals(HttpStatus.NOT_ACCEPTABLE, exception.getStatusCode());
+    }
+
+    @Test
+    void negotiate_InvalidHeaderIsBadRequest() {
+        // When & Then
+        ResponseStatusException exception = assertThrows(ResponseStatusException.class,
+                () -> ResponseFormat.negotiate("application/cbor;q=high"));
+        assertEquals(HttpStatus.BAD_REQUEST, exception.getStatusCode());
+    }
+
+    @Test
+    void etag_DiffersPerRepresentation() {
+        assertEquals("\"e-1-2\"", ResponseFormat.JSON.etag("\"e-1-2\""));
+        assertEquals("\"e-1-2-cbor\"", ResponseFormat.CBOR.etag("\"e-1-2\""));
+        assertEquals("\"e-1-2-avro\"", ResponseFormat.AVRO.etag("\"e-1-2\""));
+    }
+}
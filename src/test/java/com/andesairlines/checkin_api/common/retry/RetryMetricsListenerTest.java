@@ -0,0 +1,124 @@
+package com.andesairlines.checkin_api.common.retry;
+
+import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.retry.RetryContext;
+import org.springframework.retry.backoff.NoBackOffPolicy;
+import org.springframework.retry.interceptor.MethodInvocationRetryCallback;
+import org.springframework.retry.policy.SimpleRetryPolicy;
+import org.springframework.retry.support.RetryTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RetryMetricsListenerTest {
+
+    @Mock
+    private MethodInvocation invocation;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetryTemplate retryTemplate;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        TransientFailureClassifier classifier = new TransientFailureClassifier();
+
+        retryTemplate = new RetryTemplate();
+        retryTemplate.setRetryPolicy(new SimpleRetryPolicy(3, classifier));
+        retryTemplate.setBackOffPolicy(new NoBackOffPolicy());
+        retryTemplate.registerListener(new RetryMetricsListener(meterRegistry, classifier));
+
+        lenient().when(invocation.getMethod()).thenReturn(Object.class.getMethod("toString"));
+    }
+
+    @Test
+    void close_RecordsRecoveredCallAndRetries() throws Throwable {
+        // Given
+        when(invocation.proceed())
+                .thenThrow(new QueryTimeoutException("timeout"))
+                .thenReturn("ok");
+
+        // When
+        Object result = retryTemplate.execute(new MethodInvocationRetryCallback<>(invocation, null));
+
+        // Then
+        assertEquals("ok", result);
+        assertEquals(1.0, meterRegistry.get("retry.calls")
+                .tags("method", "Object.toString", "outcome", "recovered").counter().count());
+        assertEquals(1.0, meterRegistry.get("retry.retries").tag("method", "Object.toString").counter().count());
+    }
+
+    @Test
+    void close_NonTransientFailureIsRejectedWithoutRetries() throws Throwable {
+        // Given
+        when(invocation.proceed()).thenThrow(new NotFoundException("Flight not found with ID: 999"));
+
+        // When
+        assertThrows(NotFoundException.class,
+                () -> retryTemplate.execute(new MethodInvocationRetryCallback<>(invocation, null)));
+
+        // Then
+        verify(invocation, times(1)).proceed();
+        assertEquals(1.0, meterRegistry.get("retry.calls")
+                .tags("method", "Object.toString", "outcome", "rejected").counter().count());
+        assertNull(meterRegistry.find("retry.retries").counter());
+    }
+
+    @Test
+    void close_TransientFailureExhaustsAttempts() throws Throwable {
+        // Given
+        when(invocation.proceed()).thenThrow(new QueryTimeoutException("timeout"));
+
+        // When
+        assertThrows(QueryTimeoutException.class,
+                () -> retryTemplate.execute(new MethodInvocationRetryCallback<>(invocation, null)));
+
+        // Then
+        verify(invocation, times(3)).proceed();
+        assertEquals(1.0, meterRegistry.get("retry.calls")
+                .tags("method", "Object.toString", "outcome", "exhausted").counter().count());
+        assertEquals(2.0, meterRegistry.get("retry.retries").tag("method", "Object.toString").counter().count());
+    }
+
+    @Test
+    void close_TagsNamedCallbackWithItsName() {
+        // Given
+        int[] attempts = {0};
+
+        // When
+        String result = retryTemplate.execute(NamedRetryCallback.named("FlightController.assignSeat", context -> {
+            if (attempts[0]++ == 0) {
+                throw new QueryTimeoutException("timeout");
+            }
+            return "ok";
+        }));
+
+        // Then
+        assertEquals("ok", result);
+        assertEquals(1.0, meterRegistry.get("retry.calls")
+                .tags("method", "FlightController.assignSeat", "outcome", "recovered").counter().count());
+        assertNull(meterRegistry.find("retry.calls").tag("method", "unknown").counter());
+    }
+
+    @Test
+    void close_FallsBackToContextName() {
+        // When
+        retryTemplate.execute(context -> {
+            context.setAttribute(RetryContext.NAME, "BatchJob.run");
+            return "ok";
+        });
+
+        // Then
+        assertEquals(1.0, meterRegistry.get("retry.calls")
+                .tags("method", "BatchJob.run", "outcome", "success").counter().count());
+    }
+}
@@ -0,0 +1,60 @@
+package com.andesairlines.checkin_api.common.retry;
+
+import com.andesairlines.checkin_api.common.exception.ConflictException;
+import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.jdbc.CannotGetJdbcConnectionException;
+import org.springframework.transaction.CannotCreateTransactionException;
+
+import java.sql.SQLException;
+import java.sql.SQLTransientConnectionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransientFailureClassifierTest {
+
+    private final TransientFailureClassifier classifier = new TransientFailureClassifier();
+
+    @Test
+    void isTransient_ConnectionAndLockFailures() {
+        // When & Then
+        assertTrue(classifier.isTransient(new CannotGetJdbcConnectionException("pool exhausted")));
+        assertTrue(classifier.isTransient(new CannotCreateTransactionException("no connection")));
+        assertTrue(classifier.isTransient(new CannotAcquireLockException("lock wait timeout")));
+        assertTrue(classifier.isTransient(new QueryTimeoutException("timeout")));
+        assertTrue(classifier.isTransient(new SQLTransientConnectionException("connection reset")));
+    }
+
+    @Test
+    void isTransient_LooksThroughWrappedCauses() {
+        // Given
+        RuntimeException wrapped = new RuntimeException("jpa",
+                new IllegalStateException("hibernate", new SQLException("link failure", "08S01")));
+
+        // When & Then
+        assertTrue(classifier.isTransient(wrapped));
+        assertTrue(classifier.isTransient(new RuntimeException(new SQLException("deadlock", "40001"))));
+    }
+
+    @Test
+    void isTransient_BusinessAndIntegrityFailuresFailFast() {
+        // When & Then
+        assertFalse(classifier.isTransient(new NotFoundException("Flight not found with ID: 999")));
+        assertFalse(classifier.isTransient(new ConflictException("Seat 1A is already taken")));
+        assertFalse(classifier.isTransient(new IllegalArgumentException("bad input")));
+        assertFalse(classifier.isTransient(new DuplicateKeyException("uk_boarding_pass_flight_seat")));
+        assertFalse(classifier.isTransient(new DataIntegrityViolationException("fk")));
+        assertFalse(classifier.isTransient(new RuntimeException(new SQLException("syntax", "42000"))));
+    }
+
+    @Test
+    void classify_MatchesIsTransient() {
+        // When & Then
+        assertTrue(classifier.classify(new QueryTimeoutException("timeout")));
+        assertFalse(classifier.classify(new NotFoundException("missing")));
+    }
+}
@@ -0,0 +1,173 @@
+package com.andesairlines.checkin_api.common.web;
+
+import com.andesairlines.checkin_api.common.concurrent.AdaptiveConcurrencyLimit;
+import com.andesairlines.checkin_api.common.exception.OverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ConcurrencyLimitInterceptorTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private AdaptiveConcurrencyLimit limit;
+    private ConcurrencyLimitInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        limit = new AdaptiveConcurrencyLimit(1, 1, 5);
+        interceptor = new ConcurrencyLimitInterceptor("seat.write", limit, HttpStatus.TOO_MANY_REQUESTS,
+                Duration.ofSeconds(2), meterRegistry);
+    }
+
+    @Test
+    void preHandle_ShedsWhenLimitIsFull() {
+        // Given
+        MockHttpServletRequest first = new MockHttpServletRequest();
+        assertTrue(interceptor.preHandle(first, new MockHttpServletResponse(), new Object()));
+
+        // When
+        OverloadedException exception = assertThrows(OverloadedException.class,
+            () -> interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object()));
+
+        // Then
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, exception.getStatus());
+        assertEquals(Duration.ofSeconds(2), exception.getRetryAfter());
+        assertEquals(1.0, meterRegistry.get("concurrency.rejected").tag("limiter", "seat.write").counter().count());
+        assertEquals(1.0, meterRegistry.get("concurrency.in.flight").tag("limiter", "seat.write").gauge().value());
+    }
+
+    @Test
+    void afterCompletion_ReleasesPermit() {
+        // Given
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+
+        // When
+        response.setStatus(200);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Then
+        assertEquals(0, limit.getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    void afterCompletion_ServerErrorReleasesPermitAsDropped() {
+        // Given
+        limit = new AdaptiveConcurrencyLimit(4, 1, 5);
+        interceptor = new ConcurrencyLimitInterceptor("manifest.read", limit, HttpStatus.SERVICE_UNAVAILABLE,
+                Duration.ofSeconds(1), meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+
+        // When
+        response.setStatus(500);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Then
+        assertEquals(0, limit.getInFlight());
+        assertEquals(3, limit.getLimit());
+    }
+
+    @Test
+    void afterCompletion_WithoutPermitDoesNothing() {
+        // When
+        interceptor.afterCompletion(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object(), null);
+
+        // Then
+        assertEquals(0, limit.getInFlight());
+    }
+
+    @Test
+    void streamingResponse_HoldsOnePermitUntilAsyncDispatchCompletes() throws Exception {
+        // Given
+        MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new StreamingController())
+                .addInterceptors(interceptor)
+                .build();
+
+        // When
+        MvcResult started = mockMvc.perform(get("/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1, limit.getInFlight());
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().string("manifest"));
+
+        // Then
+        assertEquals(0, limit.getInFlight());
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object()));
+    }
+
+    @Test
+    void preHandle_RequestsOutsideThePredicatePassWithoutPermit() {
+        // Given: un límite solo para streams, de un lugar y ya ocupado
+        AdaptiveConcurrencyLimit streams = new AdaptiveConcurrencyLimit(1, 1, 1);
+        ConcurrencyLimitInterceptor streamLimiter = new ConcurrencyLimitInterceptor("manifest.stream", streams,
+                HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(5),
+                request -> "true".equals(request.getParameter("stream")), meterRegistry);
+        MockHttpServletRequest stream = new MockHttpServletRequest();
+        stream.setParameter("stream", "true");
+        assertTrue(streamLimiter.preHandle(stream, new MockHttpServletResponse(), new Object()));
+
+        // When & Then
+        assertTrue(streamLimiter.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), new Object()));
+        MockHttpServletRequest secondStream = new MockHttpServletRequest();
+        secondStream.setParameter("stream", "true");
+        assertThrows(OverloadedException.class,
+                () -> streamLimiter.preHandle(secondStream, new MockHttpServletResponse(), new Object()));
+        assertEquals(1, streams.getInFlight());
+    }
+
+    @Test
+    void afterCompletion_EachLimiterReleasesItsOwnPermit() {
+        // Given: la misma request pasa por dos limitadores
+        AdaptiveConcurrencyLimit otherLimit = new AdaptiveConcurrencyLimit(1, 1, 1);
+        ConcurrencyLimitInterceptor other = new ConcurrencyLimitInterceptor("manifest.stream", otherLimit,
+                HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(5), meterRegistry);
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(request, response, new Object());
+        other.preHandle(request, response, new Object());
+
+        // When
+        other.afterCompletion(request, response, new Object(), null);
+        interceptor.afterCompletion(request, response, new Object(), null);
+
+        // Then
+        assertEquals(0, limit.getInFlight());
+        assertEquals(0, otherLimit.getInFlight());
+    }
+
+    @RestController
+    static class StreamingController {
+
+        @GetMapping("/stream")
+        StreamingResponseBody stream() {
+            return out -> out.write("manifest".getBytes(StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.andesairlines.checkin_api.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.handler.MappedInterceptor;
+import org.springframework.web.util.ServletRequestPathUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConcurrencyLimitConfigTest {
+
+    private final HandlerInterceptor interceptor = new HandlerInterceptor() {
+    };
+
+    @Test
+    void seatWriteLimiter_CoversCheckinAndManualSeatAssignment() {
+        MappedInterceptor seatWrites = new MappedInterceptor(ConcurrencyLimitConfig.SEAT_WRITE_PATHS, null, interceptor);
+
+        assertTrue(seatWrites.matches(request("PUT", "/flights/1/passengers/144/seat")));
+        assertTrue(seatWrites.matches(request("POST", "/flights/1/checkin")));
+        assertFalse(seatWrites.matches(request("GET", "/flights/1/passengers")));
+    }
+
+    @Test
+    void manifestReadLimiter_CoversOnlyManifestReads() {
+        MappedInterceptor manifestReads = new MappedInterceptor(ConcurrencyLimitConfig.MANIFEST_READ_PATHS, null, interceptor);
+
+        assertTrue(manifestReads.matches(request("GET", "/flights/1/passengers")));
+        assertFalse(manifestReads.matches(request("PUT", "/flights/1/passengers/144/seat")));
+        assertFalse(manifestReads.matches(request("POST", "/flights/1/checkin")));
+    }
+
+    @Test
+    void manifestStreamLimiter_CoversOnlyStreamedManifests() {
+        MockHttpServletRequest stream = request("GET", "/flights/1/passengers");
+        stream.setParameter("stream", "true");
+
+        assertTrue(ConcurrencyLimitConfig.isManifestStream(stream));
+        assertFalse(ConcurrencyLimitConfig.isManifestStream(request("GET", "/flights/1/passengers")));
+    }
+
+    private static MockHttpServletRequest request(String method, String uri) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, uri);
+        ServletRequestPathUtils.parseAndCache(request);
+        return request;
+    }
+}
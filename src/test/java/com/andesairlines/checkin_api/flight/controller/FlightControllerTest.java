@@ -1,18 +1,43 @@
 package com.andesairlines.checkin_api.flight.controller;
 
+import com.andesairlines.checkin_api.common.concurrent.LaneExecutor;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadClass;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadExecutor;
 import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.common.response.ApiResponse;
+import com.andesairlines.checkin_api.common.response.ContentCoding;
+import com.andesairlines.checkin_api.common.response.ResponseFormat;
+import com.andesairlines.checkin_api.flight.model.dto.FlightPassengerPage;
 import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
-import com.andesairlines.checkin_api.flight.service.CheckinService;
+import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.service.CheckinCoalescer;
+import com.andesairlines.checkin_api.flight.service.FlightManifestResponseCache;
+import com.andesairlines.checkin_api.flight.service.FlightManifestStreamer;
+import com.andesairlines.checkin_api.flight.service.FlightPassengerPageService;
+import com.andesairlines.checkin_api.flight.service.FlightVersionRegistry;
 import com.andesairlines.checkin_api.flight.service.ManualSeatAssignmentService;
 import com.andesairlines.checkin_api.passenger.model.dto.PassengerResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.context.TestConfiguration;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.retry.support.RetryTemplate;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.OutputStream;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -22,11 +47,50 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @ActiveProfiles("test")
 class FlightControllerTest {
 
+    @TestConfiguration
+    static class ExecutorConfig {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        LaneExecutor flightLanes(MeterRegistry meterRegistry) {
+            return new LaneExecutor("flight.lanes", 2, meterRegistry);
+        }
+
+        @Bean
+        RetryTemplate transientRetryTemplate() {
+            return RetryTemplate.builder().maxAttempts(1).build();
+        }
+
+        @Bean(destroyMethod = "shutdown")
+        WorkloadExecutor manifestReads(MeterRegistry meterRegistry) {
+            return new WorkloadExecutor(WorkloadClass.READ, 2, 10, HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(1), meterRegistry);
+        }
+    }
+
     @Autowired
     private MockMvc mockMvc;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @MockBean
-    private CheckinService checkinService;
+    private FlightManifestResponseCache flightManifestResponseCache;
+
+    @MockBean
+    private FlightManifestStreamer flightManifestStreamer;
+
+    @MockBean
+    private FlightPassengerPageService flightPassengerPageService;
+
+    @MockBean
+    private FlightVersionRegistry flightVersionRegistry;
+
+    @MockBean
+    private CheckinCoalescer checkinCoalescer;
 
     @MockBean
     private ManualSeatAssignmentService manualSeatAssignmentService;
@@ -56,34 +120,313 @@ class FlightControllerTest {
     void getFlightWithPassengers_Success() throws Exception {
         // Given
         Integer flightId = 1;
-        when(checkinService.performCheckin(flightId)).thenReturn(testFlightResponse);
+        byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success(testFlightResponse));
+        when(flightVersionRegistry.currentVersion(flightId)).thenReturn(1L);
+        when(flightVersionRegistry.etag(flightId, 1L)).thenReturn("\"e-1-1\"");
+        when(flightManifestResponseCache.getManifest(flightId, ResponseFormat.JSON, ContentCoding.IDENTITY))
+                .thenReturn(new FlightManifestResponseCache.SerializedManifest(flightId, 1, ResponseFormat.JSON, json));
 
         // When & Then
         mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("ETag", "\"e-1-1\""))
                 .andExpect(jsonPath("$.code").value(200))
                 .andExpect(jsonPath("$.data.flightId").value(1))
                 .andExpect(jsonPath("$.data.airplaneId").value(100))
                 .andExpect(jsonPath("$.data.takeoffAirport").value("SCL"))
                 .andExpect(jsonPath("$.data.landingAirport").value("LIM"));
 
-        verify(checkinService).performCheckin(flightId);
+        verify(flightManifestResponseCache).getManifest(flightId, ResponseFormat.JSON, ContentCoding.IDENTITY);
+        verifyNoInteractions(checkinCoalescer);
     }
 
     @Test
     void getFlightWithPassengers_FlightNotFound() throws Exception {
         // Given
         Integer flightId = 999;
-        when(checkinService.performCheckin(flightId))
-                .thenThrow(new NotFoundException("Flight not found with ID: " + flightId));
+        when(flightVersionRegistry.etag(flightId, 0L)).thenReturn("\"e-999-0\"");
+        when(flightManifestResponseCache.getManifest(flightId, ResponseFormat.JSON, ContentCoding.IDENTITY))
+                .thenThrow(new NotFoundException("Flight not found with id: " + flightId));
+
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isNotFound());
+
+        verify(flightManifestResponseCache).getManifest(flightId, ResponseFormat.JSON, ContentCoding.IDENTITY);
+        verifyNoInteractions(checkinCoalescer);
+    }
+
+    @Test
+    void getFlightWithPassengers_FlightNotFoundForAvroClient() throws Exception {
+        // Given
+        Integer flightId = 999;
+        when(flightVersionRegistry.etag(flightId, 0L)).thenReturn("\"e-999-0\"");
+        when(flightManifestResponseCache.getManifest(flightId, ResponseFormat.AVRO, ContentCoding.IDENTITY))
+                .thenThrow(new NotFoundException("Flight not found with id: " + flightId));
+
+        // When & Then: el error no tiene esquema Avro, así que sale solo el estado en vez de un 500
+        mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                        .header("Accept", ResponseFormat.APPLICATION_AVRO_VALUE))
+                .andExpect(status().isNotFound())
+                .andExpect(content().string(""));
+    }
+
+    @Test
+    void getFlightWithPassengers_NotModified() throws Exception {
+        // Given
+        Integer flightId = 1;
+        when(flightVersionRegistry.currentVersion(flightId)).thenReturn(3L);
+        when(flightVersionRegistry.etag(flightId, 3L)).thenReturn("\"e-1-3\"");
+
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                .header("If-None-Match", "\"e-1-2\", \"e-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"e-1-3\""))
+                .andExpect(content().bytes(new byte[0]));
+
+        verifyNoInteractions(flightManifestResponseCache, checkinCoalescer);
+    }
+
+    @Test
+    void getFlightWithPassengers_StaleEtagReturnsManifest() throws Exception {
+        // Given
+        Integer flightId = 1;
+        byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success(testFlightResponse));
+        when(flightVersionRegistry.currentVersion(flightId)).thenReturn(4L);
+        when(flightVersionRegistry.etag(flightId, 4L)).thenReturn("\"e-1-4\"");
+        when(flightManifestResponseCache.getManifest(flightId, ResponseFormat.JSON, ContentCoding.IDENTITY))
+                .thenReturn(new FlightManifestResponseCache.SerializedManifest(flightId, 4, ResponseFormat.JSON, json));
 
         // When & Then
         mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                .header("If-None-Match", "\"e-1-3\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-1-4\""))
+                .andExpect(jsonPath("$.data.flightId").value(1));
+
+        verify(flightManifestResponseCache).getManifest(flightId, ResponseFormat.JSON, ContentCoding.IDENTITY);
+    }
+
+    @Test
+    void getFlightWithPassengers_CborByAccept() throws Exception {
+        // Given
+        Integer flightId = 1;
+        byte[] cbor = new byte[]{(byte) 0xbf, (byte) 0xff};
+        when(flightVersionRegistry.currentVersion(flightId)).thenReturn(1L);
+        when(flightVersionRegistry.etag(flightId, 1L)).thenReturn("\"e-1-1\"");
+        when(flightManifestResponseCache.getManifest(flightId, ResponseFormat.CBOR, ContentCoding.IDENTITY))
+                .thenReturn(new FlightManifestResponseCache.SerializedManifest(flightId, 1, ResponseFormat.CBOR, cbor));
+
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                        .accept("application/json;q=0.5, application/cbor"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andExpect(header().string("ETag", "\"e-1-1-cbor\""))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andExpect(content().bytes(cbor));
+    }
+
+    @Test
+    void getFlightWithPassengers_GzipByAcceptEncoding() throws Exception {
+        // Given
+        Integer flightId = 1;
+        byte[] gzip = new byte[]{(byte) 0x1f, (byte) 0x8b, 0x08};
+        when(flightVersionRegistry.currentVersion(flightId)).thenReturn(1L);
+        when(flightVersionRegistry.etag(flightId, 1L)).thenReturn("\"e-1-1\"");
+        when(flightManifestResponseCache.getManifest(flightId, ResponseFormat.JSON, ContentCoding.GZIP))
+                .thenReturn(new FlightManifestResponseCache.SerializedManifest(flightId, 1, ResponseFormat.JSON,
+                        ContentCoding.GZIP, gzip, 1_000_000));
+
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                        .header("Accept-Encoding", "gzip;q=1, br;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON))
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", "\"e-1-1-gzip\""))
+                .andExpect(header().string("Vary", "Accept, Accept-Encoding"))
+                .andExpect(content().bytes(gzip));
+    }
+
+    @Test
+    void getFlightWithPassengers_UncompressedEtagStillMatches() throws Exception {
+        // Given
+        Integer flightId = 1;
+        when(flightVersionRegistry.currentVersion(flightId)).thenReturn(1L);
+        when(flightVersionRegistry.etag(flightId, 1L)).thenReturn("\"e-1-1\"");
+
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", "\"e-1-1\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"e-1-1\""));
+
+        verifyNoInteractions(flightManifestResponseCache);
+    }
+
+    @Test
+    void getFlightWithPassengers_UnsupportedAccept() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", 1)
+                        .accept(MediaType.APPLICATION_XML))
+                .andExpect(status().isNotAcceptable())
+                .andExpect(content().string(""));
+
+        verifyNoInteractions(flightManifestResponseCache);
+    }
+
+    @Test
+    void getFlightWithPassengers_PageWithFields() throws Exception {
+        // Given
+        Integer flightId = 1;
+        when(flightVersionRegistry.currentVersion(flightId)).thenReturn(2L);
+        when(flightVersionRegistry.etag(flightId, 2L)).thenReturn("\"e-1-2\"");
+        when(flightPassengerPageService.getPassengers(flightId, "seatId,name", 100, 2))
+                .thenReturn(new FlightPassengerPage(flightId,
+                        List.of(Map.of("name", "Ana", "seatId", 11), Map.of("name", "Luis", "seatId", 12)), 102));
+
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                        .param("fields", "seatId,name")
+                        .param("after", "100")
+                        .param("limit", "2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-1-2\""))
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.passengers.length()").value(2))
+                .andExpect(jsonPath("$.data.passengers[0].seatId").value(11))
+                .andExpect(jsonPath("$.data.passengers[0].dni").doesNotExist())
+                .andExpect(jsonPath("$.data.nextCursor").value(102));
+
+        verifyNoInteractions(flightManifestResponseCache);
+    }
+
+    @Test
+    void getFlightWithPassengers_PageLimitOutOfRange() throws Exception {
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", 1)
+                        .param("limit", "501"))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(flightPassengerPageService, flightManifestResponseCache);
+    }
+
+    @Test
+    void streamFlightWithPassengers_Success() throws Exception {
+        // Given
+        Integer flightId = 1;
+        Flight flight = new Flight();
+        flight.setFlightId(flightId);
+        byte[] json = objectMapper.writeValueAsBytes(ApiResponse.success(testFlightResponse));
+        when(flightVersionRegistry.currentVersion(flightId)).thenReturn(2L);
+        when(flightVersionRegistry.etag(flightId, 2L)).thenReturn("\"e-1-2\"");
+        when(flightManifestStreamer.findFlight(flightId)).thenReturn(flight);
+        when(flightManifestStreamer.writeManifest(eq(flight), any())).thenAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write(json);
+            return 0;
+        });
+
+        // When
+        MvcResult result = mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                        .param("stream", "true"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // Then
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"e-1-2\""))
+                .andExpect(header().string("Vary", "Accept"))
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.flightId").value(1))
+                .andExpect(jsonPath("$.data.takeoffAirport").value("SCL"));
+
+        verify(flightManifestStreamer).writeManifest(eq(flight), any());
+        verifyNoInteractions(flightManifestResponseCache);
+    }
+
+    @Test
+    void streamFlightWithPassengers_FlightNotFound() throws Exception {
+        // Given
+        Integer flightId = 999;
+        when(flightVersionRegistry.etag(flightId, 0L)).thenReturn("\"e-999-0\"");
+        when(flightManifestStreamer.findFlight(flightId))
+                .thenThrow(new NotFoundException("Flight not found with id: " + flightId));
+
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                        .param("stream", "true"))
+                .andExpect(status().isNotFound());
+
+        verify(flightManifestStreamer, never()).writeManifest(any(), any());
+    }
+
+    @Test
+    void streamFlightWithPassengers_NonJsonAcceptIsNotAcceptable() throws Exception {
+        // When & Then: el stream solo se escribe en JSON
+        mockMvc.perform(get("/flights/{flightId}/passengers", 1)
+                        .param("stream", "true")
+                        .header("Accept", "application/cbor"))
+                .andExpect(status().isNotAcceptable());
+
+        verifyNoInteractions(flightVersionRegistry, flightManifestStreamer);
+    }
+
+    @Test
+    void streamFlightWithPassengers_NotModified() throws Exception {
+        // Given
+        Integer flightId = 1;
+        when(flightVersionRegistry.currentVersion(flightId)).thenReturn(3L);
+        when(flightVersionRegistry.etag(flightId, 3L)).thenReturn("\"e-1-3\"");
+
+        // When & Then
+        mockMvc.perform(get("/flights/{flightId}/passengers", flightId)
+                        .param("stream", "true")
+                        .header("If-None-Match", "\"e-1-3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"e-1-3\""));
+
+        verifyNoInteractions(flightManifestStreamer, flightManifestResponseCache);
+    }
+
+    @Test
+    void performCheckin_Success() throws Exception {
+        // Given
+        Integer flightId = 1;
+        when(checkinCoalescer.performCheckin(flightId)).thenReturn(testFlightResponse);
+
+        // When & Then
+        mockMvc.perform(post("/flights/{flightId}/checkin", flightId)
+                .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.code").value(200))
+                .andExpect(jsonPath("$.data.flightId").value(1))
+                .andExpect(jsonPath("$.data.airplaneId").value(100));
+
+        verify(checkinCoalescer).performCheckin(flightId);
+        verifyNoInteractions(flightManifestResponseCache);
+    }
+
+    @Test
+    void performCheckin_FlightNotFound() throws Exception {
+        // Given
+        Integer flightId = 999;
+        when(checkinCoalescer.performCheckin(flightId))
+                .thenThrow(new NotFoundException("Flight not found with ID: " + flightId));
+
+        // When & Then
+        mockMvc.perform(post("/flights/{flightId}/checkin", flightId)
                 .contentType(MediaType.APPLICATION_JSON))
                 .andExpect(status().isNotFound());
 
-        verify(checkinService).performCheckin(flightId);
+        verify(checkinCoalescer).performCheckin(flightId);
     }
 
     @Test
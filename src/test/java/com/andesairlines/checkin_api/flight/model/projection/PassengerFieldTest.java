@@ -0,0 +1,44 @@
+package com.andesairlines.checkin_api.flight.model.projection;
+
+import com.andesairlines.checkin_api.common.exception.BadRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PassengerFieldTest {
+
+    @Test
+    void parse_NullOrBlankSelectsAllFields() {
+        assertEquals(EnumSet.allOf(PassengerField.class), PassengerField.parse(null));
+        assertEquals(EnumSet.allOf(PassengerField.class), PassengerField.parse(" "));
+        assertEquals(EnumSet.allOf(PassengerField.class), PassengerField.parse(","));
+    }
+
+    @Test
+    void parse_SelectsRequestedFieldsInDeclarationOrder() {
+        // When
+        Set<PassengerField> fields = PassengerField.parse("seatColumn, name,seatId,name");
+
+        // Then
+        assertEquals(EnumSet.of(PassengerField.NAME, PassengerField.SEAT_ID, PassengerField.SEAT_COLUMN), fields);
+    }
+
+    @Test
+    void parse_UnknownFieldIsBadRequest() {
+        // When & Then
+        BadRequestException exception = assertThrows(BadRequestException.class,
+                () -> PassengerField.parse("seatId,password"));
+        assertEquals("Unknown passenger field: password", exception.getMessage());
+    }
+
+    @Test
+    void joins_OnlyForColumnsOutsideBoardingPass() {
+        assertNull(PassengerField.SEAT_ID.join());
+        assertNull(PassengerField.PASSENGER_ID.join());
+        assertEquals(PassengerField.Join.PASSENGER, PassengerField.NAME.join());
+        assertEquals(PassengerField.Join.SEAT, PassengerField.SEAT_ROW.join());
+    }
+}
@@ -0,0 +1,143 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.concurrent.LaneExecutor;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadClass;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadContext;
+import com.andesairlines.checkin_api.common.concurrent.WorkloadExecutor;
+import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.http.HttpStatus;
+import org.springframework.retry.support.RetryTemplate;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CheckinCoalescerTest {
+
+    @Mock
+    private CheckinService checkinService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private LaneExecutor flightLanes;
+    private WorkloadExecutor batchCheckins;
+    private CheckinCoalescer checkinCoalescer;
+    private FlightResponse testFlightResponse;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        flightLanes = new LaneExecutor("flight.lanes", 2, meterRegistry);
+        batchCheckins = new WorkloadExecutor(WorkloadClass.BATCH, 2, 10, HttpStatus.TOO_MANY_REQUESTS,
+                Duration.ofSeconds(5), meterRegistry);
+        RetryTemplate retryTemplate = RetryTemplate.builder()
+                .maxAttempts(2)
+                .retryOn(TransientDataAccessResourceException.class)
+                .noBackoff()
+                .build();
+        checkinCoalescer = new CheckinCoalescer(checkinService, flightLanes, batchCheckins, retryTemplate, meterRegistry);
+        testFlightResponse = new FlightResponse();
+        testFlightResponse.setFlightId(1);
+    }
+
+    @AfterEach
+    void tearDown() {
+        flightLanes.shutdown();
+        batchCheckins.shutdown();
+    }
+
+    @Test
+    void performCheckin_ConcurrentCallersShareResult() throws Exception {
+        // Given
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(checkinService.performCheckin(1)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return testFlightResponse;
+        });
+
+        // When
+        CompletableFuture<FlightResponse> first = CompletableFuture.supplyAsync(() -> checkinCoalescer.performCheckin(1));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<FlightResponse> second = CompletableFuture.supplyAsync(() -> checkinCoalescer.performCheckin(1));
+        while (coalesced() < 1) {
+            Thread.onSpinWait();
+        }
+        release.countDown();
+
+        // Then
+        assertSame(testFlightResponse, first.get(5, TimeUnit.SECONDS));
+        assertSame(testFlightResponse, second.get(5, TimeUnit.SECONDS));
+        verify(checkinService, times(1)).performCheckin(1);
+        assertEquals(1.0, executed());
+        assertEquals(1.0, coalesced());
+        assertEquals(1, meterRegistry.get("flight.lanes.execution").tag("lane", String.valueOf(flightLanes.laneOf(1))).timer().count());
+    }
+
+    @Test
+    void performCheckin_PropagatesFailures() {
+        // Given
+        when(checkinService.performCheckin(999)).thenThrow(new NotFoundException("Flight not found with ID: 999"));
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> checkinCoalescer.performCheckin(999));
+        assertEquals(1.0, executed());
+        assertEquals(0.0, coalesced());
+        assertEquals(0.0, meterRegistry.get("checkin.in.flight").gauge().value());
+    }
+
+    private double executed() {
+        return meterRegistry.get("checkin.requests").tag("outcome", "executed").counter().count();
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("checkin.requests").tag("outcome", "coalesced").counter().count();
+    }
+
+    @Test
+    void performCheckin_RunsAsBatchWorkloadOnFlightLane() {
+        // Given
+        when(checkinService.performCheckin(1)).thenAnswer(invocation -> {
+            assertEquals(WorkloadClass.BATCH, WorkloadContext.current());
+            assertTrue(Thread.currentThread().getName().startsWith("flight.lanes-"));
+            return testFlightResponse;
+        });
+
+        // When
+        FlightResponse result = checkinCoalescer.performCheckin(1);
+
+        // Then
+        assertSame(testFlightResponse, result);
+        assertEquals(1, meterRegistry.get("workload.execution").tag("workload", "BATCH").timer().count());
+    }
+
+    @Test
+    void performCheckin_RetriesTransientFailureOutsideTheLane() {
+        // Given
+        when(checkinService.performCheckin(1))
+                .thenThrow(new TransientDataAccessResourceException("Lock wait timeout exceeded"))
+                .thenReturn(testFlightResponse);
+
+        // When
+        FlightResponse result = checkinCoalescer.performCheckin(1);
+
+        // Then: cada intento vuelve a encolarse en el carril
+        assertSame(testFlightResponse, result);
+        verify(checkinService, times(2)).performCheckin(1);
+        assertEquals(2, meterRegistry.get("flight.lanes.execution").tag("lane", String.valueOf(flightLanes.laneOf(1))).timer().count());
+    }
+}
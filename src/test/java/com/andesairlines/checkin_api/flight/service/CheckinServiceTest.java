@@ -1,11 +1,16 @@
 package com.andesairlines.checkin_api.flight.service;
 
+import com.andesairlines.checkin_api.airplane.service.AirplaneLayoutService;
+import com.andesairlines.checkin_api.common.exception.ConflictException;
 import com.andesairlines.checkin_api.common.exception.NotFoundException;
 import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
 import com.andesairlines.checkin_api.flight.model.entity.Flight;
 import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import com.andesairlines.checkin_api.flight.repository.BoardingPassSeatWriter;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestWriter;
 import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import com.andesairlines.checkin_api.flight.repository.SeatWriteResult;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -14,9 +19,11 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -31,12 +38,27 @@ class CheckinServiceTest {
     @Mock
     private BoardingPassRepository boardingPassRepository;
 
+    @Mock
+    private BoardingPassSeatWriter boardingPassSeatWriter;
+
+    @Mock
+    private FlightManifestWriter flightManifestWriter;
+
     @Mock
     private SeatAssignmentService seatAssignmentService;
 
+    @Mock
+    private AirplaneLayoutService airplaneLayoutService;
+
     @Mock
     private FlightResponseMapper flightResponseMapper;
 
+    @Mock
+    private FlightVersionRegistry flightVersionRegistry;
+
+    @Mock
+    private SeatClaimRegistry seatClaimRegistry;
+
     @InjectMocks
     private CheckinService checkinService;
 
@@ -69,6 +91,8 @@ class CheckinServiceTest {
         testFlightResponse = new FlightResponse();
         testFlightResponse.setFlightId(1);
         testFlightResponse.setAirplaneId(100);
+
+        lenient().when(boardingPassSeatWriter.updateSeats(any())).thenReturn(SeatWriteResult.written());
     }
 
     @Test
@@ -78,9 +102,7 @@ class CheckinServiceTest {
         when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
         when(boardingPassRepository.findBoardingPassesByFlightIdOrderedByPurchase(flightId))
                 .thenReturn(testBoardingPasses);
-        when(boardingPassRepository.findBoardingPassesByFlightId(flightId))
-                .thenReturn(testBoardingPasses);
-        when(flightResponseMapper.mapToFlightResponse(eq(testFlight), any()))
+        when(flightResponseMapper.mapToFlightResponse(eq(testFlight), any(), any()))
                 .thenReturn(testFlightResponse);
 
         // When
@@ -94,8 +116,140 @@ class CheckinServiceTest {
         verify(flightRepository).findByIdWithAirplane(flightId);
         verify(boardingPassRepository).findBoardingPassesByFlightIdOrderedByPurchase(flightId);
         verify(seatAssignmentService).assignSeatsForAllGroups(any(Map.class), eq(100));
-        verify(boardingPassRepository).findBoardingPassesByFlightId(flightId);
-        verify(flightResponseMapper).mapToFlightResponse(eq(testFlight), eq(testBoardingPasses));
+        verify(boardingPassSeatWriter).updateSeats(List.of());
+        verify(flightManifestWriter).rebuild(flightId);
+        verify(flightVersionRegistry).markChanged(flightId);
+        verify(seatClaimRegistry).invalidate(flightId);
+        verify(flightResponseMapper).mapToFlightResponse(eq(testFlight), eq(testBoardingPasses), any());
+    }
+
+    @Test
+    void performCheckin_WritesOnlyNewAssignmentsInOneBatch() {
+        // Given
+        Integer flightId = 1;
+        BoardingPass alreadySeated = new BoardingPass();
+        alreadySeated.setBoardingPassId(3);
+        alreadySeated.setPurchaseId(2);
+        alreadySeated.setSeatId(30);
+
+        List<BoardingPass> boardingPasses = Arrays.asList(testBoardingPasses.get(0), testBoardingPasses.get(1), alreadySeated);
+
+        when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
+        when(boardingPassRepository.findBoardingPassesByFlightIdOrderedByPurchase(flightId))
+                .thenReturn(boardingPasses);
+        doAnswer(invocation -> {
+            testBoardingPasses.get(0).setSeatId(10);
+            return null;
+        }).when(seatAssignmentService).assignSeatsForAllGroups(any(Map.class), eq(100));
+        when(flightResponseMapper.mapToFlightResponse(eq(testFlight), any(), any()))
+                .thenReturn(testFlightResponse);
+
+        // When
+        checkinService.performCheckin(flightId);
+
+        // Then
+        verify(boardingPassSeatWriter).updateSeats(List.of(testBoardingPasses.get(0)));
+        verify(flightResponseMapper).mapToFlightResponse(eq(testFlight), eq(boardingPasses), any());
+    }
+
+    @Test
+    void performCheckin_ReplacesOnlyConflictingPassengers() {
+        // Given
+        Integer flightId = 1;
+        BoardingPass bp1 = testBoardingPasses.get(0);
+        BoardingPass bp2 = testBoardingPasses.get(1);
+
+        when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
+        when(boardingPassRepository.findBoardingPassesByFlightIdOrderedByPurchase(flightId))
+                .thenReturn(testBoardingPasses);
+        doAnswer(invocation -> {
+            bp1.setSeatId(10);
+            bp2.setSeatId(11);
+            return null;
+        }).when(seatAssignmentService).assignSeatsForAllGroups(any(Map.class), eq(100));
+        when(boardingPassSeatWriter.updateSeats(List.of(bp1, bp2))).thenReturn(new SeatWriteResult(List.of(bp2)));
+        when(boardingPassRepository.lockAssignedSeatIdsByFlightId(flightId)).thenReturn(List.of(10, 11));
+        doAnswer(invocation -> {
+            bp2.setSeatId(12);
+            return null;
+        }).when(seatAssignmentService).replaceSeats(List.of(bp2), Set.of(10, 11), 100);
+        when(boardingPassSeatWriter.updateSeats(List.of(bp2))).thenReturn(SeatWriteResult.written());
+        when(flightResponseMapper.mapToFlightResponse(eq(testFlight), any(), any()))
+                .thenReturn(testFlightResponse);
+
+        // When
+        checkinService.performCheckin(flightId);
+
+        // Then
+        assertEquals(10, bp1.getSeatId());
+        assertEquals(12, bp2.getSeatId());
+        verify(seatAssignmentService, times(1)).assignSeatsForAllGroups(any(Map.class), eq(100));
+        verify(seatAssignmentService).replaceSeats(List.of(bp2), Set.of(10, 11), 100);
+        verify(flightManifestWriter).rebuild(flightId);
+    }
+
+    @Test
+    void performCheckin_RefusedSeatsAreNotOfferedAgain() {
+        // Given
+        Integer flightId = 1;
+        BoardingPass bp1 = testBoardingPasses.get(0);
+
+        when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
+        when(boardingPassRepository.findBoardingPassesByFlightIdOrderedByPurchase(flightId))
+                .thenReturn(List.of(bp1));
+        doAnswer(invocation -> {
+            bp1.setSeatId(10);
+            return null;
+        }).when(seatAssignmentService).assignSeatsForAllGroups(any(Map.class), eq(100));
+        // La lectura todavía no muestra el asiento 10, que otro escritor ya confirmó
+        when(boardingPassRepository.lockAssignedSeatIdsByFlightId(flightId)).thenReturn(List.of());
+        doAnswer(invocation -> {
+            Collection<Integer> taken = invocation.getArgument(1);
+            bp1.setSeatId(taken.contains(10) ? 11 : 10);
+            return null;
+        }).when(seatAssignmentService).replaceSeats(any(), any(), eq(100));
+        when(boardingPassSeatWriter.updateSeats(List.of(bp1)))
+                .thenAnswer(invocation -> bp1.getSeatId() == 10
+                        ? new SeatWriteResult(List.of(bp1))
+                        : SeatWriteResult.written());
+        when(flightResponseMapper.mapToFlightResponse(eq(testFlight), any(), any()))
+                .thenReturn(testFlightResponse);
+
+        // When
+        checkinService.performCheckin(flightId);
+
+        // Then
+        assertEquals(11, bp1.getSeatId());
+        verify(seatAssignmentService, times(1)).replaceSeats(List.of(bp1), Set.of(10), 100);
+        verify(flightManifestWriter).rebuild(flightId);
+    }
+
+    @Test
+    void performCheckin_GivesUpAfterRepeatedConflicts() {
+        // Given
+        Integer flightId = 1;
+        BoardingPass bp1 = testBoardingPasses.get(0);
+
+        when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
+        when(boardingPassRepository.findBoardingPassesByFlightIdOrderedByPurchase(flightId))
+                .thenReturn(List.of(bp1));
+        doAnswer(invocation -> {
+            bp1.setSeatId(10);
+            return null;
+        }).when(seatAssignmentService).assignSeatsForAllGroups(any(Map.class), eq(100));
+        doAnswer(invocation -> {
+            bp1.setSeatId(10);
+            return null;
+        }).when(seatAssignmentService).replaceSeats(any(), any(), eq(100));
+        when(boardingPassSeatWriter.updateSeats(List.of(bp1))).thenReturn(new SeatWriteResult(List.of(bp1)));
+
+        // When & Then
+        ConflictException exception = assertThrows(ConflictException.class,
+            () -> checkinService.performCheckin(flightId));
+
+        assertEquals("Could not place 1 passengers on flight 1 due to concurrent seat changes", exception.getMessage());
+        verify(seatAssignmentService, times(3)).replaceSeats(any(), any(), eq(100));
+        verifyNoInteractions(flightManifestWriter, flightVersionRegistry);
     }
 
     @Test
@@ -111,7 +265,7 @@ class CheckinServiceTest {
         assertEquals("Flight not found with ID: 999", exception.getMessage());
         
         verify(flightRepository).findByIdWithAirplane(flightId);
-        verifyNoInteractions(boardingPassRepository, seatAssignmentService, flightResponseMapper);
+        verifyNoInteractions(boardingPassRepository, boardingPassSeatWriter, flightManifestWriter, seatAssignmentService, airplaneLayoutService, flightResponseMapper, flightVersionRegistry, seatClaimRegistry);
     }
 
     @Test
@@ -121,9 +275,7 @@ class CheckinServiceTest {
         when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
         when(boardingPassRepository.findBoardingPassesByFlightIdOrderedByPurchase(flightId))
                 .thenReturn(List.of());
-        when(boardingPassRepository.findBoardingPassesByFlightId(flightId))
-                .thenReturn(List.of());
-        when(flightResponseMapper.mapToFlightResponse(eq(testFlight), any()))
+        when(flightResponseMapper.mapToFlightResponse(eq(testFlight), any(), any()))
                 .thenReturn(testFlightResponse);
 
         // When
@@ -155,9 +307,7 @@ class CheckinServiceTest {
         when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
         when(boardingPassRepository.findBoardingPassesByFlightIdOrderedByPurchase(flightId))
                 .thenReturn(boardingPasses);
-        when(boardingPassRepository.findBoardingPassesByFlightId(flightId))
-                .thenReturn(boardingPasses);
-        when(flightResponseMapper.mapToFlightResponse(eq(testFlight), any()))
+        when(flightResponseMapper.mapToFlightResponse(eq(testFlight), any(), any()))
                 .thenReturn(testFlightResponse);
 
         // When
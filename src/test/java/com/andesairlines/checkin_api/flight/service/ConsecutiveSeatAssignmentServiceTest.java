@@ -1,34 +1,30 @@
 package com.andesairlines.checkin_api.flight.service;
 
 import com.andesairlines.checkin_api.airplane.model.entity.Seat;
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
-import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
-import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
-import static org.mockito.ArgumentMatchers.any;
-import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ConsecutiveSeatAssignmentServiceTest {
 
-    @Mock
-    private BoardingPassRepository boardingPassRepository;
-
     @InjectMocks
     private ConsecutiveSeatAssignmentService consecutiveSeatAssignmentService;
 
     private List<BoardingPass> testPassengers;
-    private List<Seat> availableSeats;
+    private AirplaneLayout layout;
+    private SeatOccupancy occupancy;
 
     @BeforeEach
     void setUp() {
@@ -40,7 +36,7 @@ class ConsecutiveSeatAssignmentServiceTest {
         testPassengers = Arrays.asList(bp1, bp2);
 
         // Create available seats
-        availableSeats = new ArrayList<>();
+        List<Seat> seats = new ArrayList<>();
         
         // Row 1 seats
         Seat seat1A = createSeat(1, 1, "A", 1);
@@ -54,7 +50,9 @@ class ConsecutiveSeatAssignmentServiceTest {
         // Different seat type
         Seat seat1D = createSeat(6, 1, "D", 2);
         
-        availableSeats.addAll(Arrays.asList(seat1A, seat1B, seat1C, seat2A, seat2B, seat1D));
+        seats.addAll(Arrays.asList(seat1A, seat1B, seat1C, seat2A, seat2B, seat1D));
+        layout = AirplaneLayout.compile(1, seats);
+        occupancy = SeatOccupancy.of(layout, Set.of());
     }
 
     private Seat createSeat(Integer seatId, Integer row, String column, Integer seatTypeId) {
@@ -70,49 +68,54 @@ class ConsecutiveSeatAssignmentServiceTest {
     void assignSeatsForPassengers_ConsecutiveSeatsAvailable() {
         // Given
         Integer seatTypeId = 1;
-        when(boardingPassRepository.save(any(BoardingPass.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
-        consecutiveSeatAssignmentService.assignSeatsForPassengers(testPassengers, availableSeats, seatTypeId);
+        consecutiveSeatAssignmentService.assignSeatsForPassengers(testPassengers, occupancy, seatTypeId);
 
         // Then
-        verify(boardingPassRepository, times(2)).save(any(BoardingPass.class));
-        
         // Verify passengers were assigned consecutive seats
         assertEquals(1, testPassengers.get(0).getSeatId()); // Seat 1A
         assertEquals(2, testPassengers.get(1).getSeatId()); // Seat 1B
         
-        // Verify seats were removed from available list
-        assertEquals(4, availableSeats.size()); // 6 - 2 assigned seats
+        // Verify seats were marked as occupied
+        assertEquals(3, occupancy.freeSeatCount(1)); // 5 - 2 assigned seats
+        assertFalse(occupancy.isFree(1));
+        assertFalse(occupancy.isFree(2));
     }
 
     @Test
     void assignSeatsForPassengers_NoConsecutiveSeats_AssignBestAvailable() {
         // Given
         Integer seatTypeId = 1;
-        // Remove seat 1B to break consecutiveness in row 1
-        availableSeats.removeIf(seat -> seat.getSeatId().equals(2));
+        // Seats 1B and 2B already taken: no row has two consecutive free seats
+        occupancy = SeatOccupancy.of(layout, Set.of(2, 5));
         
-        when(boardingPassRepository.save(any(BoardingPass.class))).thenAnswer(invocation -> invocation.getArgument(0));
-
         // When
-        consecutiveSeatAssignmentService.assignSeatsForPassengers(testPassengers, availableSeats, seatTypeId);
+        consecutiveSeatAssignmentService.assignSeatsForPassengers(testPassengers, occupancy, seatTypeId);
 
         // Then
-        verify(boardingPassRepository, times(2)).save(any(BoardingPass.class));
-        
         // Verify passengers were assigned best available seats (sorted by row, column)
-        // After removing seat 1B, available seats of type 1 are: 1A(1), 1C(3), 2A(4), 2B(5)
-        // Service assigns in order based on row/column sorting
-        assertNotNull(testPassengers.get(0).getSeatId());
-        assertNotNull(testPassengers.get(1).getSeatId());
+        // Available seats of type 1 are: 1A(1), 1C(3), 2A(4)
+        assertEquals(1, testPassengers.get(0).getSeatId());
+        assertEquals(3, testPassengers.get(1).getSeatId());
         
-        // Verify both passengers got seats of the correct type
-        assertTrue(testPassengers.get(0).getSeatId() > 0);
-        assertTrue(testPassengers.get(1).getSeatId() > 0);
+        // Verify seats were marked as occupied
+        assertEquals(1, occupancy.freeSeatCount(1)); // 3 - 2 assigned seats
+    }
+
+    @Test
+    void assignSeatsForPassengers_ConsecutiveSeatsInLaterRow() {
+        // Given
+        Integer seatTypeId = 1;
+        // Seat 1B taken: row 1 has no run of two, row 2 does
+        occupancy = SeatOccupancy.of(layout, Set.of(2));
         
-        // Verify seats were removed from available list
-        assertEquals(3, availableSeats.size()); // 5 - 2 assigned seats
+        // When
+        consecutiveSeatAssignmentService.assignSeatsForPassengers(testPassengers, occupancy, seatTypeId);
+
+        // Then
+        assertEquals(4, testPassengers.get(0).getSeatId()); // Seat 2A
+        assertEquals(5, testPassengers.get(1).getSeatId()); // Seat 2B
     }
 
     @Test
@@ -121,17 +124,16 @@ class ConsecutiveSeatAssignmentServiceTest {
         Integer seatTypeId = 3; // Non-existent seat type
         
         // When
-        consecutiveSeatAssignmentService.assignSeatsForPassengers(testPassengers, availableSeats, seatTypeId);
+        consecutiveSeatAssignmentService.assignSeatsForPassengers(testPassengers, occupancy, seatTypeId);
 
         // Then
-        verify(boardingPassRepository, never()).save(any(BoardingPass.class));
-        
         // Verify no seats were assigned
         assertNull(testPassengers.get(0).getSeatId());
         assertNull(testPassengers.get(1).getSeatId());
         
-        // Verify available seats list unchanged
-        assertEquals(6, availableSeats.size());
+        // Verify occupancy unchanged
+        assertEquals(5, occupancy.freeSeatCount(1));
+        assertEquals(1, occupancy.freeSeatCount(2));
     }
 
     @Test
@@ -141,25 +143,22 @@ class ConsecutiveSeatAssignmentServiceTest {
         Integer seatTypeId = 1;
 
         // When
-        consecutiveSeatAssignmentService.assignSeatsForPassengers(emptyPassengers, availableSeats, seatTypeId);
+        consecutiveSeatAssignmentService.assignSeatsForPassengers(emptyPassengers, occupancy, seatTypeId);
 
         // Then
-        verify(boardingPassRepository, never()).save(any(BoardingPass.class));
-        assertEquals(6, availableSeats.size()); // No seats removed
+        assertEquals(5, occupancy.freeSeatCount(1)); // No seats occupied
     }
 
     @Test
     void assignSeatsForPassengers_EmptyAvailableSeats() {
         // Given
-        List<Seat> emptySeats = new ArrayList<>();
+        SeatOccupancy emptyOccupancy = SeatOccupancy.of(AirplaneLayout.compile(1, new ArrayList<>()), Set.of());
         Integer seatTypeId = 1;
 
         // When
-        consecutiveSeatAssignmentService.assignSeatsForPassengers(testPassengers, emptySeats, seatTypeId);
+        consecutiveSeatAssignmentService.assignSeatsForPassengers(testPassengers, emptyOccupancy, seatTypeId);
 
         // Then
-        verify(boardingPassRepository, never()).save(any(BoardingPass.class));
-        
         // Verify no seats were assigned
         assertNull(testPassengers.get(0).getSeatId());
         assertNull(testPassengers.get(1).getSeatId());
@@ -180,15 +179,11 @@ class ConsecutiveSeatAssignmentServiceTest {
         );
         
         Integer seatTypeId = 1;
-        when(boardingPassRepository.save(any(BoardingPass.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
-        consecutiveSeatAssignmentService.assignSeatsForPassengers(manyPassengers, availableSeats, seatTypeId);
+        consecutiveSeatAssignmentService.assignSeatsForPassengers(manyPassengers, occupancy, seatTypeId);
 
         // Then
-        // Should assign only as many seats as available (5 seats of type 1)
-        verify(boardingPassRepository, times(5)).save(any(BoardingPass.class));
-        
         // All 5 passengers should be assigned since we have 5 seats of type 1
         assertNotNull(manyPassengers.get(0).getSeatId());
         assertNotNull(manyPassengers.get(1).getSeatId());
@@ -202,15 +197,13 @@ class ConsecutiveSeatAssignmentServiceTest {
         // Given
         List<BoardingPass> singlePassenger = Arrays.asList(testPassengers.get(0));
         Integer seatTypeId = 1;
-        when(boardingPassRepository.save(any(BoardingPass.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
-        consecutiveSeatAssignmentService.assignSeatsForPassengers(singlePassenger, availableSeats, seatTypeId);
+        consecutiveSeatAssignmentService.assignSeatsForPassengers(singlePassenger, occupancy, seatTypeId);
 
         // Then
-        verify(boardingPassRepository, times(1)).save(any(BoardingPass.class));
         assertEquals(1, singlePassenger.get(0).getSeatId()); // Should get seat 1A
-        assertEquals(5, availableSeats.size()); // One seat removed
+        assertEquals(4, occupancy.freeSeatCount(1)); // One seat occupied
     }
 
     @Test
@@ -223,19 +216,16 @@ class ConsecutiveSeatAssignmentServiceTest {
         );
         
         Integer seatTypeId = 1;
-        when(boardingPassRepository.save(any(BoardingPass.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // When
-        consecutiveSeatAssignmentService.assignSeatsForPassengers(threePassengers, availableSeats, seatTypeId);
+        consecutiveSeatAssignmentService.assignSeatsForPassengers(threePassengers, occupancy, seatTypeId);
 
         // Then
-        verify(boardingPassRepository, times(3)).save(any(BoardingPass.class));
-        
         // Should assign consecutive seats 1A, 1B, 1C
         assertEquals(1, threePassengers.get(0).getSeatId());
         assertEquals(2, threePassengers.get(1).getSeatId());
         assertEquals(3, threePassengers.get(2).getSeatId());
         
-        assertEquals(3, availableSeats.size()); // Three seats removed
+        assertEquals(2, occupancy.freeSeatCount(1)); // Three seats occupied
     }
 }
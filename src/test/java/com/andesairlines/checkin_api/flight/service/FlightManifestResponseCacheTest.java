@@ -0,0 +1,208 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.common.response.ContentCoding;
+import com.andesairlines.checkin_api.common.response.ResponseCompressor;
+import com.andesairlines.checkin_api.common.response.ResponseEncoder;
+import com.andesairlines.checkin_api.common.response.ResponseFormat;
+import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightManifestResponseCacheTest {
+
+    @Mock
+    private FlightService flightService;
+
+    @Mock
+    private FlightVersionRegistry flightVersionRegistry;
+
+    // Versión del vuelo en la base: cualquier instancia puede subirla
+    private final AtomicLong seatVersion = new AtomicLong();
+    private SimpleMeterRegistry meterRegistry;
+    private FlightManifestResponseCache manifestCache;
+    private FlightResponse testFlightResponse;
+
+    @BeforeEach
+    void setUp() {
+        when(flightVersionRegistry.currentVersion(anyInt())).thenAnswer(invocation -> seatVersion.get());
+        meterRegistry = new SimpleMeterRegistry();
+        manifestCache = new FlightManifestResponseCache(flightService, flightVersionRegistry, new ResponseEncoder(new ObjectMapper()),
+                new ResponseCompressor(meterRegistry, 0, 9, 9), new ConcurrentMapCacheManager(FlightManifestResponseCache.CACHE_NAME));
+
+        testFlightResponse = new FlightResponse();
+        testFlightResponse.setFlightId(1);
+        testFlightResponse.setTakeoffAirport("SCL");
+    }
+
+    @Test
+    void getManifest_SerializesApiResponseOnce() {
+        // Given
+        when(flightService.getFlightWithPassengers(1)).thenReturn(testFlightResponse);
+
+        // When
+        FlightManifestResponseCache.SerializedManifest first = manifestCache.getManifest(1);
+        FlightManifestResponseCache.SerializedManifest second = manifestCache.getManifest(1);
+
+        // Then
+        String json = new String(first.body());
+        assertTrue(json.contains("\"code\":200"));
+        assertTrue(json.contains("\"takeoffAirport\":\"SCL\""));
+        assertSame(first, second);
+        assertEquals(0, first.version());
+        verify(flightService, times(1)).getFlightWithPassengers(1);
+    }
+
+    @Test
+    void getManifest_ReserializesAfterVersionChange() {
+        // Given
+        when(flightService.getFlightWithPassengers(1)).thenReturn(testFlightResponse);
+        manifestCache.getManifest(1);
+
+        // When
+        seatVersion.incrementAndGet();
+        FlightManifestResponseCache.SerializedManifest manifest = manifestCache.getManifest(1);
+
+        // Then
+        assertEquals(1, manifest.version());
+        verify(flightService, times(2)).getFlightWithPassengers(1);
+    }
+
+    @Test
+    void getManifest_CachesEachFormatSeparately() throws Exception {
+        // Given
+        when(flightService.getFlightWithPassengers(1)).thenReturn(testFlightResponse);
+
+        // When
+        FlightManifestResponseCache.SerializedManifest json = manifestCache.getManifest(1);
+        FlightManifestResponseCache.SerializedManifest cbor = manifestCache.getManifest(1, ResponseFormat.CBOR);
+        FlightManifestResponseCache.SerializedManifest cborAgain = manifestCache.getManifest(1, ResponseFormat.CBOR);
+
+        // Then
+        assertEquals(ResponseFormat.JSON, json.format());
+        assertEquals(ResponseFormat.CBOR, cbor.format());
+        assertSame(cbor, cborAgain);
+        assertEquals(new ObjectMapper().readTree(json.body()),
+                new ObjectMapper(new CBORFactory()).readTree(cbor.body()));
+        verify(flightService, times(2)).getFlightWithPassengers(1);
+    }
+
+    @Test
+    void getManifest_CompressesOncePerVersion() throws Exception {
+        // Given
+        when(flightService.getFlightWithPassengers(1)).thenReturn(testFlightResponse);
+
+        // When
+        FlightManifestResponseCache.SerializedManifest gzip = manifestCache.getManifest(1, ResponseFormat.JSON, ContentCoding.GZIP);
+        FlightManifestResponseCache.SerializedManifest gzipAgain = manifestCache.getManifest(1, ResponseFormat.JSON, ContentCoding.GZIP);
+
+        // Then
+        assertEquals(ContentCoding.GZIP, gzip.coding());
+        assertSame(gzip, gzipAgain);
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip.body()))) {
+            assertArrayEquals(manifestCache.getManifest(1).body(), in.readAllBytes());
+        }
+        assertEquals(1, meterRegistry.get("response.compression.cpu").tag("coding", "gzip").timer().count());
+        assertEquals(1, meterRegistry.get("response.compression.cpu.saved").tag("coding", "gzip").timer().count());
+        verify(flightService, times(1)).getFlightWithPassengers(1);
+    }
+
+    @Test
+    void getManifest_RecompressesAfterVersionChange() {
+        // Given
+        when(flightService.getFlightWithPassengers(1)).thenReturn(testFlightResponse);
+        manifestCache.getManifest(1, ResponseFormat.JSON, ContentCoding.GZIP);
+
+        // When
+        seatVersion.incrementAndGet();
+        FlightManifestResponseCache.SerializedManifest gzip = manifestCache.getManifest(1, ResponseFormat.JSON, ContentCoding.GZIP);
+
+        // Then
+        assertEquals(1, gzip.version());
+        assertEquals(2, meterRegistry.get("response.compression.cpu").tag("coding", "gzip").timer().count());
+        assertEquals(0, meterRegistry.get("response.compression.cpu.saved").tag("coding", "gzip").timer().count());
+    }
+
+    @Test
+    void getManifest_SmallManifestIsNotCompressed() {
+        // Given
+        manifestCache = new FlightManifestResponseCache(flightService, flightVersionRegistry, new ResponseEncoder(new ObjectMapper()),
+                new ResponseCompressor(meterRegistry, 1_000_000, 9, 9), new ConcurrentMapCacheManager(FlightManifestResponseCache.CACHE_NAME));
+        when(flightService.getFlightWithPassengers(1)).thenReturn(testFlightResponse);
+
+        // When
+        FlightManifestResponseCache.SerializedManifest manifest = manifestCache.getManifest(1, ResponseFormat.JSON, ContentCoding.GZIP);
+
+        // Then
+        assertEquals(ContentCoding.IDENTITY, manifest.coding());
+        assertSame(manifestCache.getManifest(1), manifest);
+    }
+
+    @Test
+    void getManifest_FlightNotFoundIsNotCached() {
+        // Given
+        when(flightService.getFlightWithPassengers(999)).thenThrow(new NotFoundException("Flight not found with id: 999"));
+
+        // When & Then
+        assertThrows(NotFoundException.class, () -> manifestCache.getManifest(999));
+        assertThrows(NotFoundException.class, () -> manifestCache.getManifest(999));
+        verify(flightService, times(2)).getFlightWithPassengers(999);
+    }
+
+    @Test
+    void getManifest_ConcurrentMissesSerializeOnce() throws Exception {
+        // Given: la primera carga queda bloqueada leyendo el vuelo
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(flightService.getFlightWithPassengers(1)).thenAnswer(invocation -> {
+            loading.countDown();
+            assertTrue(release.await(5, TimeUnit.SECONDS));
+            return testFlightResponse;
+        });
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<FlightManifestResponseCache.SerializedManifest>> manifests = new ArrayList<>();
+            manifests.add(callers.submit(() -> manifestCache.getManifest(1)));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // When: llegan más requests del mismo vuelo mientras la carga sigue en curso
+            for (int i = 0; i < 3; i++) {
+                manifests.add(callers.submit(() -> manifestCache.getManifest(1)));
+            }
+            Thread.sleep(100);
+            release.countDown();
+
+            // Then
+            FlightManifestResponseCache.SerializedManifest first = manifests.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<FlightManifestResponseCache.SerializedManifest> manifest : manifests) {
+                assertSame(first, manifest.get(5, TimeUnit.SECONDS));
+            }
+            verify(flightService, times(1)).getFlightWithPassengers(1);
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+        }
+    }
+}
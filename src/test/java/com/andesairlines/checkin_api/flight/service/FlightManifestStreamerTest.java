@@ -0,0 +1,145 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.common.response.ApiResponse;
+import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestCursor;
+import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightManifestStreamerTest {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private FlightManifestCursor flightManifestCursor;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final FlightResponseMapper flightResponseMapper = new FlightResponseMapper();
+    private FlightManifestStreamer streamer;
+    private Flight testFlight;
+
+    @BeforeEach
+    void setUp() {
+        streamer = new FlightManifestStreamer(flightRepository, flightManifestCursor, flightResponseMapper,
+                new ReplicaLagGuard(Duration.ofSeconds(5)), objectMapper);
+
+        testFlight = new Flight();
+        testFlight.setFlightId(1);
+        testFlight.setTakeoffDateTime(1688207580);
+        testFlight.setTakeoffAirport("Aeropuerto Internacional Arturo Merino Benitez, Chile");
+        testFlight.setLandingDateTime(1688221980);
+        testFlight.setLandingAirport("Aeropuerto Internacional Jorge Cháve, Perú");
+        testFlight.setAirplaneId(1);
+    }
+
+    @Test
+    void writeManifest_MatchesBufferedSerialization() throws Exception {
+        // Given
+        List<PassengerSeatRow> rows = List.of(
+                new PassengerSeatRow(10, "11111111", "Ana", 30, "CL", 100, 1, 1, 5, 2, "A"),
+                new PassengerSeatRow(11, "22222222", "Luis", 8, "CL", 101, 1, 1, null, null, null));
+        stubRows(rows);
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int passengers = streamer.writeManifest(testFlight, out);
+
+        // Then
+        String expected = objectMapper.writeValueAsString(
+                ApiResponse.success(flightResponseMapper.mapRowsToFlightResponse(testFlight, rows)));
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+        assertEquals(2, passengers);
+    }
+
+    @Test
+    void writeManifest_FlightWithoutPassengers() throws Exception {
+        // Given
+        stubRows(List.of());
+
+        // When
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int passengers = streamer.writeManifest(testFlight, out);
+
+        // Then
+        String expected = objectMapper.writeValueAsString(
+                ApiResponse.success(flightResponseMapper.mapRowsToFlightResponse(testFlight, List.of())));
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8));
+        assertEquals(0, passengers);
+    }
+
+    @Test
+    void writeManifest_ReadsSourceFromManifestVersion() {
+        // Given: manifiesto armado con la versión de asientos actual
+        stubRows(List.of());
+        testFlight.setSeatVersion(2L);
+        testFlight.setManifestVersion(2L);
+        streamer.writeManifest(testFlight, new ByteArrayOutputStream());
+
+        // When: un cambio posterior que no pasó por el writer
+        testFlight.setSeatVersion(3L);
+        streamer.writeManifest(testFlight, new ByteArrayOutputStream());
+
+        // Then
+        verify(flightManifestCursor).forEachRow(eq(1), eq(true), any());
+        verify(flightManifestCursor).forEachRow(eq(1), eq(false), any());
+    }
+
+    @Test
+    void writeManifest_ClientDisconnectFails() {
+        // Given
+        stubRows(List.of(new PassengerSeatRow(10, "11111111", "Ana", 30, "CL", 100, 1, 1, 5, 2, "A")));
+        OutputStream brokenPipe = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                throw new IOException("Broken pipe");
+            }
+        };
+
+        // When & Then
+        assertThrows(UncheckedIOException.class, () -> streamer.writeManifest(testFlight, brokenPipe));
+    }
+
+    @Test
+    void findFlight_NotFound() {
+        // Given
+        when(flightRepository.findById(999)).thenReturn(Optional.empty());
+
+        // When & Then
+        NotFoundException exception = assertThrows(NotFoundException.class, () -> streamer.findFlight(999));
+        assertEquals("Flight not found with id: 999", exception.getMessage());
+        verifyNoInteractions(flightManifestCursor);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void stubRows(List<PassengerSeatRow> rows) {
+        when(flightManifestCursor.forEachRow(eq(1), anyBoolean(), any())).thenAnswer(invocation -> {
+            Consumer<PassengerSeatRow> action = invocation.getArgument(2);
+            rows.forEach(action);
+            return rows.size();
+        });
+    }
+}
@@ -0,0 +1,141 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.flight.model.dto.FlightPassengerPage;
+import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerField;
+import com.andesairlines.checkin_api.flight.repository.FlightPassengerPageRepository;
+import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightPassengerPageServiceTest {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    @Mock
+    private FlightPassengerPageRepository flightPassengerPageRepository;
+
+    private FlightPassengerPageService flightPassengerPageService;
+    private Flight testFlight;
+
+    @BeforeEach
+    void setUp() {
+        flightPassengerPageService = new FlightPassengerPageService(flightRepository, flightPassengerPageRepository,
+                new ReplicaLagGuard(Duration.ofSeconds(5)));
+
+        testFlight = new Flight();
+        testFlight.setFlightId(1);
+        testFlight.setSeatVersion(2L);
+        testFlight.setManifestVersion(2L);
+    }
+
+    @Test
+    void getPassengers_ExtraRowBecomesNextCursor() {
+        // Given
+        EnumSet<PassengerField> fields = EnumSet.of(PassengerField.SEAT_ID);
+        when(flightRepository.findById(1)).thenReturn(Optional.of(testFlight));
+        when(flightPassengerPageRepository.findPage(1, true, fields, 100, 3)).thenReturn(List.of(
+                row(101, 11), row(102, 12), row(105, null)));
+
+        // When
+        FlightPassengerPage page = flightPassengerPageService.getPassengers(1, "seatId", 100, 2);
+
+        // Then
+        assertEquals(1, page.getFlightId());
+        assertEquals(List.of(Map.of("seatId", 11), Map.of("seatId", 12)), page.getPassengers());
+        assertEquals(102, page.getNextCursor());
+    }
+
+    @Test
+    void getPassengers_LastPageHasNoCursor() {
+        // Given
+        EnumSet<PassengerField> fields = EnumSet.of(PassengerField.SEAT_ID);
+        when(flightRepository.findById(1)).thenReturn(Optional.of(testFlight));
+        when(flightPassengerPageRepository.findPage(1, true, fields, null, 3)).thenReturn(List.of(row(101, 11)));
+
+        // When
+        FlightPassengerPage page = flightPassengerPageService.getPassengers(1, "seatId", null, 2);
+
+        // Then
+        assertEquals(1, page.getPassengers().size());
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void getPassengers_DefaultPageSizeWithAllFields() {
+        // Given
+        when(flightRepository.findById(1)).thenReturn(Optional.of(testFlight));
+        when(flightPassengerPageRepository.findPage(1, true, EnumSet.allOf(PassengerField.class), null, 101))
+                .thenReturn(List.of(row(101, 11)));
+
+        // When
+        flightPassengerPageService.getPassengers(1, null, null, null);
+
+        // Then
+        verify(flightPassengerPageRepository).findPage(1, true, EnumSet.allOf(PassengerField.class), null, 101);
+    }
+
+    @Test
+    void getPassengers_StaleManifestReadsNormalizedTablesOnly() {
+        // Given: boarding passes cambiados por fuera del writer después del último rebuild
+        testFlight.setSeatVersion(3L);
+        when(flightRepository.findById(1)).thenReturn(Optional.of(testFlight));
+        when(flightPassengerPageRepository.findPage(eq(1), eq(false), any(), isNull(), eq(51))).thenReturn(List.of(row(101, 11)));
+
+        // When
+        FlightPassengerPage page = flightPassengerPageService.getPassengers(1, "seatId", null, 50);
+
+        // Then
+        assertEquals(1, page.getPassengers().size());
+        verify(flightPassengerPageRepository, never()).findPage(anyInt(), eq(true), any(), any(), anyInt());
+    }
+
+    @Test
+    void getPassengers_EmptyPageOfExistingFlight() {
+        // Given
+        when(flightRepository.findById(1)).thenReturn(Optional.of(testFlight));
+        when(flightPassengerPageRepository.findPage(eq(1), eq(true), any(), eq(500), eq(51))).thenReturn(List.of());
+
+        // When
+        FlightPassengerPage page = flightPassengerPageService.getPassengers(1, "name", 500, 50);
+
+        // Then
+        assertTrue(page.getPassengers().isEmpty());
+        assertNull(page.getNextCursor());
+        verify(flightPassengerPageRepository, times(1)).findPage(anyInt(), anyBoolean(), any(), any(), anyInt());
+    }
+
+    @Test
+    void getPassengers_FlightNotFound() {
+        // Given
+        when(flightRepository.findById(999)).thenReturn(Optional.empty());
+
+        // When & Then
+        NotFoundException exception = assertThrows(NotFoundException.class,
+                () -> flightPassengerPageService.getPassengers(999, "name", null, 50));
+        assertEquals("Flight not found with id: 999", exception.getMessage());
+        verifyNoInteractions(flightPassengerPageRepository);
+    }
+
+    private static FlightPassengerPageRepository.PageRow row(int boardingPassId, Integer seatId) {
+        Map<String, Object> fields = new LinkedHashMap<>();
+        fields.put("seatId", seatId);
+        return new FlightPassengerPageRepository.PageRow(boardingPassId, fields);
+    }
+}
@@ -4,6 +4,7 @@ import com.andesairlines.checkin_api.airplane.model.entity.Seat;
 import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
 import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow;
 import com.andesairlines.checkin_api.passenger.model.entity.Passenger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -310,4 +311,26 @@ class FlightResponseMapperTest {
         assertNotNull(nullSeat.getName());
         assertNull(nullSeat.getSeatRow());
     }
+
+    @Test
+    void mapRowsToFlightResponse_CopiesProjectedColumns() {
+        // Given
+        List<PassengerSeatRow> rows = List.of(
+                new PassengerSeatRow(1, "12345678", "John Doe", 30, "Chile", 11, 100, 2, 5, 4, "C"),
+                new PassengerSeatRow(2, "87654321", "Jane Smith", 9, "Peru", 12, 100, 2, null, null, null));
+
+        // When
+        FlightResponse result = flightResponseMapper.mapRowsToFlightResponse(testFlight, rows);
+
+        // Then
+        assertEquals(1, result.getFlightId());
+        assertEquals(101, result.getAirplaneId());
+        assertEquals(2, result.getPassengers().size());
+        FlightResponse.PassengerSeatInfo seated = result.getPassengers().get(0);
+        assertEquals(new FlightResponse.PassengerSeatInfo(1, "12345678", "John Doe", 30, "Chile", 11, 100, 2, 5, "4", "C"), seated);
+        FlightResponse.PassengerSeatInfo unseated = result.getPassengers().get(1);
+        assertNull(unseated.getSeatId());
+        assertNull(unseated.getSeatRow());
+        assertNull(unseated.getSeatColumn());
+    }
 }
@@ -1,22 +1,21 @@
 package com.andesairlines.checkin_api.flight.service;
 
 import com.andesairlines.checkin_api.common.exception.NotFoundException;
+import com.andesairlines.checkin_api.common.jdbc.ReadRoutingContext;
 import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
-import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
 import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerSeatRow;
 import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestRepository;
 import com.andesairlines.checkin_api.flight.repository.FlightRepository;
-import com.andesairlines.checkin_api.passenger.model.entity.Passenger;
-import com.andesairlines.checkin_api.airplane.model.entity.Seat;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.time.LocalDateTime;
-import java.util.Arrays;
+import java.time.Duration;
 import java.util.List;
 import java.util.Optional;
 
@@ -27,20 +26,32 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class FlightServiceTest {
 
+    private static final Duration LAG_WINDOW = Duration.ofSeconds(5);
+
     @Mock
     private FlightRepository flightRepository;
 
+    @Mock
+    private FlightManifestRepository flightManifestRepository;
+
     @Mock
     private BoardingPassRepository boardingPassRepository;
 
-    @InjectMocks
+    @Spy
+    private FlightResponseMapper flightResponseMapper;
+
+    private final ReplicaLagGuard replicaLagGuard = new ReplicaLagGuard(LAG_WINDOW);
+
     private FlightService flightService;
 
     private Flight testFlight;
-    private List<BoardingPass> testBoardingPasses;
+    private List<PassengerSeatRow> testRows;
 
     @BeforeEach
     void setUp() {
+        flightService = new FlightService(flightRepository, flightManifestRepository, boardingPassRepository,
+                flightResponseMapper, replicaLagGuard);
+
         testFlight = new Flight();
         testFlight.setFlightId(1);
         testFlight.setTakeoffDateTime(123123123);
@@ -49,57 +60,20 @@ class FlightServiceTest {
         testFlight.setLandingAirport("LIM");
         testFlight.setAirplaneId(1);
 
-        // Create test boarding passes
-        BoardingPass bp1 = new BoardingPass();
-        bp1.setBoardingPassId(1);
-        bp1.setSeatTypeId(1);
-        bp1.setSeatId(1);
-        
-        Passenger passenger1 = new Passenger();
-        passenger1.setPassengerId(1);
-        passenger1.setDni("12345678");
-        passenger1.setName("John Doe");
-        passenger1.setAge(30);
-        passenger1.setCountry("Chile");
-        bp1.setPassenger(passenger1);
-        
-        Seat seat1 = new Seat();
-        seat1.setSeatId(1);
-        seat1.setSeatRow(1);
-        seat1.setSeatColumn("A");
-        bp1.setSeat(seat1);
-
-        BoardingPass bp2 = new BoardingPass();
-        bp2.setBoardingPassId(2);
-        bp2.setSeatTypeId(2);
-        bp2.setSeatId(2);
-        
-        Passenger passenger2 = new Passenger();
-        passenger2.setPassengerId(2);
-        passenger2.setDni("87654321");
-        passenger2.setName("Jane Smith");
-        passenger2.setAge(25);
-        passenger2.setCountry("Peru");
-        bp2.setPassenger(passenger2);
-        
-        Seat seat2 = new Seat();
-        seat2.setSeatId(2);
-        seat2.setSeatRow(1);
-        seat2.setSeatColumn("B");
-        bp2.setSeat(seat2);
-
-        testBoardingPasses = Arrays.asList(bp1, bp2);
+        testRows = List.of(
+                new PassengerSeatRow(1, "12345678", "John Doe", 30, "Chile", 1, 10, 1, 1, 1, "A"),
+                new PassengerSeatRow(2, "87654321", "Jane Smith", 25, "Peru", 2, 10, 2, 2, 1, "B"));
     }
 
     @Test
     void getFlightWithPassengers_Success() {
-        // Given
+        // Given: vuelo sin check-in, todavía sin manifiesto
         Integer flightId = 1;
         when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
-        when(boardingPassRepository.findBoardingPassesByFlightId(flightId)).thenReturn(testBoardingPasses);
+        when(boardingPassRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(testRows);
 
         // When
-        FlightResponse result = flightService.getFlighWithPassengers(flightId);
+        FlightResponse result = flightService.getFlightWithPassengers(flightId);
 
         // Then
         assertNotNull(result);
@@ -108,7 +82,7 @@ class FlightServiceTest {
         assertEquals("LIM", result.getLandingAirport());
         assertEquals(1, result.getAirplaneId());
         assertEquals(2, result.getPassengers().size());
-        
+
         FlightResponse.PassengerSeatInfo passenger1 = result.getPassengers().get(0);
         assertEquals(1, passenger1.getPassengerId());
         assertEquals("12345678", passenger1.getDni());
@@ -117,85 +91,130 @@ class FlightServiceTest {
         assertEquals("Chile", passenger1.getCountry());
         assertEquals("1", passenger1.getSeatRow());
         assertEquals("A", passenger1.getSeatColumn());
+        assertEquals("1", result.getPassengers().get(1).getSeatRow());
+        assertEquals("B", result.getPassengers().get(1).getSeatColumn());
 
         verify(flightRepository).findByIdWithAirplane(flightId);
-        verify(boardingPassRepository).findBoardingPassesByFlightId(flightId);
+        verify(boardingPassRepository).findPassengerSeatsByFlightId(flightId);
+        verify(flightManifestRepository, never()).findPassengerSeatsByFlightId(any());
     }
 
     @Test
-    void getFlightWithPassengers_FlightNotFound() {
+    void getFlightWithPassengers_FromManifest() {
         // Given
-        Integer flightId = 999;
-        when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.empty());
+        Integer flightId = 1;
+        PassengerSeatRow assigned = new PassengerSeatRow(1, "12345678", "John Doe", 30, "Chile", 1, 10, 1, 1, 1, "A");
+        PassengerSeatRow unassigned = new PassengerSeatRow(2, "87654321", "Jane Smith", 8, "Peru", 2, 10, 1, null, null, null);
+        testFlight.setSeatVersion(3L);
+        testFlight.setManifestVersion(3L);
+        when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
+        when(flightManifestRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(List.of(assigned, unassigned));
 
-        // When & Then
-        NotFoundException exception = assertThrows(NotFoundException.class, 
-            () -> flightService.getFlighWithPassengers(flightId));
-        
-        assertEquals("Flight not found with id: 999", exception.getMessage());
-        verify(flightRepository).findByIdWithAirplane(flightId);
-        verify(boardingPassRepository, never()).findBoardingPassesByFlightId(any());
+        // When
+        FlightResponse result = flightService.getFlightWithPassengers(flightId);
+
+        // Then
+        assertEquals(2, result.getPassengers().size());
+        FlightResponse.PassengerSeatInfo passenger1 = result.getPassengers().get(0);
+        assertEquals(1, passenger1.getBoardingPassId());
+        assertEquals(10, passenger1.getPurchaseId());
+        assertEquals("John Doe", passenger1.getName());
+        assertEquals("1", passenger1.getSeatRow());
+        assertEquals("A", passenger1.getSeatColumn());
+        assertNull(result.getPassengers().get(1).getSeatId());
+        assertNull(result.getPassengers().get(1).getSeatRow());
+
+        verify(boardingPassRepository, never()).findPassengerSeatsByFlightId(any());
     }
 
     @Test
-    void getFlightWithPassengers_EmptyBoardingPasses() {
-        // Given
+    void getFlightWithPassengers_StaleManifestFallsBackToBoardingPasses() {
+        // Given: los boarding passes cambiaron por fuera del writer después del último rebuild
         Integer flightId = 1;
+        testFlight.setSeatVersion(4L);
+        testFlight.setManifestVersion(3L);
         when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
-        when(boardingPassRepository.findBoardingPassesByFlightId(flightId)).thenReturn(Arrays.asList());
+        when(boardingPassRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(testRows);
 
         // When
-        FlightResponse result = flightService.getFlighWithPassengers(flightId);
+        FlightResponse result = flightService.getFlightWithPassengers(flightId);
 
         // Then
-        assertNotNull(result);
-        assertEquals(flightId, result.getFlightId());
-        assertTrue(result.getPassengers().isEmpty());
-        
+        assertEquals(2, result.getPassengers().size());
+        verify(boardingPassRepository).findPassengerSeatsByFlightId(flightId);
+        verify(flightManifestRepository, never()).findPassengerSeatsByFlightId(any());
+    }
+
+    @Test
+    void getFlightWithPassengers_RecentlyChangedFlightReadsFromPrimary() {
+        // Given
+        Integer flightId = 1;
+        replicaLagGuard.recordChange(flightId);
+        testFlight.setSeatVersion(1L);
+        testFlight.setManifestVersion(1L);
+        boolean[] primaryRequired = new boolean[1];
+        when(flightRepository.findByIdWithAirplane(flightId)).thenAnswer(invocation -> {
+            primaryRequired[0] = ReadRoutingContext.isPrimaryRequired();
+            return Optional.of(testFlight);
+        });
+        when(flightManifestRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(testRows);
+
+        // When
+        FlightResponse result = flightService.getFlightWithPassengers(flightId);
+
+        // Then
+        assertEquals(2, result.getPassengers().size());
+        assertTrue(primaryRequired[0]);
+        assertFalse(ReadRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    void getFlightWithPassengers_FlightNotFound() {
+        // Given
+        Integer flightId = 999;
+        when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.empty());
+
+        // When & Then
+        NotFoundException exception = assertThrows(NotFoundException.class,
+            () -> flightService.getFlightWithPassengers(flightId));
+
+        assertEquals("Flight not found with id: 999", exception.getMessage());
         verify(flightRepository).findByIdWithAirplane(flightId);
-        verify(boardingPassRepository).findBoardingPassesByFlightId(flightId);
+        verifyNoInteractions(flightManifestRepository, boardingPassRepository);
     }
 
     @Test
-    void getFlightWithPassengers_NullBoardingPasses() {
+    void getFlightWithPassengers_EmptyBoardingPasses() {
         // Given
         Integer flightId = 1;
         when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
-        when(boardingPassRepository.findBoardingPassesByFlightId(flightId)).thenReturn(null);
+        when(flightManifestRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(List.of());
+        when(boardingPassRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(List.of());
 
         // When
-        FlightResponse result = flightService.getFlighWithPassengers(flightId);
+        FlightResponse result = flightService.getFlightWithPassengers(flightId);
 
         // Then
         assertNotNull(result);
         assertEquals(flightId, result.getFlightId());
-        assertNull(result.getPassengers());
-        
+        assertTrue(result.getPassengers().isEmpty());
+
         verify(flightRepository).findByIdWithAirplane(flightId);
-        verify(boardingPassRepository).findBoardingPassesByFlightId(flightId);
+        verify(boardingPassRepository).findPassengerSeatsByFlightId(flightId);
+        verify(flightManifestRepository, never()).findPassengerSeatsByFlightId(any());
     }
 
     @Test
     void getFlightWithPassengers_BoardingPassWithNullPassenger() {
-        // Given
+        // Given: LEFT JOIN sin pasajero
         Integer flightId = 1;
-        BoardingPass bpWithNullPassenger = new BoardingPass();
-        bpWithNullPassenger.setBoardingPassId(3);
-        bpWithNullPassenger.setSeatTypeId(1);
-        bpWithNullPassenger.setSeatId(3);
-        bpWithNullPassenger.setPassenger(null);
-        
-        Seat seat3 = new Seat();
-        seat3.setSeatId(3);
-        seat3.setSeatRow(2);
-        seat3.setSeatColumn("A");
-        bpWithNullPassenger.setSeat(seat3);
-
+        PassengerSeatRow withoutPassenger = new PassengerSeatRow(null, null, null, null, null, 3, 10, 1, 3, 2, "A");
         when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
-        when(boardingPassRepository.findBoardingPassesByFlightId(flightId)).thenReturn(Arrays.asList(bpWithNullPassenger));
+        when(flightManifestRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(List.of());
+        when(boardingPassRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(List.of(withoutPassenger));
 
         // When
-        FlightResponse result = flightService.getFlighWithPassengers(flightId);
+        FlightResponse result = flightService.getFlightWithPassengers(flightId);
 
         // Then
         assertNotNull(result);
@@ -212,27 +231,15 @@ class FlightServiceTest {
 
     @Test
     void getFlightWithPassengers_BoardingPassWithNullSeat() {
-        // Given
+        // Given: LEFT JOIN sin asiento
         Integer flightId = 1;
-        BoardingPass bpWithNullSeat = new BoardingPass();
-        bpWithNullSeat.setBoardingPassId(3);
-        bpWithNullSeat.setSeatTypeId(1);
-        bpWithNullSeat.setSeatId(3);
-        bpWithNullSeat.setSeat(null);
-        
-        Passenger passenger3 = new Passenger();
-        passenger3.setPassengerId(3);
-        passenger3.setDni("11111111");
-        passenger3.setName("Test User");
-        passenger3.setAge(35);
-        passenger3.setCountry("Colombia");
-        bpWithNullSeat.setPassenger(passenger3);
-
+        PassengerSeatRow withoutSeat = new PassengerSeatRow(3, "11111111", "Test User", 35, "Colombia", 3, 10, 1, null, null, null);
         when(flightRepository.findByIdWithAirplane(flightId)).thenReturn(Optional.of(testFlight));
-        when(boardingPassRepository.findBoardingPassesByFlightId(flightId)).thenReturn(Arrays.asList(bpWithNullSeat));
+        when(flightManifestRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(List.of());
+        when(boardingPassRepository.findPassengerSeatsByFlightId(flightId)).thenReturn(List.of(withoutSeat));
 
         // When
-        FlightResponse result = flightService.getFlighWithPassengers(flightId);
+        FlightResponse result = flightService.getFlightWithPassengers(flightId);
 
         // Then
         assertNotNull(result);
@@ -0,0 +1,107 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.jdbc.ReadRoutingContext;
+import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class FlightVersionRegistryTest {
+
+    @Mock
+    private FlightRepository flightRepository;
+
+    private ReplicaLagGuard replicaLagGuard;
+    private FlightVersionRegistry registry;
+
+    @BeforeEach
+    void setUp() {
+        replicaLagGuard = new ReplicaLagGuard(Duration.ofMinutes(1));
+        registry = new FlightVersionRegistry(flightRepository, replicaLagGuard);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void currentVersion_ReadsSeatVersionFromDatabase() {
+        // Given: la versión la subió otra instancia
+        when(flightRepository.findSeatVersionById(1)).thenReturn(Optional.of(7L));
+
+        // When / Then
+        assertEquals(7, registry.currentVersion(1));
+    }
+
+    @Test
+    void currentVersion_UnknownFlightIsZero() {
+        when(flightRepository.findSeatVersionById(2)).thenReturn(Optional.empty());
+
+        assertEquals(0, registry.currentVersion(2));
+    }
+
+    @Test
+    void etag_IsQuotedAndDependsOnFlightAndVersion() {
+        String etag = registry.etag(1, 2);
+
+        assertEquals("\"1-2\"", etag);
+        assertNotEquals(etag, registry.etag(1, 3));
+        assertNotEquals(etag, registry.etag(2, 2));
+    }
+
+    @Test
+    void etag_IsTheSameOnEveryInstance() {
+        // Given: otra instancia, que nunca vio una escritura del vuelo
+        FlightVersionRegistry otherInstance = new FlightVersionRegistry(flightRepository, new ReplicaLagGuard(Duration.ofMinutes(1)));
+        when(flightRepository.findSeatVersionById(1)).thenReturn(Optional.of(4L));
+
+        // When
+        String etag = otherInstance.etag(1, otherInstance.currentVersion(1));
+
+        // Then
+        assertEquals(registry.etag(1, 4), etag);
+        assertNotEquals(registry.etag(1, 0), etag);
+    }
+
+    @Test
+    void markChanged_BumpsVersionInWritingTransaction() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+
+        // When
+        registry.markChanged(1);
+
+        // Then
+        verify(flightRepository).incrementSeatVersion(1);
+        assertFalse(replicaLagGuard.read(1, ReadRoutingContext::isPrimaryRequired));
+    }
+
+    @Test
+    void markChanged_AfterCommitReadsGoToPrimary() {
+        // Given
+        TransactionSynchronizationManager.initSynchronization();
+        registry.markChanged(1);
+
+        // When
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        // Then
+        assertTrue(replicaLagGuard.read(1, ReadRoutingContext::isPrimaryRequired));
+        assertFalse(replicaLagGuard.read(2, ReadRoutingContext::isPrimaryRequired));
+    }
+}
@@ -0,0 +1,53 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FreeRunIndexTest {
+
+    @Test
+    void firstRowWithRun_EmptyIndex() {
+        FreeRunIndex index = new FreeRunIndex(0);
+
+        assertEquals(-1, index.firstRowWithRun(1));
+    }
+
+    @Test
+    void firstRowWithRun_ReturnsLowestMatchingRow() {
+        FreeRunIndex index = new FreeRunIndex(5);
+        index.update(0, 1);
+        index.update(1, 3);
+        index.update(2, 6);
+        index.update(3, 3);
+        index.update(4, 6);
+
+        assertEquals(0, index.firstRowWithRun(1));
+        assertEquals(1, index.firstRowWithRun(2));
+        assertEquals(1, index.firstRowWithRun(3));
+        assertEquals(2, index.firstRowWithRun(4));
+        assertEquals(-1, index.firstRowWithRun(7));
+    }
+
+    @Test
+    void update_ShrinkingRunMovesSearchToLaterRow() {
+        FreeRunIndex index = new FreeRunIndex(3);
+        index.update(0, 3);
+        index.update(1, 0);
+        index.update(2, 3);
+
+        index.update(0, 2);
+
+        assertEquals(2, index.firstRowWithRun(3));
+        assertEquals(2, index.longestRun(0));
+    }
+
+    @Test
+    void update_NonPowerOfTwoRowCount() {
+        FreeRunIndex index = new FreeRunIndex(7);
+        index.update(6, 4);
+
+        assertEquals(6, index.firstRowWithRun(4));
+        assertEquals(-1, index.firstRowWithRun(5));
+    }
+}
@@ -1,8 +1,8 @@
 package com.andesairlines.checkin_api.flight.service;
 
 import com.andesairlines.checkin_api.airplane.model.entity.Seat;
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
-import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
 import com.andesairlines.checkin_api.passenger.model.entity.Passenger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,6 +14,7 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Set;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
@@ -23,9 +24,6 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 class GroupSeatAssignmentServiceTest {
 
-    @Mock
-    private BoardingPassRepository boardingPassRepository;
-
     @Mock
     private ConsecutiveSeatAssignmentService consecutiveSeatAssignmentService;
 
@@ -33,17 +31,15 @@ class GroupSeatAssignmentServiceTest {
     private GroupSeatAssignmentService groupSeatAssignmentService;
 
     private List<BoardingPass> testGroup;
-    private List<Seat> availableSeats;
+    private SeatOccupancy occupancy;
 
     @BeforeEach
     void setUp() {
-        availableSeats = new ArrayList<>();
-        
         // Create available seats
         Seat seat1 = createSeat(1, 1, "A", 1);
         Seat seat2 = createSeat(2, 1, "B", 1);
         Seat seat3 = createSeat(3, 1, "C", 2);
-        availableSeats.addAll(Arrays.asList(seat1, seat2, seat3));
+        occupancy = SeatOccupancy.of(AirplaneLayout.compile(1, Arrays.asList(seat1, seat2, seat3)), Set.of());
     }
 
     private Seat createSeat(Integer seatId, Integer row, String column, Integer seatTypeId) {
@@ -79,11 +75,11 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(1));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(1));
     }
 
     @Test
@@ -96,11 +92,11 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(1));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(1));
     }
 
     @Test
@@ -114,11 +110,11 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(1));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(1));
     }
 
     @Test
@@ -132,16 +128,16 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         // Should be called twice: once for seat type 1, once for seat type 2
         verify(consecutiveSeatAssignmentService, times(2))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), anyInt());
+            .assignSeatsForPassengers(anyList(), eq(occupancy), anyInt());
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(1));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(1));
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(2));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(2));
     }
 
     @Test
@@ -156,16 +152,16 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         // Should be called twice: once for seat type 1, once for seat type 2
         verify(consecutiveSeatAssignmentService, times(2))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), anyInt());
+            .assignSeatsForPassengers(anyList(), eq(occupancy), anyInt());
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(1));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(1));
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(2));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(2));
     }
 
     @Test
@@ -175,11 +171,11 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         verify(consecutiveSeatAssignmentService, never())
-            .assignSeatsForPassengers(anyList(), anyList(), anyInt());
+            .assignSeatsForPassengers(anyList(), any(), anyInt());
     }
 
     @Test
@@ -191,11 +187,11 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(1));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(1));
     }
 
     @Test
@@ -207,11 +203,11 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(1));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(1));
     }
 
     @Test
@@ -224,11 +220,11 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(1));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(1));
     }
 
     @Test
@@ -245,14 +241,14 @@ class GroupSeatAssignmentServiceTest {
         Integer airplaneId = 1;
 
         // When
-        groupSeatAssignmentService.assignSeatsForGroup(testGroup, availableSeats, airplaneId);
+        groupSeatAssignmentService.assignSeatsForGroup(testGroup, occupancy, airplaneId);
 
         // Then
         verify(consecutiveSeatAssignmentService, times(2))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), anyInt());
+            .assignSeatsForPassengers(anyList(), eq(occupancy), anyInt());
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(1));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(1));
         verify(consecutiveSeatAssignmentService, times(1))
-            .assignSeatsForPassengers(anyList(), eq(availableSeats), eq(2));
+            .assignSeatsForPassengers(anyList(), eq(occupancy), eq(2));
     }
 }
@@ -1,28 +1,31 @@
 package com.andesairlines.checkin_api.flight.service;
 
 import com.andesairlines.checkin_api.airplane.model.entity.Seat;
-import com.andesairlines.checkin_api.airplane.repository.SeatRepository;
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+import com.andesairlines.checkin_api.airplane.service.AirplaneLayoutService;
 import com.andesairlines.checkin_api.common.exception.BadRequestException;
+import com.andesairlines.checkin_api.common.exception.ConflictException;
 import com.andesairlines.checkin_api.common.exception.NotFoundException;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
 import com.andesairlines.checkin_api.flight.model.entity.Flight;
 import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import com.andesairlines.checkin_api.flight.repository.BoardingPassSeatWriter;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestWriter;
 import com.andesairlines.checkin_api.passenger.model.dto.PassengerResponse;
 import com.andesairlines.checkin_api.passenger.model.entity.Passenger;
 import com.andesairlines.checkin_api.passenger.service.PassengerResponseMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
-import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -32,12 +35,20 @@ class ManualSeatAssignmentServiceTest {
     private BoardingPassRepository boardingPassRepository;
 
     @Mock
-    private SeatRepository seatRepository;
+    private BoardingPassSeatWriter boardingPassSeatWriter;
+
+    @Mock
+    private FlightManifestWriter flightManifestWriter;
+
+    @Mock
+    private AirplaneLayoutService airplaneLayoutService;
 
     @Mock
     private PassengerResponseMapper passengerResponseMapper;
 
-    @InjectMocks
+    @Mock
+    private FlightVersionRegistry flightVersionRegistry;
+
     private ManualSeatAssignmentService manualSeatAssignmentService;
 
     private BoardingPass testBoardingPass;
@@ -48,6 +59,9 @@ class ManualSeatAssignmentServiceTest {
 
     @BeforeEach
     void setUp() {
+        manualSeatAssignmentService = new ManualSeatAssignmentService(boardingPassRepository, boardingPassSeatWriter, flightManifestWriter,
+                airplaneLayoutService, passengerResponseMapper, flightVersionRegistry, new SeatClaimRegistry(boardingPassRepository));
+
         testFlight = new Flight();
         testFlight.setFlightId(1);
         testFlight.setAirplaneId(1);
@@ -86,13 +100,13 @@ class ManualSeatAssignmentServiceTest {
 
         when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, passengerId))
             .thenReturn(Optional.of(testBoardingPass));
-        when(seatRepository.findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1))
-            .thenReturn(Optional.of(testSeat));
-        when(boardingPassRepository.findAssignedSeatsByFlightId(flightId))
-            .thenReturn(Arrays.asList());
-        when(boardingPassRepository.save(any(BoardingPass.class)))
-            .thenReturn(testBoardingPass);
-        when(passengerResponseMapper.mapToPassengerResponse(testBoardingPass, testSeat))
+        when(airplaneLayoutService.getLayout(1))
+            .thenReturn(AirplaneLayout.compile(1, List.of(testSeat)));
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(flightId))
+            .thenReturn(List.of());
+        when(boardingPassSeatWriter.updateSeat(testBoardingPass))
+            .thenReturn(true);
+        when(passengerResponseMapper.mapToPassengerResponse(eq(testBoardingPass), any(AirplaneLayout.class), eq(0)))
             .thenReturn(testPassengerResponse);
 
         // When
@@ -106,10 +120,12 @@ class ManualSeatAssignmentServiceTest {
         assertEquals("A", result.getSeatColumn());
 
         verify(boardingPassRepository).findByFlightIdAndPassengerId(flightId, passengerId);
-        verify(seatRepository).findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1);
-        verify(boardingPassRepository).findAssignedSeatsByFlightId(flightId);
-        verify(boardingPassRepository).save(testBoardingPass);
-        verify(passengerResponseMapper).mapToPassengerResponse(testBoardingPass, testSeat);
+        verify(airplaneLayoutService).getLayout(1);
+        verify(boardingPassRepository).findAssignedSeatIdsByFlightId(flightId);
+        verify(boardingPassSeatWriter).updateSeat(testBoardingPass);
+        verify(flightManifestWriter).updateSeat(1, 1, 1, "A");
+        verify(flightVersionRegistry).markChanged(flightId);
+        verify(passengerResponseMapper).mapToPassengerResponse(eq(testBoardingPass), any(AirplaneLayout.class), eq(0));
         
         assertEquals(1, testBoardingPass.getSeatId());
     }
@@ -131,7 +147,7 @@ class ManualSeatAssignmentServiceTest {
 
         assertEquals("Boarding pass not found for passenger 999 on flight 1", exception.getMessage());
         verify(boardingPassRepository).findByFlightIdAndPassengerId(flightId, passengerId);
-        verify(seatRepository, never()).findBySeatRowAndSeatColumnAndAirplaneId(anyInt(), anyString(), anyInt());
+        verify(airplaneLayoutService, never()).getLayout(anyInt());
     }
 
     @Test
@@ -144,8 +160,8 @@ class ManualSeatAssignmentServiceTest {
 
         when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, passengerId))
             .thenReturn(Optional.of(testBoardingPass));
-        when(seatRepository.findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1))
-            .thenReturn(Optional.empty());
+        when(airplaneLayoutService.getLayout(1))
+            .thenReturn(AirplaneLayout.compile(1, List.of(testSeat)));
 
         // When & Then
         NotFoundException exception = assertThrows(NotFoundException.class,
@@ -153,8 +169,8 @@ class ManualSeatAssignmentServiceTest {
 
         assertEquals("Seat not found: 99Z", exception.getMessage());
         verify(boardingPassRepository).findByFlightIdAndPassengerId(flightId, passengerId);
-        verify(seatRepository).findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1);
-        verify(boardingPassRepository, never()).findAssignedSeatsByFlightId(anyInt());
+        verify(airplaneLayoutService).getLayout(1);
+        verify(boardingPassRepository, never()).findAssignedSeatIdsByFlightId(anyInt());
     }
 
     @Test
@@ -170,8 +186,8 @@ class ManualSeatAssignmentServiceTest {
 
         when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, passengerId))
             .thenReturn(Optional.of(testBoardingPass));
-        when(seatRepository.findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1))
-            .thenReturn(Optional.of(testSeat));
+        when(airplaneLayoutService.getLayout(1))
+            .thenReturn(AirplaneLayout.compile(1, List.of(testSeat)));
 
         // When & Then
         BadRequestException exception = assertThrows(BadRequestException.class,
@@ -179,8 +195,8 @@ class ManualSeatAssignmentServiceTest {
 
         assertEquals("Seat type mismatch. Expected: 1, Found: 2", exception.getMessage());
         verify(boardingPassRepository).findByFlightIdAndPassengerId(flightId, passengerId);
-        verify(seatRepository).findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1);
-        verify(boardingPassRepository, never()).findAssignedSeatsByFlightId(anyInt());
+        verify(airplaneLayoutService).getLayout(1);
+        verify(boardingPassRepository, never()).findAssignedSeatIdsByFlightId(anyInt());
     }
 
     @Test
@@ -191,25 +207,23 @@ class ManualSeatAssignmentServiceTest {
         Integer seatRow = 1;
         String seatColumn = "A";
 
-        BoardingPass occupiedSeat = new BoardingPass();
-        occupiedSeat.setSeatId(1); // Same seat ID as testSeat
-
         when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, passengerId))
             .thenReturn(Optional.of(testBoardingPass));
-        when(seatRepository.findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1))
-            .thenReturn(Optional.of(testSeat));
-        when(boardingPassRepository.findAssignedSeatsByFlightId(flightId))
-            .thenReturn(Arrays.asList(occupiedSeat));
+        when(airplaneLayoutService.getLayout(1))
+            .thenReturn(AirplaneLayout.compile(1, List.of(testSeat)));
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(flightId))
+            .thenReturn(List.of(1)); // Same seat ID as testSeat
 
         // When & Then
-        BadRequestException exception = assertThrows(BadRequestException.class,
+        ConflictException exception = assertThrows(ConflictException.class,
             () -> manualSeatAssignmentService.assignSeat(flightId, passengerId, seatRow, seatColumn));
 
         assertEquals("Seat 1A is already taken", exception.getMessage());
         verify(boardingPassRepository).findByFlightIdAndPassengerId(flightId, passengerId);
-        verify(seatRepository).findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1);
-        verify(boardingPassRepository).findAssignedSeatsByFlightId(flightId);
-        verify(boardingPassRepository, never()).save(any(BoardingPass.class));
+        verify(airplaneLayoutService).getLayout(1);
+        verify(boardingPassRepository).findAssignedSeatIdsByFlightId(flightId);
+        verifyNoInteractions(boardingPassSeatWriter);
+        verifyNoInteractions(flightManifestWriter, flightVersionRegistry);
     }
 
     @Test
@@ -220,18 +234,15 @@ class ManualSeatAssignmentServiceTest {
         Integer seatRow = 1;
         String seatColumn = "A";
 
-        BoardingPass otherAssignedSeat = new BoardingPass();
-        otherAssignedSeat.setSeatId(2); // Different seat ID
-
         when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, passengerId))
             .thenReturn(Optional.of(testBoardingPass));
-        when(seatRepository.findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1))
-            .thenReturn(Optional.of(testSeat));
-        when(boardingPassRepository.findAssignedSeatsByFlightId(flightId))
-            .thenReturn(Arrays.asList(otherAssignedSeat));
-        when(boardingPassRepository.save(any(BoardingPass.class)))
-            .thenReturn(testBoardingPass);
-        when(passengerResponseMapper.mapToPassengerResponse(testBoardingPass, testSeat))
+        when(airplaneLayoutService.getLayout(1))
+            .thenReturn(AirplaneLayout.compile(1, List.of(testSeat)));
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(flightId))
+            .thenReturn(List.of(2)); // Different seat ID
+        when(boardingPassSeatWriter.updateSeat(testBoardingPass))
+            .thenReturn(true);
+        when(passengerResponseMapper.mapToPassengerResponse(eq(testBoardingPass), any(AirplaneLayout.class), eq(0)))
             .thenReturn(testPassengerResponse);
 
         // When
@@ -239,38 +250,130 @@ class ManualSeatAssignmentServiceTest {
 
         // Then
         assertNotNull(result);
-        verify(boardingPassRepository).save(testBoardingPass);
+        verify(boardingPassSeatWriter).updateSeat(testBoardingPass);
         assertEquals(1, testBoardingPass.getSeatId());
     }
 
     @Test
-    void assignSeat_NullSeatIdInAssignedSeats() {
+    void assignSeat_SameSeatClaimedTwiceFailsWithoutReloading() {
         // Given
         Integer flightId = 1;
-        Integer passengerId = 1;
-        Integer seatRow = 1;
-        String seatColumn = "A";
+        BoardingPass otherBoardingPass = new BoardingPass();
+        otherBoardingPass.setBoardingPassId(2);
+        otherBoardingPass.setSeatTypeId(1);
+        otherBoardingPass.setFlight(testFlight);
 
-        BoardingPass boardingPassWithNullSeat = new BoardingPass();
-        boardingPassWithNullSeat.setSeatId(null);
+        when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, 1))
+            .thenReturn(Optional.of(testBoardingPass));
+        when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, 2))
+            .thenReturn(Optional.of(otherBoardingPass));
+        when(airplaneLayoutService.getLayout(1))
+            .thenReturn(AirplaneLayout.compile(1, List.of(testSeat)));
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(flightId))
+            .thenReturn(List.of());
 
-        when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, passengerId))
+        when(boardingPassSeatWriter.updateSeat(testBoardingPass))
+            .thenReturn(true);
+
+        // When
+        manualSeatAssignmentService.assignSeat(flightId, 1, 1, "A");
+        ConflictException exception = assertThrows(ConflictException.class,
+            () -> manualSeatAssignmentService.assignSeat(flightId, 2, 1, "A"));
+
+        // Then
+        assertEquals("Seat 1A is already taken", exception.getMessage());
+        verify(boardingPassRepository, times(1)).findAssignedSeatIdsByFlightId(flightId);
+        verify(boardingPassSeatWriter, never()).updateSeat(otherBoardingPass);
+    }
+
+    @Test
+    void assignSeat_ReleasesPreviousSeat() {
+        // Given
+        Integer flightId = 1;
+        Seat seat1B = new Seat();
+        seat1B.setSeatId(2);
+        seat1B.setSeatRow(1);
+        seat1B.setSeatColumn("B");
+        seat1B.setSeatTypeId(1);
+        seat1B.setAirplaneId(1);
+        testBoardingPass.setSeatId(2);
+
+        BoardingPass otherBoardingPass = new BoardingPass();
+        otherBoardingPass.setBoardingPassId(2);
+        otherBoardingPass.setSeatTypeId(1);
+        otherBoardingPass.setFlight(testFlight);
+
+        when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, 1))
+            .thenReturn(Optional.of(testBoardingPass));
+        when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, 2))
+            .thenReturn(Optional.of(otherBoardingPass));
+        when(airplaneLayoutService.getLayout(1))
+            .thenReturn(AirplaneLayout.compile(1, List.of(testSeat, seat1B)));
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(flightId))
+            .thenReturn(List.of(2));
+
+        when(boardingPassSeatWriter.updateSeat(any(BoardingPass.class)))
+            .thenReturn(true);
+
+        // When
+        manualSeatAssignmentService.assignSeat(flightId, 1, 1, "A");
+        manualSeatAssignmentService.assignSeat(flightId, 2, 1, "B");
+
+        // Then
+        assertEquals(1, testBoardingPass.getSeatId());
+        assertEquals(2, otherBoardingPass.getSeatId());
+    }
+
+    @Test
+    void assignSeat_DatabaseConflictReturnsConflictAndRehydrates() {
+        // Given
+        Integer flightId = 1;
+        when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, 1))
             .thenReturn(Optional.of(testBoardingPass));
-        when(seatRepository.findBySeatRowAndSeatColumnAndAirplaneId(seatRow, seatColumn, 1))
-            .thenReturn(Optional.of(testSeat));
-        when(boardingPassRepository.findAssignedSeatsByFlightId(flightId))
-            .thenReturn(Arrays.asList(boardingPassWithNullSeat));
-        when(boardingPassRepository.save(any(BoardingPass.class)))
-            .thenReturn(testBoardingPass);
-        when(passengerResponseMapper.mapToPassengerResponse(testBoardingPass, testSeat))
+        when(airplaneLayoutService.getLayout(1))
+            .thenReturn(AirplaneLayout.compile(1, List.of(testSeat)));
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(flightId))
+            .thenReturn(List.of(), List.of(1));
+        when(boardingPassSeatWriter.updateSeat(testBoardingPass))
+            .thenReturn(false);
+
+        // When
+        ConflictException exception = assertThrows(ConflictException.class,
+            () -> manualSeatAssignmentService.assignSeat(flightId, 1, 1, "A"));
+        ConflictException retry = assertThrows(ConflictException.class,
+            () -> manualSeatAssignmentService.assignSeat(flightId, 1, 1, "A"));
+
+        // Then
+        assertEquals("Seat 1A is already taken", exception.getMessage());
+        assertEquals("Seat 1A is already taken", retry.getMessage());
+        // hidratación inicial, rehidratación tras el rechazo y verificación antes del segundo 409
+        verify(boardingPassRepository, times(3)).findAssignedSeatIdsByFlightId(flightId);
+        verify(boardingPassSeatWriter, times(1)).updateSeat(testBoardingPass);
+        verifyNoInteractions(flightManifestWriter, flightVersionRegistry);
+    }
+
+    @Test
+    void assignSeat_SeatFreedThroughAnotherInstanceIsAssigned() {
+        // Given: el mapa se hidrató con 1A ocupado y otra instancia lo liberó después
+        Integer flightId = 1;
+        when(boardingPassRepository.findByFlightIdAndPassengerId(flightId, 1))
+            .thenReturn(Optional.of(testBoardingPass));
+        when(airplaneLayoutService.getLayout(1))
+            .thenReturn(AirplaneLayout.compile(1, List.of(testSeat)));
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(flightId))
+            .thenReturn(List.of(1), List.of());
+        when(boardingPassSeatWriter.updateSeat(testBoardingPass))
+            .thenReturn(true);
+        when(passengerResponseMapper.mapToPassengerResponse(eq(testBoardingPass), any(AirplaneLayout.class), eq(0)))
             .thenReturn(testPassengerResponse);
 
         // When
-        PassengerResponse result = manualSeatAssignmentService.assignSeat(flightId, passengerId, seatRow, seatColumn);
+        PassengerResponse result = manualSeatAssignmentService.assignSeat(flightId, 1, 1, "A");
 
         // Then
-        assertNotNull(result);
-        verify(boardingPassRepository).save(testBoardingPass);
+        assertEquals(testPassengerResponse, result);
         assertEquals(1, testBoardingPass.getSeatId());
+        verify(boardingPassRepository, times(2)).findAssignedSeatIdsByFlightId(flightId);
+        verify(flightVersionRegistry).markChanged(flightId);
     }
 }
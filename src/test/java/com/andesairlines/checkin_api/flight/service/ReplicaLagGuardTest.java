@@ -0,0 +1,45 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.common.jdbc.ReadRoutingContext;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReplicaLagGuardTest {
+
+    private final ReplicaLagGuard guard = new ReplicaLagGuard(Duration.ofMinutes(1));
+
+    @Test
+    void read_RecentlyChangedFlightGoesToPrimary() {
+        // Given
+        guard.recordChange(1);
+
+        // When
+        boolean primaryRequired = guard.read(1, ReadRoutingContext::isPrimaryRequired);
+
+        // Then
+        assertTrue(primaryRequired);
+        assertFalse(ReadRoutingContext.isPrimaryRequired());
+    }
+
+    @Test
+    void read_UnchangedFlightKeepsDefaultRouting() {
+        // Given
+        guard.recordChange(2);
+
+        // When / Then
+        assertFalse(guard.read(1, ReadRoutingContext::isPrimaryRequired));
+    }
+
+    @Test
+    void read_ChangeOutsideLagWindowKeepsDefaultRouting() {
+        // Given
+        ReplicaLagGuard noLag = new ReplicaLagGuard(Duration.ZERO);
+        noLag.recordChange(1);
+
+        // When / Then
+        assertFalse(noLag.read(1, ReadRoutingContext::isPrimaryRequired));
+    }
+}
@@ -1,18 +1,22 @@
 package com.andesairlines.checkin_api.flight.service;
 
 import com.andesairlines.checkin_api.airplane.model.entity.Seat;
-import com.andesairlines.checkin_api.airplane.repository.SeatRepository;
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+import com.andesairlines.checkin_api.airplane.service.AirplaneLayoutService;
 import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
-import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import com.andesairlines.checkin_api.passenger.model.entity.Passenger;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -20,10 +24,7 @@ import static org.mockito.Mockito.*;
 class SeatAssignmentServiceTest {
 
     @Mock
-    private SeatRepository seatRepository;
-
-    @Mock
-    private BoardingPassRepository boardingPassRepository;
+    private AirplaneLayoutService airplaneLayoutService;
 
     @Mock
     private GroupSeatAssignmentService groupSeatAssignmentService;
@@ -44,6 +45,7 @@ class SeatAssignmentServiceTest {
                 seat.setSeatId(row * 10 + (col - 'A'));
                 seat.setSeatRow(row);
                 seat.setSeatColumn(String.valueOf(col));
+                seat.setSeatTypeId(1);
                 seat.setAirplaneId(100);
                 testSeats.add(seat);
             }
@@ -78,13 +80,13 @@ class SeatAssignmentServiceTest {
     void assignSeatsForAllGroups_Success() {
         // Given
         Integer airplaneId = 100;
-        when(seatRepository.findByAirplaneId(airplaneId)).thenReturn(testSeats);
+        when(airplaneLayoutService.getLayout(airplaneId)).thenReturn(AirplaneLayout.compile(airplaneId, testSeats));
 
         // When
         seatAssignmentService.assignSeatsForAllGroups(testGroups, airplaneId);
 
         // Then
-        verify(seatRepository).findByAirplaneId(airplaneId);
+        verify(airplaneLayoutService).getLayout(airplaneId);
         verify(groupSeatAssignmentService, times(2)).assignSeatsForGroup(any(), any(), eq(airplaneId));
         
         // Verify each group is processed
@@ -113,17 +115,17 @@ class SeatAssignmentServiceTest {
         Map<Integer, List<BoardingPass>> groupsWithAssigned = new HashMap<>();
         groupsWithAssigned.put(1, Arrays.asList(bp1, bp2));
 
-        when(seatRepository.findByAirplaneId(airplaneId)).thenReturn(testSeats);
+        when(airplaneLayoutService.getLayout(airplaneId)).thenReturn(AirplaneLayout.compile(airplaneId, testSeats));
 
         // When
         seatAssignmentService.assignSeatsForAllGroups(groupsWithAssigned, airplaneId);
 
         // Then
-        verify(seatRepository).findByAirplaneId(airplaneId);
+        verify(airplaneLayoutService).getLayout(airplaneId);
         verify(groupSeatAssignmentService).assignSeatsForGroup(
-            any(), argThat(availableSeats -> {
-                // Verify that seat with ID 10 is filtered out from available seats
-                return availableSeats.stream().noneMatch(seat -> seat.getSeatId().equals(10));
+            any(), argThat(occupancy -> {
+                // Verify that seat with ID 10 is marked as occupied
+                return !occupancy.isFree(10) && occupancy.isFree(11);
             }), eq(airplaneId));
     }
 
@@ -132,13 +134,13 @@ class SeatAssignmentServiceTest {
         // Given
         Integer airplaneId = 100;
         Map<Integer, List<BoardingPass>> emptyGroups = new HashMap<>();
-        when(seatRepository.findByAirplaneId(airplaneId)).thenReturn(testSeats);
+        when(airplaneLayoutService.getLayout(airplaneId)).thenReturn(AirplaneLayout.compile(airplaneId, testSeats));
 
         // When
         seatAssignmentService.assignSeatsForAllGroups(emptyGroups, airplaneId);
 
         // Then
-        verify(seatRepository).findByAirplaneId(airplaneId);
+        verify(airplaneLayoutService).getLayout(airplaneId);
         verifyNoInteractions(groupSeatAssignmentService);
     }
 
@@ -146,15 +148,15 @@ class SeatAssignmentServiceTest {
     void assignSeatsForAllGroups_NoAvailableSeats() {
         // Given
         Integer airplaneId = 100;
-        when(seatRepository.findByAirplaneId(airplaneId)).thenReturn(Arrays.asList());
+        when(airplaneLayoutService.getLayout(airplaneId)).thenReturn(AirplaneLayout.compile(airplaneId, Arrays.asList()));
 
         // When
         seatAssignmentService.assignSeatsForAllGroups(testGroups, airplaneId);
 
         // Then
-        verify(seatRepository).findByAirplaneId(airplaneId);
+        verify(airplaneLayoutService).getLayout(airplaneId);
         verify(groupSeatAssignmentService, times(2)).assignSeatsForGroup(
-            any(), eq(Arrays.asList()), eq(airplaneId));
+            any(), argThat(occupancy -> occupancy.freeSeatCount(1) == 0), eq(airplaneId));
     }
 
     @Test
@@ -182,15 +184,88 @@ class SeatAssignmentServiceTest {
             createSeat(11, 1, "B")
         );
 
-        when(seatRepository.findByAirplaneId(airplaneId)).thenReturn(limitedSeats);
+        when(airplaneLayoutService.getLayout(airplaneId)).thenReturn(AirplaneLayout.compile(airplaneId, limitedSeats));
 
         // When
         seatAssignmentService.assignSeatsForAllGroups(fullyAssignedGroups, airplaneId);
 
         // Then
-        verify(seatRepository).findByAirplaneId(airplaneId);
+        verify(airplaneLayoutService).getLayout(airplaneId);
+        verify(groupSeatAssignmentService).assignSeatsForGroup(
+            any(), argThat(occupancy -> !occupancy.isFree(10) && !occupancy.isFree(11)), eq(airplaneId));
+    }
+
+    @Test
+    void replaceSeats_GroupsByPurchaseAndTreatsTakenSeatsAsOccupied() {
+        // Given
+        Integer airplaneId = 100;
+        BoardingPass bp1 = testGroups.get(1).get(0);
+        BoardingPass bp3 = testGroups.get(2).get(0);
+        when(airplaneLayoutService.getLayout(airplaneId)).thenReturn(AirplaneLayout.compile(airplaneId, testSeats));
+
+        // When
+        seatAssignmentService.replaceSeats(List.of(bp1, bp3), List.of(10, 11), airplaneId);
+
+        // Then
         verify(groupSeatAssignmentService).assignSeatsForGroup(
-            any(), eq(Arrays.asList()), eq(airplaneId));
+            eq(List.of(bp1)), argThat(occupancy -> !occupancy.isFree(10) && !occupancy.isFree(11) && occupancy.isFree(12)), eq(airplaneId));
+        verify(groupSeatAssignmentService).assignSeatsForGroup(eq(List.of(bp3)), any(), eq(airplaneId));
+    }
+
+    @Test
+    void assignSeatsForAllGroups_ParallelModeMatchesSequential() {
+        // Given
+        Integer airplaneId = 100;
+        List<Seat> typedSeats = new ArrayList<>();
+        for (int row = 1; row <= 10; row++) {
+            for (char col = 'A'; col <= 'F'; col++) {
+                Seat seat = createSeat(row * 10 + (col - 'A'), row, String.valueOf(col));
+                seat.setSeatTypeId(row <= 3 ? 1 : 2);
+                typedSeats.add(seat);
+            }
+        }
+        when(airplaneLayoutService.getLayout(airplaneId)).thenReturn(AirplaneLayout.compile(airplaneId, typedSeats));
+
+        Map<Integer, List<BoardingPass>> sequentialGroups = createMixedGroups();
+        Map<Integer, List<BoardingPass>> parallelGroups = createMixedGroups();
+
+        GroupSeatAssignmentService groupService = new GroupSeatAssignmentService(new ConsecutiveSeatAssignmentService());
+        ForkJoinPool pool = new ForkJoinPool(2);
+        SeatAssignmentService service = new SeatAssignmentService(airplaneLayoutService, groupService, pool);
+
+        // When
+        service.assignSeatsForAllGroups(sequentialGroups, airplaneId);
+        ReflectionTestUtils.setField(service, "parallelThreshold", 1);
+        service.assignSeatsForAllGroups(parallelGroups, airplaneId);
+        pool.shutdown();
+
+        // Then
+        for (Integer purchaseId : sequentialGroups.keySet()) {
+            List<Integer> sequentialSeats = sequentialGroups.get(purchaseId).stream().map(BoardingPass::getSeatId).toList();
+            List<Integer> parallelSeats = parallelGroups.get(purchaseId).stream().map(BoardingPass::getSeatId).toList();
+            assertEquals(sequentialSeats, parallelSeats);
+            assertTrue(sequentialSeats.stream().allMatch(Objects::nonNull));
+        }
+    }
+
+    private Map<Integer, List<BoardingPass>> createMixedGroups() {
+        Map<Integer, List<BoardingPass>> groups = new HashMap<>();
+        int boardingPassId = 1;
+        for (int purchaseId = 1; purchaseId <= 8; purchaseId++) {
+            List<BoardingPass> group = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                BoardingPass bp = new BoardingPass();
+                bp.setBoardingPassId(boardingPassId++);
+                bp.setPurchaseId(purchaseId);
+                bp.setSeatTypeId((purchaseId + i) % 2 + 1);
+                Passenger passenger = new Passenger();
+                passenger.setAge(i == 2 ? 10 : 30);
+                bp.setPassenger(passenger);
+                group.add(bp);
+            }
+            groups.put(purchaseId, group);
+        }
+        return groups;
     }
 
     private Seat createSeat(Integer seatId, Integer row, String column) {
@@ -198,6 +273,7 @@ class SeatAssignmentServiceTest {
         seat.setSeatId(seatId);
         seat.setSeatRow(row);
         seat.setSeatColumn(column);
+        seat.setSeatTypeId(1);
         seat.setAirplaneId(100);
         return seat;
     }
@@ -0,0 +1,68 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatClaimMapTest {
+
+    @Test
+    void tryClaim_SecondClaimOfSamePositionFails() {
+        SeatClaimMap claims = new SeatClaimMap(130);
+
+        assertTrue(claims.tryClaim(64));
+        assertFalse(claims.tryClaim(64));
+        assertTrue(claims.isClaimed(64));
+        assertFalse(claims.isClaimed(63));
+        assertFalse(claims.isClaimed(65));
+    }
+
+    @Test
+    void release_MakesPositionClaimableAgain() {
+        SeatClaimMap claims = new SeatClaimMap(130);
+        claims.tryClaim(129);
+
+        claims.release(129);
+        claims.release(129);
+
+        assertFalse(claims.isClaimed(129));
+        assertTrue(claims.tryClaim(129));
+    }
+
+    @Test
+    void tryClaim_ConcurrentClaimsHaveSingleWinnerPerPosition() throws Exception {
+        int positions = 192;
+        SeatClaimMap claims = new SeatClaimMap(positions);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                results.add(executor.submit(() -> {
+                    int won = 0;
+                    for (int position = 0; position < positions; position++) {
+                        if (claims.tryClaim(position)) {
+                            won++;
+                        }
+                    }
+                    return won;
+                }));
+            }
+
+            int total = 0;
+            for (Future<Integer> result : results) {
+                total += result.get(5, TimeUnit.SECONDS);
+            }
+            assertEquals(positions, total);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
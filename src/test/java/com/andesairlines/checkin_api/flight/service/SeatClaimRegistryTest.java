@@ -0,0 +1,136 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.airplane.model.entity.Seat;
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class SeatClaimRegistryTest {
+
+    @Mock
+    private BoardingPassRepository boardingPassRepository;
+
+    private SeatClaimRegistry registry;
+    private AirplaneLayout layout;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SeatClaimRegistry(boardingPassRepository);
+        layout = AirplaneLayout.compile(1, List.of(seat(10, "A"), seat(11, "B"), seat(12, "C")));
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void forFlight_HydratesOnceFromAssignedSeats() {
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(1)).thenReturn(List.of(11, 99));
+
+        SeatClaimMap claims = registry.forFlight(1, layout);
+
+        assertSame(claims, registry.forFlight(1, layout));
+        assertFalse(claims.isClaimed(0));
+        assertTrue(claims.isClaimed(1));
+        verify(boardingPassRepository, times(1)).findAssignedSeatIdsByFlightId(1);
+    }
+
+    @Test
+    void settleOnCompletion_RollbackReleasesClaimedSeat() {
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(1)).thenReturn(List.of(10));
+        SeatClaimMap claims = registry.forFlight(1, layout);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(claims.tryClaim(2));
+        registry.settleOnCompletion(claims, 2, 0);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        assertFalse(claims.isClaimed(2));
+        assertTrue(claims.isClaimed(0));
+    }
+
+    @Test
+    void settleOnCompletion_CommitReleasesPreviousSeat() {
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(1)).thenReturn(List.of(10));
+        SeatClaimMap claims = registry.forFlight(1, layout);
+        TransactionSynchronizationManager.initSynchronization();
+
+        assertTrue(claims.tryClaim(2));
+        registry.settleOnCompletion(claims, 2, 0);
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+
+        assertTrue(claims.isClaimed(2));
+        assertFalse(claims.isClaimed(0));
+    }
+
+    @Test
+    void invalidate_RehydratesAfterCommit() {
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(1)).thenReturn(List.of(), List.of(12));
+        registry.forFlight(1, layout);
+        TransactionSynchronizationManager.initSynchronization();
+
+        registry.invalidate(1);
+        assertFalse(registry.forFlight(1, layout).isClaimed(2));
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(sync -> sync.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        assertTrue(registry.forFlight(1, layout).isClaimed(2));
+    }
+
+    @Test
+    void claim_SeatFreedElsewhereIsRecheckedAgainstDatabase() {
+        // Given: el mapa local vio el asiento 11 ocupado; otra instancia lo liberó después
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(1)).thenReturn(List.of(11), List.of(12));
+        SeatClaimMap stale = registry.forFlight(1, layout);
+
+        // When
+        SeatClaimMap claims = registry.claim(1, layout, 1);
+
+        // Then
+        assertNotNull(claims);
+        assertNotSame(stale, claims);
+        assertTrue(claims.isClaimed(1));
+        assertTrue(claims.isClaimed(2));
+        assertSame(claims, registry.forFlight(1, layout));
+    }
+
+    @Test
+    void claim_SeatStillTakenInDatabaseIsRejected() {
+        // Given
+        when(boardingPassRepository.findAssignedSeatIdsByFlightId(1)).thenReturn(List.of(11));
+        SeatClaimMap claims = registry.forFlight(1, layout);
+
+        // When / Then
+        assertNull(registry.claim(1, layout, 1));
+        assertSame(claims, registry.forFlight(1, layout));
+        verify(boardingPassRepository, times(2)).findAssignedSeatIdsByFlightId(1);
+    }
+
+    private static Seat seat(int seatId, String column) {
+        Seat seat = new Seat();
+        seat.setSeatId(seatId);
+        seat.setSeatRow(1);
+        seat.setSeatColumn(column);
+        seat.setSeatTypeId(1);
+        seat.setAirplaneId(1);
+        return seat;
+    }
+}
@@ -0,0 +1,143 @@
+package com.andesairlines.checkin_api.flight.service;
+
+import com.andesairlines.checkin_api.airplane.model.entity.Seat;
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatOccupancyTest {
+
+    private AirplaneLayout layout;
+
+    @BeforeEach
+    void setUp() {
+        // Rows 1-3, columns A-F; row 1 is seat type 2, the rest seat type 1
+        List<Seat> seats = new ArrayList<>();
+        int seatId = 1;
+        for (int row = 1; row <= 3; row++) {
+            for (char col = 'A'; col <= 'F'; col++) {
+                seats.add(createSeat(seatId++, row, String.valueOf(col), row == 1 ? 2 : 1));
+            }
+        }
+        layout = AirplaneLayout.compile(1, seats);
+    }
+
+    private List<Integer> seatIds(int[] positions) {
+        return Arrays.stream(positions).map(layout::seatId).boxed().toList();
+    }
+
+    private Seat createSeat(Integer seatId, Integer row, String column, Integer seatTypeId) {
+        Seat seat = new Seat();
+        seat.setSeatId(seatId);
+        seat.setSeatRow(row);
+        seat.setSeatColumn(column);
+        seat.setSeatTypeId(seatTypeId);
+        return seat;
+    }
+
+    @Test
+    void of_TakenSeatsAreNotFree() {
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of(7, 8));
+
+        assertFalse(occupancy.isFree(7));
+        assertFalse(occupancy.isFree(8));
+        assertTrue(occupancy.isFree(9));
+        assertEquals(10, occupancy.freeSeatCount(1));
+        assertEquals(6, occupancy.freeSeatCount(2));
+    }
+
+    @Test
+    void isFree_UnknownSeat() {
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of());
+
+        assertFalse(occupancy.isFree(999));
+    }
+
+    @Test
+    void findConsecutiveSeats_FirstRunInFirstRow() {
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of());
+
+        int[] result = occupancy.findConsecutiveSeats(1, 3);
+
+        assertEquals(List.of(7, 8, 9), seatIds(result));
+    }
+
+    @Test
+    void findConsecutiveSeats_SkipsBrokenRuns() {
+        // Row 2: A, B free, C taken, D, E, F free
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of(9));
+
+        int[] result = occupancy.findConsecutiveSeats(1, 3);
+
+        assertEquals(List.of(10, 11, 12), seatIds(result));
+    }
+
+    @Test
+    void findConsecutiveSeats_RunDoesNotSpanRows() {
+        // Row 2: only E, F free; row 3: only A free
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of(7, 8, 9, 10, 14, 15, 16, 17, 18));
+
+        assertEquals(0, occupancy.findConsecutiveSeats(1, 3).length);
+        assertEquals(List.of(11, 12), seatIds(occupancy.findConsecutiveSeats(1, 2)));
+    }
+
+    @Test
+    void findConsecutiveSeats_UnknownSeatType() {
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of());
+
+        assertEquals(0, occupancy.findConsecutiveSeats(3, 1).length);
+    }
+
+    @Test
+    void findFirstFreeSeats_RowMajorOrder() {
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of(7, 9));
+
+        int[] result = occupancy.findFirstFreeSeats(1, 3);
+
+        assertEquals(List.of(8, 10, 11), seatIds(result));
+    }
+
+    @Test
+    void findFirstFreeSeats_FewerSeatsThanRequested() {
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of());
+
+        assertEquals(6, occupancy.findFirstFreeSeats(2, 10).length);
+    }
+
+    @Test
+    void occupy_RemovesSeatFromSearches() {
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of());
+
+        occupancy.occupy(layout.positionOf(7)); // Seat 2A
+
+        assertFalse(occupancy.isFree(7));
+        assertEquals(11, occupancy.freeSeatCount(1));
+        assertEquals(List.of(8), seatIds(occupancy.findFirstFreeSeats(1, 1)));
+    }
+
+    @Test
+    void occupy_ConsecutiveSearchMovesToNextRow() {
+        SeatOccupancy occupancy = SeatOccupancy.of(layout, Set.of());
+
+        occupancy.occupy(layout.positionOf(9)); // Seat 2C splits row 2 into two runs of 2 and 3
+
+        assertEquals(List.of(10, 11, 12), seatIds(occupancy.findConsecutiveSeats(1, 3)));
+        assertEquals(List.of(13, 14, 15, 16), seatIds(occupancy.findConsecutiveSeats(1, 4)));
+    }
+
+    @Test
+    void of_EmptyLayout() {
+        SeatOccupancy occupancy = SeatOccupancy.of(AirplaneLayout.compile(1, new ArrayList<>()), Set.of());
+
+        assertEquals(0, occupancy.freeSeatCount(1));
+        assertEquals(0, occupancy.findConsecutiveSeats(1, 1).length);
+        assertEquals(0, occupancy.findFirstFreeSeats(1, 1).length);
+    }
+}
@@ -0,0 +1,236 @@
+package com.andesairlines.checkin_api.integration;
+
+import com.andesairlines.checkin_api.common.jdbc.FlightShardRoutingDataSource;
+import com.andesairlines.checkin_api.common.jdbc.ShardContext;
+import com.andesairlines.checkin_api.flight.repository.FlightShardRebalancer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Shards por vuelo sobre varias bases H2 en memoria.
+ */
+class FlightShardingTest {
+
+    private static final int FLIGHTS = 40;
+
+    private Map<String, DataSource> shards;
+
+    @BeforeEach
+    void setUp() {
+        shards = new LinkedHashMap<>();
+        for (String name : List.of("shard-a", "shard-b", "shard-c")) {
+            shards.put(name, h2(name));
+        }
+    }
+
+    @Test
+    void flightScopedQueries_GoToTheFlightShard() {
+        // Given
+        FlightShardRoutingDataSource routing = new FlightShardRoutingDataSource(shards, 64);
+        insertReferenceData(shards.values());
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(new LazyConnectionDataSourceProxy(routing));
+
+        // When: cada vuelo se escribe a través del ruteo
+        for (int flightId = 1; flightId <= FLIGHTS; flightId++) {
+            int id = flightId;
+            ShardContext.onFlight(id, () -> insertFlight(jdbcTemplate, id));
+        }
+
+        // Then
+        for (int flightId = 1; flightId <= FLIGHTS; flightId++) {
+            int id = flightId;
+            String owner = routing.shardFor(id);
+            shards.forEach((name, shard) ->
+                    assertEquals(name.equals(owner) ? 2 : 0, countBoardingPasses(new JdbcTemplate(shard), id)));
+            assertEquals(2, ShardContext.onFlight(id, () -> countBoardingPasses(jdbcTemplate, id)));
+        }
+        assertTrue(shards.values().stream().allMatch(shard -> countFlights(shard) > 0), "Every shard holds flights");
+    }
+
+    @Test
+    void referenceQueriesWithoutFlight_UseDefaultShard() {
+        // Given
+        FlightShardRoutingDataSource routing = new FlightShardRoutingDataSource(shards, 64);
+        new JdbcTemplate(shards.get("shard-a")).update("INSERT INTO airplane (airplane_id, name) VALUES (1, 'AirNova-660')");
+
+        // When
+        String name = new JdbcTemplate(routing).queryForObject("SELECT name FROM airplane WHERE airplane_id = 1", String.class);
+
+        // Then
+        assertEquals("AirNova-660", name);
+    }
+
+    @Test
+    void rebalance_MovesFlightsToAddedShardAndReplicatesReferenceData() {
+        // Given: todos los vuelos escritos con dos shards
+        Map<String, DataSource> twoShards = new LinkedHashMap<>(shards);
+        twoShards.remove("shard-c");
+        FlightShardRoutingDataSource before = new FlightShardRoutingDataSource(twoShards, 64);
+        insertReferenceData(List.of(shards.get("shard-a")));
+        insertReferenceData(List.of(shards.get("shard-b")));
+        for (int flightId = 1; flightId <= FLIGHTS; flightId++) {
+            insertFlight(new JdbcTemplate(twoShards.get(before.shardFor(flightId))), flightId);
+        }
+
+        // When: se agrega shard-c y se rebalancea
+        FlightShardRoutingDataSource after = new FlightShardRoutingDataSource(shards, 64);
+        FlightShardRebalancer rebalancer = new FlightShardRebalancer(after);
+        List<FlightShardRebalancer.ShardMove> moves = rebalancer.rebalance();
+
+        // Then
+        assertFalse(moves.isEmpty());
+        assertTrue(moves.stream().allMatch(move -> move.toShard().equals("shard-c")));
+        assertTrue(rebalancer.plan().isEmpty());
+        for (int flightId = 1; flightId <= FLIGHTS; flightId++) {
+            JdbcTemplate owner = new JdbcTemplate(shards.get(after.shardFor(flightId)));
+            assertEquals(2, countBoardingPasses(owner, flightId));
+            assertEquals(2, owner.queryForObject(
+                    "SELECT COUNT(*) FROM flight_manifest WHERE flight_id = ?", Integer.class, flightId));
+        }
+        assertEquals(FLIGHTS, shards.values().stream().mapToInt(FlightShardingTest::countFlights).sum());
+        JdbcTemplate added = new JdbcTemplate(shards.get("shard-c"));
+        assertEquals(4, added.queryForObject("SELECT COUNT(*) FROM seat", Integer.class));
+        assertEquals(0, added.queryForObject(
+                "SELECT COUNT(*) FROM boarding_pass bp LEFT JOIN passenger p ON p.passenger_id = bp.passenger_id "
+                        + "WHERE p.passenger_id IS NULL", Integer.class));
+    }
+
+    @Test
+    void rebalance_IsSafeToRunAgain() {
+        // Given
+        FlightShardRoutingDataSource routing = new FlightShardRoutingDataSource(shards, 64);
+        insertReferenceData(List.of(shards.get("shard-a")));
+        for (int flightId = 1; flightId <= FLIGHTS; flightId++) {
+            insertFlight(new JdbcTemplate(shards.get("shard-a")), flightId);
+        }
+        FlightShardRebalancer rebalancer = new FlightShardRebalancer(routing);
+
+        // When
+        rebalancer.rebalance();
+        List<FlightShardRebalancer.ShardMove> secondRun = rebalancer.rebalance();
+
+        // Then
+        assertTrue(secondRun.isEmpty());
+        assertEquals(FLIGHTS, shards.values().stream().mapToInt(FlightShardingTest::countFlights).sum());
+    }
+
+    @Test
+    void rebalance_AfterInterruptedMoveKeepsWritesOnTarget() {
+        // Given: vuelos en dos shards; se agrega shard-c
+        Map<String, DataSource> twoShards = new LinkedHashMap<>(shards);
+        twoShards.remove("shard-c");
+        FlightShardRoutingDataSource before = new FlightShardRoutingDataSource(twoShards, 64);
+        insertReferenceData(shards.values());
+        for (int flightId = 1; flightId <= FLIGHTS; flightId++) {
+            insertFlight(new JdbcTemplate(twoShards.get(before.shardFor(flightId))), flightId);
+        }
+        FlightShardRoutingDataSource after = new FlightShardRoutingDataSource(shards, 64);
+        FlightShardRebalancer rebalancer = new FlightShardRebalancer(after);
+        FlightShardRebalancer.ShardMove interrupted = rebalancer.plan().get(0);
+        int flightId = interrupted.flightId();
+
+        // Una ejecución anterior copió el vuelo pero no llegó a borrarlo del origen, y después
+        // se asignó otro asiento en el destino
+        JdbcTemplate target = new JdbcTemplate(shards.get(interrupted.toShard()));
+        insertFlight(target, flightId);
+        target.update("UPDATE boarding_pass SET seat_id = 3 WHERE boarding_pass_id = ?", flightId * 10);
+
+        // When
+        rebalancer.rebalance();
+
+        // Then
+        assertEquals(3, target.queryForObject(
+                "SELECT seat_id FROM boarding_pass WHERE boarding_pass_id = ?", Integer.class, flightId * 10));
+        assertEquals(0, countBoardingPasses(new JdbcTemplate(shards.get(interrupted.fromShard())), flightId));
+        assertEquals(FLIGHTS, shards.values().stream().mapToInt(FlightShardingTest::countFlights).sum());
+        assertTrue(after.getPinnedFlights().isEmpty());
+    }
+
+    @Test
+    void pinnedFlight_RoutesToPinnedShardUntilUnpinned() {
+        // Given
+        FlightShardRoutingDataSource routing = new FlightShardRoutingDataSource(shards, 64);
+        String owner = routing.shardFor(1);
+        String other = shards.keySet().stream().filter(name -> !name.equals(owner)).findFirst().orElseThrow();
+
+        // When & Then
+        routing.pin(1, other);
+        assertEquals(other, routing.shardFor(1));
+        routing.unpin(1);
+        assertEquals(owner, routing.shardFor(1));
+        assertThrows(IllegalArgumentException.class, () -> routing.pin(1, "shard-z"));
+    }
+
+    private static Integer insertFlight(JdbcTemplate jdbcTemplate, int flightId) {
+        int firstPassenger = flightId * 10;
+        jdbcTemplate.update("INSERT INTO flight (flight_id, takeoff_date_time, takeoff_airport, landing_date_time, "
+                + "landing_airport, airplane_id) VALUES (?, 1688207580, 'SCL', 1688221980, 'LIM', 1)", flightId);
+        jdbcTemplate.update("INSERT INTO purchase (purchase_id, purchase_date) VALUES (?, 1688000000)", flightId);
+        for (int i = 0; i < 2; i++) {
+            int passengerId = firstPassenger + i;
+            jdbcTemplate.update("INSERT INTO passenger (passenger_id, dni, name, age, country) VALUES (?, ?, 'Pasajero', 30, 'Chile')",
+                    passengerId, String.valueOf(passengerId));
+            jdbcTemplate.update("INSERT INTO boarding_pass (boarding_pass_id, purchase_id, flight_id, passenger_id, seat_type_id, seat_id) "
+                    + "VALUES (?, ?, ?, ?, 1, ?)", passengerId, flightId, flightId, passengerId, i + 1);
+            jdbcTemplate.update("INSERT INTO flight_manifest (boarding_pass_id, flight_id, purchase_id, passenger_id, dni, name, age, "
+                    + "country, seat_type_id, seat_id, seat_row, seat_column) VALUES (?, ?, ?, ?, ?, 'Pasajero', 30, 'Chile', 1, ?, 1, 'A')",
+                    passengerId, flightId, flightId, passengerId, String.valueOf(passengerId), i + 1);
+        }
+        return flightId;
+    }
+
+    private static int countBoardingPasses(JdbcTemplate jdbcTemplate, int flightId) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM boarding_pass WHERE flight_id = ?", Integer.class, flightId);
+    }
+
+    private static int countFlights(DataSource shard) {
+        return new JdbcTemplate(shard).queryForObject("SELECT COUNT(*) FROM flight", Integer.class);
+    }
+
+    private static void insertReferenceData(Iterable<DataSource> targets) {
+        for (DataSource target : targets) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(target);
+            jdbcTemplate.update("INSERT INTO airplane (airplane_id, name) VALUES (1, 'AirNova-660')");
+            jdbcTemplate.update("INSERT INTO seat_type (seat_type_id, name) VALUES (1, 'Economic')");
+            for (int seatId = 1; seatId <= 4; seatId++) {
+                jdbcTemplate.update("INSERT INTO seat (seat_id, airplane_id, seat_row, seat_column, seat_type_id) VALUES (?, 1, 1, ?, 1)",
+                        seatId, String.valueOf((char) ('A' + seatId - 1)));
+            }
+        }
+    }
+
+    private static DataSource h2(String name) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE airplane (airplane_id INT PRIMARY KEY, name VARCHAR(100) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE seat_type (seat_type_id INT PRIMARY KEY, name VARCHAR(50) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE seat (seat_id INT PRIMARY KEY, seat_column VARCHAR(1) NOT NULL, seat_row INT NOT NULL, "
+                + "seat_type_id INT NOT NULL REFERENCES seat_type, airplane_id INT NOT NULL REFERENCES airplane)");
+        jdbcTemplate.execute("CREATE TABLE flight (flight_id INT PRIMARY KEY, takeoff_date_time INT NOT NULL, "
+                + "takeoff_airport VARCHAR(100) NOT NULL, landing_date_time INT NOT NULL, landing_airport VARCHAR(100) NOT NULL, "
+                + "airplane_id INT NOT NULL REFERENCES airplane)");
+        jdbcTemplate.execute("CREATE TABLE purchase (purchase_id INT PRIMARY KEY, purchase_date INT)");
+        jdbcTemplate.execute("CREATE TABLE passenger (passenger_id INT PRIMARY KEY, dni VARCHAR(20) NOT NULL UNIQUE, "
+                + "name VARCHAR(100) NOT NULL, age INT NOT NULL, country VARCHAR(50) NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE boarding_pass (boarding_pass_id INT PRIMARY KEY, purchase_id INT NOT NULL REFERENCES purchase, "
+                + "flight_id INT NOT NULL REFERENCES flight, passenger_id INT NOT NULL REFERENCES passenger, seat_type_id INT NOT NULL, "
+                + "seat_id INT REFERENCES seat, CONSTRAINT uk_boarding_pass_flight_seat UNIQUE (flight_id, seat_id))");
+        jdbcTemplate.execute("CREATE TABLE flight_manifest (boarding_pass_id INT PRIMARY KEY, flight_id INT NOT NULL, "
+                + "purchase_id INT NOT NULL, passenger_id INT NOT NULL, dni VARCHAR(20) NOT NULL, name VARCHAR(100) NOT NULL, "
+                + "age INT NOT NULL, country VARCHAR(50) NOT NULL, seat_type_id INT NOT NULL, seat_id INT, seat_row INT, "
+                + "seat_column VARCHAR(1))");
+        return dataSource;
+    }
+}
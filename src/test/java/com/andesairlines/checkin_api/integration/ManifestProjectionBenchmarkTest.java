@@ -0,0 +1,148 @@
+package com.andesairlines.checkin_api.integration;
+
+import com.andesairlines.checkin_api.airplane.model.layout.AirplaneLayout;
+import com.andesairlines.checkin_api.airplane.repository.SeatRepository;
+import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
+import com.andesairlines.checkin_api.flight.model.entity.Flight;
+import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import com.andesairlines.checkin_api.flight.service.FlightResponseMapper;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara por manifiesto la lectura con entidades ({@code findBoardingPassesByFlightIdOrderedByPurchase} + mapper)
+ * contra la proyección a {@code PassengerSeatRow}: bytes asignados por el hilo y tiempo de consulta.
+ * <p>
+ * El contexto de persistencia se limpia después de cada lectura, como al terminar una request.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:manifest-benchmark;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+class ManifestProjectionBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ManifestProjectionBenchmarkTest.class);
+
+    private static final int FLIGHT_ID = 1;
+    private static final int PASSENGERS = 300;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 500;
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private BoardingPassRepository boardingPassRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private final FlightResponseMapper flightResponseMapper = new FlightResponseMapper();
+
+    @BeforeEach
+    void loadFlight() {
+        jdbcTemplate.update("INSERT INTO seat_type (seat_type_id, name) VALUES (1, 'Economic')");
+        jdbcTemplate.update("INSERT INTO airplane (airplane_id, name) VALUES (1, 'AirNova-660')");
+        List<Object[]> seats = new ArrayList<>();
+        for (int row = 1; row <= PASSENGERS / 6; row++) {
+            for (char column = 'A'; column <= 'F'; column++) {
+                seats.add(new Object[]{(row - 1) * 6 + (column - 'A') + 1, String.valueOf(column), row});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO seat (seat_id, seat_column, seat_row, seat_type_id, airplane_id) VALUES (?, ?, ?, 1, 1)", seats);
+        jdbcTemplate.update("INSERT INTO flight (flight_id, takeoff_date_time, takeoff_airport, landing_date_time, landing_airport, "
+                + "airplane_id) VALUES (?, 1688207580, 'SCL', 1688221980, 'LIM', 1)", FLIGHT_ID);
+
+        List<Object[]> purchases = new ArrayList<>();
+        List<Object[]> passengers = new ArrayList<>();
+        List<Object[]> boardingPasses = new ArrayList<>();
+        for (int i = 1; i <= PASSENGERS; i++) {
+            if (i % 3 == 1) {
+                purchases.add(new Object[]{i});
+            }
+            passengers.add(new Object[]{i, String.valueOf(10_000_000 + i), "Pasajero " + i, 20 + i % 50, "Chile"});
+            boardingPasses.add(new Object[]{i, i - (i - 1) % 3, FLIGHT_ID, i, i});
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO purchase (purchase_id, purchase_date) VALUES (?, 1688000000)", purchases);
+        jdbcTemplate.batchUpdate("INSERT INTO passenger (passenger_id, dni, name, age, country) VALUES (?, ?, ?, ?, ?)", passengers);
+        jdbcTemplate.batchUpdate("INSERT INTO boarding_pass (boarding_pass_id, purchase_id, flight_id, passenger_id, seat_type_id, seat_id) "
+                + "VALUES (?, ?, ?, ?, 1, ?)", boardingPasses);
+    }
+
+    @Test
+    void projection_AllocatesLessThanEntityPath() {
+        // Given
+        Flight flight = flightRepository.findByIdWithAirplane(FLIGHT_ID).orElseThrow();
+        AirplaneLayout layout = AirplaneLayout.compile(1, seatRepository.findByAirplaneId(1));
+        entityManager.clear();
+
+        Supplier<FlightResponse> entityPath = () -> flightResponseMapper.mapToFlightResponse(
+                flight, boardingPassRepository.findBoardingPassesByFlightIdOrderedByPurchase(FLIGHT_ID), layout);
+        Supplier<FlightResponse> projectionPath = () -> flightResponseMapper.mapRowsToFlightResponse(
+                flight, boardingPassRepository.findPassengerSeatsByFlightId(FLIGHT_ID));
+
+        // Ambos caminos producen los mismos pasajeros
+        assertEquals(new HashSet<>(entityPath.get().getPassengers()), new HashSet<>(projectionPath.get().getPassengers()));
+        entityManager.clear();
+
+        // When
+        Measurement entities = measure(entityPath);
+        Measurement projection = measure(projectionPath);
+
+        // Then
+        log.info("Manifest of {} passengers - entities: {} bytes, {} us | projection: {} bytes, {} us",
+                PASSENGERS, entities.bytesPerRead(), entities.microsPerRead(),
+                projection.bytesPerRead(), projection.microsPerRead());
+        assertTrue(projection.bytesPerRead() < entities.bytesPerRead(),
+                "Projection allocated " + projection.bytesPerRead() + " bytes vs " + entities.bytesPerRead());
+    }
+
+    private Measurement measure(Supplier<FlightResponse> read) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        for (int i = 0; i < WARMUP; i++) {
+            read.get();
+            entityManager.clear();
+        }
+
+        long bytesBefore = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            assertEquals(PASSENGERS, read.get().getPassengers().size());
+            entityManager.clear();
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - bytesBefore;
+        return new Measurement(allocated / ITERATIONS, elapsed / ITERATIONS / 1_000);
+    }
+
+    private record Measurement(long bytesPerRead, long microsPerRead) {
+    }
+}
@@ -0,0 +1,148 @@
+package com.andesairlines.checkin_api.integration;
+
+import com.andesairlines.checkin_api.flight.model.projection.PassengerField;
+import com.andesairlines.checkin_api.flight.repository.FlightPassengerPageRepository;
+import com.andesairlines.checkin_api.flight.repository.FlightPassengerPageRepository.PageRow;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Páginas por keyset y fieldsets sobre el esquema de las migraciones (H2 en modo MySQL): el
+ * vuelo 1 tiene manifiesto materializado, el vuelo 2 todavía no hizo check-in.
+ */
+class PassengerKeysetPaginationTest {
+
+    private static JdbcTemplate jdbcTemplate;
+    private static FlightPassengerPageRepository repository;
+
+    @BeforeAll
+    static void migrateAndLoad() {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:pages-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        Flyway.configure().dataSource(dataSource).load().migrate();
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        repository = new FlightPassengerPageRepository(jdbcTemplate);
+        loadData();
+    }
+
+    @Test
+    void findPage_WalksAllPassengersInBoardingPassOrder() {
+        for (int flightId = 1; flightId <= 2; flightId++) {
+            // Given
+            EnumSet<PassengerField> fields = EnumSet.of(PassengerField.BOARDING_PASS_ID);
+            List<Integer> seen = new ArrayList<>();
+            Integer after = null;
+
+            // When
+            List<PageRow> page;
+            do {
+                page = repository.findPage(flightId, flightId == 1, fields, after, 7);
+                page.forEach(row -> seen.add(row.boardingPassId()));
+                after = page.isEmpty() ? after : page.get(page.size() - 1).boardingPassId();
+            } while (page.size() == 7);
+
+            // Then
+            int firstId = flightId * 100;
+            List<Integer> expected = new ArrayList<>();
+            for (int i = 0; i < 30; i++) {
+                expected.add(firstId + i);
+            }
+            assertEquals(expected, seen, "flight " + flightId);
+        }
+    }
+
+    @Test
+    void findPage_ReturnsOnlyRequestedFields() {
+        // When
+        List<PageRow> manifestPage = repository.findPage(1, true, PassengerField.parse("seatId,name,seatRow"), 100, 2);
+        List<PageRow> normalizedPage = repository.findPage(2, false, PassengerField.parse("seatId,name,seatRow"), 200, 2);
+
+        // Then
+        assertEquals(List.of("name", "seatId", "seatRow"), List.copyOf(manifestPage.get(0).fields().keySet()));
+        assertEquals(101, manifestPage.get(0).boardingPassId());
+        assertEquals("Pasajero 101", manifestPage.get(0).fields().get("name"));
+        assertEquals("1", manifestPage.get(0).fields().get("seatRow"));
+        assertEquals(manifestPage.get(0).fields().keySet(), normalizedPage.get(0).fields().keySet());
+        assertNull(normalizedPage.get(0).fields().get("seatId"));
+        assertNull(normalizedPage.get(0).fields().get("seatRow"));
+    }
+
+    @Test
+    void findPage_MatchesBetweenManifestAndNormalizedTables() {
+        // When
+        List<PageRow> normalized = repository.findPage(1, false, EnumSet.allOf(PassengerField.class), null, 50);
+        List<PageRow> manifest = repository.findPage(1, true, EnumSet.allOf(PassengerField.class), null, 50);
+
+        // Then
+        assertEquals(30, manifest.size());
+        assertEquals(normalized, manifest);
+    }
+
+    @Test
+    void keysetQueries_UseFlightBoardingPassIndex() {
+        assertRangeScan("flight_manifest", """
+                SELECT boarding_pass_id, seat_id FROM flight_manifest
+                WHERE flight_id = 1 AND boarding_pass_id > 110 ORDER BY boarding_pass_id LIMIT 10""");
+        assertRangeScan("boarding_pass", """
+                SELECT bp.boarding_pass_id, bp.seat_id FROM boarding_pass bp
+                WHERE bp.flight_id = 2 AND bp.boarding_pass_id > 210 ORDER BY bp.boarding_pass_id LIMIT 10""");
+    }
+
+    private static void assertRangeScan(String table, String sql) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+        assertFalse(plan.contains(".tableScan"), () -> table + " keyset page does a full table scan:\n" + plan);
+    }
+
+    private static void rebuildManifest(int flightId) {
+        jdbcTemplate.update("DELETE FROM flight_manifest WHERE flight_id = ?", flightId);
+        jdbcTemplate.update("""
+                INSERT INTO flight_manifest (boarding_pass_id, flight_id, purchase_id, passenger_id, dni, name, age, country,
+                                             seat_type_id, seat_id, seat_row, seat_column)
+                SELECT bp.boarding_pass_id, bp.flight_id, bp.purchase_id, bp.passenger_id, p.dni, p.name, p.age, p.country,
+                       bp.seat_type_id, bp.seat_id, s.seat_row, s.seat_column
+                FROM boarding_pass bp
+                JOIN passenger p ON p.passenger_id = bp.passenger_id
+                LEFT JOIN seat s ON s.seat_id = bp.seat_id
+                WHERE bp.flight_id = ?""", flightId);
+    }
+
+    // Vuelo 1 con asientos asignados y manifiesto; vuelo 2 sin asientos ni manifiesto
+    private static void loadData() {
+        jdbcTemplate.update("INSERT INTO seat_type (seat_type_id, name) VALUES (1, 'Economic')");
+        jdbcTemplate.update("INSERT INTO airplane (airplane_id, name) VALUES (1, 'Airplane 1')");
+        List<Object[]> seats = new ArrayList<>();
+        for (int row = 1; row <= 5; row++) {
+            for (char column = 'A'; column <= 'F'; column++) {
+                seats.add(new Object[]{(row - 1) * 6 + (column - 'A') + 1, String.valueOf(column), row});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO seat (seat_id, seat_column, seat_row, seat_type_id, airplane_id) VALUES (?, ?, ?, 1, 1)", seats);
+
+        for (int flightId = 1; flightId <= 2; flightId++) {
+            jdbcTemplate.update("INSERT INTO flight (flight_id, takeoff_date_time, takeoff_airport, landing_date_time, "
+                    + "landing_airport, airplane_id) VALUES (?, 1688207580, 'SCL', 1688221980, 'LIM', 1)", flightId);
+            // Ids insertados en desorden: la página se ordena por boarding_pass_id, no por inserción
+            for (int i = 29; i >= 0; i--) {
+                int id = flightId * 100 + i;
+                jdbcTemplate.update("INSERT INTO purchase (purchase_id, purchase_date) VALUES (?, 1688000000)", id);
+                jdbcTemplate.update("INSERT INTO passenger (passenger_id, dni, name, age, country) VALUES (?, ?, ?, 30, 'Chile')",
+                        id, String.valueOf(id), "Pasajero " + id);
+                jdbcTemplate.update("INSERT INTO boarding_pass (boarding_pass_id, purchase_id, flight_id, passenger_id, seat_type_id, seat_id) "
+                        + "VALUES (?, ?, ?, ?, 1, ?)", id, id, flightId, id, flightId == 1 ? i + 1 : null);
+            }
+        }
+        rebuildManifest(1);
+        jdbcTemplate.execute("ANALYZE");
+    }
+}
@@ -0,0 +1,276 @@
+package com.andesairlines.checkin_api.integration;
+
+import com.andesairlines.checkin_api.airplane.repository.SeatRepository;
+import com.andesairlines.checkin_api.flight.model.entity.BoardingPass;
+import com.andesairlines.checkin_api.flight.model.projection.PassengerField;
+import com.andesairlines.checkin_api.flight.repository.BoardingPassRepository;
+import com.andesairlines.checkin_api.flight.repository.BoardingPassSeatWriter;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestCursor;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestRepository;
+import com.andesairlines.checkin_api.flight.repository.FlightManifestWriter;
+import com.andesairlines.checkin_api.flight.repository.FlightPassengerPageRepository;
+import com.andesairlines.checkin_api.flight.repository.FlightRepository;
+import com.andesairlines.checkin_api.passenger.repository.PassengerRepository;
+import com.andesairlines.checkin_api.seat.repository.SeatTypeRepository;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Planes de las consultas de los repositorios sobre el esquema de las migraciones, en H2 con
+ * modo MySQL. Falla si alguna consulta pasa a recorrer una tabla completa.
+ * <p>
+ * Cada caso ejecuta el método real del repositorio o writer y hace EXPLAIN de las sentencias
+ * que llegaron a la conexión, con los mismos parámetros: el SQL es el que genera Hibernate
+ * (dialecto H2) o el que arma el writer JDBC, no una copia escrita a mano.
+ */
+@DataJpaTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:query-plans;MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1",
+        "spring.datasource.driver-class-name=org.h2.Driver",
+        "spring.datasource.username=sa",
+        "spring.datasource.password=",
+        "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+        "spring.jpa.show-sql=false",
+        "logging.level.org.hibernate.SQL=WARN"
+})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class QueryPlanRegressionTest {
+
+    private static final List<String> executedSql = new CopyOnWriteArrayList<>();
+
+    @Autowired
+    private FlightRepository flightRepository;
+
+    @Autowired
+    private BoardingPassRepository boardingPassRepository;
+
+    @Autowired
+    private FlightManifestRepository flightManifestRepository;
+
+    @Autowired
+    private SeatRepository seatRepository;
+
+    @Autowired
+    private PassengerRepository passengerRepository;
+
+    @Autowired
+    private SeatTypeRepository seatTypeRepository;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void flightRepository_UsesIndexes() {
+        assertNoFullScan("findByIdWithAirplane", () -> flightRepository.findByIdWithAirplane(7), 7);
+        assertNoFullScan("findSeatVersionById", () -> flightRepository.findSeatVersionById(7), 7);
+        assertNoFullScan("incrementSeatVersion", () -> flightRepository.incrementSeatVersion(7), 7);
+    }
+
+    @Test
+    void boardingPassRepository_UsesIndexes() {
+        assertNoFullScan("findByFlightId", () -> boardingPassRepository.findByFlightId(7), 7);
+        assertNoFullScan("findBoardingPassesByFlightIdOrderedByPurchase",
+                () -> boardingPassRepository.findBoardingPassesByFlightIdOrderedByPurchase(7), 7);
+        assertNoFullScan("findByFlightIdAndPassengerId",
+                () -> boardingPassRepository.findByFlightIdAndPassengerId(7, 1050), 7, 1050);
+        assertNoFullScan("findAssignedSeatIdsByFlightId", () -> boardingPassRepository.findAssignedSeatIdsByFlightId(7), 7);
+        assertNoFullScan("lockAssignedSeatIdsByFlightId", () -> boardingPassRepository.lockAssignedSeatIdsByFlightId(7), 7);
+        assertNoFullScan("findByFlightIdAndPurchaseId", () -> boardingPassRepository.findByFlightIdAndPurchaseId(7, 525), 7, 525);
+        assertNoFullScan("findPassengerSeatsByFlightId", () -> boardingPassRepository.findPassengerSeatsByFlightId(7), 7);
+    }
+
+    @Test
+    void boardingPassSeatWriter_UsesIndexes() {
+        BoardingPassSeatWriter writer = new BoardingPassSeatWriter(jdbcTemplate);
+        BoardingPass boardingPass = new BoardingPass();
+        boardingPass.setBoardingPassId(1050);
+        boardingPass.setSeatId(12);
+
+        assertNoFullScan("updateSeats", () -> writer.updateSeats(List.of(boardingPass)), 12, 1050);
+        assertNoFullScan("updateSeat", () -> writer.updateSeat(boardingPass), 12, 1050);
+    }
+
+    @Test
+    void flightManifest_UsesIndexes() {
+        FlightManifestWriter writer = new FlightManifestWriter(jdbcTemplate);
+        FlightManifestCursor cursor = new FlightManifestCursor(dataSource, 200);
+
+        assertNoFullScan("FlightManifestRepository.findPassengerSeatsByFlightId",
+                () -> flightManifestRepository.findPassengerSeatsByFlightId(7), 7);
+        assertNoFullScan("FlightManifestWriter.rebuild", () -> writer.rebuild(7), 7);
+        assertNoFullScan("FlightManifestWriter.updateSeat", () -> writer.updateSeat(1050, 12, 2, "F"), 12, 2, "F", 1050);
+        assertNoFullScan("FlightManifestCursor.forEachRow (manifest)", () -> cursor.forEachRow(7, true, row -> { }), 7);
+        assertNoFullScan("FlightManifestCursor.forEachRow", () -> cursor.forEachRow(20, false, row -> { }), 20);
+    }
+
+    @Test
+    void flightPassengerPageRepository_UsesIndexes() {
+        FlightPassengerPageRepository repository = new FlightPassengerPageRepository(jdbcTemplate);
+        EnumSet<PassengerField> allFields = EnumSet.allOf(PassengerField.class);
+
+        // Índices de V4: (flight_id, boarding_pass_id) en flight_manifest y en boarding_pass
+        assertNoFullScan("FlightPassengerPageRepository.findPage (manifest)",
+                () -> repository.findPage(7, true, allFields, 1100, 50), 7, 1100, 50);
+        assertNoFullScan("FlightPassengerPageRepository.findPage",
+                () -> repository.findPage(20, false, allFields, 3010, 50), 20, 3010, 50);
+        assertNoFullScan("FlightPassengerPageRepository.findPage (first page)",
+                () -> repository.findPage(20, false, EnumSet.of(PassengerField.SEAT_ID), null, 50), 20, 0, 50);
+    }
+
+    @Test
+    void seatRepository_UsesIndexes() {
+        assertNoFullScan("findByAirplaneId", () -> seatRepository.findByAirplaneId(1), 1);
+        assertNoFullScan("findByAirplaneIdAndSeatTypeId", () -> seatRepository.findByAirplaneIdAndSeatTypeId(1, 2), 1, 2);
+        assertNoFullScan("findBySeatRowAndSeatColumnAndAirplaneId",
+                () -> seatRepository.findBySeatRowAndSeatColumnAndAirplaneId(3, "B", 1), 3, "B", 1);
+        assertNoFullScan("findAvailableSeatsByAirplaneAndType",
+                () -> seatRepository.findAvailableSeatsByAirplaneAndType(1, 2, 7), 1, 2, 7);
+    }
+
+    @Test
+    void referenceRepositories_UseIndexes() {
+        assertNoFullScan("PassengerRepository.findByDni", () -> passengerRepository.findByDni("1050"), "1050");
+        assertNoFullScan("PassengerRepository.findByIdWithBoardingPasses",
+                () -> passengerRepository.findByIdWithBoardingPasses(1050), 1050);
+        assertNoFullScan("SeatTypeRepository.findByName", () -> seatTypeRepository.findByName("Business"), "Business");
+    }
+
+    /**
+     * Ejecuta {@code call} y revisa el plan de cada sentencia que preparó; todas llevan {@code params}.
+     */
+    private void assertNoFullScan(String query, Runnable call, Object... params) {
+        executedSql.clear();
+        call.run();
+        List<String> statements = List.copyOf(executedSql);
+        assertFalse(statements.isEmpty(), () -> query + " did not reach the database");
+        for (String sql : statements) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class, params);
+            assertFalse(plan.contains(".tableScan"), () -> query + " does a full table scan:\n" + plan);
+        }
+    }
+
+    // Volumen suficiente para que el optimizador prefiera los índices por costo y no por defecto
+    @BeforeAll
+    void loadData() {
+        jdbcTemplate.batchUpdate("INSERT INTO seat_type (seat_type_id, name) VALUES (?, ?)",
+                List.of(new Object[]{1, "Economic"}, new Object[]{2, "Premium Economic"}, new Object[]{3, "Business"}));
+
+        List<Object[]> seats = new ArrayList<>();
+        for (int airplaneId = 1; airplaneId <= 2; airplaneId++) {
+            jdbcTemplate.update("INSERT INTO airplane (airplane_id, name) VALUES (?, ?)", airplaneId, "Airplane " + airplaneId);
+            for (int row = 1; row <= 30; row++) {
+                for (char column = 'A'; column <= 'F'; column++) {
+                    int seatTypeId = row <= 4 ? 3 : row <= 10 ? 2 : 1;
+                    seats.add(new Object[]{String.valueOf(column), row, seatTypeId, airplaneId});
+                }
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO seat (seat_column, seat_row, seat_type_id, airplane_id) VALUES (?, ?, ?, ?)", seats);
+
+        List<Object[]> flights = new ArrayList<>();
+        List<Object[]> purchases = new ArrayList<>();
+        List<Object[]> passengers = new ArrayList<>();
+        List<Object[]> boardingPasses = new ArrayList<>();
+        for (int flightId = 1; flightId <= 20; flightId++) {
+            flights.add(new Object[]{flightId, 1688207580, "SCL", 1688221980, "LIM", flightId % 2 + 1});
+            for (int i = 0; i < 150; i++) {
+                int passengerId = flightId * 150 + i;
+                int purchaseId = passengerId / 2;
+                if (i % 2 == 0) {
+                    purchases.add(new Object[]{purchaseId, 1688000000});
+                }
+                passengers.add(new Object[]{passengerId, String.valueOf(passengerId), "Pasajero " + passengerId, 30, "Chile"});
+                boardingPasses.add(new Object[]{passengerId, purchaseId, flightId, passengerId, 1});
+            }
+        }
+        jdbcTemplate.batchUpdate("INSERT INTO flight (flight_id, takeoff_date_time, takeoff_airport, landing_date_time, "
+                + "landing_airport, airplane_id) VALUES (?, ?, ?, ?, ?, ?)", flights);
+        jdbcTemplate.batchUpdate("INSERT INTO purchase (purchase_id, purchase_date) VALUES (?, ?)", purchases);
+        jdbcTemplate.batchUpdate("INSERT INTO passenger (passenger_id, dni, name, age, country) VALUES (?, ?, ?, ?, ?)", passengers);
+        jdbcTemplate.batchUpdate("INSERT INTO boarding_pass (boarding_pass_id, purchase_id, flight_id, passenger_id, seat_type_id) "
+                + "VALUES (?, ?, ?, ?, ?)", boardingPasses);
+        jdbcTemplate.update("""
+                INSERT INTO flight_manifest (boarding_pass_id, flight_id, purchase_id, passenger_id, dni, name, age, country, seat_type_id)
+                SELECT bp.boarding_pass_id, bp.flight_id, bp.purchase_id, bp.passenger_id, p.dni, p.name, p.age, p.country, bp.seat_type_id
+                FROM boarding_pass bp JOIN passenger p ON p.passenger_id = bp.passenger_id
+                WHERE bp.flight_id < 20""");
+        jdbcTemplate.execute("ANALYZE");
+    }
+
+    @TestConfiguration
+    static class ExecutedSqlConfig {
+
+        // Registra el SQL de cada sentencia preparada, venga de Hibernate o de JdbcTemplate
+        @Bean
+        static BeanPostProcessor recordingDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new RecordingDataSource(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    static class RecordingDataSource extends DelegatingDataSource implements AutoCloseable {
+
+        RecordingDataSource(DataSource target) {
+            super(target);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return recording(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return recording(super.getConnection(username, password));
+        }
+
+        @Override
+        public void close() throws Exception {
+            if (obtainTargetDataSource() instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+
+        private static Connection recording(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("prepare") && args != null && args[0] instanceof String sql) {
+                            executedSql.add(sql);
+                        }
+                        try {
+                            return method.invoke(connection, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getTargetException();
+                        }
+                    });
+        }
+    }
+}
@@ -0,0 +1,124 @@
+package com.andesairlines.checkin_api.integration;
+
+import com.andesairlines.checkin_api.common.jdbc.ReadRoutingContext;
+import com.andesairlines.checkin_api.common.jdbc.ReadWriteRoutingDataSource;
+import com.andesairlines.checkin_api.common.jdbc.ReplicaRoutingDataSource;
+import com.andesairlines.checkin_api.flight.service.ReplicaLagGuard;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Ruteo de lecturas contra dos bases H2 en memoria: una hace de primario y la otra de réplica.
+ * Cada una tiene una tabla con su nombre para saber desde cuál se leyó.
+ */
+class ReadReplicaRoutingTest {
+
+    private DataSource primary;
+    private DataSource replica;
+    private ReadWriteRoutingDataSource routing;
+    private TransactionTemplate writeTransaction;
+    private TransactionTemplate readOnlyTransaction;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        primary = h2("primary");
+        replica = h2("replica");
+        routing = new ReadWriteRoutingDataSource(primary, new ReplicaRoutingDataSource(List.of(replica), primary));
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        writeTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction = new TransactionTemplate(transactionManager);
+        readOnlyTransaction.setReadOnly(true);
+        jdbcTemplate = new JdbcTemplate(routing);
+    }
+
+    @Test
+    void readOnlyTransaction_ReadsFromReplica() {
+        assertEquals("replica", readOnlyTransaction.execute(status -> currentNode()));
+        assertEquals(1, routing.getReplicas().getReplicaReads());
+    }
+
+    @Test
+    void writeTransaction_GoesToPrimary() {
+        // When
+        writeTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO boarding_pass (boarding_pass_id, seat_id) VALUES (1, 10)"));
+
+        // Then
+        assertEquals(1, new JdbcTemplate(primary).queryForObject("SELECT COUNT(*) FROM boarding_pass", Integer.class));
+        assertEquals(0, new JdbcTemplate(replica).queryForObject("SELECT COUNT(*) FROM boarding_pass", Integer.class));
+        assertEquals(0, routing.getReplicas().getReplicaReads());
+    }
+
+    @Test
+    void onPrimary_PinsReadOnlyTransactionToPrimary() {
+        String node = ReadRoutingContext.onPrimary(() -> readOnlyTransaction.execute(status -> currentNode()));
+
+        assertEquals("primary", node);
+        assertEquals(1, routing.getReplicas().getPrimaryReads());
+    }
+
+    @Test
+    void unavailableReplica_FallsBackToPrimary() {
+        // Given
+        DataSource unreachable = new DriverManagerDataSource("jdbc:h2:tcp://localhost:1/unreachable", "sa", "");
+        ReadWriteRoutingDataSource routingWithDeadReplica =
+                new ReadWriteRoutingDataSource(primary, new ReplicaRoutingDataSource(List.of(unreachable), primary));
+        TransactionTemplate readOnly = new TransactionTemplate(new DataSourceTransactionManager(routingWithDeadReplica));
+        readOnly.setReadOnly(true);
+
+        // When
+        String node = readOnly.execute(status -> new JdbcTemplate(routingWithDeadReplica)
+                .queryForObject("SELECT name FROM node", String.class));
+
+        // Then
+        assertEquals("primary", node);
+        assertEquals(1, routingWithDeadReplica.getReplicas().getFallbackReads());
+    }
+
+    @Test
+    void recentSeatChange_ReadsItsOwnWriteFromPrimary() {
+        // Given: la réplica todavía no recibió el asiento recién escrito
+        ReplicaLagGuard replicaLagGuard = new ReplicaLagGuard(Duration.ofSeconds(5));
+        writeTransaction.executeWithoutResult(status ->
+                jdbcTemplate.update("INSERT INTO boarding_pass (boarding_pass_id, seat_id) VALUES (1, 10)"));
+        replicaLagGuard.recordChange(1);
+
+        // When
+        Integer seats = replicaLagGuard.read(1, () -> readOnlyTransaction.execute(status -> seatCount()));
+
+        // Then
+        assertEquals(1, seats);
+        assertEquals(0, readOnlyTransaction.execute(status -> seatCount()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private Integer seatCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM boarding_pass", Integer.class);
+    }
+
+    private static DataSource h2(String node) {
+        DataSource dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:" + node + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE node (name VARCHAR(20))");
+        jdbcTemplate.update("INSERT INTO node (name) VALUES (?)", node);
+        jdbcTemplate.execute("CREATE TABLE boarding_pass (boarding_pass_id INT PRIMARY KEY, seat_id INT)");
+        return dataSource;
+    }
+}
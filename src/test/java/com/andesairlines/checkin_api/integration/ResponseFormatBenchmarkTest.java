@@ -0,0 +1,98 @@
+package com.andesairlines.checkin_api.integration;
+
+import com.andesairlines.checkin_api.common.response.ApiResponse;
+import com.andesairlines.checkin_api.common.response.ResponseEncoder;
+import com.andesairlines.checkin_api.common.response.ResponseFormat;
+import com.andesairlines.checkin_api.flight.model.dto.FlightResponse;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Compara por formato el tiempo de codificación y el tamaño del manifiesto
+ * ({@code ApiResponse<FlightResponse>}) en vuelos de 50, 300 y 800 pasajeros.
+ * <p>
+ * Los pasajeros imitan los datos reales: nombres y DNI distintos, países repetidos y la
+ * mitad de los asientos asignados.
+ */
+class ResponseFormatBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponseFormatBenchmarkTest.class);
+
+    private static final int WARMUP = 300;
+    private static final int ITERATIONS = 500;
+    private static final String[] COUNTRIES = {"Chile", "Perú", "Argentina", "Colombia", "México"};
+
+    private final ResponseEncoder responseEncoder = new ResponseEncoder(new ObjectMapper());
+    private final JavaType manifestType = responseEncoder.apiResponseOf(FlightResponse.class);
+
+    @ParameterizedTest
+    @ValueSource(ints = {50, 300, 800})
+    void binaryFormats_SmallerThanJson(int passengers) {
+        // Given
+        ApiResponse<FlightResponse> manifest = ApiResponse.success(flightWith(passengers));
+
+        // When
+        Map<ResponseFormat, Measurement> results = new EnumMap<>(ResponseFormat.class);
+        for (ResponseFormat format : ResponseFormat.values()) {
+            results.put(format, measure(manifest, format));
+        }
+
+        // Then
+        Measurement json = results.get(ResponseFormat.JSON);
+        StringBuilder report = new StringBuilder("Manifest of " + passengers + " passengers:");
+        results.forEach((format, result) -> report.append(String.format(" | %s %d bytes (%.0f%%), %d us",
+                format, result.bytes(), 100.0 * result.bytes() / json.bytes(), result.medianMicros())));
+        log.info(report.toString());
+
+        for (ResponseFormat format : List.of(ResponseFormat.CBOR, ResponseFormat.SMILE, ResponseFormat.AVRO)) {
+            assertTrue(results.get(format).bytes() < json.bytes(),
+                    format + " produced " + results.get(format).bytes() + " bytes vs " + json.bytes() + " for JSON");
+        }
+        // Sin claves repetidas, Avro es el más compacto
+        assertTrue(results.get(ResponseFormat.AVRO).bytes() < results.get(ResponseFormat.CBOR).bytes());
+    }
+
+    private Measurement measure(ApiResponse<FlightResponse> manifest, ResponseFormat format) {
+        int bytes = 0;
+        for (int i = 0; i < WARMUP; i++) {
+            bytes = responseEncoder.encode(manifest, manifestType, format).length;
+        }
+
+        long[] micros = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            responseEncoder.encode(manifest, manifestType, format);
+            micros[i] = (System.nanoTime() - start) / 1_000;
+        }
+        Arrays.sort(micros);
+        return new Measurement(bytes, micros[ITERATIONS / 2]);
+    }
+
+    private static FlightResponse flightWith(int passengers) {
+        List<FlightResponse.PassengerSeatInfo> seats = new ArrayList<>(passengers);
+        for (int i = 1; i <= passengers; i++) {
+            boolean seated = i % 2 == 0;
+            seats.add(new FlightResponse.PassengerSeatInfo(i, String.valueOf(10_000_000 + i), "Pasajero " + i,
+                    18 + i % 60, COUNTRIES[i % COUNTRIES.length], 1000 + i, 500 + i / 3, 1 + i % 3,
+                    seated ? i : null, seated ? String.valueOf(1 + i / 6) : null,
+                    seated ? String.valueOf((char) ('A' + i % 6)) : null));
+        }
+        return new FlightResponse(1, 1688207580, "Aeropuerto Internacional Arturo Merino Benitez, Chile",
+                1688221980, "Aeropuerto Internacional Jorge Cháve, Perú", 1, seats);
+    }
+
+    private record Measurement(int bytes, long medianMicros) {
+    }
+}
@@ -0,0 +1,114 @@
+package com.andesairlines.checkin_api.integration;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.FlywayException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * La restricción {@code UNIQUE (flight_id, seat_id)} de V2_1 sobre una base nueva, sobre una
+ * base que ya tenía un índice único equivalente creado a mano y sobre una con asientos repetidos
+ * (H2 en modo MySQL).
+ */
+class SeatUniquenessMigrationTest {
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource(
+                "jdbc:h2:mem:seat-uniqueness-" + UUID.randomUUID() + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1", "sa", "");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+    }
+
+    @Test
+    void migrate_AddsSeatUniquenessOnNewDatabase() {
+        // When
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        // Then
+        assertEquals(1, uniqueConstraintsOnBoardingPass());
+        loadFlight();
+        jdbcTemplate.update("INSERT INTO boarding_pass (boarding_pass_id, purchase_id, flight_id, passenger_id, seat_type_id, seat_id) "
+                + "VALUES (1, 1, 1, 1, 1, 1)");
+        assertThrows(DuplicateKeyException.class, () -> jdbcTemplate.update(
+                "INSERT INTO boarding_pass (boarding_pass_id, purchase_id, flight_id, passenger_id, seat_type_id, seat_id) "
+                        + "VALUES (2, 1, 1, 2, 1, 1)"));
+    }
+
+    @Test
+    void migrate_SkipsSeatUniquenessAlreadyCreatedByHand() {
+        // Given: el esquema base con un índice único equivalente agregado a mano
+        Flyway.configure().dataSource(dataSource).target("1").load().migrate();
+        jdbcTemplate.execute("ALTER TABLE boarding_pass ADD CONSTRAINT legacy_flight_seat UNIQUE (flight_id, seat_id)");
+
+        // When
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        // Then
+        assertEquals(1, uniqueConstraintsOnBoardingPass());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.table_constraints "
+                + "WHERE constraint_name = 'uk_boarding_pass_flight_seat'", Integer.class));
+    }
+
+    @Test
+    void migrate_ReportsDuplicateSeatsInsteadOfAltering() {
+        // Given: dos boarding passes con el mismo asiento, cargados antes de la restricción
+        Flyway.configure().dataSource(dataSource).target("2").load().migrate();
+        loadFlight();
+        jdbcTemplate.update("INSERT INTO boarding_pass (boarding_pass_id, purchase_id, flight_id, passenger_id, seat_type_id, seat_id) "
+                + "VALUES (1, 1, 1, 1, 1, 1), (2, 1, 1, 2, 1, 1), (3, 1, 1, 3, 1, NULL), (4, 1, 1, 4, 1, NULL)");
+
+        // When
+        FlywayException exception = assertThrows(FlywayException.class,
+                () -> Flyway.configure().dataSource(dataSource).load().migrate());
+
+        // Then: se informan solo los asientos repetidos; varios sin asiento no son conflicto
+        String report = messages(exception);
+        assertTrue(report.contains("flight 1 seat 1 -> boarding passes [1, 2]"), report);
+        assertFalse(report.contains("[3, 4]"), report);
+        assertEquals(0, uniqueConstraintsOnBoardingPass());
+
+        // When: operaciones libera uno de los asientos
+        jdbcTemplate.update("UPDATE boarding_pass SET seat_id = NULL WHERE boarding_pass_id = 2");
+        Flyway.configure().dataSource(dataSource).load().repair();
+        Flyway.configure().dataSource(dataSource).load().migrate();
+
+        // Then
+        assertEquals(1, uniqueConstraintsOnBoardingPass());
+    }
+
+    // Flyway puede envolver la excepción de la migración; el reporte queda en alguna de las causas
+    private static String messages(Throwable exception) {
+        StringBuilder messages = new StringBuilder();
+        for (Throwable current = exception; current != null; current = current.getCause()) {
+            messages.append(current.getMessage()).append('\n');
+        }
+        return messages.toString();
+    }
+
+    private int uniqueConstraintsOnBoardingPass() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.table_constraints "
+                + "WHERE table_name = 'boarding_pass' AND constraint_type = 'UNIQUE'", Integer.class);
+    }
+
+    private void loadFlight() {
+        jdbcTemplate.update("INSERT INTO seat_type (seat_type_id, name) VALUES (1, 'Economic')");
+        jdbcTemplate.update("INSERT INTO airplane (airplane_id, name) VALUES (1, 'AirNova-660')");
+        jdbcTemplate.update("INSERT INTO seat (seat_id, seat_column, seat_row, seat_type_id, airplane_id) VALUES (1, 'A', 1, 1, 1)");
+        jdbcTemplate.update("INSERT INTO flight (flight_id, takeoff_date_time, takeoff_airport, landing_date_time, landing_airport, "
+                + "airplane_id) VALUES (1, 1688207580, 'SCL', 1688221980, 'LIM', 1)");
+        jdbcTemplate.update("INSERT INTO purchase (purchase_id, purchase_date) VALUES (1, 1688000000)");
+        jdbcTemplate.update("INSERT INTO passenger (passenger_id, dni, name, age, country) VALUES (1, '1', 'Ana', 30, 'Chile'), "
+                + "(2, '2', 'Luis', 31, 'Chile'), (3, '3', 'Eva', 32, 'Chile'), (4, '4', 'Tomás', 33, 'Chile')");
+    }
+}
@@ -0,0 +1,88 @@
+package com.andesairlines.checkin_api.integration;
+
+import com.andesairlines.checkin_api.common.jdbc.ConnectionPermitDataSource;
+import com.andesairlines.checkin_api.common.jdbc.FlightShardRoutingDataSource;
+import com.andesairlines.checkin_api.common.jdbc.ReadWriteRoutingDataSource;
+import com.andesairlines.checkin_api.config.ReadReplicaConfig;
+import com.andesairlines.checkin_api.config.ShardingConfig;
+import com.andesairlines.checkin_api.config.VirtualThreadConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Permisos de conexión del modo de hilos virtuales combinados con réplicas y shards: cada pool
+ * de Hikari queda detrás de su propio {@link ConnectionPermitDataSource}.
+ */
+class VirtualThreadDataSourceTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(DataSourceAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withPropertyValues("spring.threads.virtual.enabled=true");
+
+    @Test
+    void replicasAndVirtualThreads_EveryPoolGetsPermits() {
+        // Mismo orden que el escaneo de componentes: ReadReplicaConfig antes que VirtualThreadConfig
+        contextRunner.withUserConfiguration(ReadReplicaConfig.class, VirtualThreadConfig.class)
+                .withPropertyValues(
+                        "spring.datasource.url=" + h2Url("primary"),
+                        "checkin.replicas.enabled=true",
+                        "checkin.replicas.datasources[0].url=" + h2Url("replica-0"),
+                        "checkin.replicas.datasources[1].url=" + h2Url("replica-1"))
+                .run(context -> {
+                    ReadWriteRoutingDataSource routing =
+                            assertInstanceOf(ReadWriteRoutingDataSource.class, context.getBean(DataSource.class));
+
+                    assertInstanceOf(ConnectionPermitDataSource.class, routing.getTargetDataSource());
+                    assertEquals(2, routing.getReplicas().getReplicas().size());
+                    routing.getReplicas().getReplicas()
+                            .forEach(replica -> assertInstanceOf(ConnectionPermitDataSource.class, replica));
+                });
+    }
+
+    @Test
+    void shardsAndVirtualThreads_EveryShardGetsPermits() {
+        contextRunner.withUserConfiguration(ShardingConfig.class, VirtualThreadConfig.class)
+                .withPropertyValues(
+                        "checkin.shards.enabled=true",
+                        "checkin.shards.datasources.shard-a.url=" + h2Url("shard-a"),
+                        "checkin.shards.datasources.shard-b.url=" + h2Url("shard-b"))
+                .run(context -> {
+                    FlightShardRoutingDataSource shards = context.getBean(FlightShardRoutingDataSource.class);
+
+                    assertEquals(2, shards.getShards().size());
+                    shards.getShards().values()
+                            .forEach(shard -> assertInstanceOf(ConnectionPermitDataSource.class, shard));
+                });
+    }
+
+    @Test
+    void platformThreads_PoolsAreNotWrapped() {
+        contextRunner.withUserConfiguration(ReadReplicaConfig.class, VirtualThreadConfig.class)
+                .withPropertyValues(
+                        "spring.threads.virtual.enabled=false",
+                        "spring.datasource.url=" + h2Url("primary"),
+                        "checkin.replicas.enabled=true",
+                        "checkin.replicas.datasources[0].url=" + h2Url("replica-0"))
+                .run(context -> {
+                    ReadWriteRoutingDataSource routing =
+                            assertInstanceOf(ReadWriteRoutingDataSource.class, context.getBean(DataSource.class));
+
+                    assertFalse(routing.getTargetDataSource() instanceof ConnectionPermitDataSource);
+                    assertFalse(routing.getReplicas().getReplicas().get(0) instanceof ConnectionPermitDataSource);
+                });
+    }
+
+    private static String h2Url(String name) {
+        return "jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1";
+    }
+}